@@ -27,6 +27,14 @@ public final class AlertConfig {
 
     private int waitTimeout;
 
+    private int sendThreads = 16;
+
+    private int sendThreadsPerInstance = 4;
+
+    private int circuitBreakerFailureThreshold = 5;
+
+    private int circuitBreakerOpenTime = 60000;
+
     public int getPort() {
         return port;
     }
@@ -43,4 +51,36 @@ public final class AlertConfig {
         this.waitTimeout = waitTimeout;
     }
 
+    public int getSendThreads() {
+        return sendThreads;
+    }
+
+    public void setSendThreads(final int sendThreads) {
+        this.sendThreads = sendThreads;
+    }
+
+    public int getSendThreadsPerInstance() {
+        return sendThreadsPerInstance;
+    }
+
+    public void setSendThreadsPerInstance(final int sendThreadsPerInstance) {
+        this.sendThreadsPerInstance = sendThreadsPerInstance;
+    }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public void setCircuitBreakerFailureThreshold(final int circuitBreakerFailureThreshold) {
+        this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    }
+
+    public int getCircuitBreakerOpenTime() {
+        return circuitBreakerOpenTime;
+    }
+
+    public void setCircuitBreakerOpenTime(final int circuitBreakerOpenTime) {
+        this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+    }
+
 }
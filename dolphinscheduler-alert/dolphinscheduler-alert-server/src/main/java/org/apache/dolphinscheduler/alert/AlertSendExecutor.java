@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert;
+
+import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Send the alerts of the plugin instances on a bounded pool.
+ * <p>
+ * Each plugin instance can only take a few threads of the pool, the other sends of the instance wait in its own queue,
+ * and each instance has its own circuit breaker, so a slow or unreachable instance never delays the alerts
+ * of the other instances. A send is failed once it's not done in the timeout, without waiting for the plugin.
+ */
+public final class AlertSendExecutor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertSendExecutor.class);
+
+    private final ExecutorService executor;
+
+    private final ScheduledThreadPoolExecutor timeoutExecutor;
+
+    /**
+     * the max sends of an instance at the same time, 0 means no limit
+     */
+    private final int threadsPerInstance;
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private final Map<Integer, Lane> lanes = new ConcurrentHashMap<>();
+
+    public AlertSendExecutor(int threads, int threadsPerInstance, int failureThreshold, long openMillis) {
+        this.executor = ThreadUtils.newDaemonFixedThreadExecutor("Alert-Send-Thread-%d", threads);
+        this.timeoutExecutor = new ScheduledThreadPoolExecutor(1,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Alert-Send-Timeout-Thread").build());
+        this.timeoutExecutor.setRemoveOnCancelPolicy(true);
+        this.threadsPerInstance = threadsPerInstance;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * send an alert of the plugin instance
+     *
+     * @param instanceId plugin instance id
+     * @param timeoutMillis the max time of the send, 0 means no limit
+     * @param send the send of the alert
+     * @return the result of the send, a failed result if the send throws, times out or the circuit of the instance is open
+     */
+    public CompletableFuture<AlertResult> execute(int instanceId, long timeoutMillis, Supplier<AlertResult> send) {
+        Job job = new Job(timeoutMillis, send);
+        lanes.computeIfAbsent(instanceId, Lane::new).submit(job);
+        return job.result;
+    }
+
+    AlertCircuitBreaker.State getCircuitState(int instanceId) {
+        Lane lane = lanes.get(instanceId);
+        return lane == null ? AlertCircuitBreaker.State.CLOSED : lane.breaker.getState();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        timeoutExecutor.shutdownNow();
+    }
+
+    private static final class Job {
+
+        private final long timeoutMillis;
+
+        private final Supplier<AlertResult> send;
+
+        private final CompletableFuture<AlertResult> result = new CompletableFuture<>();
+
+        /**
+         * claimed by the first of the send and the timeout, before the result is completed
+         */
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        Job(long timeoutMillis, Supplier<AlertResult> send) {
+            this.timeoutMillis = timeoutMillis;
+            this.send = send;
+        }
+    }
+
+    /**
+     * the sends of a plugin instance
+     */
+    private final class Lane {
+
+        private final int instanceId;
+
+        private final AlertCircuitBreaker breaker;
+
+        private final Queue<Job> pending = new ArrayDeque<>();
+
+        private int running;
+
+        Lane(int instanceId) {
+            this.instanceId = instanceId;
+            this.breaker = new AlertCircuitBreaker(failureThreshold, openMillis);
+        }
+
+        void submit(Job job) {
+            synchronized (this) {
+                if (threadsPerInstance > 0 && running >= threadsPerInstance) {
+                    pending.add(job);
+                    return;
+                }
+                running++;
+            }
+            start(job);
+        }
+
+        /**
+         * start the job on the slot taken, the following pending jobs are failed fast while the circuit is open
+         */
+        private void start(Job job) {
+            while (job != null) {
+                if (!breaker.tryAcquire(System.currentTimeMillis())) {
+                    job.result.complete(new AlertResult("false",
+                        String.format("the circuit breaker of alert plugin instance %s is open", instanceId)));
+                    job = next();
+                    continue;
+                }
+                try {
+                    run(job);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    complete(job, new AlertResult("false", "alert sender is closed"));
+                    job = next();
+                }
+            }
+        }
+
+        private void run(Job job) {
+            Future<?> future = executor.submit(() -> {
+                try {
+                    complete(job, job.send.get());
+                } catch (Exception e) {
+                    logger.error("send alert of plugin instance {} error", instanceId, e);
+                    complete(job, new AlertResult("false", e.getMessage()));
+                } finally {
+                    if (!job.completed.get()) {
+                        complete(job, new AlertResult("false", "send alert error"));
+                    }
+                    // the slot is held until the plugin returns, even if the send is timed out
+                    start(next());
+                }
+            });
+            if (job.timeoutMillis > 0) {
+                ScheduledFuture<?> timeout = timeoutExecutor.schedule(() -> {
+                    if (complete(job, new AlertResult("false",
+                            String.format("send alert timed out after %s ms", job.timeoutMillis)))) {
+                        future.cancel(true);
+                    }
+                }, job.timeoutMillis, TimeUnit.MILLISECONDS);
+                job.result.whenComplete((result, e) -> timeout.cancel(false));
+            }
+        }
+
+        /**
+         * record the result on the circuit breaker before completing the job,
+         * so the callers of the result always see the circuit state of it
+         */
+        private boolean complete(Job job, AlertResult result) {
+            if (!job.completed.compareAndSet(false, true)) {
+                return false;
+            }
+            if (result != null && Boolean.parseBoolean(String.valueOf(result.getStatus()))) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure(System.currentTimeMillis());
+            }
+            job.result.complete(result);
+            return true;
+        }
+
+        /**
+         * take the next pending job on the slot, or release the slot
+         */
+        private synchronized Job next() {
+            Job job = pending.poll();
+            if (job == null) {
+                running--;
+            }
+            return job;
+        }
+    }
+}
@@ -31,34 +31,94 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseResult;
 
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+
+/**
+ * Send the pending alerts.
+ * <p>
+ * The alerts are sent to their plugin instances at the same time by the {@link AlertSendExecutor}, an alert is skipped
+ * by the following polls while it's being sent, and the results of the alerts sent are written in batches.
+ */
 @Service
 public final class AlertSenderService extends Thread {
     private static final Logger logger = LoggerFactory.getLogger(AlertSenderService.class);
 
+    /**
+     * the plugin instances of an alert group are queried again after this time
+     */
+    private static final long ALERT_GROUP_CACHE_EXPIRE_SECONDS = 30;
+
+    /**
+     * the max alerts written in a statement
+     */
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    /**
+     * the max attempts to write the result of an alert
+     */
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     private final AlertDao alertDao;
     private final AlertPluginManager alertPluginManager;
     private final AlertConfig alertConfig;
+    private final AlertSendExecutor alertSendExecutor;
+
+    /**
+     * the plugin instances of the alert groups, so the alert group is not queried for each alert
+     */
+    private final LoadingCache<Integer, List<AlertPluginInstance>> alertGroupInstances;
+
+    /**
+     * the alerts being sent, or sent but their results are not written yet
+     */
+    private final Set<Integer> sendingAlerts = ConcurrentHashMap.newKeySet();
+
+    private final Queue<AlertSendResult> sendResults = new ConcurrentLinkedQueue<>();
 
     public AlertSenderService(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertConfig alertConfig) {
         this.alertDao = alertDao;
         this.alertPluginManager = alertPluginManager;
         this.alertConfig = alertConfig;
+        this.alertSendExecutor = new AlertSendExecutor(Math.max(1, alertConfig.getSendThreads()),
+                alertConfig.getSendThreadsPerInstance(), alertConfig.getCircuitBreakerFailureThreshold(),
+                alertConfig.getCircuitBreakerOpenTime());
+        this.alertGroupInstances = CacheBuilder.newBuilder()
+                .expireAfterWrite(ALERT_GROUP_CACHE_EXPIRE_SECONDS, TimeUnit.SECONDS)
+                .build(new CacheLoader<Integer, List<AlertPluginInstance>>() {
+                    @Override
+                    public List<AlertPluginInstance> load(Integer alertGroupId) {
+                        List<AlertPluginInstance> instances = alertDao.listInstanceByAlertGroupId(alertGroupId);
+                        return instances == null ? Collections.emptyList() : instances;
+                    }
+                });
     }
 
     @Override
@@ -71,6 +131,11 @@ public final class AlertSenderService extends Thread {
     public void run() {
         logger.info("alert sender started");
         while (Stopper.isRunning()) {
+            try {
+                this.writeSendResults();
+            } catch (Exception e) {
+                logger.error("write alert send results error", e);
+            }
             try {
                 List<Alert> alerts = alertDao.listPendingAlerts();
                 this.send(alerts);
@@ -79,48 +144,159 @@ public final class AlertSenderService extends Thread {
                 logger.error("alert sender thread error", e);
             }
         }
+        // the results of the alerts sent before stopping
+        this.writeSendResults();
+        alertSendExecutor.close();
     }
 
+    /**
+     * send the alerts not being sent, it doesn't wait for the alerts to be sent
+     *
+     * @param alerts alerts
+     */
     public void send(List<Alert> alerts) {
         for (Alert alert : alerts) {
             //get alert group from alert
             int alertId = Optional.ofNullable(alert.getId()).orElse(0);
-            int alertGroupId = Optional.ofNullable(alert.getAlertGroupId()).orElse(0);
-            List<AlertPluginInstance> alertInstanceList = alertDao.listInstanceByAlertGroupId(alertGroupId);
-            if (CollectionUtils.isEmpty(alertInstanceList)) {
-                logger.error("send alert msg fail,no bind plugin instance.");
-                alertDao.updateAlert(AlertStatus.EXECUTION_FAILURE, "no bind plugin instance", alertId);
+            if (!sendingAlerts.add(alertId)) {
                 continue;
             }
-            AlertData alertData = new AlertData();
-            alertData.setId(alertId)
-                    .setContent(alert.getContent())
-                    .setLog(alert.getLog())
-                    .setTitle(alert.getTitle())
-                    .setTitle(alert.getTitle())
-                    .setWarnType(alert.getWarningType().getCode());
-
-            int sendSuccessCount = 0;
-            for (AlertPluginInstance instance : alertInstanceList) {
-                AlertResult alertResult = this.alertResultHandler(instance, alertData);
-                if (alertResult != null) {
-                    AlertStatus sendStatus = Boolean.parseBoolean(String.valueOf(alertResult.getStatus())) ? AlertStatus.EXECUTION_SUCCESS : AlertStatus.EXECUTION_FAILURE;
-                    alertDao.addAlertSendStatus(sendStatus,alertResult.getMessage(),alertId,instance.getId());
-                    if (sendStatus.equals(AlertStatus.EXECUTION_SUCCESS)) {
-                        sendSuccessCount++;
-                    }
-                }
+            try {
+                this.send(alertId, alert);
+            } catch (Exception e) {
+                sendingAlerts.remove(alertId);
+                logger.error("send alert {} error", alertId, e);
             }
+        }
+    }
+
+    private void send(int alertId, Alert alert) {
+        int alertGroupId = Optional.ofNullable(alert.getAlertGroupId()).orElse(0);
+        List<AlertPluginInstance> alertInstanceList = alertGroupInstances.getUnchecked(alertGroupId);
+        if (CollectionUtils.isEmpty(alertInstanceList)) {
+            logger.error("send alert msg fail,no bind plugin instance.");
+            sendResults.add(new AlertSendResult(alertId, AlertStatus.EXECUTION_FAILURE,
+                    "no bind plugin instance", Collections.emptyList()));
+            return;
+        }
+        AlertData alertData = new AlertData();
+        alertData.setId(alertId)
+                .setContent(alert.getContent())
+                .setLog(alert.getLog())
+                .setTitle(alert.getTitle())
+                .setTitle(alert.getTitle())
+                .setWarnType(alert.getWarningType().getCode());
+
+        List<CompletableFuture<AlertSendStatus>> futures = new ArrayList<>(alertInstanceList.size());
+        for (AlertPluginInstance instance : alertInstanceList) {
+            futures.add(this.alertResultHandler(instance, alertData)
+                    .thenApply(alertResult -> toAlertSendStatus(alertId, instance, alertResult)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            if (e != null) {
+                // sent again in the next round
+                logger.error("send alert {} error", alertId, e);
+                sendingAlerts.remove(alertId);
+                return;
+            }
+            List<AlertSendStatus> sendStatuses = futures.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            long sendSuccessCount = sendStatuses.stream()
+                    .filter(sendStatus -> sendStatus.getSendStatus() == AlertStatus.EXECUTION_SUCCESS)
+                    .count();
             AlertStatus alertStatus = AlertStatus.EXECUTION_SUCCESS;
             if (sendSuccessCount == 0) {
                 alertStatus = AlertStatus.EXECUTION_FAILURE;
             } else if (sendSuccessCount < alertInstanceList.size()) {
                 alertStatus = AlertStatus.EXECUTION_PARTIAL_SUCCESS;
             }
-            alertDao.updateAlert(alertStatus, "", alertId);
+            sendResults.add(new AlertSendResult(alertId, alertStatus, "", sendStatuses));
+        });
+    }
+
+    private AlertSendStatus toAlertSendStatus(int alertId, AlertPluginInstance instance, AlertResult alertResult) {
+        if (alertResult == null) {
+            return null;
+        }
+        AlertSendStatus alertSendStatus = new AlertSendStatus();
+        alertSendStatus.setAlertId(alertId);
+        alertSendStatus.setAlertPluginInstanceId(instance.getId());
+        alertSendStatus.setSendStatus(Boolean.parseBoolean(String.valueOf(alertResult.getStatus()))
+                ? AlertStatus.EXECUTION_SUCCESS : AlertStatus.EXECUTION_FAILURE);
+        alertSendStatus.setLog(alertResult.getMessage());
+        alertSendStatus.setCreateTime(new Date());
+        return alertSendStatus;
+    }
+
+    /**
+     * write the results of the alerts sent, the alerts of the same status are written in a transaction,
+     * a result failed to write is written again in the next rounds, and dropped after a few attempts
+     */
+    void writeSendResults() {
+        List<AlertSendResult> results = new ArrayList<>();
+        AlertSendResult result;
+        while ((result = sendResults.poll()) != null) {
+            results.add(result);
+        }
+        Map<AlertStatus, Map<String, List<AlertSendResult>>> groupedResults = results.stream()
+                .collect(Collectors.groupingBy(r -> r.alertStatus, Collectors.groupingBy(r -> r.log)));
+        groupedResults.values().forEach(logResults -> logResults.values().forEach(sameResults ->
+                Lists.partition(sameResults, WRITE_BATCH_SIZE).forEach(this::writeSendResults)));
+    }
+
+    /**
+     * write the results of the same status in a transaction, the results of a failed batch are written one by one,
+     * so a result that can't be written never blocks the others
+     */
+    private void writeSendResults(List<AlertSendResult> results) {
+        try {
+            writeSendResultsInTransaction(results);
+            return;
+        } catch (Exception e) {
+            if (results.size() == 1) {
+                retryOrDropSendResult(results.get(0), e);
+                return;
+            }
+            logger.warn("write the results of {} alerts error, write them one by one", results.size(), e);
+        }
+        for (AlertSendResult result : results) {
+            try {
+                writeSendResultsInTransaction(Collections.singletonList(result));
+            } catch (Exception e) {
+                retryOrDropSendResult(result, e);
+            }
         }
     }
 
+    private void writeSendResultsInTransaction(List<AlertSendResult> results) {
+        AlertSendResult first = results.get(0);
+        List<Integer> alertIds = results.stream()
+                .map(r -> r.alertId)
+                .collect(Collectors.toList());
+        List<AlertSendStatus> sendStatuses = results.stream()
+                .flatMap(r -> r.sendStatuses.stream())
+                .collect(Collectors.toList());
+        alertDao.updateAlertsWithSendStatuses(alertIds, first.alertStatus, first.log, sendStatuses);
+        alertIds.forEach(sendingAlerts::remove);
+    }
+
+    /**
+     * the alert of the result dropped is removed from the sending alerts, it's still pending in the database,
+     * so it's sent again by the next poll
+     */
+    private void retryOrDropSendResult(AlertSendResult result, Exception e) {
+        if (++result.writeAttempts < MAX_WRITE_ATTEMPTS) {
+            logger.warn("write the result of alert {} error, write it again in the next round", result.alertId, e);
+            sendResults.add(result);
+            return;
+        }
+        logger.error("write the result of alert {} error after {} attempts, drop it and send the alert again",
+                result.alertId, result.writeAttempts, e);
+        sendingAlerts.remove(result.alertId);
+    }
+
     /**
      * sync send alert handler
      *
@@ -149,8 +325,11 @@ public final class AlertSenderService extends Thread {
             return new AlertSendResponseCommand(false, sendResponseResults);
         }
 
-        for (AlertPluginInstance instance : alertInstanceList) {
-            AlertResult alertResult = this.alertResultHandler(instance, alertData);
+        List<CompletableFuture<AlertResult>> futures = alertInstanceList.stream()
+                .map(instance -> this.alertResultHandler(instance, alertData))
+                .collect(Collectors.toList());
+        for (CompletableFuture<AlertResult> future : futures) {
+            AlertResult alertResult = future.join();
             if (alertResult != null) {
                 AlertSendResponseResult alertSendResponseResult = new AlertSendResponseResult(
                         Boolean.parseBoolean(String.valueOf(alertResult.getStatus())), alertResult.getMessage());
@@ -167,9 +346,9 @@ public final class AlertSenderService extends Thread {
      *
      * @param instance  instance
      * @param alertData alertData
-     * @return AlertResult
+     * @return the future of AlertResult, completed with null if the alert is not sent to the instance
      */
-    private AlertResult alertResultHandler(AlertPluginInstance instance, AlertData alertData) {
+    private CompletableFuture<AlertResult> alertResultHandler(AlertPluginInstance instance, AlertData alertData) {
         Optional<AlertChannel> alertChannel = alertPluginManager.getAlertChannel(instance.getPluginDefineId());
         AlertResult alertResultExtend = new AlertResult();
         String pluginInstanceName = instance.getInstanceName();
@@ -178,7 +357,7 @@ public final class AlertSenderService extends Thread {
             alertResultExtend.setStatus(String.valueOf(false));
             alertResultExtend.setMessage(message);
             logger.error("Alert Plugin {} send error : not found plugin {}", pluginInstanceName, instance.getPluginDefineId());
-            return alertResultExtend;
+            return CompletableFuture.completedFuture(alertResultExtend);
         }
 
         Map<String, String> paramsMap = JSONUtils.toMap(instance.getPluginInstanceParams());
@@ -195,7 +374,7 @@ public final class AlertSenderService extends Thread {
             alertResultExtend.setStatus(String.valueOf(false));
             alertResultExtend.setMessage(message);
             logger.error("Alert Plugin {} send error : plugin warnType is null", pluginInstanceName);
-            return alertResultExtend;
+            return CompletableFuture.completedFuture(alertResultExtend);
         }
 
         boolean sendWarning = false;
@@ -220,31 +399,19 @@ public final class AlertSenderService extends Thread {
         if (!sendWarning) {
             logger.info("Alert Plugin {} send ignore warning type not match: plugin warning type is {}, alert data warning type is {}",
                     pluginInstanceName, warningType.getCode(), alertData.getWarnType());
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         AlertInfo alertInfo = new AlertInfo();
         alertInfo.setAlertData(alertData);
         alertInfo.setAlertParams(paramsMap);
-        int waitTimeout = alertConfig.getWaitTimeout();
-        AlertResult alertResult;
-        try {
-            if (waitTimeout <= 0) {
-                alertResult = alertChannel.get().process(alertInfo);
-            } else {
-                CompletableFuture<AlertResult> future =
-                        CompletableFuture.supplyAsync(() -> alertChannel.get().process(alertInfo));
-                alertResult = future.get(waitTimeout, TimeUnit.MILLISECONDS);
-            }
-        } catch (InterruptedException e) {
-            alertResult = new AlertResult("false", e.getMessage());
-            logger.error("send alert error alert data id :{},", alertData.getId(), e);
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            alertResult = new AlertResult("false", e.getMessage());
-            logger.error("send alert error alert data id :{},", alertData.getId(), e);
-        }
+        int waitTimeout = Math.max(0, alertConfig.getWaitTimeout());
+        return alertSendExecutor.execute(instance.getId(), waitTimeout, () -> alertChannel.get().process(alertInfo))
+                .thenApply(alertResult -> toAlertResultExtend(pluginInstanceName, alertData, alertResult));
+    }
 
+    private AlertResult toAlertResultExtend(String pluginInstanceName, AlertData alertData, AlertResult alertResult) {
+        AlertResult alertResultExtend = new AlertResult();
         if (alertResult == null) {
             String message = String.format("Alert Plugin %s send error : return alertResult value is null", pluginInstanceName);
             alertResultExtend.setStatus(String.valueOf(false));
@@ -253,7 +420,8 @@ public final class AlertSenderService extends Thread {
         } else if (!Boolean.parseBoolean(String.valueOf(alertResult.getStatus()))) {
             alertResultExtend.setStatus(String.valueOf(false));
             alertResultExtend.setMessage(alertResult.getMessage());
-            logger.info("Alert Plugin {} send error : {}", pluginInstanceName, alertResult.getMessage());
+            logger.info("Alert Plugin {} send error : {}, alert data id : {}", pluginInstanceName, alertResult.getMessage(),
+                    alertData.getId());
         } else {
             String message = String.format("Alert Plugin %s send success", pluginInstanceName);
             alertResultExtend.setStatus(String.valueOf(true));
@@ -262,4 +430,27 @@ public final class AlertSenderService extends Thread {
         }
         return alertResultExtend;
     }
+
+    /**
+     * the result of an alert sent, to be written
+     */
+    private static final class AlertSendResult {
+
+        private final int alertId;
+
+        private final AlertStatus alertStatus;
+
+        private final String log;
+
+        private final List<AlertSendStatus> sendStatuses;
+
+        private int writeAttempts;
+
+        AlertSendResult(int alertId, AlertStatus alertStatus, String log, List<AlertSendStatus> sendStatuses) {
+            this.alertId = alertId;
+            this.alertStatus = alertStatus;
+            this.log = log;
+            this.sendStatuses = sendStatuses;
+        }
+    }
 }
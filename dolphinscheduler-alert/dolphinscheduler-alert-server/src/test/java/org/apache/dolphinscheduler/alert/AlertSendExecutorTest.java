@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert;
+
+import org.apache.dolphinscheduler.alert.api.AlertResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AlertSendExecutorTest {
+
+    private AlertSendExecutor executor;
+
+    @After
+    public void after() {
+        executor.close();
+    }
+
+    @Test(timeout = 10000)
+    public void testSlowInstanceNotDelayOthers() throws Exception {
+        executor = new AlertSendExecutor(4, 1, 0, 0);
+        CountDownLatch released = new CountDownLatch(1);
+        CompletableFuture<AlertResult> slow1 = executor.execute(1, 0, () -> {
+            await(released);
+            return success();
+        });
+        CompletableFuture<AlertResult> slow2 = executor.execute(1, 0, this::success);
+
+        // the second send of the slow instance waits for the first one, the other instance is not delayed
+        Assert.assertEquals("true", executor.execute(2, 0, this::success).get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertFalse(slow2.isDone());
+
+        released.countDown();
+        Assert.assertEquals("true", slow1.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals("true", slow2.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test(timeout = 10000)
+    public void testTimeout() throws Exception {
+        executor = new AlertSendExecutor(2, 0, 0, 0);
+        CountDownLatch released = new CountDownLatch(1);
+        AlertResult result = executor.execute(1, 100, () -> {
+            await(released);
+            return success();
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals("false", result.getStatus());
+        Assert.assertTrue(result.getMessage().contains("timed out"));
+    }
+
+    @Test(timeout = 10000)
+    public void testCircuitBreaker() throws Exception {
+        executor = new AlertSendExecutor(2, 0, 2, 200);
+        AtomicInteger sends = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals("false", executor.execute(1, 0, () -> {
+                sends.incrementAndGet();
+                return new AlertResult("false", "unreachable");
+            }).get(5, TimeUnit.SECONDS).getStatus());
+        }
+        Assert.assertEquals(AlertCircuitBreaker.State.OPEN, executor.getCircuitState(1));
+
+        // fail fast without sending while the circuit is open
+        AlertResult result = executor.execute(1, 0, () -> {
+            sends.incrementAndGet();
+            return success();
+        }).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("false", result.getStatus());
+        Assert.assertEquals(2, sends.get());
+        Assert.assertEquals(AlertCircuitBreaker.State.CLOSED, executor.getCircuitState(2));
+
+        // a send is let through to probe the instance once the circuit is half open
+        Thread.sleep(300);
+        Assert.assertEquals("true", executor.execute(1, 0, this::success).get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(AlertCircuitBreaker.State.CLOSED, executor.getCircuitState(1));
+    }
+
+    private AlertResult success() {
+        return new AlertResult("true", "success");
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.dolphinscheduler.alert.api.AlertChannel;
+import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.enums.WarningType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * the results of the alerts sent by {@link AlertSenderService} are written to the database
+ */
+public class AlertSenderServiceWriteTest {
+
+    @Mock
+    private AlertDao alertDao;
+    @Mock
+    private AlertPluginManager alertPluginManager;
+    @Mock
+    private AlertConfig alertConfig;
+
+    @InjectMocks
+    private AlertSenderService alertSenderService;
+
+    @Before
+    public void before() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testWriteSendResult() {
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(
+            1, "alert-instance-mail-params", "alert-instance-mail");
+        alertPluginInstance.setId(1);
+        when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(Collections.singletonList(alertPluginInstance));
+        AlertResult alertResult = new AlertResult();
+        alertResult.setStatus(String.valueOf(true));
+        alertResult.setMessage("Alert Plugin alert-instance-mail send success");
+        AlertChannel alertChannelMock = mock(AlertChannel.class);
+        when(alertChannelMock.process(Mockito.any())).thenReturn(alertResult);
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(alertChannelMock));
+
+        List<Alert> alertList = Collections.singletonList(newAlert(1));
+        alertSenderService.send(alertList);
+        // the alert being sent is not sent again
+        alertSenderService.send(alertList);
+
+        writeSendResultsUntilWritten(1);
+        verify(alertChannelMock, times(1)).process(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AlertSendStatus>> sendStatuses = ArgumentCaptor.forClass(List.class);
+        verify(alertDao).updateAlertsWithSendStatuses(eq(Collections.singletonList(1)), eq(AlertStatus.EXECUTION_SUCCESS),
+            eq(""), sendStatuses.capture());
+        Assert.assertEquals(1, sendStatuses.getValue().size());
+        Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, sendStatuses.getValue().get(0).getSendStatus());
+
+        // the alert written can be sent again
+        alertSenderService.send(alertList);
+        writeSendResultsUntilWritten(2);
+        verify(alertChannelMock, times(2)).process(any());
+    }
+
+    @Test
+    public void testWriteSendResults() {
+        when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(Collections.emptyList());
+        List<Alert> alertList = new ArrayList<>();
+        alertList.add(newAlert(1));
+        alertList.add(newAlert(2));
+        alertSenderService.send(alertList);
+
+        // the batch fails, then the alerts are written one by one and only the alert 2 fails
+        doThrow(new IllegalStateException("duplicate key")).when(alertDao)
+            .updateAlertsWithSendStatuses(eq(Arrays.asList(1, 2)), any(), anyString(), anyList());
+        doThrow(new IllegalStateException("duplicate key")).when(alertDao)
+            .updateAlertsWithSendStatuses(eq(Collections.singletonList(2)), any(), anyString(), anyList());
+        alertSenderService.writeSendResults();
+        verify(alertDao).updateAlertsWithSendStatuses(eq(Collections.singletonList(1)), eq(AlertStatus.EXECUTION_FAILURE),
+            eq("no bind plugin instance"), anyList());
+        verify(alertDao).updateAlertsWithSendStatuses(eq(Collections.singletonList(2)), any(), anyString(), anyList());
+
+        // the alert written is sent again, and the alert failed to write is written in the next round
+        alertSenderService.send(alertList);
+        alertSenderService.writeSendResults();
+        verify(alertDao).updateAlertsWithSendStatuses(eq(Arrays.asList(2, 1)), eq(AlertStatus.EXECUTION_FAILURE),
+            eq("no bind plugin instance"), anyList());
+    }
+
+    @Test
+    public void testWriteSendResultsDropped() {
+        when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(Collections.emptyList());
+        List<Alert> alertList = Collections.singletonList(newAlert(1));
+        alertSenderService.send(alertList);
+
+        doThrow(new IllegalStateException("duplicate key")).when(alertDao)
+            .updateAlertsWithSendStatuses(anyList(), any(), anyString(), anyList());
+        for (int i = 0; i < 5; i++) {
+            alertSenderService.writeSendResults();
+        }
+        // dropped after 3 attempts, and the failure never escapes to the sender thread
+        verify(alertDao, times(3)).updateAlertsWithSendStatuses(anyList(), any(), anyString(), anyList());
+
+        // the alert dropped is still pending, it's sent again by the next poll
+        alertSenderService.send(alertList);
+        alertSenderService.writeSendResults();
+        verify(alertDao, times(4)).updateAlertsWithSendStatuses(anyList(), any(), anyString(), anyList());
+    }
+
+    private Alert newAlert(int id) {
+        Alert alert = new Alert();
+        alert.setId(id);
+        alert.setAlertGroupId(1);
+        alert.setTitle("alert mail test title");
+        alert.setContent("alert mail test content");
+        alert.setWarningType(WarningType.FAILURE);
+        return alert;
+    }
+
+    /**
+     * write the results of the alerts sent, until the results are written the given times
+     */
+    private void writeSendResultsUntilWritten(int times) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countWrites() < times && System.currentTimeMillis() < deadline) {
+            alertSenderService.writeSendResults();
+            ThreadUtils.sleep(10);
+        }
+        Assert.assertEquals(times, countWrites());
+    }
+
+    private long countWrites() {
+        return Mockito.mockingDetails(alertDao).getInvocations().stream()
+            .filter(invocation -> "updateAlertsWithSendStatuses".equals(invocation.getMethod().getName()))
+            .count();
+    }
+}
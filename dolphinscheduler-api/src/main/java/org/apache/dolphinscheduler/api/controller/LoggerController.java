@@ -19,6 +19,8 @@ package org.apache.dolphinscheduler.api.controller;
 
 import static org.apache.dolphinscheduler.api.enums.Status.DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR;
 import static org.apache.dolphinscheduler.api.enums.Status.QUERY_TASK_INSTANCE_LOG_ERROR;
+import static org.apache.dolphinscheduler.api.enums.Status.SEARCH_TASK_INSTANCE_LOG_ERROR;
+import static org.apache.dolphinscheduler.api.enums.Status.TAIL_TASK_INSTANCE_LOG_ERROR;
 
 import org.apache.dolphinscheduler.api.aspect.AccessLogAnnotation;
 import org.apache.dolphinscheduler.api.exceptions.ApiException;
@@ -28,18 +30,27 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.dao.entity.ResponseTaskLog;
 import org.apache.dolphinscheduler.dao.entity.User;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -99,14 +110,13 @@ public class LoggerController extends BaseController {
     @GetMapping(value = "/download-log")
     @ResponseBody
     @ApiException(DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR)
-    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
-    public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
-                                          @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(taskInstanceId);
-        return ResponseEntity
-            .ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-            .body(logBytes);
+    @AccessLogAnnotation(ignoreRequestArgs = {"loginUser", "response"})
+    public void downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                                @ApiIgnore HttpServletResponse response) throws IOException {
+        try (InputStream logStream = loggerService.getLogStream(taskInstanceId)) {
+            writeLog(logStream, response);
+        }
     }
 
     /**
@@ -154,14 +164,87 @@ public class LoggerController extends BaseController {
     @GetMapping(value = "/{projectCode}/download-log")
     @ResponseBody
     @ApiException(DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = {"loginUser", "response"})
+    public void downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                                @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                                @ApiIgnore HttpServletResponse response) throws IOException {
+        try (InputStream logStream = loggerService.getLogStream(loginUser, projectCode, taskInstanceId)) {
+            writeLog(logStream, response);
+        }
+    }
+
+    /**
+     * search task log in specified project, the log is searched on the log server
+     *
+     * @param loginUser      login user
+     * @param projectCode    project code
+     * @param taskInstanceId task instance id
+     * @param pattern        the substring or the regular expression to search
+     * @param regex          whether the pattern is a regular expression
+     * @param contextLines   the lines before and after a matched line
+     * @param limit          the max matched lines
+     * @return the matched lines and their context lines
+     */
+    @ApiOperation(value = "searchLogInSpecifiedProject", notes = "SEARCH_TASK_INSTANCE_LOG_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "projectCode", value = "PROJECT_CODE", required = true, type = "Long"),
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "pattern", value = "SEARCH_LOG_PATTERN", required = true, type = "String"),
+        @ApiImplicitParam(name = "regex", value = "SEARCH_LOG_REGEX", dataType = "Boolean", example = "false"),
+        @ApiImplicitParam(name = "contextLines", value = "SEARCH_LOG_CONTEXT_LINES", dataType = "Int", example = "0"),
+        @ApiImplicitParam(name = "limit", value = "LIMIT", dataType = "Int", example = "100")
+    })
+    @GetMapping(value = "/{projectCode}/search")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(SEARCH_TASK_INSTANCE_LOG_ERROR)
     @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
-    public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
-                                          @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
-                                          @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(loginUser, projectCode, taskInstanceId);
-        return ResponseEntity
-                .ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-                .body(logBytes);
+    public Result searchLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                            @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                            @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                            @RequestParam(value = "pattern") String pattern,
+                            @RequestParam(value = "regex", required = false, defaultValue = "false") boolean regex,
+                            @RequestParam(value = "contextLines", required = false, defaultValue = "0") int contextLines,
+                            @RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+        return returnDataList(loggerService.searchLog(loginUser, projectCode, taskInstanceId, pattern, regex, contextLines, limit));
+    }
+
+    /**
+     * tail task log in specified project, the log appended from the offset is pushed as server-sent events,
+     * so the log is not polled. The id of an event is the byte offset to tail from after it, so a reconnecting
+     * client continues from the Last-Event-ID, and an "end" event is sent once the task is finished
+     *
+     * @param loginUser      login user
+     * @param projectCode    project code
+     * @param taskInstanceId task instance id
+     * @param offset         the byte offset of the log to tail from
+     * @param lastEventId    the id of the last event received before reconnecting, it overrides the offset
+     * @return the emitter of the events
+     */
+    @ApiOperation(value = "tailLogInSpecifiedProject", notes = "TAIL_TASK_INSTANCE_LOG_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "projectCode", value = "PROJECT_CODE", required = true, type = "Long"),
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100"),
+        @ApiImplicitParam(name = "offset", value = "TAIL_LOG_OFFSET", dataType = "Long", example = "0")
+    })
+    @GetMapping(value = "/{projectCode}/tail")
+    @ApiException(TAIL_TASK_INSTANCE_LOG_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
+    public SseEmitter tailLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                              @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                              @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                              @RequestParam(value = "offset", required = false, defaultValue = "0") long offset,
+                              @ApiIgnore @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return loggerService.tailLog(loginUser, projectCode, taskInstanceId, lastEventId != null ? lastEventId : offset);
+    }
+
+    /**
+     * copy the log to the response as it's read from the log server, without buffering the whole file
+     */
+    private void writeLog(InputStream logStream, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"");
+        IOUtils.copy(logStream, response.getOutputStream());
+        response.flushBuffer();
     }
 }
@@ -217,6 +217,9 @@ public enum Status {
     PROJECT_NOT_EXIST(10190, "This project was not found. Please refresh page.", "该项目不存在,请刷新页面"),
     TASK_INSTANCE_HOST_IS_NULL(10191, "task instance host is null", "任务实例host为空"),
     QUERY_EXECUTING_WORKFLOW_ERROR(10192, "query executing workflow error", "查询运行的工作流实例错误"),
+    SEARCH_TASK_INSTANCE_LOG_ERROR(10193, "search task instance log error", "搜索任务实例日志错误"),
+    TAIL_TASK_INSTANCE_LOG_ERROR(10194, "tail task instance log error", "订阅任务实例日志错误"),
+    LOG_SERVER_BUSY(10195, "the log server is busy, please try again later", "日志服务繁忙，请稍后重试"),
 
     UDF_FUNCTION_NOT_EXIST(20001, "UDF function not found", "UDF函数不存在"),
     UDF_FUNCTION_EXISTS(20002, "UDF function already exists", "UDF函数已存在"),
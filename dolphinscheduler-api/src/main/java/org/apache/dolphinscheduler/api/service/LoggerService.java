@@ -21,8 +21,11 @@ import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.dao.entity.ResponseTaskLog;
 import org.apache.dolphinscheduler.dao.entity.User;
 
+import java.io.InputStream;
 import java.util.Map;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 /**
  * logger service
  */
@@ -47,6 +50,14 @@ public interface LoggerService {
      */
     byte[] getLogBytes(int taskInstId);
 
+    /**
+     * get log stream, the log is read from the log server as the stream is read
+     *
+     * @param taskInstId task instance id
+     * @return log stream, it should be closed by the caller
+     */
+    InputStream getLogStream(int taskInstId);
+
     /**
      * query log
      *
@@ -68,4 +79,41 @@ public interface LoggerService {
      * @return log byte array
      */
     byte[] getLogBytes(User loginUser, long projectCode, int taskInstId);
+
+    /**
+     * get log stream
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @return log stream, it should be closed by the caller
+     */
+    InputStream getLogStream(User loginUser, long projectCode, int taskInstId);
+
+    /**
+     * search log, only the matched lines and their context lines are sent back from the log server
+     *
+     * @param loginUser    login user
+     * @param projectCode  project code
+     * @param taskInstId   task instance id
+     * @param pattern      the substring or the regular expression to search
+     * @param regex        whether the pattern is a regular expression
+     * @param contextLines the lines before and after a matched line
+     * @param limit        the max matched lines
+     * @return the matched lines and their context lines
+     */
+    Map<String, Object> searchLog(User loginUser, long projectCode, int taskInstId, String pattern, boolean regex,
+                                  int contextLines, int limit);
+
+    /**
+     * tail log, the log server pushes the appended log, and it's sent to the client as server-sent events,
+     * the id of an event is the byte offset to tail from after it, an "end" event is sent once the task is finished
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param offset      the byte offset of the log to tail from
+     * @return the emitter of the events
+     */
+    SseEmitter tailLog(User loginUser, long projectCode, int taskInstId, long offset);
 }
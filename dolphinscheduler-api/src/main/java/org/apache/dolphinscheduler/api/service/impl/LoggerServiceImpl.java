@@ -23,6 +23,9 @@ import org.apache.dolphinscheduler.api.service.LoggerService;
 import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.ResponseTaskLog;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
@@ -30,15 +33,31 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.exceptions.LogServerBusyException;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.apache.dolphinscheduler.service.log.LogTail;
+import org.apache.dolphinscheduler.service.log.TaskLogArchive;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -47,8 +66,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.google.common.primitives.Bytes;
+import com.google.common.util.concurrent.MoreExecutors;
 
 /**
  * logger service impl
@@ -60,6 +81,33 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
 
     private static final String LOG_HEAD_FORMAT = "[LOG-PATH]: %s, [HOST]:  %s%s";
 
+    /**
+     * the max matched lines of a search
+     */
+    private static final int SEARCH_LOG_MAX_LIMIT = 1000;
+
+    /**
+     * the max context lines of a search
+     */
+    private static final int SEARCH_LOG_MAX_CONTEXT_LINES = 10;
+
+    /**
+     * the max bytes of a page of the archived log, the same as the roll view of the log server
+     */
+    private static final int ARCHIVED_LOG_MAX_RESPONSE_SIZE = 65535;
+
+    /**
+     * the max time of a tail, the client tails again from the id of the last event once it's timed out
+     */
+    private static final long LOG_TAIL_TIMEOUT = 30 * 60 * 1000L;
+
+    /**
+     * the max events waiting to be sent to a client, the tail is ended once the client is too slow
+     */
+    private static final int LOG_TAIL_MAX_PENDING_EVENTS = 256;
+
+    private static final int LOG_TAIL_SEND_THREADS = 16;
+
     @Autowired
     private ProcessService processService;
 
@@ -74,11 +122,20 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
     @Autowired
     TaskDefinitionMapper taskDefinitionMapper;
 
+    @Autowired(required = false)
+    private StorageOperate storageOperate;
+
+    /**
+     * the threads to send the tailed log to the clients, the events of a client are sent in order
+     */
+    private ExecutorService logTailExecutor;
+
     @PostConstruct
     public void init() {
         if (Objects.isNull(this.logClient)) {
             this.logClient = new LogClientService();
         }
+        this.logTailExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Log-Tail-Send-Thread", LOG_TAIL_SEND_THREADS);
     }
 
     @PreDestroy
@@ -86,6 +143,9 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         if (Objects.nonNull(this.logClient) && this.logClient.isRunning()) {
             logClient.close();
         }
+        if (Objects.nonNull(this.logTailExecutor)) {
+            logTailExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -124,11 +184,18 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     @Override
     public byte[] getLogBytes(int taskInstId) {
-        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
-        if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())) {
-            throw new ServiceException("task instance is null or host is null");
-        }
-        return getLogBytes(taskInstance);
+        return getLogBytes(checkTaskInstance(taskInstId));
+    }
+
+    /**
+     * get log stream
+     *
+     * @param taskInstId task instance id
+     * @return log stream
+     */
+    @Override
+    public InputStream getLogStream(int taskInstId) {
+        return getLogStream(checkTaskInstance(taskInstId));
     }
 
     /**
@@ -177,6 +244,115 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     @Override
     public byte[] getLogBytes(User loginUser, long projectCode, int taskInstId) {
+        return getLogBytes(checkTaskInstance(loginUser, projectCode, taskInstId));
+    }
+
+    /**
+     * get log stream
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @return log stream
+     */
+    @Override
+    public InputStream getLogStream(User loginUser, long projectCode, int taskInstId) {
+        return getLogStream(checkTaskInstance(loginUser, projectCode, taskInstId));
+    }
+
+    /**
+     * search log
+     *
+     * @param loginUser    login user
+     * @param projectCode  project code
+     * @param taskInstId   task instance id
+     * @param pattern      the substring or the regular expression to search
+     * @param regex        whether the pattern is a regular expression
+     * @param contextLines the lines before and after a matched line
+     * @param limit        the max matched lines
+     * @return the matched lines and their context lines
+     */
+    @Override
+    public Map<String, Object> searchLog(User loginUser, long projectCode, int taskInstId, String pattern, boolean regex,
+                                         int contextLines, int limit) {
+        Project project = projectMapper.queryByCode(projectCode);
+        //check user access for project
+        Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, project, projectCode);
+        if (result.get(Constants.STATUS) != Status.SUCCESS) {
+            return result;
+        }
+        if (StringUtils.isEmpty(pattern)) {
+            putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "pattern");
+            return result;
+        }
+        if (regex) {
+            try {
+                Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "pattern");
+                return result;
+            }
+        }
+        if (contextLines < 0 || contextLines > SEARCH_LOG_MAX_CONTEXT_LINES) {
+            putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "contextLines");
+            return result;
+        }
+        if (limit <= 0 || limit > SEARCH_LOG_MAX_LIMIT) {
+            putMsg(result, Status.REQUEST_PARAMS_NOT_VALID_ERROR, "limit");
+            return result;
+        }
+        // check whether the task instance can be found
+        TaskInstance task = processService.findTaskInstanceById(taskInstId);
+        if (task == null || StringUtils.isBlank(task.getHost())) {
+            putMsg(result, Status.TASK_INSTANCE_NOT_FOUND);
+            return result;
+        }
+        TaskDefinition taskDefinition = taskDefinitionMapper.queryByCode(task.getTaskCode());
+        if (taskDefinition != null && projectCode != taskDefinition.getProjectCode()) {
+            putMsg(result, Status.TASK_INSTANCE_NOT_FOUND, taskInstId);
+            return result;
+        }
+
+        Host host = Host.of(task.getHost());
+        try {
+            result.put(Constants.DATA_LIST, logClient.searchLog(host.getIp(), host.getPort(), task.getLogPath(),
+                    pattern, regex, contextLines, limit));
+        } catch (LogServerBusyException e) {
+            putMsg(result, Status.LOG_SERVER_BUSY);
+        } catch (RuntimeException e) {
+            logger.error("search log of task instance {} error", taskInstId, e);
+            putMsg(result, Status.SEARCH_TASK_INSTANCE_LOG_ERROR);
+        }
+        return result;
+    }
+
+    /**
+     * tail log
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param offset      the byte offset of the log to tail from
+     * @return the emitter of the events
+     */
+    @Override
+    public SseEmitter tailLog(User loginUser, long projectCode, int taskInstId, long offset) {
+        TaskInstance taskInstance = checkTaskInstance(loginUser, projectCode, taskInstId);
+        SseEmitter emitter = new SseEmitter(LOG_TAIL_TIMEOUT);
+        // the tail of a finished task is ended once the rest of the log is sent
+        new LogTailSession(taskInstance, emitter).start(Math.max(0, offset), isFinished(taskInstance));
+        return emitter;
+    }
+
+    private TaskInstance checkTaskInstance(int taskInstId) {
+        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
+        if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())) {
+            throw new ServiceException("task instance is null or host is null");
+        }
+        return taskInstance;
+    }
+
+    private TaskInstance checkTaskInstance(User loginUser, long projectCode, int taskInstId) {
         Project project = projectMapper.queryByCode(projectCode);
         //check user access for project
         Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, project, projectCode);
@@ -193,7 +369,7 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         if (taskDefinition != null && projectCode != taskDefinition.getProjectCode()) {
             throw new ServiceException("task instance does not exist in project");
         }
-        return getLogBytes(task);
+        return task;
     }
 
     /**
@@ -219,12 +395,54 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
             log.append(head);
         }
 
-        log.append(logClient
-                .rollViewLog(host.getIp(), host.getPort(), taskInstance.getLogPath(), skipLineNum, limit));
+        String content;
+        try {
+            content = logClient.rollViewLog(host.getIp(), host.getPort(), taskInstance.getLogPath(), skipLineNum, limit);
+        } catch (LogServerBusyException e) {
+            throw new ServiceException(Status.LOG_SERVER_BUSY);
+        }
+        if (StringUtils.isEmpty(content) && isLogArchived(taskInstance)) {
+            content = queryArchivedLog(taskInstance, skipLineNum, limit);
+        }
+        log.append(content);
 
         return log.toString();
     }
 
+    /**
+     * the log of a finished task may be archived to the storage, it's read from the archive once the worker
+     * doesn't have the log any more
+     */
+    private boolean isLogArchived(TaskInstance taskInstance) {
+        return storageOperate != null && taskInstance.getState() != null && taskInstance.getState().typeIsFinished();
+    }
+
+    private String queryArchivedLog(TaskInstance taskInstance, int skipLineNum, int limit) {
+        try {
+            List<String> lines = TaskLogArchive.readLines(storageOperate, taskInstance.getLogPath(), skipLineNum, limit);
+            StringBuilder builder = new StringBuilder();
+            for (String line : lines) {
+                builder.append(line).append("\r\n");
+                if (builder.length() >= ARCHIVED_LOG_MAX_RESPONSE_SIZE) {
+                    break;
+                }
+            }
+            return builder.toString();
+        } catch (IOException e) {
+            logger.error("query the archived log {} error", taskInstance.getLogPath(), e);
+            return "";
+        }
+    }
+
+    private InputStream openArchivedLog(TaskInstance taskInstance) {
+        try {
+            return TaskLogArchive.open(storageOperate, taskInstance.getLogPath());
+        } catch (IOException e) {
+            logger.error("open the archived log {} error", taskInstance.getLogPath(), e);
+            return null;
+        }
+    }
+
     /**
      * get log bytes
      *
@@ -233,11 +451,186 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     private byte[] getLogBytes(TaskInstance taskInstance) {
         Host host = Host.of(taskInstance.getHost());
-        byte[] head = String.format(LOG_HEAD_FORMAT,
+        byte[] logBytes;
+        try {
+            logBytes = logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath());
+        } catch (LogServerBusyException e) {
+            throw new ServiceException(Status.LOG_SERVER_BUSY);
+        }
+        if (logBytes.length == 0 && isLogArchived(taskInstance)) {
+            try (InputStream archivedLog = openArchivedLog(taskInstance)) {
+                if (archivedLog != null) {
+                    logBytes = IOUtils.toByteArray(archivedLog);
+                }
+            } catch (IOException e) {
+                logger.error("read the archived log {} error", taskInstance.getLogPath(), e);
+            }
+        }
+        return Bytes.concat(getLogHead(taskInstance, host), logBytes);
+    }
+
+    /**
+     * get log stream, the head and then the log
+     *
+     * @param taskInstance task instance
+     * @return log stream
+     */
+    private InputStream getLogStream(TaskInstance taskInstance) {
+        Host host = Host.of(taskInstance.getHost());
+        InputStream logStream = logClient.getLogStream(host.getIp(), host.getPort(), taskInstance.getLogPath());
+        if (isLogArchived(taskInstance)) {
+            logStream = fallbackToArchivedLog(taskInstance, logStream);
+        }
+        return new SequenceInputStream(new ByteArrayInputStream(getLogHead(taskInstance, host)), logStream);
+    }
+
+    /**
+     * peek the first byte of the log stream, the archived log is read instead if the log stream is empty
+     */
+    private InputStream fallbackToArchivedLog(TaskInstance taskInstance, InputStream logStream) {
+        PushbackInputStream pushbackStream = new PushbackInputStream(logStream);
+        try {
+            int first = pushbackStream.read();
+            if (first >= 0) {
+                pushbackStream.unread(first);
+                return pushbackStream;
+            }
+            pushbackStream.close();
+        } catch (IOException e) {
+            logger.error("read the log {} error", taskInstance.getLogPath(), e);
+            return pushbackStream;
+        }
+        InputStream archivedLog = openArchivedLog(taskInstance);
+        return archivedLog == null ? new ByteArrayInputStream(new byte[0]) : archivedLog;
+    }
+
+    private boolean isFinished(TaskInstance taskInstance) {
+        return taskInstance.getState() == null || taskInstance.getState().typeIsFinished();
+    }
+
+    private byte[] getLogHead(TaskInstance taskInstance, Host host) {
+        return String.format(LOG_HEAD_FORMAT,
                 taskInstance.getLogPath(),
                 host,
                 Constants.SYSTEM_LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
-        return Bytes.concat(head,
-                logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath()));
+    }
+
+    /**
+     * send the log pushed by the log server to a client, the log is tailed again if it's idle while the task is
+     * still running, and an "end" event is sent once the task is finished
+     */
+    private final class LogTailSession implements LogTail.Listener {
+
+        private final int taskInstanceId;
+
+        private final Host host;
+
+        private final String logPath;
+
+        private final SseEmitter emitter;
+
+        /**
+         * the callbacks of the tail are called on the io thread, the events are sent on the send threads in order
+         */
+        private final Executor sequentialExecutor;
+
+        private final AtomicInteger pendingEvents = new AtomicInteger();
+
+        private volatile LogTail tail;
+
+        private volatile boolean closed;
+
+        LogTailSession(TaskInstance taskInstance, SseEmitter emitter) {
+            this.taskInstanceId = taskInstance.getId();
+            this.host = Host.of(taskInstance.getHost());
+            this.logPath = taskInstance.getLogPath();
+            this.emitter = emitter;
+            this.sequentialExecutor = MoreExecutors.newSequentialExecutor(logTailExecutor);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        void start(long offset, boolean stopAtEnd) {
+            LogTail current = logClient.tailLog(host.getIp(), host.getPort(), logPath, offset, stopAtEnd, this);
+            tail = current;
+            // the session may be closed while the tail is starting, before the tail could be cancelled
+            if (closed) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void onLog(long offset, String content, long nextOffset) {
+            int pending = pendingEvents.incrementAndGet();
+            if (pending > LOG_TAIL_MAX_PENDING_EVENTS) {
+                if (pending == LOG_TAIL_MAX_PENDING_EVENTS + 1) {
+                    // the client tails again from the last event it received
+                    logger.warn("the client of the tail of {} is too slow, end the tail", logPath);
+                    sequentialExecutor.execute(this::complete);
+                }
+                return;
+            }
+            TailLogResponseCommand data = new TailLogResponseCommand(offset, content, nextOffset, false);
+            sequentialExecutor.execute(() -> {
+                pendingEvents.decrementAndGet();
+                send(SseEmitter.event().id(String.valueOf(nextOffset)).name("log").data(JSONUtils.toJsonString(data)));
+            });
+        }
+
+        @Override
+        public void onEnd(long nextOffset, Throwable cause) {
+            sequentialExecutor.execute(() -> {
+                if (closed) {
+                    return;
+                }
+                if (cause != null) {
+                    complete();
+                    return;
+                }
+                TaskInstance taskInstance = processService.findTaskInstanceById(taskInstanceId);
+                if (taskInstance == null || isFinished(taskInstance)) {
+                    TailLogResponseCommand data = new TailLogResponseCommand(nextOffset, "", nextOffset, true);
+                    send(SseEmitter.event().id(String.valueOf(nextOffset)).name("end").data(JSONUtils.toJsonString(data)));
+                    complete();
+                } else {
+                    start(nextOffset, false);
+                }
+            });
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                logger.info("send the tail of {} error, the client may be gone: {}", logPath, e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * end the tail and the events, the client tails again from the id of the last event if it still needs the log
+         */
+        private void complete() {
+            if (!closed) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            cancelTail();
+        }
+
+        private void cancelTail() {
+            LogTail current = tail;
+            if (current != null) {
+                current.cancel();
+            }
+        }
     }
 }
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.api.service;
 
 import org.apache.dolphinscheduler.api.enums.Status;
+import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
@@ -28,6 +29,8 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.service.exceptions.LogServerBusyException;
+import org.apache.dolphinscheduler.service.log.LogClientService;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import java.text.MessageFormat;
@@ -44,6 +47,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.reflect.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -187,6 +191,58 @@ public class LoggerServiceTest {
         loggerService.getLogBytes(loginUser, projectCode, 1);
     }
 
+    @Test
+    public void testLogServerBusy() {
+        LogClientService logClient = Mockito.mock(LogClientService.class);
+        Whitebox.setInternalState(loggerService, "logClient", logClient);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        LogServerBusyException busy = new LogServerBusyException("log server 127.0.0.1:8080 is busy", null);
+        Mockito.when(logClient.rollViewLog("127.0.0.1", 8080, "/temp/log", 0, 1)).thenThrow(busy);
+        Mockito.when(logClient.getLogBytes("127.0.0.1", 8080, "/temp/log")).thenThrow(busy);
+
+        try {
+            loggerService.queryLog(1, 0, 1);
+            Assert.fail("the busy log server should be reported");
+        } catch (ServiceException e) {
+            Assert.assertEquals(Status.LOG_SERVER_BUSY.getCode(), e.getCode().intValue());
+        }
+        try {
+            loggerService.getLogBytes(1);
+            Assert.fail("the busy log server should be reported");
+        } catch (ServiceException e) {
+            Assert.assertEquals(Status.LOG_SERVER_BUSY.getCode(), e.getCode().intValue());
+        }
+    }
+
+    @Test
+    public void testSearchLogFailed() {
+        long projectCode = 1L;
+        Project project = getProject(projectCode);
+        Mockito.when(projectMapper.queryByCode(projectCode)).thenReturn(project);
+        User loginUser = new User();
+        loginUser.setId(-1);
+        loginUser.setUserType(UserType.GENERAL_USER);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS, projectCode);
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectCode)).thenReturn(result);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setTaskCode(1L);
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        LogClientService logClient = Mockito.mock(LogClientService.class);
+        Whitebox.setInternalState(loggerService, "logClient", logClient);
+        Mockito.when(logClient.searchLog("127.0.0.1", 8080, "/temp/log", "error", false, 0, 10))
+            .thenThrow(new org.apache.dolphinscheduler.service.exceptions.ServiceException("search log error"));
+
+        result = loggerService.searchLog(loginUser, projectCode, 1, "error", false, 0, 10);
+        Assert.assertEquals(Status.SEARCH_TASK_INSTANCE_LOG_ERROR, result.get(Constants.STATUS));
+        Assert.assertNull(result.get(Constants.DATA_LIST));
+    }
+
     @After
     public void close() {
         this.loggerService.close();
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -140,6 +141,15 @@ public interface StorageOperate {
      */
     void download(String tenantCode, String srcFilePath, String dstFile, boolean deleteSource, boolean overwrite)throws IOException;
 
+    /**
+     * get the version of the file, it changes once the content of the file changes
+     * @param tenantCode
+     * @param filePath the full path of the file
+     * @return the version of the file, like the etag or the modification time and the length
+     * @throws IOException
+     */
+    String getFileVersion(String tenantCode, String filePath) throws IOException;
+
     /**
      * vim the context of filePath
      * @param tenantCode
@@ -166,4 +176,21 @@ public interface StorageOperate {
      */
     ResUploadType returnStorageType();
 
+    /**
+     * return the directory of the archived task logs
+     * @return
+     */
+    String getLogDir();
+
+    /**
+     * read a range of the file, without downloading the whole file
+     * @param tenantCode
+     * @param filePath
+     * @param offset the offset to read from
+     * @param length the bytes to read, to the end of the file if it's negative
+     * @return the stream of the range, it should be closed by the caller
+     * @throws IOException
+     */
+    InputStream read(String tenantCode, String filePath, long offset, long length) throws IOException;
+
 }
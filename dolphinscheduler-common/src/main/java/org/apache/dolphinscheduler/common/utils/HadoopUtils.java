@@ -22,6 +22,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.ResUploadType;
@@ -297,6 +298,12 @@ public class HadoopUtils implements Closeable, StorageOperate {
         copyHdfsToLocal(srcHdfsFilePath, dstFile, deleteSource, overwrite);
     }
 
+    @Override
+    public String getFileVersion(String tenantCode, String filePath) throws IOException {
+        FileStatus fileStatus = fs.getFileStatus(new Path(filePath));
+        return fileStatus.getModificationTime() + "-" + fileStatus.getLen();
+    }
+
     /**
      * copy files between FileSystems
      *
@@ -734,6 +741,23 @@ public class HadoopUtils implements Closeable, StorageOperate {
         }
     }
 
+    @Override
+    public String getLogDir() {
+        return String.format("%s/logs", getHdfsDataBasePath());
+    }
+
+    @Override
+    public InputStream read(String tenantCode, String filePath, long offset, long length) throws IOException {
+        FSDataInputStream in = fs.open(new Path(filePath));
+        try {
+            in.seek(offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return length < 0 ? in : new BoundedInputStream(in, length);
+    }
+
     @Override
     public ResUploadType returnStorageType() {
         return ResUploadType.HDFS;
@@ -25,6 +25,7 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
@@ -186,6 +187,15 @@ public class S3Utils implements Closeable, StorageOperate {
         }
     }
 
+    @Override
+    public String getFileVersion(String tenantCode, String filePath) throws IOException {
+        try {
+            return s3Client.getObjectMetadata(BUCKET_NAME, filePath).getETag();
+        } catch (AmazonServiceException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean exists(String tenantCode, String fileName) throws IOException {
         return s3Client.doesObjectExist(BUCKET_NAME, fileName);
@@ -316,6 +326,28 @@ public class S3Utils implements Closeable, StorageOperate {
         }
     }
 
+    @Override
+    public String getLogDir() {
+        return "logs";
+    }
+
+    @Override
+    public InputStream read(String tenantCode, String filePath, long offset, long length) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(BUCKET_NAME, filePath);
+        if (length < 0) {
+            request.setRange(offset);
+        } else if (length == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        } else {
+            request.setRange(offset, offset + length - 1);
+        }
+        try {
+            return s3Client.getObject(request).getObjectContent();
+        } catch (AmazonServiceException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public ResUploadType returnStorageType() {
         return ResUploadType.S3;
@@ -41,6 +41,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -50,6 +51,7 @@ import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
@@ -102,6 +104,21 @@ public class AlertDao {
         return alertMapper.updateById(alert);
     }
 
+    /**
+     * update the sending(execution) status of the alerts in a statement
+     *
+     * @param ids alert ids
+     * @param alertStatus alertStatus
+     * @param log log
+     * @return update count
+     */
+    public int updateAlerts(Collection<Integer> ids, AlertStatus alertStatus, String log) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return alertMapper.updateAlertStatus(ids, alertStatus, log, new Date());
+    }
+
     /**
      * generate sign for alert
      *
@@ -135,6 +152,35 @@ public class AlertDao {
         return alertSendStatusMapper.insert(alertSendStatus);
     }
 
+    /**
+     * add AlertSendStatus in a statement
+     *
+     * @param alertSendStatuses alert send statuses
+     * @return insert count
+     */
+    public int addAlertSendStatuses(List<AlertSendStatus> alertSendStatuses) {
+        if (alertSendStatuses.isEmpty()) {
+            return 0;
+        }
+        return alertSendStatusMapper.batchInsert(alertSendStatuses);
+    }
+
+    /**
+     * update the status of the alerts sent and add their send statuses in a transaction,
+     * so a failed write can be written again without adding the same send statuses twice
+     *
+     * @param ids alert ids
+     * @param alertStatus alertStatus
+     * @param log log
+     * @param alertSendStatuses the send statuses of the alerts
+     */
+    @Transactional
+    public void updateAlertsWithSendStatuses(Collection<Integer> ids, AlertStatus alertStatus, String log,
+                                             List<AlertSendStatus> alertSendStatuses) {
+        updateAlerts(ids, alertStatus, log);
+        addAlertSendStatuses(alertSendStatuses);
+    }
+
     /**
      * MasterServer or WorkerServer stopped
      *
@@ -17,11 +17,13 @@
 
 package org.apache.dolphinscheduler.dao.mapper;
 
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
@@ -38,4 +40,16 @@ public interface AlertMapper extends BaseMapper<Alert> {
      */
     void insertAlertWhenServerCrash(@Param("alert") Alert alert, @Param("crashAlarmSuppressionStartTime") Date crashAlarmSuppressionStartTime);
 
+    /**
+     * update the sending status of the alerts
+     *
+     * @param ids alert ids
+     * @param alertStatus alert status
+     * @param log log
+     * @param updateTime update time
+     * @return update count
+     */
+    int updateAlertStatus(@Param("ids") Collection<Integer> ids, @Param("alertStatus") AlertStatus alertStatus,
+                          @Param("log") String log, @Param("updateTime") Date updateTime);
+
 }
@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.dao.entity.CommandCount;
 
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -54,8 +55,15 @@ public interface CommandMapper extends BaseMapper<Command> {
 
 
     /**
-     * query command page by slot
+     * query command page whose slot (id % slotCount) is in the given slots
      * @return command list
      */
-    List<Command> queryCommandPageBySlot(@Param("limit") int limit, @Param("offset") int offset, @Param("masterCount") int masterCount, @Param("thisMasterSlot") int thisMasterSlot);
+    List<Command> queryCommandPageBySlots(@Param("limit") int limit, @Param("offset") int offset, @Param("slotCount") int slotCount, @Param("slots") Collection<Integer> slots);
+
+    /**
+     * batch insert commands
+     * @param commands commands
+     * @return insert count
+     */
+    int batchInsert(@Param("commands") List<Command> commands);
 }
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -251,6 +252,16 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
                                                                                @Param("processDefinitionVersion") int processDefinitionVersion,
                                                                      @Param("states") int[] states, @Param("id") int id);
 
+    /**
+     * update the host of process instances
+     *
+     * @param ids  process instance ids
+     * @param host destHost
+     * @return update result
+     */
+    int updateHostByIds(@Param("ids") Collection<Integer> ids,
+                        @Param("host") String host);
+
     int updateGlobalParamsById(@Param("globalParams") String globalParams,
                                @Param("id") int id);
 
@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -39,6 +40,9 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
     List<TaskInstance> findValidTaskListByProcessId(@Param("processInstanceId") Integer processInstanceId,
                                                     @Param("flag") Flag flag);
 
+    List<TaskInstance> findValidTaskListByProcessIds(@Param("processInstanceIds") Collection<Integer> processInstanceIds,
+                                                     @Param("flag") Flag flag);
+
     List<TaskInstance> queryByHostAndStatus(@Param("host") String host,
                                             @Param("states") int[] stateArray);
 
@@ -46,6 +50,10 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                        @Param("states") int[] stateArray,
                                        @Param("destStatus") ExecutionStatus destStatus);
 
+    int updateStateAndFlagByIds(@Param("ids") Collection<Integer> ids,
+                                @Param("state") ExecutionStatus state,
+                                @Param("flag") Flag flag);
+
     TaskInstance queryByInstanceIdAndName(@Param("processInstanceId") int processInstanceId,
                                           @Param("name") String name);
 
@@ -978,7 +978,7 @@ CREATE TABLE t_ds_version
 -- Records of t_ds_version
 -- ----------------------------
 INSERT INTO t_ds_version
-VALUES ('1', '3.0.0');
+VALUES ('1', '3.0.1');
 
 
 -- ----------------------------
@@ -1962,3 +1962,48 @@ CREATE TABLE t_ds_alert_send_status
     UNIQUE KEY alert_send_status_unique (alert_id,alert_plugin_instance_id)
 );
 
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_data
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_data CASCADE;
+CREATE TABLE t_ds_jdbc_registry_data
+(
+    id               bigint(20) NOT NULL AUTO_INCREMENT,
+    data_key         varchar(255) NOT NULL,
+    data_value       text,
+    data_type        tinyint(4) NOT NULL,
+    client_id        varchar(64) NOT NULL,
+    create_time      bigint(20) NOT NULL,
+    last_update_time bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uniq_jdbc_registry_data_key (data_key)
+);
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_lock
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_lock CASCADE;
+CREATE TABLE t_ds_jdbc_registry_lock
+(
+    id          bigint(20) NOT NULL AUTO_INCREMENT,
+    lock_key    varchar(255) NOT NULL,
+    lock_owner  varchar(255) NOT NULL,
+    client_id   varchar(64) NOT NULL,
+    create_time bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uniq_jdbc_registry_lock_key (lock_key)
+);
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_client_heartbeat
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_client_heartbeat CASCADE;
+CREATE TABLE t_ds_jdbc_registry_client_heartbeat
+(
+    client_id           varchar(64) NOT NULL,
+    client_name         varchar(255) DEFAULT NULL,
+    last_heartbeat_time bigint(20) NOT NULL,
+    create_time         bigint(20) NOT NULL,
+    PRIMARY KEY (client_id)
+);
@@ -967,7 +967,7 @@ CREATE TABLE `t_ds_version` (
 -- ----------------------------
 -- Records of t_ds_version
 -- ----------------------------
-INSERT INTO `t_ds_version` VALUES ('1', '3.0.0');
+INSERT INTO `t_ds_version` VALUES ('1', '3.0.1');
 
 
 -- ----------------------------
@@ -1937,3 +1937,47 @@ CREATE TABLE t_ds_alert_send_status (
   PRIMARY KEY (`id`),
   UNIQUE KEY `alert_send_status_unique` (`alert_id`,`alert_plugin_instance_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_data
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_jdbc_registry_data`;
+CREATE TABLE `t_ds_jdbc_registry_data` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'id',
+  `data_key` varchar(255) NOT NULL COMMENT 'registry key',
+  `data_value` text COMMENT 'registry value',
+  `data_type` tinyint(4) NOT NULL COMMENT '0 persistent, 1 ephemeral',
+  `client_id` varchar(64) NOT NULL COMMENT 'the registry client which wrote the key',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  `last_update_time` bigint(20) NOT NULL COMMENT 'last update time in millis',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uniq_data_key` (`data_key`),
+  KEY `idx_client_id` (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_lock
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_jdbc_registry_lock`;
+CREATE TABLE `t_ds_jdbc_registry_lock` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'id',
+  `lock_key` varchar(255) NOT NULL COMMENT 'lock key',
+  `lock_owner` varchar(255) NOT NULL COMMENT 'the registry client and thread which hold the lock',
+  `client_id` varchar(64) NOT NULL COMMENT 'the registry client which hold the lock',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uniq_lock_key` (`lock_key`),
+  KEY `idx_client_id` (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_client_heartbeat
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_jdbc_registry_client_heartbeat`;
+CREATE TABLE `t_ds_jdbc_registry_client_heartbeat` (
+  `client_id` varchar(64) NOT NULL COMMENT 'registry client id',
+  `client_name` varchar(255) DEFAULT NULL COMMENT 'registry client name',
+  `last_heartbeat_time` bigint(20) NOT NULL COMMENT 'last heartbeat time in millis',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  PRIMARY KEY (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -958,7 +958,7 @@ INSERT INTO t_ds_queue(queue_name, queue, create_time, update_time)
 VALUES ('default', 'default', '2018-11-29 10:22:33', '2018-11-29 10:22:33');
 
 -- Records of t_ds_queue,default queue name : default
-INSERT INTO t_ds_version(version) VALUES ('3.0.0');
+INSERT INTO t_ds_version(version) VALUES ('3.0.1');
 
 --
 -- Table structure for table t_ds_plugin_define
@@ -1917,3 +1917,48 @@ CREATE TABLE t_ds_alert_send_status (
     PRIMARY KEY (id),
     CONSTRAINT alert_send_status_unique UNIQUE (alert_id,alert_plugin_instance_id)
 );
+
+--
+-- Table structure for table t_ds_jdbc_registry_data
+--
+DROP TABLE IF EXISTS t_ds_jdbc_registry_data;
+CREATE TABLE t_ds_jdbc_registry_data (
+    id               bigserial NOT NULL,
+    data_key         varchar(255) NOT NULL,
+    data_value       text,
+    data_type        int NOT NULL,
+    client_id        varchar(64) NOT NULL,
+    create_time      bigint NOT NULL,
+    last_update_time bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT jdbc_registry_data_key_unique UNIQUE (data_key)
+);
+CREATE INDEX jdbc_registry_data_key_pattern_index ON t_ds_jdbc_registry_data (data_key varchar_pattern_ops);
+CREATE INDEX jdbc_registry_data_client_index ON t_ds_jdbc_registry_data (client_id);
+
+--
+-- Table structure for table t_ds_jdbc_registry_lock
+--
+DROP TABLE IF EXISTS t_ds_jdbc_registry_lock;
+CREATE TABLE t_ds_jdbc_registry_lock (
+    id          bigserial NOT NULL,
+    lock_key    varchar(255) NOT NULL,
+    lock_owner  varchar(255) NOT NULL,
+    client_id   varchar(64) NOT NULL,
+    create_time bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT jdbc_registry_lock_key_unique UNIQUE (lock_key)
+);
+CREATE INDEX jdbc_registry_lock_client_index ON t_ds_jdbc_registry_lock (client_id);
+
+--
+-- Table structure for table t_ds_jdbc_registry_client_heartbeat
+--
+DROP TABLE IF EXISTS t_ds_jdbc_registry_client_heartbeat;
+CREATE TABLE t_ds_jdbc_registry_client_heartbeat (
+    client_id           varchar(64) NOT NULL,
+    client_name         varchar(255) DEFAULT NULL,
+    last_heartbeat_time bigint NOT NULL,
+    create_time         bigint NOT NULL,
+    PRIMARY KEY (client_id)
+);
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_data
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `t_ds_jdbc_registry_data` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'id',
+  `data_key` varchar(255) NOT NULL COMMENT 'registry key',
+  `data_value` text COMMENT 'registry value',
+  `data_type` tinyint(4) NOT NULL COMMENT '0 persistent, 1 ephemeral',
+  `client_id` varchar(64) NOT NULL COMMENT 'the registry client which wrote the key',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  `last_update_time` bigint(20) NOT NULL COMMENT 'last update time in millis',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uniq_data_key` (`data_key`),
+  KEY `idx_client_id` (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_lock
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `t_ds_jdbc_registry_lock` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'id',
+  `lock_key` varchar(255) NOT NULL COMMENT 'lock key',
+  `lock_owner` varchar(255) NOT NULL COMMENT 'the registry client and thread which hold the lock',
+  `client_id` varchar(64) NOT NULL COMMENT 'the registry client which hold the lock',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uniq_lock_key` (`lock_key`),
+  KEY `idx_client_id` (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_client_heartbeat
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `t_ds_jdbc_registry_client_heartbeat` (
+  `client_id` varchar(64) NOT NULL COMMENT 'registry client id',
+  `client_name` varchar(255) DEFAULT NULL COMMENT 'registry client name',
+  `last_heartbeat_time` bigint(20) NOT NULL COMMENT 'last heartbeat time in millis',
+  `create_time` bigint(20) NOT NULL COMMENT 'create time in millis',
+  PRIMARY KEY (`client_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
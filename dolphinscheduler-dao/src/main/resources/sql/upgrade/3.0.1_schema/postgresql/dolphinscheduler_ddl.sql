@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+--
+-- Table structure for table t_ds_jdbc_registry_data
+--
+CREATE TABLE IF NOT EXISTS t_ds_jdbc_registry_data (
+    id               bigserial NOT NULL,
+    data_key         varchar(255) NOT NULL,
+    data_value       text,
+    data_type        int NOT NULL,
+    client_id        varchar(64) NOT NULL,
+    create_time      bigint NOT NULL,
+    last_update_time bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT jdbc_registry_data_key_unique UNIQUE (data_key)
+);
+CREATE INDEX IF NOT EXISTS jdbc_registry_data_key_pattern_index ON t_ds_jdbc_registry_data (data_key varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS jdbc_registry_data_client_index ON t_ds_jdbc_registry_data (client_id);
+
+--
+-- Table structure for table t_ds_jdbc_registry_lock
+--
+CREATE TABLE IF NOT EXISTS t_ds_jdbc_registry_lock (
+    id          bigserial NOT NULL,
+    lock_key    varchar(255) NOT NULL,
+    lock_owner  varchar(255) NOT NULL,
+    client_id   varchar(64) NOT NULL,
+    create_time bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT jdbc_registry_lock_key_unique UNIQUE (lock_key)
+);
+CREATE INDEX IF NOT EXISTS jdbc_registry_lock_client_index ON t_ds_jdbc_registry_lock (client_id);
+
+--
+-- Table structure for table t_ds_jdbc_registry_client_heartbeat
+--
+CREATE TABLE IF NOT EXISTS t_ds_jdbc_registry_client_heartbeat (
+    client_id           varchar(64) NOT NULL,
+    client_name         varchar(255) DEFAULT NULL,
+    last_heartbeat_time bigint NOT NULL,
+    create_time         bigint NOT NULL,
+    PRIMARY KEY (client_id)
+);
@@ -20,7 +20,10 @@ package org.apache.dolphinscheduler.dao;
 import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.enums.ProfileType;
 import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import org.junit.Assert;
@@ -67,6 +70,31 @@ public class AlertDaoTest {
         Assert.assertEquals(1, insertCount);
     }
 
+    @Test
+    public void testUpdateAlertsWithSendStatuses() {
+        Alert alert = new Alert();
+        alert.setTitle("Mysql Exception");
+        alert.setContent("[\"alarm time：2018-02-05\"]");
+        alert.setAlertGroupId(1);
+        alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+        alertDao.addAlert(alert);
+
+        AlertSendStatus alertSendStatus = new AlertSendStatus();
+        alertSendStatus.setAlertId(alert.getId());
+        alertSendStatus.setAlertPluginInstanceId(1);
+        alertSendStatus.setSendStatus(AlertStatus.EXECUTION_SUCCESS);
+        alertSendStatus.setLog("success");
+        alertSendStatus.setCreateTime(new Date());
+        alertDao.updateAlertsWithSendStatuses(Collections.singletonList(alert.getId()), AlertStatus.EXECUTION_SUCCESS,
+                "", Collections.singletonList(alertSendStatus));
+
+        long count = alertDao.listPendingAlerts()
+                             .stream()
+                             .filter(pendingAlert -> alert.getId().equals(pendingAlert.getId()))
+                             .count();
+        Assert.assertEquals(0L, count);
+    }
+
     @Test
     public void testSendServerStoppedAlert() {
         int alertGroupId = 1;
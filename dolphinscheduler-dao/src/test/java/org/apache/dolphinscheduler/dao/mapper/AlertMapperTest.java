@@ -86,6 +86,24 @@ public class AlertMapperTest extends BaseDaoTest {
         assertEquals(expectedAlert, actualAlert);
     }
 
+    /**
+     * test update alert status
+     */
+    @Test
+    public void testUpdateAlertStatus() {
+        Map<Integer, Alert> alertMap = createAlertMap(2, AlertStatus.WAIT_EXECUTION);
+
+        int count = alertMapper.updateAlertStatus(alertMap.keySet(), AlertStatus.EXECUTION_SUCCESS, "",
+                DateUtils.getCurrentDate());
+
+        assertEquals(2, count);
+        for (Integer id : alertMap.keySet()) {
+            Alert actualAlert = alertMapper.selectById(id);
+            assertEquals(AlertStatus.EXECUTION_SUCCESS, actualAlert.getAlertStatus());
+            assertEquals("", actualAlert.getLog());
+        }
+    }
+
     /**
      * test delete
      */
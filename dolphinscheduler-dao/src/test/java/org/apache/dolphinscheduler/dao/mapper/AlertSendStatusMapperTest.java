@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.dao.mapper;
 
 import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import org.apache.dolphinscheduler.common.enums.AlertStatus;
@@ -25,9 +26,14 @@ import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.dao.BaseDaoTest;
 import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+
 /**
  * AlertSendStatus mapper test
  */
@@ -50,4 +56,27 @@ public class AlertSendStatusMapperTest extends BaseDaoTest {
         alertSendStatusMapper.insert(alertSendStatus);
         assertThat(alertSendStatus.getId(), greaterThan(0));
     }
+
+    /**
+     * test batch insert
+     */
+    @Test
+    public void testBatchInsert() {
+        List<AlertSendStatus> alertSendStatuses = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            AlertSendStatus alertSendStatus = new AlertSendStatus();
+            alertSendStatus.setAlertId(2);
+            alertSendStatus.setAlertPluginInstanceId(i);
+            alertSendStatus.setSendStatus(AlertStatus.EXECUTION_FAILURE);
+            alertSendStatus.setLog("fail");
+            alertSendStatus.setCreateTime(DateUtils.getCurrentDate());
+            alertSendStatuses.add(alertSendStatus);
+        }
+
+        assertEquals(2, alertSendStatusMapper.batchInsert(alertSendStatuses));
+        List<AlertSendStatus> actual = alertSendStatusMapper.selectList(
+                new QueryWrapper<AlertSendStatus>().lambda().eq(AlertSendStatus::getAlertId, 2));
+        assertEquals(2, actual.size());
+        assertEquals(AlertStatus.EXECUTION_FAILURE, actual.get(0).getSendStatus());
+    }
 }
@@ -20,10 +20,10 @@ package org.apache.dolphinscheduler.dao.mapper;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.CommandType;
@@ -39,6 +39,7 @@ import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.CommandCount;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -168,33 +169,44 @@ public class CommandMapperTest extends BaseDaoTest {
     }
 
     /**
-     * test query command page by slot
+     * test query command page by slots
      */
     @Test
-    public void testQueryCommandPageBySlot() {
-        int masterCount = 4;
-        int thisMasterSlot = 2;
-        // for hit or miss
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
-        toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
+    public void testQueryCommandPageBySlots() {
+        int slotCount = 8;
+        List<Integer> slots = Arrays.asList(1, 3, 6);
+        for (int i = 0; i < 4; i++) {
+            Command command = createCommand();
+            List<Command> commandList = commandMapper.queryCommandPageBySlots(100, 0, slotCount, slots);
+            boolean hit = slots.contains(command.getId() % slotCount);
+            assertEquals(hit, commandList.stream().anyMatch(o -> o.getId() == command.getId()));
+            commandList.forEach(o -> assertTrue(slots.contains(o.getId() % slotCount)));
+        }
     }
 
-    private boolean toTestQueryCommandPageBySlot(int masterCount, int thisMasterSlot) {
-        Command command = createCommand();
-        int id = command.getId();
-        boolean hit = id % masterCount == thisMasterSlot;
-        List<Command> commandList = commandMapper.queryCommandPageBySlot(1, 0, masterCount, thisMasterSlot);
-        if (hit) {
-            assertEquals(id,commandList.get(0).getId());
-        } else {
-            commandList.forEach(o -> {
-                assertNotEquals(id, o.getId());
-                assertEquals(thisMasterSlot, o.getId() % masterCount);
-            });
-        }
-        return hit;
+    /**
+     * test batch insert
+     */
+    @Test
+    public void testBatchInsert() {
+        Command command = new Command();
+        command.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
+        command.setProcessDefinitionCode(2L);
+        command.setProcessInstanceId(3);
+        command.setWarningType(WarningType.NONE);
+        command.setEnvironmentCode(-1L);
+        Command command2 = new Command();
+        command2.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
+        command2.setProcessDefinitionCode(2L);
+        command2.setProcessInstanceId(4);
+        command2.setWarningType(WarningType.NONE);
+        command2.setEnvironmentCode(-1L);
+
+        assertEquals(2, commandMapper.batchInsert(Arrays.asList(command, command2)));
+        List<Command> commandList = commandMapper.queryCommandPage(100, 0);
+        assertTrue(commandList.stream().anyMatch(o -> o.getProcessInstanceId() == 3
+            && o.getCommandType() == CommandType.RECOVER_TOLERANCE_FAULT_PROCESS));
+        assertTrue(commandList.stream().anyMatch(o -> o.getProcessInstanceId() == 4));
     }
 
 
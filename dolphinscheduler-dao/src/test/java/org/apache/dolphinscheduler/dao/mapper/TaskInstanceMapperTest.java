@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -198,6 +199,26 @@ public class TaskInstanceMapperTest extends BaseDaoTest {
         Assert.assertNotEquals(taskInstances1.size(), 0);
     }
 
+    /**
+     * test find valid task list by process instance ids and update state and flag by ids
+     */
+    @Test
+    public void testFindValidTaskListByProcessIdsAndUpdateStateAndFlag() {
+        ProcessInstance processInstance = insertProcessInstance();
+        List<Integer> processInstanceIds = Arrays.asList(processInstance.getId(), processInstance.getId() + 1);
+        TaskInstance task = insertTaskInstance(processInstanceIds.get(0));
+        TaskInstance task2 = insertTaskInstance(processInstanceIds.get(1));
+
+        List<TaskInstance> taskInstances = taskInstanceMapper.findValidTaskListByProcessIds(processInstanceIds, Flag.YES);
+        Assert.assertEquals(2, taskInstances.size());
+
+        int updateResult = taskInstanceMapper.updateStateAndFlagByIds(Arrays.asList(task.getId(), task2.getId()),
+                ExecutionStatus.NEED_FAULT_TOLERANCE, Flag.NO);
+        Assert.assertEquals(2, updateResult);
+        Assert.assertEquals(ExecutionStatus.NEED_FAULT_TOLERANCE, taskInstanceMapper.selectById(task.getId()).getState());
+        Assert.assertTrue(taskInstanceMapper.findValidTaskListByProcessIds(processInstanceIds, Flag.YES).isEmpty());
+    }
+
     /**
      * test query by host and status
      */
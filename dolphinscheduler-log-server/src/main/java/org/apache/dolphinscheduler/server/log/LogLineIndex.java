@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sparse index of the line offsets of a log file, the offset of every {@link #interval} lines is kept.
+ * <p>
+ * The index is built lazily when the file is read, and extended from where it stopped when the file grows,
+ * so a page of the lines is read from the nearest indexed line before it, not from the start of the file.
+ * The line terminators are the same as {@link BufferedReader#readLine()}.
+ */
+public class LogLineIndex {
+
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final int interval;
+
+    /**
+     * checkpoints[k] is the offset of the line k * interval
+     */
+    private long[] checkpoints = new long[16];
+
+    private int checkpointCount;
+
+    /**
+     * the complete lines scanned
+     */
+    private long indexedLines;
+
+    /**
+     * the offset after the last complete line scanned
+     */
+    private long indexedPosition;
+
+    public LogLineIndex() {
+        this(DEFAULT_INTERVAL);
+    }
+
+    public LogLineIndex(int interval) {
+        this.interval = interval;
+        reset();
+    }
+
+    /**
+     * Read the lines of the file.
+     *
+     * @param file file
+     * @param skipLine skip line
+     * @param limit read lines limit
+     * @return the lines
+     */
+    public List<String> readLines(Path file, int skipLine, int limit) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (skipLine < 0 || limit <= 0) {
+            return lines;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long line;
+            long offset;
+            synchronized (this) {
+                update(channel);
+                int k = (int) Math.min(skipLine / interval, checkpointCount - 1);
+                line = (long) k * interval;
+                offset = checkpoints[k];
+            }
+            channel.position(offset);
+            // the channel is closed by the reader
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String content;
+            while ((content = reader.readLine()) != null) {
+                if (line++ < skipLine) {
+                    continue;
+                }
+                lines.add(content);
+                if (lines.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Scan the lines after the indexed position, the index is rebuilt if the file is truncated.
+     */
+    private void update(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < indexedPosition) {
+            reset();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = indexedPosition;
+        boolean lastIsCarriageReturn = false;
+        while (position < size) {
+            buffer.clear();
+            int length = channel.read(buffer, position);
+            if (length <= 0) {
+                break;
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                long offset = position + i;
+                if (lastIsCarriageReturn) {
+                    lastIsCarriageReturn = false;
+                    if (b == '\n') {
+                        lineEnd(offset + 1);
+                        continue;
+                    }
+                    lineEnd(offset);
+                }
+                if (b == '\n') {
+                    lineEnd(offset + 1);
+                } else if (b == '\r') {
+                    // a line ending with \r is complete only when the next byte is known
+                    lastIsCarriageReturn = true;
+                }
+            }
+            position += length;
+        }
+    }
+
+    private void lineEnd(long nextLineOffset) {
+        indexedLines++;
+        indexedPosition = nextLineOffset;
+        if (indexedLines % interval == 0) {
+            if (checkpointCount == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+            }
+            checkpoints[checkpointCount++] = nextLineOffset;
+        }
+    }
+
+    private void reset() {
+        checkpoints = new long[16];
+        checkpointCount = 1;
+        indexedLines = 0;
+        indexedPosition = 0;
+    }
+}
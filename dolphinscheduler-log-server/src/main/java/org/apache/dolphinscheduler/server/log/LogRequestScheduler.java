@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+import org.apache.dolphinscheduler.server.metrics.LogServerMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * Run the log requests on a bounded pool, a request is rejected instead of being queued once the log server is busy.
+ * <p>
+ * The waiting requests are taken by their priority, so a small roll view request doesn't wait behind the whole-file
+ * downloads. A client can only have a few requests in flight, a request is in flight until its responses are written
+ * to the channel, so a client reading slowly holds its own requests back instead of the requests of the others.
+ * A tail doesn't take a process thread, but it's in flight until it's ended, and the running tails are capped.
+ */
+public class LogRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogRequestScheduler.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final int maxQueueSize;
+
+    private final int maxRequestsPerClient;
+
+    private final int maxTails;
+
+    private final AtomicInteger tailCount = new AtomicInteger();
+
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * the requests in flight of the clients, a client without requests in flight is removed
+     */
+    private final Map<String, Integer> clientRequests = new ConcurrentHashMap<>();
+
+    public LogRequestScheduler(int threadNum, int maxQueueSize, int maxRequestsPerClient, int maxTails) {
+        this.executor = new ThreadPoolExecutor(threadNum, threadNum, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new NamedThreadFactory("Log-Request-Process-Thread"));
+        this.maxQueueSize = maxQueueSize;
+        this.maxRequestsPerClient = maxRequestsPerClient;
+        this.maxTails = maxTails;
+        LogServerMetrics.registerRequestQueuedGauge(queuedCount::get);
+    }
+
+    /**
+     * the priority of a request, the waiting requests of a higher priority are taken first
+     */
+    public enum Priority {
+
+        /**
+         * the requests reading a few lines or no content at all
+         */
+        HIGH,
+
+        /**
+         * the requests reading the whole log
+         */
+        LOW
+    }
+
+    public interface Request {
+
+        /**
+         * process the request
+         *
+         * @return the future of the last response written, null if the responses are all written
+         */
+        Future<?> process() throws Exception;
+    }
+
+    /**
+     * run the request of the client, unless the queue is full or the client has too many requests in flight
+     *
+     * @param client client
+     * @param priority priority
+     * @param request request
+     * @return false if the request is rejected
+     */
+    public boolean execute(String client, Priority priority, Request request) {
+        if (!acquire(client)) {
+            LogServerMetrics.incRequestRejectedCount(LogServerMetrics.REJECT_REASON_CLIENT_LIMIT);
+            return false;
+        }
+        if (queuedCount.incrementAndGet() > maxQueueSize) {
+            queuedCount.decrementAndGet();
+            release(client);
+            LogServerMetrics.incRequestRejectedCount(LogServerMetrics.REJECT_REASON_QUEUE_FULL);
+            return false;
+        }
+        try {
+            executor.execute(new Task(client, priority, sequence.getAndIncrement(), request));
+        } catch (RejectedExecutionException e) {
+            queuedCount.decrementAndGet();
+            release(client);
+            LogServerMetrics.incRequestRejectedCount(LogServerMetrics.REJECT_REASON_QUEUE_FULL);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * start a tail of the client, unless there are too many tails or the client has too many requests in flight,
+     * the tail must be released by {@link #releaseTail(String)} once it's ended
+     *
+     * @param client client
+     * @return false if the tail is rejected
+     */
+    public boolean acquireTail(String client) {
+        if (!acquire(client)) {
+            LogServerMetrics.incRequestRejectedCount(LogServerMetrics.REJECT_REASON_CLIENT_LIMIT);
+            return false;
+        }
+        if (tailCount.incrementAndGet() > maxTails) {
+            tailCount.decrementAndGet();
+            release(client);
+            LogServerMetrics.incRequestRejectedCount(LogServerMetrics.REJECT_REASON_TAIL_LIMIT);
+            return false;
+        }
+        return true;
+    }
+
+    public void releaseTail(String client) {
+        tailCount.decrementAndGet();
+        release(client);
+    }
+
+    int getTailCount() {
+        return tailCount.get();
+    }
+
+    int getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    int getRequestCount(String client) {
+        return clientRequests.getOrDefault(client, 0);
+    }
+
+    private boolean acquire(String client) {
+        AtomicBoolean acquired = new AtomicBoolean();
+        clientRequests.compute(client, (key, count) -> {
+            int requests = count == null ? 0 : count;
+            if (requests >= maxRequestsPerClient) {
+                return count;
+            }
+            acquired.set(true);
+            return requests + 1;
+        });
+        return acquired.get();
+    }
+
+    private void release(String client) {
+        clientRequests.computeIfPresent(client, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+
+        private final String client;
+
+        private final Priority priority;
+
+        private final long sequence;
+
+        private final Request request;
+
+        Task(String client, Priority priority, long sequence, Request request) {
+            this.client = client;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            queuedCount.decrementAndGet();
+            Future<?> future = null;
+            try {
+                future = request.process();
+            } catch (Exception e) {
+                logger.error("process log request of {} error", client, e);
+            } finally {
+                if (future == null) {
+                    release(client);
+                } else {
+                    future.addListener(f -> release(client));
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
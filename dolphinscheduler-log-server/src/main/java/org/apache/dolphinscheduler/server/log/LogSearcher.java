@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.log.SearchLogLine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Search the lines of a log file for a substring or a regular expression, like grep with context lines.
+ * <p>
+ * The file is scanned through memory mapped regions. A substring is matched on the bytes of the lines,
+ * so only the lines sent back are decoded, a regular expression is matched on the decoded lines.
+ */
+public class LogSearcher {
+
+    /**
+     * the size of a mapped region, a line longer than it is split
+     */
+    static final int REGION_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * the longer content of a line is cut off
+     */
+    static final int MAX_LINE_LENGTH = 65535;
+
+    private static final int CANCEL_CHECK_LINES = 4096;
+
+    private final byte[] substring;
+
+    private final Pattern pattern;
+
+    private final int contextLines;
+
+    private final int limit;
+
+    private final int regionSize;
+
+    /**
+     * @param pattern the substring or the regular expression
+     * @param regex whether the pattern is a regular expression
+     * @param contextLines the lines before and after a matched line
+     * @param limit the max matched lines
+     */
+    public LogSearcher(String pattern, boolean regex, int contextLines, int limit) {
+        this(pattern, regex, contextLines, limit, REGION_SIZE);
+    }
+
+    LogSearcher(String pattern, boolean regex, int contextLines, int limit, int regionSize) {
+        this.substring = regex ? null : pattern.getBytes(StandardCharsets.UTF_8);
+        this.pattern = regex ? Pattern.compile(pattern) : null;
+        this.contextLines = Math.max(0, contextLines);
+        this.limit = limit;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Search the file, the matched lines and their context lines are passed to the consumer in order.
+     *
+     * @param file file
+     * @param consumer line consumer
+     * @param cancelled whether the search is cancelled, it's checked every few thousand lines
+     * @return the matched lines
+     */
+    public int search(Path file, Consumer<SearchLogLine> consumer, BooleanSupplier cancelled) throws IOException {
+        Scan scan = new Scan(consumer);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long regionStart = 0;
+            while (regionStart < size && !scan.isDone()) {
+                int length = (int) Math.min(regionSize, size - regionStart);
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, length);
+                boolean last = regionStart + length == size;
+                int lineStart = 0;
+                for (int i = 0; i < length && !scan.isDone(); i++) {
+                    if (region.get(i) == '\n') {
+                        scan.line(region, regionStart, lineStart, i);
+                        lineStart = i + 1;
+                        if (scan.lineNumber % CANCEL_CHECK_LINES == 0 && cancelled.getAsBoolean()) {
+                            return scan.matches;
+                        }
+                    }
+                }
+                if (scan.isDone()) {
+                    break;
+                }
+                if (last || lineStart == 0) {
+                    // the last line without a terminator, or a line longer than a region
+                    if (lineStart < length) {
+                        scan.line(region, regionStart, lineStart, length);
+                    }
+                    lineStart = length;
+                }
+                regionStart += lineStart;
+            }
+        }
+        return scan.matches;
+    }
+
+    private boolean matches(ByteBuffer region, int start, int end) {
+        if (pattern != null) {
+            return pattern.matcher(decode(region, start, end, Integer.MAX_VALUE)).find();
+        }
+        int last = end - substring.length;
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < substring.length && region.get(i + j) == substring[j]) {
+                j++;
+            }
+            if (j == substring.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String decode(ByteBuffer region, int start, int end, int maxLength) {
+        if (end > start && region.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[Math.min(end - start, maxLength)];
+        ByteBuffer line = region.duplicate();
+        line.position(start);
+        line.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * the state of a search
+     */
+    private final class Scan {
+
+        private final Consumer<SearchLogLine> consumer;
+
+        /**
+         * the lines before the current line, not sent yet
+         */
+        private final Deque<Line> before = new ArrayDeque<>();
+
+        private long lineNumber;
+
+        private int matches;
+
+        private int afterRemaining;
+
+        Scan(Consumer<SearchLogLine> consumer) {
+            this.consumer = consumer;
+        }
+
+        void line(ByteBuffer region, long regionStart, int start, int end) {
+            lineNumber++;
+            if (matches < limit && matches(region, start, end)) {
+                for (Line line : before) {
+                    emit(line.region, line.offset, line.start, line.end, line.lineNumber, false);
+                }
+                before.clear();
+                emit(region, regionStart + start, start, end, lineNumber, true);
+                matches++;
+                afterRemaining = contextLines;
+            } else if (afterRemaining > 0) {
+                emit(region, regionStart + start, start, end, lineNumber, false);
+                afterRemaining--;
+            } else if (contextLines > 0) {
+                if (before.size() == contextLines) {
+                    before.removeFirst();
+                }
+                before.addLast(new Line(region, regionStart + start, start, end, lineNumber));
+            }
+        }
+
+        boolean isDone() {
+            return matches >= limit && afterRemaining == 0;
+        }
+
+        private void emit(ByteBuffer region, long offset, int start, int end, long number, boolean match) {
+            consumer.accept(new SearchLogLine(number, offset, match, decode(region, start, end, MAX_LINE_LENGTH)));
+        }
+    }
+
+    private static final class Line {
+
+        private final ByteBuffer region;
+
+        private final long offset;
+
+        private final int start;
+
+        private final int end;
+
+        private final long lineNumber;
+
+        Line(ByteBuffer region, long offset, int start, int end, long lineNumber) {
+            this.region = region;
+            this.offset = offset;
+            this.start = start;
+            this.end = end;
+            this.lineNumber = lineNumber;
+        }
+    }
+}
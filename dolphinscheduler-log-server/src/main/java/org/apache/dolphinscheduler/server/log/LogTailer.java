@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Push the bytes appended to the tailed logs to the subscribers, on a single thread for all the tails.
+ * <p>
+ * The sizes of the tailed logs are polled, and only the appended bytes are read, so a growing log is never read
+ * again from the start. A tail is ended once its log is idle for a while, or the log is gone or truncated,
+ * the subscriber tails again from the next offset if it still needs the log. The tail of a log which doesn't
+ * grow any more is ended once it reaches the end of the log.
+ */
+public class LogTailer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailer.class);
+
+    /**
+     * the max bytes of the content in a response
+     */
+    static final int MAX_CONTENT_SIZE = 64 * 1024;
+
+    /**
+     * the max responses of a tail in a round, so a tail catching up on a large log doesn't starve the others
+     */
+    private static final int MAX_RESPONSES_PER_ROUND = 16;
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final long MAX_IDLE_MILLIS = 60 * 1000L;
+
+    private final long maxIdleMillis;
+
+    /**
+     * the running tails, keyed by the remote address and the opaque of the request
+     */
+    private final Map<String, Tail> tails = new ConcurrentHashMap<>();
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_CONTENT_SIZE);
+
+    private final ScheduledExecutorService scheduler;
+
+    public LogTailer() {
+        this.maxIdleMillis = MAX_IDLE_MILLIS;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Log-Tail-Thread").build());
+        scheduler.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * the logs are only tailed on calling {@link #poll()}
+     */
+    LogTailer(long maxIdleMillis) {
+        this.maxIdleMillis = maxIdleMillis;
+        this.scheduler = null;
+    }
+
+    /**
+     * tail the log from the offset
+     *
+     * @param key the key to cancel the tail
+     * @param path log path
+     * @param offset the byte offset to tail from
+     * @param subscriber the subscriber of the appended bytes
+     */
+    public void tail(String key, Path path, long offset, Subscriber subscriber) {
+        tail(key, path, offset, false, subscriber);
+    }
+
+    /**
+     * tail the log from the offset
+     *
+     * @param key the key to cancel the tail
+     * @param path log path
+     * @param offset the byte offset to tail from
+     * @param stopAtEnd whether the tail is ended once it reaches the end of the log
+     * @param subscriber the subscriber of the appended bytes
+     */
+    public void tail(String key, Path path, long offset, boolean stopAtEnd, Subscriber subscriber) {
+        Tail tail = new Tail(path, Math.max(0, offset), stopAtEnd, subscriber, System.currentTimeMillis());
+        Tail oldTail = tails.put(key, tail);
+        if (oldTail != null) {
+            oldTail.subscriber.ended();
+        }
+    }
+
+    public void cancel(String key) {
+        Tail tail = tails.remove(key);
+        if (tail != null) {
+            tail.subscriber.ended();
+        }
+    }
+
+    int getTailCount() {
+        return tails.size();
+    }
+
+    /**
+     * stop tailing, the running tails are dropped without the end responses
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        tails.keySet().forEach(this::cancel);
+    }
+
+    /**
+     * push the appended bytes of all the tails
+     */
+    synchronized void poll() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Tail> entry : tails.entrySet()) {
+            Tail tail = entry.getValue();
+            boolean ended;
+            try {
+                ended = tail.poll(now);
+            } catch (Exception e) {
+                logger.error("tail log: {} error", tail.path, e);
+                tail.end();
+                ended = true;
+            }
+            // the tail may be cancelled or replaced at the same time, it's only ended once
+            if (ended && tails.remove(entry.getKey(), tail)) {
+                tail.subscriber.ended();
+            }
+        }
+    }
+
+    /**
+     * the subscriber of a tail, it's called on the tail thread
+     */
+    public interface Subscriber {
+
+        /**
+         * whether the subscriber is still there, the tail is ended silently once it's gone
+         */
+        boolean isActive();
+
+        /**
+         * whether the subscriber can take more responses, the tail waits until it can
+         */
+        boolean isWritable();
+
+        void send(TailLogResponseCommand response);
+
+        /**
+         * called once the tail is ended or cancelled
+         */
+        void ended();
+    }
+
+    private final class Tail {
+
+        private final Path path;
+
+        private final boolean stopAtEnd;
+
+        private final Subscriber subscriber;
+
+        private long offset;
+
+        private long lastActiveTime;
+
+        Tail(Path path, long offset, boolean stopAtEnd, Subscriber subscriber, long now) {
+            this.path = path;
+            this.offset = offset;
+            this.stopAtEnd = stopAtEnd;
+            this.subscriber = subscriber;
+            this.lastActiveTime = now;
+        }
+
+        /**
+         * @return whether the tail is ended
+         */
+        boolean poll(long now) throws IOException {
+            if (!subscriber.isActive()) {
+                return true;
+            }
+            long size = Files.isRegularFile(path) ? Files.size(path) : -1;
+            if (size >= 0 && size < offset) {
+                logger.info("tail log: {} is truncated", path);
+                end();
+                return true;
+            }
+            for (int i = 0; i < MAX_RESPONSES_PER_ROUND && size > offset; i++) {
+                if (!subscriber.isWritable()) {
+                    lastActiveTime = now;
+                    return false;
+                }
+                int length = read(size);
+                if (length == 0) {
+                    break;
+                }
+                String content = new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+                subscriber.send(new TailLogResponseCommand(offset, content, offset + length, false));
+                offset += length;
+                lastActiveTime = now;
+            }
+            if ((stopAtEnd && offset >= size) || now - lastActiveTime >= maxIdleMillis) {
+                end();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * read the appended bytes into the buffer, cut on a character boundary
+         *
+         * @return the bytes to send
+         */
+        private int read(long size) throws IOException {
+            buffer.clear();
+            buffer.limit((int) Math.min(MAX_CONTENT_SIZE, size - offset));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            }
+            return characterBoundary(buffer.array(), buffer.position());
+        }
+
+        void end() {
+            if (subscriber.isActive()) {
+                subscriber.send(new TailLogResponseCommand(offset, "", offset, true));
+            }
+        }
+    }
+
+    /**
+     * the length of the complete utf-8 characters in the bytes, a character split at the end is left for later
+     */
+    static int characterBoundary(byte[] bytes, int length) {
+        // the start of the last character is at most 3 bytes before the end
+        for (int i = length - 1; i >= 0 && i >= length - 4; i--) {
+            int b = bytes[i] & 0xff;
+            if ((b & 0xc0) == 0x80) {
+                continue;
+            }
+            int characterLength = b < 0x80 ? 1 : b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : 2;
+            return i + characterLength > length ? i : length;
+        }
+        return length;
+    }
+}
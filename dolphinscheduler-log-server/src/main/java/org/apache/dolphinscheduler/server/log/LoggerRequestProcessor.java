@@ -23,15 +23,24 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogCancelCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogLine;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogCancelCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.remote.utils.Constants;
-import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+import org.apache.dolphinscheduler.remote.utils.FileChunkWriter;
+import org.apache.dolphinscheduler.remote.utils.Host;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -41,44 +50,92 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * logger request process logic
+ * <p>
+ * The requests are dispatched on the io threads, the cancel and tail requests are handled there directly,
+ * the requests reading the logs are queued to the {@link LogRequestScheduler}, and answered with a busy response
+ * if the log server is busy, so a burst of log downloads never piles up on a server running the tasks.
+ * The tails are counted by the scheduler as well, and rejected the same way.
  */
 @Component
 public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final Logger logger = LoggerFactory.getLogger(LoggerRequestProcessor.class);
 
-    private final ExecutorService executor;
+    /**
+     * the max requests waiting for the process threads
+     */
+    private static final int MAX_QUEUE_SIZE = 200;
+
+    /**
+     * the max requests in flight of a client host
+     */
+    private static final int MAX_REQUESTS_PER_CLIENT = 64;
+
+    /**
+     * the max running tails of all the clients
+     */
+    private static final int MAX_TAILS = 256;
+
+    private final ExecutorService executor = MoreExecutors.newDirectExecutorService();
+
+    private final LogRequestScheduler scheduler;
+
+    /**
+     * the line indexes of the logs being viewed, to page the lines without reading the file from the start
+     */
+    private final Cache<String, LogLineIndex> lineIndexes = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * the cancel flags of the running searches, the key is the remote address and the opaque of the request
+     */
+    private final Map<String, AtomicBoolean> searches = new ConcurrentHashMap<>();
+
+    private final LogTailer logTailer = new LogTailer();
 
     public LoggerRequestProcessor() {
-        this.executor = Executors.newFixedThreadPool(Constants.CPUS * 2 + 1,
-                new NamedThreadFactory("Log-Request-Process-Thread"));
+        this.scheduler = new LogRequestScheduler(Constants.CPUS * 2 + 1, MAX_QUEUE_SIZE, MAX_REQUESTS_PER_CLIENT,
+                MAX_TAILS);
     }
 
     @Override
     public void process(Channel channel, Command command) {
-        logger.info("received command : {}", command);
+        if (logger.isDebugEnabled()) {
+            logger.debug("received command : {}", command);
+        }
 
         //request task log command type
         final CommandType commandType = command.getType();
+        final long opaque = command.getOpaque();
         switch (commandType) {
             case GET_LOG_BYTES_REQUEST:
                 GetLogBytesRequestCommand getLogRequest = JSONUtils.parseObject(
@@ -87,9 +144,54 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(path)) {
                     throw new IllegalArgumentException("Illegal path: " + path);
                 }
-                byte[] bytes = getFileContentBytes(path);
-                GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
-                channel.writeAndFlush(getLogResponse.convert2Command(command.getOpaque()));
+                schedule(channel, command, LogRequestScheduler.Priority.LOW, () -> {
+                    byte[] bytes = getFileContentBytes(path);
+                    GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
+                    return channel.writeAndFlush(getLogResponse.convert2Command(opaque));
+                });
+                break;
+            case GET_LOG_STREAM_REQUEST:
+                GetLogStreamRequestCommand getLogStreamRequest = JSONUtils.parseObject(
+                        command.getBody(), GetLogStreamRequestCommand.class);
+                String streamPath = getLogStreamRequest.getPath();
+                if (!checkPathSecurity(streamPath)) {
+                    throw new IllegalArgumentException("Illegal path: " + streamPath);
+                }
+                schedule(channel, command, LogRequestScheduler.Priority.LOW,
+                    () -> FileChunkWriter.write(channel, CommandType.GET_LOG_STREAM_RESPONSE, opaque,
+                            new File(streamPath), FileChunkWriter.DEFAULT_CHUNK_SIZE));
+                break;
+            case SEARCH_LOG_REQUEST:
+                SearchLogRequestCommand searchLogRequest = JSONUtils.parseObject(
+                        command.getBody(), SearchLogRequestCommand.class);
+                String searchLogPath = searchLogRequest.getPath();
+                if (!checkPathSecurity(searchLogPath)) {
+                    throw new IllegalArgumentException("Illegal path: " + searchLogPath);
+                }
+                schedule(channel, command, LogRequestScheduler.Priority.LOW,
+                    () -> searchLog(channel, opaque, searchLogRequest));
+                break;
+            case SEARCH_LOG_CANCEL_REQUEST:
+                SearchLogCancelCommand searchLogCancel = JSONUtils.parseObject(
+                        command.getBody(), SearchLogCancelCommand.class);
+                AtomicBoolean cancelled = searches.get(requestKey(channel, searchLogCancel.getSearchOpaque()));
+                if (cancelled != null) {
+                    cancelled.set(true);
+                }
+                break;
+            case TAIL_LOG_REQUEST:
+                TailLogRequestCommand tailLogRequest = JSONUtils.parseObject(
+                        command.getBody(), TailLogRequestCommand.class);
+                String tailLogPath = tailLogRequest.getPath();
+                if (!checkPathSecurity(tailLogPath)) {
+                    throw new IllegalArgumentException("Illegal path: " + tailLogPath);
+                }
+                tail(channel, command, tailLogRequest);
+                break;
+            case TAIL_LOG_CANCEL_REQUEST:
+                TailLogCancelCommand tailLogCancel = JSONUtils.parseObject(
+                        command.getBody(), TailLogCancelCommand.class);
+                logTailer.cancel(requestKey(channel, tailLogCancel.getTailOpaque()));
                 break;
             case VIEW_WHOLE_LOG_REQUEST:
                 ViewLogRequestCommand viewLogRequest = JSONUtils.parseObject(
@@ -98,9 +200,11 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(viewLogPath)) {
                     throw new IllegalArgumentException("Illegal path: " + viewLogPath);
                 }
-                String msg = LoggerUtils.readWholeFileContent(viewLogPath);
-                ViewLogResponseCommand viewLogResponse = new ViewLogResponseCommand(msg);
-                channel.writeAndFlush(viewLogResponse.convert2Command(command.getOpaque()));
+                schedule(channel, command, LogRequestScheduler.Priority.LOW, () -> {
+                    String msg = LoggerUtils.readWholeFileContent(viewLogPath);
+                    ViewLogResponseCommand viewLogResponse = new ViewLogResponseCommand(msg);
+                    return channel.writeAndFlush(viewLogResponse.convert2Command(opaque));
+                });
                 break;
             case ROLL_VIEW_LOG_REQUEST:
                 RollViewLogRequestCommand rollViewLogRequest = JSONUtils.parseObject(
@@ -110,31 +214,8 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(rollViewLogPath)) {
                     throw new IllegalArgumentException("Illegal path: " + rollViewLogPath);
                 }
-
-                List<String> lines = readPartFileContent(rollViewLogPath,
-                        rollViewLogRequest.getSkipLineNum(), rollViewLogRequest.getLimit());
-                StringBuilder builder = new StringBuilder();
-                final int MaxResponseLogSize = 65535;
-                int totalLogByteSize = 0;
-                for (String line : lines) {
-                    //If a single line of log is exceed max response size, cut off the line
-                    final int lineByteSize = line.getBytes(StandardCharsets.UTF_8).length;
-                    if (lineByteSize >= MaxResponseLogSize) {
-                        builder.append(line, 0, MaxResponseLogSize)
-                                .append(" [this line's size ").append(lineByteSize).append(" bytes is exceed ")
-                                .append(MaxResponseLogSize).append(" bytes, so only ")
-                                .append(MaxResponseLogSize).append(" characters are reserved for performance reasons.]")
-                                .append("\r\n");
-                    } else {
-                        builder.append(line).append("\r\n");
-                    }
-                    totalLogByteSize += lineByteSize;
-                    if (totalLogByteSize >= MaxResponseLogSize) {
-                        break;
-                    }
-                }
-                RollViewLogResponseCommand rollViewLogRequestResponse = new RollViewLogResponseCommand(builder.toString());
-                channel.writeAndFlush(rollViewLogRequestResponse.convert2Command(command.getOpaque()));
+                schedule(channel, command, LogRequestScheduler.Priority.HIGH,
+                    () -> rollViewLog(channel, opaque, rollViewLogRequest));
                 break;
             case REMOVE_TAK_LOG_REQUEST:
                 RemoveTaskLogRequestCommand removeTaskLogRequest = JSONUtils.parseObject(
@@ -144,24 +225,99 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(taskLogPath)) {
                     throw new IllegalArgumentException("Illegal path: " + taskLogPath);
                 }
-                File taskLogFile = new File(taskLogPath);
-                boolean status = true;
-                try {
-                    if (taskLogFile.exists()) {
-                        status = taskLogFile.delete();
-                    }
-                } catch (Exception e) {
-                    status = false;
-                }
-
-                RemoveTaskLogResponseCommand removeTaskLogResponse = new RemoveTaskLogResponseCommand(status);
-                channel.writeAndFlush(removeTaskLogResponse.convert2Command(command.getOpaque()));
+                schedule(channel, command, LogRequestScheduler.Priority.HIGH,
+                    () -> removeTaskLog(channel, opaque, taskLogPath));
                 break;
             default:
                 throw new IllegalArgumentException("unknown commandType: " + commandType);
         }
     }
 
+    /**
+     * queue the request, or answer it with a busy response if the log server is busy
+     */
+    private void schedule(Channel channel, Command command, LogRequestScheduler.Priority priority,
+                          LogRequestScheduler.Request request) {
+        Host client = ChannelUtils.toAddress(channel);
+        if (Host.EMPTY.equals(client)) {
+            // nobody waits for the responses on the closed channel
+            return;
+        }
+        if (scheduler.execute(client.getIp(), priority, request)) {
+            return;
+        }
+        rejectBusy(channel, command, client);
+    }
+
+    /**
+     * tail the log, or answer it with a busy response if there are too many tails,
+     * the tail is in flight until it's ended
+     */
+    private void tail(Channel channel, Command command, TailLogRequestCommand tailLogRequest) {
+        Host client = ChannelUtils.toAddress(channel);
+        if (Host.EMPTY.equals(client)) {
+            return;
+        }
+        if (!scheduler.acquireTail(client.getIp())) {
+            rejectBusy(channel, command, client);
+            return;
+        }
+        long opaque = command.getOpaque();
+        logTailer.tail(requestKey(channel, opaque), Paths.get(tailLogRequest.getPath()), tailLogRequest.getOffset(),
+                tailLogRequest.isStopAtEnd(),
+                new ChannelTailSubscriber(channel, opaque, () -> scheduler.releaseTail(client.getIp())));
+    }
+
+    private void rejectBusy(Channel channel, Command command, Host client) {
+        logger.warn("log server is busy, reject command : {} from {}", command, client.getAddress());
+        Command response = new Command(command.getOpaque());
+        response.setType(CommandType.SERVER_BUSY_RESPONSE);
+        channel.writeAndFlush(response);
+    }
+
+    private ChannelFuture rollViewLog(Channel channel, long opaque, RollViewLogRequestCommand rollViewLogRequest) {
+        List<String> lines = readPartFileContent(rollViewLogRequest.getPath(),
+                rollViewLogRequest.getSkipLineNum(), rollViewLogRequest.getLimit());
+        StringBuilder builder = new StringBuilder();
+        final int MaxResponseLogSize = 65535;
+        int totalLogByteSize = 0;
+        for (String line : lines) {
+            //If a single line of log is exceed max response size, cut off the line
+            final int lineByteSize = line.getBytes(StandardCharsets.UTF_8).length;
+            if (lineByteSize >= MaxResponseLogSize) {
+                builder.append(line, 0, MaxResponseLogSize)
+                        .append(" [this line's size ").append(lineByteSize).append(" bytes is exceed ")
+                        .append(MaxResponseLogSize).append(" bytes, so only ")
+                        .append(MaxResponseLogSize).append(" characters are reserved for performance reasons.]")
+                        .append("\r\n");
+            } else {
+                builder.append(line).append("\r\n");
+            }
+            totalLogByteSize += lineByteSize;
+            if (totalLogByteSize >= MaxResponseLogSize) {
+                break;
+            }
+        }
+        RollViewLogResponseCommand rollViewLogRequestResponse = new RollViewLogResponseCommand(builder.toString());
+        return channel.writeAndFlush(rollViewLogRequestResponse.convert2Command(opaque));
+    }
+
+    private ChannelFuture removeTaskLog(Channel channel, long opaque, String taskLogPath) {
+        File taskLogFile = new File(taskLogPath);
+        lineIndexes.invalidate(taskLogPath);
+        boolean status = true;
+        try {
+            if (taskLogFile.exists()) {
+                status = taskLogFile.delete();
+            }
+        } catch (Exception e) {
+            status = false;
+        }
+
+        RemoveTaskLogResponseCommand removeTaskLogResponse = new RemoveTaskLogResponseCommand(status);
+        return channel.writeAndFlush(removeTaskLogResponse.convert2Command(opaque));
+    }
+
     /**
      * LogServer only can read the logs dir.
      * @param path
@@ -180,6 +336,18 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         }
     }
 
+    /**
+     * stop the tails, so the tail thread doesn't outlive the server
+     */
+    @PreDestroy
+    public void close() {
+        logTailer.close();
+    }
+
+    /**
+     * the executor to register the processor with, the requests are dispatched on the io threads,
+     * as the processor queues the requests reading the logs itself
+     */
     public ExecutorService getExecutor() {
         return this.executor;
     }
@@ -205,6 +373,168 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         return new byte[0];
     }
 
+    /**
+     * search the log, the matched lines are sent back as json lines in the bodies of a few response commands,
+     * and a response command with an empty body ends the search. A response is sent every few seconds
+     * while nothing matches, so the client doesn't time out on a long search, and the channel is closed
+     * without the end response once the search fails, so the client never takes the lines sent as the result.
+     *
+     * @param channel channel
+     * @param opaque request unique identification
+     * @param request search request
+     * @return the future of the end response
+     */
+    private ChannelFuture searchLog(Channel channel, long opaque, SearchLogRequestCommand request) {
+        String key = requestKey(channel, opaque);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        searches.put(key, cancelled);
+        SearchLogResponseWriter writer = new SearchLogResponseWriter(channel, opaque);
+        try {
+            File file = new File(request.getPath());
+            if (file.isFile()) {
+                LogSearcher searcher = new LogSearcher(request.getPattern(), request.isRegex(),
+                        request.getContextLines(), request.getLimit());
+                int matches = searcher.search(file.toPath(), writer, () -> {
+                    writer.keepAlive();
+                    return cancelled.get() || !channel.isActive();
+                });
+                logger.info("search log: {} matched {} lines", request.getPath(), matches);
+            } else {
+                logger.info("file path: {} not exists", request.getPath());
+            }
+        } catch (Exception e) {
+            logger.error("search log error", e);
+            return channel.close();
+        } finally {
+            searches.remove(key);
+        }
+        return writer.finish();
+    }
+
+    private String requestKey(Channel channel, long opaque) {
+        return ChannelUtils.getRemoteAddress(channel) + "_" + opaque;
+    }
+
+    /**
+     * push the tail responses on the channel of the tail request
+     */
+    private static final class ChannelTailSubscriber implements LogTailer.Subscriber {
+
+        private final Channel channel;
+
+        private final long opaque;
+
+        private final Runnable release;
+
+        ChannelTailSubscriber(Channel channel, long opaque, Runnable release) {
+            this.channel = channel;
+            this.opaque = opaque;
+            this.release = release;
+        }
+
+        @Override
+        public boolean isActive() {
+            return channel.isActive();
+        }
+
+        @Override
+        public boolean isWritable() {
+            return channel.isWritable();
+        }
+
+        @Override
+        public void send(TailLogResponseCommand response) {
+            channel.writeAndFlush(response.convert2Command(opaque));
+        }
+
+        @Override
+        public void ended() {
+            release.run();
+        }
+    }
+
+    /**
+     * batch the matched lines into the response commands, and wait for the channel to be writable,
+     * so a search on a slow connection doesn't pile up the responses in the memory
+     */
+    private static final class SearchLogResponseWriter implements Consumer<SearchLogLine> {
+
+        private static final int MAX_BODY_SIZE = 64 * 1024;
+
+        /**
+         * the max time between two responses, well below the time the client waits for a response
+         */
+        private static final long KEEPALIVE_INTERVAL_MILLIS = 3000;
+
+        /**
+         * an empty line, it's skipped by the client
+         */
+        private static final byte[] KEEPALIVE_BODY = "\n".getBytes(StandardCharsets.UTF_8);
+
+        private final Channel channel;
+
+        private final long opaque;
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private ChannelFuture lastFuture;
+
+        private long lastSendTime = System.currentTimeMillis();
+
+        SearchLogResponseWriter(Channel channel, long opaque) {
+            this.channel = channel;
+            this.opaque = opaque;
+        }
+
+        @Override
+        public void accept(SearchLogLine line) {
+            byte[] bytes = (JSONUtils.toJsonString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+            body.write(bytes, 0, bytes.length);
+            if (body.size() >= MAX_BODY_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * send the lines matched so far, or an empty line if there's none, once nothing is sent for a while
+         */
+        void keepAlive() {
+            if (System.currentTimeMillis() - lastSendTime < KEEPALIVE_INTERVAL_MILLIS) {
+                return;
+            }
+            if (body.size() == 0) {
+                body.write(KEEPALIVE_BODY, 0, KEEPALIVE_BODY.length);
+            }
+            flush();
+        }
+
+        ChannelFuture finish() {
+            if (body.size() > 0) {
+                flush();
+            }
+            send(new byte[0]);
+            return lastFuture;
+        }
+
+        private void flush() {
+            byte[] bytes = body.toByteArray();
+            body.reset();
+            // the written responses are all flushed once the last one is done
+            while (lastFuture != null && !lastFuture.isDone() && !channel.isWritable()) {
+                lastFuture.awaitUninterruptibly(100);
+            }
+            send(bytes);
+        }
+
+        private void send(byte[] bytes) {
+            Command response = new Command(opaque);
+            response.setType(CommandType.SEARCH_LOG_RESPONSE);
+            response.setBody(bytes);
+            lastFuture = channel.writeAndFlush(response);
+            lastSendTime = System.currentTimeMillis();
+        }
+    }
+
     /**
      * read part file content，can skip any line and read some lines
      *
@@ -218,9 +548,9 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                                              int limit) {
         File file = new File(filePath);
         if (file.exists() && file.isFile()) {
-            try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-                return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
-            } catch (IOException e) {
+            try {
+                return lineIndexes.get(filePath, LogLineIndex::new).readLines(file.toPath(), skipLine, limit);
+            } catch (IOException | ExecutionException e) {
                 logger.error("read file error", e);
             }
         } else {
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogLineIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadLines() throws Exception {
+        Path file = folder.newFile("a.log").toPath();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("line-").append(i).append(i % 3 == 0 ? "\r\n" : i % 5 == 0 ? "\r" : "\n");
+        }
+        content.append("last");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        LogLineIndex index = new LogLineIndex(7);
+        for (int skip = 0; skip <= 102; skip += 3) {
+            Assert.assertEquals(expected(file, skip, 10), index.readLines(file, skip, 10));
+        }
+        Assert.assertEquals(expected(file, 95, 10), index.readLines(file, 95, 10));
+    }
+
+    @Test
+    public void testAppendAndTruncate() throws Exception {
+        File log = folder.newFile("b.log");
+        Path file = log.toPath();
+        LogLineIndex index = new LogLineIndex(4);
+        for (int i = 0; i < 30; i++) {
+            Files.write(file, ("line-" + i + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Assert.assertEquals(expected(file, i / 2, 3), index.readLines(file, i / 2, 3));
+        }
+        // a line ending with \r, and the \n of it is appended later
+        Files.write(file, "line-30\r".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Assert.assertEquals(expected(file, 28, 5), index.readLines(file, 28, 5));
+        Files.write(file, "\nline-31\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Assert.assertEquals(expected(file, 28, 5), index.readLines(file, 28, 5));
+
+        Files.write(file, "new-0\nnew-1\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expected(file, 1, 5), index.readLines(file, 1, 5));
+    }
+
+    private List<String> expected(Path file, int skip, int limit) throws Exception {
+        try (Stream<String> stream = Files.lines(file)) {
+            return stream.skip(skip).limit(limit).collect(Collectors.toList());
+        }
+    }
+}
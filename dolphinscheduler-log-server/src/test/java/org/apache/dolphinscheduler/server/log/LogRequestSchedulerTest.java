@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+public class LogRequestSchedulerTest {
+
+    @Test(timeout = 10000)
+    public void testPriority() throws Exception {
+        LogRequestScheduler scheduler = new LogRequestScheduler(1, 10, 10, 10);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        Assert.assertTrue(scheduler.execute("a", LogRequestScheduler.Priority.LOW, () -> {
+            blocked.countDown();
+            released.await();
+            return null;
+        }));
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(3);
+        for (String name : Arrays.asList("download 1", "roll view", "download 2")) {
+            LogRequestScheduler.Priority priority = name.startsWith("roll") ? LogRequestScheduler.Priority.HIGH
+                    : LogRequestScheduler.Priority.LOW;
+            Assert.assertTrue(scheduler.execute("a", priority, () -> {
+                processed.add(name);
+                finished.countDown();
+                return null;
+            }));
+        }
+        Assert.assertEquals(3, scheduler.getQueuedCount());
+        released.countDown();
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("roll view", "download 1", "download 2"), processed);
+        Assert.assertEquals(0, scheduler.getQueuedCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testRejectQueueFull() throws Exception {
+        LogRequestScheduler scheduler = new LogRequestScheduler(1, 1, 10, 10);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        Assert.assertTrue(scheduler.execute("a", LogRequestScheduler.Priority.LOW, () -> {
+            blocked.countDown();
+            released.await();
+            return null;
+        }));
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue(scheduler.execute("a", LogRequestScheduler.Priority.LOW, () -> null));
+        Assert.assertFalse(scheduler.execute("b", LogRequestScheduler.Priority.HIGH, () -> null));
+        Assert.assertEquals(0, scheduler.getRequestCount("b"));
+        released.countDown();
+    }
+
+    @Test(timeout = 10000)
+    public void testRejectClientLimit() throws Exception {
+        LogRequestScheduler scheduler = new LogRequestScheduler(2, 10, 1, 10);
+        // the request is in flight until its response is written
+        Promise<Void> written = ImmediateEventExecutor.INSTANCE.newPromise();
+        CountDownLatch processed = new CountDownLatch(1);
+        Assert.assertTrue(scheduler.execute("a", LogRequestScheduler.Priority.HIGH, () -> {
+            processed.countDown();
+            return written;
+        }));
+        Assert.assertTrue(processed.await(5, TimeUnit.SECONDS));
+
+        Assert.assertFalse(scheduler.execute("a", LogRequestScheduler.Priority.HIGH, () -> null));
+        Assert.assertTrue(scheduler.execute("b", LogRequestScheduler.Priority.HIGH, () -> null));
+
+        written.setSuccess(null);
+        Assert.assertEquals(0, scheduler.getRequestCount("a"));
+        Assert.assertTrue(scheduler.execute("a", LogRequestScheduler.Priority.HIGH, () -> null));
+    }
+
+    @Test
+    public void testRejectTail() {
+        LogRequestScheduler scheduler = new LogRequestScheduler(1, 10, 2, 2);
+        Assert.assertTrue(scheduler.acquireTail("a"));
+        Assert.assertTrue(scheduler.acquireTail("a"));
+        // the tails are counted against the requests of the client
+        Assert.assertFalse(scheduler.acquireTail("a"));
+        Assert.assertFalse(scheduler.execute("a", LogRequestScheduler.Priority.HIGH, () -> null));
+        // and against the max tails of all the clients
+        Assert.assertFalse(scheduler.acquireTail("b"));
+        Assert.assertEquals(0, scheduler.getRequestCount("b"));
+
+        scheduler.releaseTail("a");
+        Assert.assertEquals(1, scheduler.getTailCount());
+        Assert.assertEquals(1, scheduler.getRequestCount("a"));
+        Assert.assertTrue(scheduler.acquireTail("b"));
+    }
+}
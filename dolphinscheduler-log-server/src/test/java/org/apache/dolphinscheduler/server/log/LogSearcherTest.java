@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.log.SearchLogLine;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogSearcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSearch() throws Exception {
+        Path file = folder.newFile("a.log").toPath();
+        Files.write(file, "info 1\r\nerror 2\ninfo 3\ninfo 4\ninfo 5\nerror 6\ninfo 7\ninfo 8\ninfo 9\nerror 10"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // small regions, so the lines cross the regions
+        List<SearchLogLine> lines = search(file, new LogSearcher("error", false, 1, 10, 16));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 5L, 6L, 7L, 9L, 10L),
+                lines.stream().map(SearchLogLine::getLineNumber).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList(false, true, false, false, true, false, false, true),
+                lines.stream().map(SearchLogLine::isMatch).collect(Collectors.toList()));
+        Assert.assertEquals("info 1", lines.get(0).getContent());
+        Assert.assertEquals(8, lines.get(1).getOffset());
+        Assert.assertEquals("error 10", lines.get(7).getContent());
+
+        // the context lines of two matches are sent once
+        lines = search(file, new LogSearcher("error [26]", true, 3, 10));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                lines.stream().map(SearchLogLine::getLineNumber).collect(Collectors.toList()));
+
+        // stop once the limit is reached and the context lines are sent
+        lines = search(file, new LogSearcher("info", false, 1, 2, 16));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L),
+                lines.stream().map(SearchLogLine::getLineNumber).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testLongLine() throws Exception {
+        Path file = folder.newFile("b.log").toPath();
+        Files.write(file, "0123456789abcdefghij\nerror\n".getBytes(StandardCharsets.UTF_8));
+
+        List<SearchLogLine> lines = search(file, new LogSearcher("error", false, 0, 10, 8));
+        Assert.assertEquals(1, lines.size());
+        Assert.assertEquals("error", lines.get(0).getContent());
+        Assert.assertEquals(21, lines.get(0).getOffset());
+    }
+
+    private List<SearchLogLine> search(Path file, LogSearcher searcher) throws Exception {
+        List<SearchLogLine> lines = new ArrayList<>();
+        searcher.search(file, lines::add, () -> false);
+        return lines;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogTailerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTail() throws Exception {
+        Path file = folder.newFile("a.log").toPath();
+        Files.write(file, "line 1\nline 2\n".getBytes(StandardCharsets.UTF_8));
+        LogTailer tailer = new LogTailer(60 * 1000L);
+        CollectSubscriber subscriber = new CollectSubscriber();
+        tailer.tail("a", file, 7, subscriber);
+
+        tailer.poll();
+        Assert.assertEquals(1, subscriber.responses.size());
+        Assert.assertEquals("line 2\n", subscriber.responses.get(0).getContent());
+        Assert.assertEquals(7, subscriber.responses.get(0).getOffset());
+        Assert.assertEquals(14, subscriber.responses.get(0).getNextOffset());
+
+        // nothing is sent until the log grows
+        tailer.poll();
+        Assert.assertEquals(1, subscriber.responses.size());
+
+        // a character split at the end is sent once it's complete
+        byte[] appended = "line 3 日志\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(file, Arrays.copyOf(appended, appended.length - 2), StandardOpenOption.APPEND);
+        tailer.poll();
+        Assert.assertEquals("line 3 日", subscriber.responses.get(1).getContent());
+        Files.write(file, Arrays.copyOfRange(appended, appended.length - 2, appended.length), StandardOpenOption.APPEND);
+        tailer.poll();
+        Assert.assertEquals("志\n", subscriber.responses.get(2).getContent());
+        Assert.assertEquals(14 + appended.length, subscriber.responses.get(2).getNextOffset());
+
+        // the writes wait for the subscriber
+        Files.write(file, "line 4\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        subscriber.writable = false;
+        tailer.poll();
+        Assert.assertEquals(3, subscriber.responses.size());
+        subscriber.writable = true;
+        tailer.poll();
+        Assert.assertEquals("line 4\n", subscriber.responses.get(3).getContent());
+
+        tailer.cancel("a");
+        Assert.assertEquals(0, tailer.getTailCount());
+        Assert.assertEquals(1, subscriber.endedCount);
+        tailer.cancel("a");
+        Assert.assertEquals(1, subscriber.endedCount);
+    }
+
+    @Test
+    public void testEnd() throws Exception {
+        Path file = folder.newFile("b.log").toPath();
+        Files.write(file, "line 1\n".getBytes(StandardCharsets.UTF_8));
+
+        // the log is truncated
+        LogTailer tailer = new LogTailer(60 * 1000L);
+        CollectSubscriber subscriber = new CollectSubscriber();
+        tailer.tail("b", file, 100, subscriber);
+        tailer.poll();
+        Assert.assertEquals(1, subscriber.responses.size());
+        Assert.assertTrue(subscriber.responses.get(0).isEnd());
+        Assert.assertEquals(0, tailer.getTailCount());
+
+        // the log is idle
+        tailer = new LogTailer(0);
+        subscriber = new CollectSubscriber();
+        tailer.tail("b", file, 0, subscriber);
+        tailer.poll();
+        Assert.assertEquals(2, subscriber.responses.size());
+        Assert.assertEquals("line 1\n", subscriber.responses.get(0).getContent());
+        Assert.assertTrue(subscriber.responses.get(1).isEnd());
+        Assert.assertEquals(7, subscriber.responses.get(1).getNextOffset());
+
+        // the log of a finished task is ended at the end
+        tailer = new LogTailer(60 * 1000L);
+        subscriber = new CollectSubscriber();
+        tailer.tail("b", file, 0, true, subscriber);
+        tailer.poll();
+        Assert.assertEquals(2, subscriber.responses.size());
+        Assert.assertEquals("line 1\n", subscriber.responses.get(0).getContent());
+        Assert.assertTrue(subscriber.responses.get(1).isEnd());
+        Assert.assertEquals(0, tailer.getTailCount());
+
+        // the subscriber is gone
+        tailer = new LogTailer(60 * 1000L);
+        subscriber = new CollectSubscriber();
+        subscriber.active = false;
+        tailer.tail("b", file, 0, subscriber);
+        tailer.poll();
+        Assert.assertTrue(subscriber.responses.isEmpty());
+        Assert.assertEquals(0, tailer.getTailCount());
+        Assert.assertEquals(1, subscriber.endedCount);
+    }
+
+    @Test
+    public void testCharacterBoundary() {
+        byte[] bytes = "aé日😀".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(10, bytes.length);
+        Assert.assertEquals(10, LogTailer.characterBoundary(bytes, 10));
+        Assert.assertEquals(6, LogTailer.characterBoundary(bytes, 9));
+        Assert.assertEquals(6, LogTailer.characterBoundary(bytes, 7));
+        Assert.assertEquals(3, LogTailer.characterBoundary(bytes, 5));
+        Assert.assertEquals(1, LogTailer.characterBoundary(bytes, 2));
+    }
+
+    private static class CollectSubscriber implements LogTailer.Subscriber {
+
+        private final List<TailLogResponseCommand> responses = new ArrayList<>();
+
+        private boolean active = true;
+
+        private boolean writable = true;
+
+        private int endedCount;
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+
+        @Override
+        public void send(TailLogResponseCommand response) {
+            responses.add(response);
+        }
+
+        @Override
+        public void ended() {
+            endedCount++;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.server.log;
 
+import static org.apache.dolphinscheduler.server.log.SensitiveDataConverter.mayContainPassword;
 import static org.apache.dolphinscheduler.server.log.SensitiveDataConverter.passwordHandler;
 
 import org.apache.dolphinscheduler.common.Constants;
@@ -67,4 +68,20 @@ public class SensitiveDataConverterTest {
 
     }
 
+    @Test
+    public void testMaskPassword() {
+        String escapedMsg = "{\\\"user\\\":\\\"view\\\",\\\"Password\\\":\\\"view1\\\",\\\"password\\\":\\\"v2\\\"}";
+        Assert.assertTrue(mayContainPassword(escapedMsg));
+        Assert.assertEquals("{\\\"user\\\":\\\"view\\\",\\\"Password\\\":\\\"*****\\\",\\\"password\\\":\\\"**\\\"}",
+                passwordHandler(pwdPattern, escapedMsg));
+
+        String sqlMsg = "create user test identified by password='abc$1' and PASSWORD=''";
+        Assert.assertEquals("create user test identified by password='*****' and PASSWORD=''",
+                passwordHandler(pwdPattern, sqlMsg));
+
+        String plainMsg = "the password of the datasource is changed";
+        Assert.assertFalse(mayContainPassword(plainMsg));
+        Assert.assertFalse(mayContainPassword(logMsg));
+        Assert.assertSame(plainMsg, passwordHandler(pwdPattern, plainMsg));
+    }
 }
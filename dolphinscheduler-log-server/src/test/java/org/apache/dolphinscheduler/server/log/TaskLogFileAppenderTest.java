@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+public class TaskLogFileAppenderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final TaskLogFileAppender appender = new TaskLogFileAppender();
+
+    private File logFile;
+
+    @Before
+    public void before() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+
+        logFile = new File(folder.getRoot(), "1_1/1/1.log");
+        appender.setContext(context);
+        appender.setName("FILE-1_1/1/1");
+        appender.setEncoder(encoder);
+        appender.setFile(logFile.getPath());
+        appender.setIncludeCallerData(false);
+    }
+
+    @After
+    public void after() {
+        appender.stop();
+    }
+
+    @Test(timeout = 20000)
+    public void testAppendFromThreads() throws Exception {
+        appender.setQueueSize(16);
+        appender.start();
+        Assert.assertTrue(appender.isStarted());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String prefix = "thread-" + t + "-";
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    appender.doAppend(event(prefix + i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.stop();
+
+        List<String> lines = Files.readAllLines(logFile.toPath());
+        Assert.assertEquals(4000, lines.size());
+        for (int t = 0; t < 4; t++) {
+            String prefix = "thread-" + t + "-";
+            List<String> threadLines = lines.stream().filter(line -> line.startsWith(prefix)).collect(Collectors.toList());
+            Assert.assertEquals(1000, threadLines.size());
+            Assert.assertEquals(prefix + 999, threadLines.get(999));
+        }
+    }
+
+    private LoggingEvent event(String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLevel(Level.INFO);
+        event.setLoggerName(TaskLogFileAppenderTest.class.getName());
+        event.setThreadName(Thread.currentThread().getName());
+        event.setMessage(message);
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+}
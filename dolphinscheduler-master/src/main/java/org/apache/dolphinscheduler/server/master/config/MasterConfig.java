@@ -86,6 +86,10 @@ public class MasterConfig implements Validator {
     private double maxCpuLoadAvg = -1;
     private double reservedMemory = 0.3;
     private Duration failoverInterval = Duration.ofMinutes(10);
+    /**
+     * The thread number used to failover the workflow instances and the task instances of a dead server.
+     */
+    private int failoverThreads = 10;
     private boolean killYarnJobWhenTaskFailover = true;
     /**
      * ip:listenPort
@@ -130,6 +134,9 @@ public class MasterConfig implements Validator {
         if (masterConfig.getFailoverInterval().toMillis() <= 0) {
             errors.rejectValue("failover-interval", null, "should be a valid duration");
         }
+        if (masterConfig.getFailoverThreads() <= 0) {
+            errors.rejectValue("failover-threads", null, "should be a positive value");
+        }
         if (masterConfig.getMaxCpuLoadAvg() <= 0) {
             masterConfig.setMaxCpuLoadAvg(Runtime.getRuntime().availableProcessors() * 2);
         }
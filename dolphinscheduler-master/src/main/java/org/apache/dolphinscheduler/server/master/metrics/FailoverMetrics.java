@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The metrics of the master/worker failover, each failover is split into several phases and
+ * the duration and the handled item count of each phase are reported separately.
+ */
+public final class FailoverMetrics {
+
+    private FailoverMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static final String FAILOVER_TYPE_MASTER = "master";
+    public static final String FAILOVER_TYPE_WORKER = "worker";
+
+    public static void recordFailoverTime(String failoverType, long milliseconds) {
+        Timer.builder("ds.master.failover.duration")
+            .description("Failover duration of a dead server")
+            .tag("type", failoverType)
+            .register(Metrics.globalRegistry)
+            .record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param failoverType master or worker
+     * @param phase the phase of the failover
+     * @param milliseconds the time cost of the phase
+     * @param count the count of the items handled in the phase
+     */
+    public static void recordFailoverPhase(String failoverType, String phase, long milliseconds, int count) {
+        Timer.builder("ds.master.failover.phase.duration")
+            .description("Failover phase duration")
+            .tag("type", failoverType)
+            .tag("phase", phase)
+            .register(Metrics.globalRegistry)
+            .record(milliseconds, TimeUnit.MILLISECONDS);
+        Counter.builder("ds.master.failover.phase.count")
+            .description("Failover phase handled item count")
+            .tag("type", failoverType)
+            .tag("phase", phase)
+            .register(Metrics.globalRegistry)
+            .increment(count);
+    }
+}
@@ -112,6 +112,8 @@ public class TaskEvent {
         event.setStartTime(command.getStartTime());
         event.setExecutePath(command.getExecutePath());
         event.setLogPath(command.getLogPath());
+        event.setProcessId(command.getProcessId());
+        event.setAppIds(command.getAppIds());
         event.setChannel(channel);
         event.setWorkerAddress(workerAddress);
         event.setEvent(TaskEventType.RUNNING);
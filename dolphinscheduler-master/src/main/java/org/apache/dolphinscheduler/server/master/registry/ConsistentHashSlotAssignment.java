@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.registry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Assign the slots to the masters on a consistent hash ring with virtual nodes.
+ * <p>
+ * Each master is put on the ring {@link #VIRTUAL_NODE_NUM} times, and a slot belongs to the first virtual node
+ * clockwise from the hash of the slot. So when a master joins or leaves, only about 1/N of the slots move
+ * and the other masters keep fetching the same commands.
+ */
+public final class ConsistentHashSlotAssignment implements SlotAssignment {
+
+    public static final int SLOT_COUNT = 256;
+
+    static final int VIRTUAL_NODE_NUM = 100;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private final int masterSize;
+
+    private final List<Integer> ownedSlots;
+
+    private final boolean[] owned = new boolean[SLOT_COUNT];
+
+    /**
+     * @param masters the address of all the active masters
+     * @param currentMaster the address of the current master
+     */
+    public ConsistentHashSlotAssignment(Collection<String> masters, String currentMaster) {
+        this.masterSize = masters.size();
+        if (!masters.contains(currentMaster)) {
+            this.ownedSlots = Collections.emptyList();
+            return;
+        }
+        TreeMap<Integer, String> ring = new TreeMap<>();
+        for (String master : masters) {
+            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                ring.put(hash(master + "#" + i), master);
+            }
+        }
+        List<Integer> slots = new ArrayList<>();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            Map.Entry<Integer, String> node = ring.ceilingEntry(hash("slot#" + slot));
+            if (node == null) {
+                node = ring.firstEntry();
+            }
+            if (currentMaster.equals(node.getValue())) {
+                slots.add(slot);
+                owned[slot] = true;
+            }
+        }
+        this.ownedSlots = Collections.unmodifiableList(slots);
+    }
+
+    public static SlotAssignment empty() {
+        return new ConsistentHashSlotAssignment(Collections.emptyList(), "");
+    }
+
+    private static int hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asInt();
+    }
+
+    @Override
+    public int getSlotCount() {
+        return SLOT_COUNT;
+    }
+
+    @Override
+    public List<Integer> getOwnedSlots() {
+        return ownedSlots;
+    }
+
+    @Override
+    public int getMasterSize() {
+        return masterSize;
+    }
+
+    @Override
+    public boolean isAssigned(int commandId) {
+        return owned[commandId % SLOT_COUNT];
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashSlotAssignment{masterSize=" + masterSize + ", ownedSlotSize=" + ownedSlots.size() + "}";
+    }
+}
@@ -22,7 +22,6 @@ import static org.apache.dolphinscheduler.common.Constants.REGISTRY_DOLPHINSCHED
 
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.NodeType;
-import org.apache.dolphinscheduler.common.model.Server;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.WorkerGroup;
@@ -32,7 +31,6 @@ import org.apache.dolphinscheduler.registry.api.Event.Type;
 import org.apache.dolphinscheduler.registry.api.SubscribeListener;
 import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
-import org.apache.dolphinscheduler.service.queue.MasterPriorityQueue;
 import org.apache.dolphinscheduler.service.registry.RegistryClient;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -118,8 +116,6 @@ public class ServerNodeManager implements InitializingBean {
     @Autowired
     private WorkerGroupMapper workerGroupMapper;
 
-    private final MasterPriorityQueue masterPriorityQueue = new MasterPriorityQueue();
-
     /**
      * alert dao
      */
@@ -134,16 +130,10 @@ public class ServerNodeManager implements InitializingBean {
 
     private List<WorkerInfoChangeListener> workerInfoChangeListeners = new ArrayList<>();
 
-    private static volatile int MASTER_SLOT = 0;
-
-    private static volatile int MASTER_SIZE = 0;
-
-    public static int getSlot() {
-        return MASTER_SLOT;
-    }
+    private static volatile SlotAssignment SLOT_ASSIGNMENT = ConsistentHashSlotAssignment.empty();
 
-    public static int getMasterSize() {
-        return MASTER_SIZE;
+    public static SlotAssignment getSlotAssignment() {
+        return SLOT_ASSIGNMENT;
     }
 
 
@@ -311,16 +301,14 @@ public class ServerNodeManager implements InitializingBean {
     }
 
     private void updateMasterNodes() {
-        MASTER_SLOT = 0;
-        MASTER_SIZE = 0;
-        this.masterNodes.clear();
         String nodeLock = Constants.REGISTRY_DOLPHINSCHEDULER_LOCK_MASTERS;
         try {
             registryClient.getLock(nodeLock);
             Collection<String> currentNodes = registryClient.getMasterNodesDirectly();
-            List<Server> masterNodes = registryClient.getServerList(NodeType.MASTER);
-            syncMasterNodes(currentNodes, masterNodes);
+            syncMasterNodes(currentNodes);
         } catch (Exception e) {
+            // don't fetch any command until the master nodes are known
+            SLOT_ASSIGNMENT = ConsistentHashSlotAssignment.empty();
             logger.error("update master nodes error", e);
         } finally {
             registryClient.releaseLock(nodeLock);
@@ -347,21 +335,20 @@ public class ServerNodeManager implements InitializingBean {
      *
      * @param nodes master nodes
      */
-    private void syncMasterNodes(Collection<String> nodes, List<Server> masterNodes) {
+    private void syncMasterNodes(Collection<String> nodes) {
         masterLock.lock();
         try {
             String addr = NetUtils.getAddr(NetUtils.getHost(), masterConfig.getListenPort());
+            this.masterNodes.clear();
             this.masterNodes.addAll(nodes);
-            this.masterPriorityQueue.clear();
-            this.masterPriorityQueue.putList(masterNodes);
-            int index = masterPriorityQueue.getIndex(addr);
-            if (index >= 0) {
-                MASTER_SIZE = nodes.size();
-                MASTER_SLOT = index;
-            } else {
+            // the slot assignment is replaced as a whole, so the other masters keep most of their slots
+            SlotAssignment slotAssignment = new ConsistentHashSlotAssignment(nodes, addr);
+            if (slotAssignment.isEmpty()) {
                 logger.warn("current addr:{} is not in active master list", addr);
             }
-            logger.info("update master nodes, master size: {}, slot: {}, addr: {}", MASTER_SIZE, MASTER_SLOT, addr);
+            SLOT_ASSIGNMENT = slotAssignment;
+            logger.info("update master nodes, master size: {}, owned slots: {}, addr: {}",
+                slotAssignment.getMasterSize(), slotAssignment.getOwnedSlots().size(), addr);
         } finally {
             masterLock.unlock();
         }
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.registry;
+
+import java.util.List;
+
+/**
+ * The slots owned by the current master, a command belongs to the slot {@code commandId % getSlotCount()}.
+ */
+public interface SlotAssignment {
+
+    /**
+     * @return the total slot count, which doesn't change with the master membership
+     */
+    int getSlotCount();
+
+    /**
+     * @return the slots owned by the current master, empty if the current master is not active
+     */
+    List<Integer> getOwnedSlots();
+
+    /**
+     * @return the count of the active masters
+     */
+    int getMasterSize();
+
+    default boolean isEmpty() {
+        return getOwnedSlots().isEmpty();
+    }
+
+    default boolean isAssigned(int commandId) {
+        return getOwnedSlots().contains(commandId % getSlotCount());
+    }
+}
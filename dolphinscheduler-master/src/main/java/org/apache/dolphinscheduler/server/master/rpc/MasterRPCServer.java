@@ -90,10 +90,15 @@ public class MasterRPCServer implements AutoCloseable {
         this.nettyRemotingServer.registerProcessor(CommandType.WORKFLOW_EXECUTING_DATA_REQUEST, workflowExecutingDataRequestProcessor);
 
         // logger server
-        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_BYTES_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.ROLL_VIEW_LOG_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.VIEW_WHOLE_LOG_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.REMOVE_TAK_LOG_REQUEST, loggerRequestProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_BYTES_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_STREAM_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.ROLL_VIEW_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.VIEW_WHOLE_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.REMOVE_TAK_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.SEARCH_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.SEARCH_LOG_CANCEL_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_CANCEL_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
 
         this.nettyRemotingServer.start();
     }
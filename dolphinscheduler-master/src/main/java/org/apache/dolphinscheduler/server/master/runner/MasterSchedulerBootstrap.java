@@ -37,6 +37,7 @@ import org.apache.dolphinscheduler.server.master.exception.MasterException;
 import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+import org.apache.dolphinscheduler.server.master.registry.SlotAssignment;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
@@ -220,18 +221,18 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
     private List<Command> findCommands() throws MasterException {
         try {
             long scheduleStartTime = System.currentTimeMillis();
-            int thisMasterSlot = ServerNodeManager.getSlot();
-            int masterCount = ServerNodeManager.getMasterSize();
-            if (masterCount <= 0) {
-                logger.warn("Master count: {} is invalid, the current slot: {}", masterCount, thisMasterSlot);
+            SlotAssignment slotAssignment = ServerNodeManager.getSlotAssignment();
+            if (slotAssignment.isEmpty()) {
+                logger.warn("The current master doesn't own any slot, master count: {}", slotAssignment.getMasterSize());
                 return Collections.emptyList();
             }
             int pageNumber = 0;
             int pageSize = masterConfig.getFetchCommandNum();
-            final List<Command> result = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
+            final List<Command> result = processService.findCommandPageBySlots(pageSize, pageNumber,
+                slotAssignment.getSlotCount(), slotAssignment.getOwnedSlots());
             if (CollectionUtils.isNotEmpty(result)) {
-                logger.info("Master schedule bootstrap loop command success, command size: {}, current slot: {}, total slot size: {}",
-                    result.size(), thisMasterSlot, masterCount);
+                logger.info("Master schedule bootstrap loop command success, command size: {}, owned slot size: {}, total slot size: {}",
+                    result.size(), slotAssignment.getOwnedSlots().size(), slotAssignment.getSlotCount());
             }
             ProcessInstanceMetrics.recordCommandQueryTime(System.currentTimeMillis() - scheduleStartTime);
             return result;
@@ -241,12 +242,11 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
     }
 
     private SlotCheckState slotCheck(Command command) {
-        int slot = ServerNodeManager.getSlot();
-        int masterSize = ServerNodeManager.getMasterSize();
+        SlotAssignment slotAssignment = ServerNodeManager.getSlotAssignment();
         SlotCheckState state;
-        if (masterSize <= 0) {
+        if (slotAssignment.isEmpty()) {
             state = SlotCheckState.CHANGE;
-        } else if (command.getId() % masterSize == slot) {
+        } else if (slotAssignment.isAssigned(command.getId())) {
             state = SlotCheckState.PASS;
         } else {
             state = SlotCheckState.INJECT;
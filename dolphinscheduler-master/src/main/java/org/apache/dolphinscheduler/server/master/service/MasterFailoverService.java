@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.NodeType;
 import org.apache.dolphinscheduler.common.model.Server;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
@@ -34,6 +35,7 @@ import org.apache.dolphinscheduler.server.builder.TaskExecutionContextBuilder;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.metrics.FailoverMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskProcessorFactory;
@@ -45,16 +47,25 @@ import org.apache.dolphinscheduler.spi.utils.StringUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.time.StopWatch;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
@@ -63,6 +74,17 @@ import lombok.NonNull;
 public class MasterFailoverService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MasterFailoverService.class);
+
+    /**
+     * The max process instance count handled in a batch, which also limits the size of the "in" clause of the queries.
+     */
+    private static final int FAILOVER_BATCH_SIZE = 500;
+
+    private static final String FAILOVER_PHASE_QUERY = "query";
+    private static final String FAILOVER_PHASE_LOAD = "load";
+    private static final String FAILOVER_PHASE_TASK = "task";
+    private static final String FAILOVER_PHASE_PERSIST = "persist";
+
     private final RegistryClient registryClient;
     private final MasterConfig masterConfig;
     private final ProcessService processService;
@@ -70,6 +92,8 @@ public class MasterFailoverService {
 
     private final NettyExecutorManager nettyExecutorManager;
 
+    private final ExecutorService failoverExecutor;
+
     public MasterFailoverService(@NonNull RegistryClient registryClient,
                                  @NonNull MasterConfig masterConfig,
                                  @NonNull ProcessService processService,
@@ -79,7 +103,7 @@ public class MasterFailoverService {
         this.processService = processService;
         this.localAddress = NetUtils.getAddr(masterConfig.getListenPort());
         this.nettyExecutorManager = nettyExecutorManager;
-
+        this.failoverExecutor = ThreadUtils.newDaemonFixedThreadExecutor("MasterFailoverThread", masterConfig.getFailoverThreads());
     }
 
     /**
@@ -120,71 +144,136 @@ public class MasterFailoverService {
      * Failover master, will failover process instance and associated task instance.
      * <p>When the process instance belongs to the given masterHost and the restartTime is before the current server start up time,
      * then the process instance will be failovered.
+     * <p>The process instances are handled in batches, the definitions and the task instances of a batch are loaded
+     * together, the task instances are failovered in parallel, then the states and the recover commands are written in bulk.
      *
      * @param masterHost master host
      */
     private void doFailoverMaster(@NonNull String masterHost) {
         StopWatch failoverTimeCost = StopWatch.createStarted();
 
+        StopWatch phaseTimeCost = StopWatch.createStarted();
         Optional<Date> masterStartupTimeOptional = getServerStartupTime(registryClient.getServerList(NodeType.MASTER),
                                                                         masterHost);
-        List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(
-            masterHost);
+        List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(masterHost)
+            .stream()
+            .filter(processInstance -> checkProcessInstanceNeedFailover(masterStartupTimeOptional, processInstance))
+            .collect(Collectors.toList());
+        recordFailoverPhase(FAILOVER_PHASE_QUERY, phaseTimeCost, needFailoverProcessInstanceList.size());
         if (CollectionUtils.isEmpty(needFailoverProcessInstanceList)) {
             return;
         }
 
         LOGGER.info(
-            "Master[{}] failover starting there are {} workflowInstance may need to failover, will do a deep check, workflowInstanceIds: {}",
+            "Master[{}] failover starting there are {} workflowInstance need to failover, workflowInstanceIds: {}",
             masterHost,
             needFailoverProcessInstanceList.size(),
             needFailoverProcessInstanceList.stream().map(ProcessInstance::getId).collect(Collectors.toList()));
 
-        for (ProcessInstance processInstance : needFailoverProcessInstanceList) {
+        int failoverCount = 0;
+        for (List<ProcessInstance> processInstances : Lists.partition(needFailoverProcessInstanceList, FAILOVER_BATCH_SIZE)) {
+            failoverCount += failoverProcessInstances(processInstances);
+        }
+
+        failoverTimeCost.stop();
+        FailoverMetrics.recordFailoverTime(FailoverMetrics.FAILOVER_TYPE_MASTER, failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
+        LOGGER.info("Master[{}] failover finished, failover {} workflowInstance, useTime:{}ms",
+            masterHost,
+            failoverCount,
+            failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Failover a batch of process instances.
+     *
+     * @return the count of the failovered process instances
+     */
+    private int failoverProcessInstances(@NonNull List<ProcessInstance> processInstances) {
+        StopWatch phaseTimeCost = StopWatch.createStarted();
+        Map<String, ProcessDefinition> processDefinitionMap = processService.findProcessDefinitions(processInstances)
+            .stream()
+            .collect(Collectors.toMap(processDefinition -> processDefinition.getCode() + "-" + processDefinition.getVersion(),
+                                      Function.identity()));
+        List<Integer> processInstanceIds = processInstances.stream().map(ProcessInstance::getId).collect(Collectors.toList());
+        Map<Integer, List<TaskInstance>> taskInstanceMap = processService.findValidTaskListByProcessIds(processInstanceIds)
+            .stream()
+            .collect(Collectors.groupingBy(TaskInstance::getProcessInstanceId));
+        for (ProcessInstance processInstance : processInstances) {
+            processInstance.setProcessDefinition(processDefinitionMap.get(
+                processInstance.getProcessDefinitionCode() + "-" + processInstance.getProcessDefinitionVersion()));
+        }
+        recordFailoverPhase(FAILOVER_PHASE_LOAD, phaseTimeCost, processInstances.size());
+
+        phaseTimeCost = StopWatch.createStarted();
+        List<CompletableFuture<List<TaskInstance>>> futures = processInstances.stream()
+            .map(processInstance -> CompletableFuture.supplyAsync(
+                () -> failoverTaskInstances(processInstance,
+                                            taskInstanceMap.getOrDefault(processInstance.getId(), Collections.emptyList())),
+                failoverExecutor))
+            .collect(Collectors.toList());
+        List<ProcessInstance> failoveredProcessInstances = new ArrayList<>(processInstances.size());
+        List<TaskInstance> needFailoverTaskInstances = new ArrayList<>();
+        for (int i = 0; i < processInstances.size(); i++) {
+            ProcessInstance processInstance = processInstances.get(i);
             try {
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
-                LOGGER.info("WorkflowInstance failover starting");
-                if (!checkProcessInstanceNeedFailover(masterStartupTimeOptional, processInstance)) {
-                    LOGGER.info("WorkflowInstance doesn't need to failover");
-                    continue;
-                }
-                // todo: use batch query
-                ProcessDefinition processDefinition
-                    = processService.findProcessDefinition(processInstance.getProcessDefinitionCode(),
-                                                           processInstance.getProcessDefinitionVersion());
-                processInstance.setProcessDefinition(processDefinition);
-                int processInstanceId = processInstance.getId();
-                List<TaskInstance> taskInstanceList = processService.findValidTaskListByProcessId(processInstanceId);
-                for (TaskInstance taskInstance : taskInstanceList) {
-                    try {
-                        LoggerUtils.setTaskInstanceIdMDC(taskInstance.getId());
-                        LOGGER.info("TaskInstance failover starting");
-                        if (!checkTaskInstanceNeedFailover(taskInstance)) {
-                            LOGGER.info("The taskInstance doesn't need to failover");
-                            continue;
-                        }
-                        failoverTaskInstance(processInstance, taskInstance);
-                        LOGGER.info("TaskInstance failover finished");
-                    } finally {
-                        LoggerUtils.removeTaskInstanceIdMDC();
+                needFailoverTaskInstances.addAll(futures.get(i).join());
+                failoveredProcessInstances.add(processInstance);
+            } catch (CompletionException e) {
+                // the process instance will be failovered by the next failover check
+                LOGGER.error("WorkflowInstance failover failed, workflowInstanceId: {}", processInstance.getId(), e.getCause());
+            }
+        }
+        recordFailoverPhase(FAILOVER_PHASE_TASK, phaseTimeCost, needFailoverTaskInstances.size());
+
+        phaseTimeCost = StopWatch.createStarted();
+        // update processInstance host is null to mark this processInstance has been failover
+        // and insert a failover command
+        processService.processNeedFailoverProcessInstances(failoveredProcessInstances, needFailoverTaskInstances);
+        for (ProcessInstance processInstance : failoveredProcessInstances) {
+            processInstance.setHost(Constants.NULL);
+            ProcessInstanceMetrics.incProcessInstanceFailover();
+        }
+        recordFailoverPhase(FAILOVER_PHASE_PERSIST, phaseTimeCost, failoveredProcessInstances.size());
+        return failoveredProcessInstances.size();
+    }
+
+    /**
+     * @return the task instances which need to be marked as need fault tolerance
+     */
+    private List<TaskInstance> failoverTaskInstances(@NonNull ProcessInstance processInstance,
+                                                     @NonNull List<TaskInstance> taskInstanceList) {
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
+            LOGGER.info("WorkflowInstance failover starting");
+            List<TaskInstance> needFailoverTaskInstances = new ArrayList<>();
+            for (TaskInstance taskInstance : taskInstanceList) {
+                try {
+                    LoggerUtils.setTaskInstanceIdMDC(taskInstance.getId());
+                    LOGGER.info("TaskInstance failover starting");
+                    if (!checkTaskInstanceNeedFailover(taskInstance)) {
+                        LOGGER.info("The taskInstance doesn't need to failover");
+                        continue;
                     }
+                    failoverTaskInstance(processInstance, taskInstance);
+                    needFailoverTaskInstances.add(taskInstance);
+                    LOGGER.info("TaskInstance failover finished");
+                } finally {
+                    LoggerUtils.removeTaskInstanceIdMDC();
                 }
-
-                ProcessInstanceMetrics.incProcessInstanceFailover();
-                //updateProcessInstance host is null to mark this processInstance has been failover
-                // and insert a failover command
-                processInstance.setHost(Constants.NULL);
-                processService.processNeedFailoverProcessInstances(processInstance);
-                LOGGER.info("WorkflowInstance failover finished");
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
             }
+            LOGGER.info("WorkflowInstance failover finished");
+            return needFailoverTaskInstances;
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
         }
+    }
 
-        failoverTimeCost.stop();
-        LOGGER.info("Master[{}] failover finished, useTime:{}ms",
-            masterHost,
-            failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
+    private void recordFailoverPhase(String phase, StopWatch phaseTimeCost, int count) {
+        phaseTimeCost.stop();
+        FailoverMetrics.recordFailoverPhase(FailoverMetrics.FAILOVER_TYPE_MASTER,
+                                            phase,
+                                            phaseTimeCost.getTime(TimeUnit.MILLISECONDS),
+                                            count);
     }
 
     private Optional<Date> getServerStartupTime(List<Server> servers, String host) {
@@ -205,8 +294,7 @@ public class MasterFailoverService {
      * failover task instance
      * <p>
      * 1. kill yarn job if run on worker and there are yarn jobs in tasks.
-     * 2. change task state from running to need failover.
-     * 3. try to notify local master
+     * 2. change task state from running to need failover, the state will be saved in bulk by the caller.
      *
      * @param processInstance
      * @param taskInstance
@@ -240,7 +328,6 @@ public class MasterFailoverService {
 
         taskInstance.setState(ExecutionStatus.NEED_FAULT_TOLERANCE);
         taskInstance.setFlag(Flag.NO);
-        processService.saveTaskInstance(taskInstance);
     }
 
     private void sendKillCommandToWorker(@NonNull TaskInstance taskInstance) {
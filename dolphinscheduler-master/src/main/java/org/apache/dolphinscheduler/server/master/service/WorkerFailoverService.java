@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.NodeType;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.model.Server;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
@@ -32,6 +33,7 @@ import org.apache.dolphinscheduler.server.builder.TaskExecutionContextBuilder;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.event.StateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.FailoverMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
@@ -44,11 +46,15 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -65,6 +71,11 @@ public class WorkerFailoverService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorkerFailoverService.class);
 
+    private static final String FAILOVER_PHASE_QUERY = "query";
+    private static final String FAILOVER_PHASE_TASK = "task";
+    private static final String FAILOVER_PHASE_PERSIST = "persist";
+    private static final String FAILOVER_PHASE_NOTIFY = "notify";
+
     private final RegistryClient registryClient;
     private final MasterConfig masterConfig;
     private final ProcessService processService;
@@ -72,6 +83,8 @@ public class WorkerFailoverService {
     private final ProcessInstanceExecCacheManager cacheManager;
     private final String localAddress;
 
+    private final ExecutorService failoverExecutor;
+
     public WorkerFailoverService(@NonNull RegistryClient registryClient,
                                  @NonNull MasterConfig masterConfig,
                                  @NonNull ProcessService processService,
@@ -83,6 +96,7 @@ public class WorkerFailoverService {
         this.workflowExecuteThreadPool = workflowExecuteThreadPool;
         this.cacheManager = cacheManager;
         this.localAddress = NetUtils.getAddr(masterConfig.getListenPort());
+        this.failoverExecutor = ThreadUtils.newDaemonFixedThreadExecutor("WorkerFailoverThread", masterConfig.getFailoverThreads());
     }
 
     /**
@@ -90,6 +104,9 @@ public class WorkerFailoverService {
      * and failover these tasks.
      * <p>
      * Note: When we do worker failover, the master will only failover the processInstance belongs to the current master.
+     * <p>
+     * The task instances are grouped by the workflow instance, the yarn jobs are killed in parallel,
+     * then the task instances are saved with one update and the local master is notified.
      *
      * @param workerHost worker host
      */
@@ -97,51 +114,72 @@ public class WorkerFailoverService {
         LOGGER.info("Worker[{}] failover starting", workerHost);
         final StopWatch failoverTimeCost = StopWatch.createStarted();
 
-        // we query the task instance from cache, so that we can directly update the cache
+        StopWatch phaseTimeCost = StopWatch.createStarted();
         final Optional<Date> needFailoverWorkerStartTime =
             getServerStartupTime(registryClient.getServerList(NodeType.WORKER), workerHost);
-
-        final List<TaskInstance> needFailoverTaskInstanceList = getNeedFailoverTaskInstance(workerHost);
-        if (CollectionUtils.isEmpty(needFailoverTaskInstanceList)) {
+        final Map<ProcessInstance, List<TaskInstance>> needFailoverTaskInstanceMap =
+            getNeedFailoverTaskInstance(workerHost, needFailoverWorkerStartTime);
+        final int needFailoverTaskCount = needFailoverTaskInstanceMap.values().stream().mapToInt(List::size).sum();
+        recordFailoverPhase(FAILOVER_PHASE_QUERY, phaseTimeCost, needFailoverTaskCount);
+        if (needFailoverTaskCount == 0) {
             LOGGER.info("Worker[{}] failover finished there are no taskInstance need to failover", workerHost);
             return;
         }
         LOGGER.info(
-            "Worker[{}] failover there are {} taskInstance may need to failover, will do a deep check, taskInstanceIds: {}",
+            "Worker[{}] failover there are {} taskInstance of {} workflowInstance need to failover, taskInstanceIds: {}",
             workerHost,
-            needFailoverTaskInstanceList.size(),
-            needFailoverTaskInstanceList.stream().map(TaskInstance::getId).collect(Collectors.toList()));
-        final Map<Integer, ProcessInstance> processInstanceCacheMap = new HashMap<>();
-        for (TaskInstance taskInstance : needFailoverTaskInstanceList) {
-            LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskInstance.getProcessInstanceId(), taskInstance.getId());
+            needFailoverTaskCount,
+            needFailoverTaskInstanceMap.size(),
+            needFailoverTaskInstanceMap.values().stream().flatMap(List::stream).map(TaskInstance::getId).collect(Collectors.toList()));
+
+        phaseTimeCost = StopWatch.createStarted();
+        List<TaskInstance> taskInstances = new ArrayList<>(needFailoverTaskCount);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(needFailoverTaskCount);
+        needFailoverTaskInstanceMap.forEach((processInstance, workflowTaskInstances) -> {
+            for (TaskInstance taskInstance : workflowTaskInstances) {
+                taskInstances.add(taskInstance);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    LoggerUtils.setWorkflowAndTaskInstanceIDMDC(processInstance.getId(), taskInstance.getId());
+                    try {
+                        failoverTaskInstance(processInstance, taskInstance);
+                    } finally {
+                        LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+                    }
+                }, failoverExecutor));
+            }
+        });
+        List<TaskInstance> failoveredTaskInstances = new ArrayList<>(needFailoverTaskCount);
+        for (int i = 0; i < taskInstances.size(); i++) {
             try {
-                ProcessInstance processInstance = processInstanceCacheMap.computeIfAbsent(
-                    taskInstance.getProcessInstanceId(), k -> {
-                        WorkflowExecuteRunnable workflowExecuteRunnable = cacheManager.getByProcessInstanceId(
-                            taskInstance.getProcessInstanceId());
-                        if (workflowExecuteRunnable == null) {
-                            return null;
-                        }
-                        return workflowExecuteRunnable.getProcessInstance();
-                    });
-                if (!checkTaskInstanceNeedFailover(needFailoverWorkerStartTime, processInstance, taskInstance)) {
-                    LOGGER.info("Worker[{}] the current taskInstance doesn't need to failover", workerHost);
-                    continue;
-                }
-                LOGGER.info(
-                    "Worker[{}] failover: begin to failover taskInstance, will set the status to NEED_FAULT_TOLERANCE",
-                    workerHost);
-                failoverTaskInstance(processInstance, taskInstance);
-                LOGGER.info("Worker[{}] failover: Finish failover taskInstance", workerHost);
-            } catch (Exception ex) {
-                LOGGER.info("Worker[{}] failover taskInstance occur exception", workerHost, ex);
-            } finally {
-                LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+                futures.get(i).join();
+                failoveredTaskInstances.add(taskInstances.get(i));
+            } catch (CompletionException ex) {
+                LOGGER.info("Worker[{}] failover taskInstance occur exception, taskInstanceId: {}",
+                    workerHost, taskInstances.get(i).getId(), ex.getCause());
             }
         }
+        recordFailoverPhase(FAILOVER_PHASE_TASK, phaseTimeCost, failoveredTaskInstances.size());
+
+        phaseTimeCost = StopWatch.createStarted();
+        processService.processNeedFailoverTaskInstances(failoveredTaskInstances);
+        recordFailoverPhase(FAILOVER_PHASE_PERSIST, phaseTimeCost, failoveredTaskInstances.size());
+
+        phaseTimeCost = StopWatch.createStarted();
+        for (TaskInstance taskInstance : failoveredTaskInstances) {
+            StateEvent stateEvent = new StateEvent();
+            stateEvent.setTaskInstanceId(taskInstance.getId());
+            stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
+            stateEvent.setProcessInstanceId(taskInstance.getProcessInstanceId());
+            stateEvent.setExecutionStatus(taskInstance.getState());
+            workflowExecuteThreadPool.submitStateEvent(stateEvent);
+        }
+        recordFailoverPhase(FAILOVER_PHASE_NOTIFY, phaseTimeCost, failoveredTaskInstances.size());
+
         failoverTimeCost.stop();
-        LOGGER.info("Worker[{}] failover finished, useTime:{}ms",
+        FailoverMetrics.recordFailoverTime(FailoverMetrics.FAILOVER_TYPE_WORKER, failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
+        LOGGER.info("Worker[{}] failover finished, failover {} taskInstance, useTime:{}ms",
             workerHost,
+            failoveredTaskInstances.size(),
             failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
     }
 
@@ -149,14 +187,14 @@ public class WorkerFailoverService {
      * failover task instance
      * <p>
      * 1. kill yarn job if run on worker and there are yarn jobs in tasks.
-     * 2. change task state from running to need failover.
-     * 3. try to notify local master
+     * 2. change task state from running to need failover, the state will be saved
+     * and the local master will be notified by the caller.
      *
      * @param processInstance
      * @param taskInstance
      */
     private void failoverTaskInstance(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
-
+        LOGGER.info("Failover: begin to failover taskInstance, will set the status to NEED_FAULT_TOLERANCE");
         TaskMetrics.incTaskFailover();
         boolean isMasterTask = TaskProcessorFactory.isMasterTask(taskInstance.getTaskType());
 
@@ -181,14 +219,14 @@ public class WorkerFailoverService {
 
         taskInstance.setState(ExecutionStatus.NEED_FAULT_TOLERANCE);
         taskInstance.setFlag(Flag.NO);
-        processService.saveTaskInstance(taskInstance);
+    }
 
-        StateEvent stateEvent = new StateEvent();
-        stateEvent.setTaskInstanceId(taskInstance.getId());
-        stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
-        stateEvent.setProcessInstanceId(processInstance.getId());
-        stateEvent.setExecutionStatus(taskInstance.getState());
-        workflowExecuteThreadPool.submitStateEvent(stateEvent);
+    private void recordFailoverPhase(String phase, StopWatch phaseTimeCost, int count) {
+        phaseTimeCost.stop();
+        FailoverMetrics.recordFailoverPhase(FailoverMetrics.FAILOVER_TYPE_WORKER,
+                                            phase,
+                                            phaseTimeCost.getTime(TimeUnit.MILLISECONDS),
+                                            count);
     }
 
     /**
@@ -240,15 +278,41 @@ public class WorkerFailoverService {
         return true;
     }
 
-    private List<TaskInstance> getNeedFailoverTaskInstance(@NonNull String failoverWorkerHost) {
+    /**
+     * @return the task instances need to failover, grouped by the workflow instance
+     */
+    private Map<ProcessInstance, List<TaskInstance>> getNeedFailoverTaskInstance(@NonNull String failoverWorkerHost,
+                                                                                Optional<Date> needFailoverWorkerStartTime) {
         // we query the task instance from cache, so that we can directly update the cache
-        return cacheManager.getAll()
-            .stream()
-            .flatMap(workflowExecuteRunnable -> workflowExecuteRunnable.getAllTaskInstances().stream())
-            // If the worker is in dispatching and the host is not set
-            .filter(taskInstance -> failoverWorkerHost.equals(taskInstance.getHost())
-                && ExecutionStatus.isNeedFailoverWorkflowInstanceState(taskInstance.getState()))
-            .collect(Collectors.toList());
+        Map<ProcessInstance, List<TaskInstance>> needFailoverTaskInstanceMap = new LinkedHashMap<>();
+        for (WorkflowExecuteRunnable workflowExecuteRunnable : cacheManager.getAll()) {
+            ProcessInstance processInstance = workflowExecuteRunnable.getProcessInstance();
+            List<TaskInstance> taskInstances = workflowExecuteRunnable.getAllTaskInstances()
+                .stream()
+                // If the worker is in dispatching and the host is not set
+                .filter(taskInstance -> failoverWorkerHost.equals(taskInstance.getHost())
+                    && ExecutionStatus.isNeedFailoverWorkflowInstanceState(taskInstance.getState()))
+                .filter(taskInstance -> {
+                    LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskInstance.getProcessInstanceId(), taskInstance.getId());
+                    try {
+                        if (!checkTaskInstanceNeedFailover(needFailoverWorkerStartTime, processInstance, taskInstance)) {
+                            LOGGER.info("Worker[{}] the current taskInstance doesn't need to failover", failoverWorkerHost);
+                            return false;
+                        }
+                        return true;
+                    } catch (Exception ex) {
+                        LOGGER.info("Worker[{}] failover taskInstance occur exception", failoverWorkerHost, ex);
+                        return false;
+                    } finally {
+                        LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+                    }
+                })
+                .collect(Collectors.toList());
+            if (!taskInstances.isEmpty()) {
+                needFailoverTaskInstanceMap.put(processInstance, taskInstances);
+            }
+        }
+        return needFailoverTaskInstanceMap;
     }
 
     private Optional<Date> getServerStartupTime(List<Server> servers, String host) {
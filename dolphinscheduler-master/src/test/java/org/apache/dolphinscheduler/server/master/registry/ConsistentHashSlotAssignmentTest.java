@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsistentHashSlotAssignmentTest {
+
+    @Test
+    public void testEverySlotHasOneOwner() {
+        List<String> masters = Arrays.asList("192.168.1.1:5678", "192.168.1.2:5678", "192.168.1.3:5678");
+        int[] owners = new int[ConsistentHashSlotAssignment.SLOT_COUNT];
+        for (String master : masters) {
+            SlotAssignment slotAssignment = new ConsistentHashSlotAssignment(masters, master);
+            Assert.assertEquals(3, slotAssignment.getMasterSize());
+            Assert.assertFalse(slotAssignment.isEmpty());
+            for (int slot : slotAssignment.getOwnedSlots()) {
+                owners[slot]++;
+                Assert.assertTrue(slotAssignment.isAssigned(slot + ConsistentHashSlotAssignment.SLOT_COUNT * 7));
+            }
+        }
+        for (int owner : owners) {
+            Assert.assertEquals(1, owner);
+        }
+    }
+
+    @Test
+    public void testInactiveMaster() {
+        SlotAssignment slotAssignment = new ConsistentHashSlotAssignment(Arrays.asList("192.168.1.1:5678"), "192.168.1.2:5678");
+        Assert.assertTrue(slotAssignment.isEmpty());
+        Assert.assertFalse(slotAssignment.isAssigned(1));
+        Assert.assertTrue(ConsistentHashSlotAssignment.empty().isEmpty());
+    }
+
+    @Test
+    public void testScaleOutMovesFewSlots() {
+        List<String> masters = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            masters.add("192.168.1." + i + ":5678");
+        }
+        Map<Integer, String> before = ownerOfSlots(masters);
+        masters.add("192.168.1.5:5678");
+        Map<Integer, String> after = ownerOfSlots(masters);
+
+        int moved = 0;
+        for (int slot = 0; slot < ConsistentHashSlotAssignment.SLOT_COUNT; slot++) {
+            if (!before.get(slot).equals(after.get(slot))) {
+                moved++;
+                // a slot can only move to the new master
+                Assert.assertEquals("192.168.1.5:5678", after.get(slot));
+            }
+        }
+        // about 1/5 of the slots, while the modulo assignment moves about 4/5 of them
+        Assert.assertTrue("moved slots: " + moved, moved < ConsistentHashSlotAssignment.SLOT_COUNT / 3);
+    }
+
+    private Map<Integer, String> ownerOfSlots(List<String> masters) {
+        Map<Integer, String> owners = new HashMap<>();
+        for (String master : masters) {
+            for (int slot : new ConsistentHashSlotAssignment(masters, master).getOwnedSlots()) {
+                owners.put(slot, master);
+            }
+        }
+        return owners;
+    }
+}
@@ -103,6 +103,7 @@ public class FailoverServiceTest {
         springApplicationContext.setApplicationContext(applicationContext);
 
         given(masterConfig.getListenPort()).willReturn(masterPort);
+        given(masterConfig.getFailoverThreads()).willReturn(2);
         MasterFailoverService masterFailoverService =
             new MasterFailoverService(registryClient, masterConfig, processService, nettyExecutorManager);
         WorkerFailoverService workerFailoverService = new WorkerFailoverService(registryClient,
@@ -138,12 +139,14 @@ public class FailoverServiceTest {
 
         masterTaskInstance = new TaskInstance();
         masterTaskInstance.setId(1);
+        masterTaskInstance.setProcessInstanceId(1);
         masterTaskInstance.setStartTime(new Date());
         masterTaskInstance.setHost(testMasterHost);
         masterTaskInstance.setTaskType(TASK_TYPE_SWITCH);
 
         workerTaskInstance = new TaskInstance();
         workerTaskInstance.setId(2);
+        workerTaskInstance.setProcessInstanceId(1);
         workerTaskInstance.setStartTime(new Date());
         workerTaskInstance.setHost(testWorkerHost);
         workerTaskInstance.setTaskType(COMMON_TASK_TYPE);
@@ -151,8 +154,8 @@ public class FailoverServiceTest {
         given(processService.queryNeedFailoverTaskInstances(Mockito.anyString())).willReturn(Arrays.asList(masterTaskInstance, workerTaskInstance));
         given(processService.queryNeedFailoverProcessInstanceHost()).willReturn(Lists.newArrayList(testMasterHost));
         given(processService.queryNeedFailoverProcessInstances(Mockito.anyString())).willReturn(Arrays.asList(processInstance));
-        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.any(ProcessInstance.class));
-        given(processService.findValidTaskListByProcessId(Mockito.anyInt())).willReturn(Lists.newArrayList(masterTaskInstance, workerTaskInstance));
+        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.anyList(), Mockito.anyList());
+        given(processService.findValidTaskListByProcessIds(Mockito.anyCollection())).willReturn(Lists.newArrayList(masterTaskInstance, workerTaskInstance));
         given(processService.findProcessInstanceDetailById(Mockito.anyInt())).willReturn(processInstance);
 
         Thread.sleep(1000);
@@ -205,5 +208,26 @@ public class FailoverServiceTest {
 
         failoverService.failoverServerWhenDown(testWorkerHost, NodeType.WORKER);
         Assert.assertEquals(ExecutionStatus.NEED_FAULT_TOLERANCE, workerTaskInstance.getState());
+        Mockito.verify(processService).processNeedFailoverTaskInstances(Lists.newArrayList(workerTaskInstance));
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(Mockito.argThat(stateEvent ->
+            stateEvent.getTaskInstanceId() == workerTaskInstance.getId()));
+    }
+
+    @Test
+    public void failoverWorkerSkipBrokenTaskInstanceTest() {
+        workerTaskInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
+        TaskInstance brokenTaskInstance = Mockito.mock(TaskInstance.class);
+        Mockito.when(brokenTaskInstance.getHost()).thenReturn(testWorkerHost);
+        Mockito.when(brokenTaskInstance.getState()).thenReturn(ExecutionStatus.RUNNING_EXECUTION);
+        Mockito.when(brokenTaskInstance.getSubmitTime()).thenThrow(new IllegalStateException("broken task instance"));
+        WorkflowExecuteRunnable workflowExecuteRunnable = Mockito.mock(WorkflowExecuteRunnable.class);
+        Mockito.when(workflowExecuteRunnable.getAllTaskInstances())
+            .thenReturn(Lists.newArrayList(brokenTaskInstance, workerTaskInstance));
+        Mockito.when(workflowExecuteRunnable.getProcessInstance()).thenReturn(processInstance);
+        Mockito.when(cacheManager.getAll()).thenReturn(Lists.newArrayList(workflowExecuteRunnable));
+
+        failoverService.failoverServerWhenDown(testWorkerHost, NodeType.WORKER);
+        Assert.assertEquals(ExecutionStatus.NEED_FAULT_TOLERANCE, workerTaskInstance.getState());
+        Mockito.verify(processService).processNeedFailoverTaskInstances(Lists.newArrayList(workerTaskInstance));
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.log;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.server.log.SensitiveDataConverter;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+/**
+ * Mask the passwords in a batch of representative log lines, most of them without a password,
+ * with the regex on every line as before, or with the converter which skips the regex on most lines.
+ */
+@State(Scope.Thread)
+public class SensitiveDataConverterBenchmark extends AbstractBaseBenchmark {
+
+    private static final String[] LOG_LINES = {
+        "task instance id: 10001, process instance id: 1001, state: RUNNING_EXECUTION",
+        "[INFO] 2022-06-01 10:00:00.000 - [taskAppId=TASK-20220601-1-1001-10001]:[127] -  -> 2022-06-01 10:00:00 INFO yarn.Client: Application report for application_1654041600000_0001 (state: RUNNING)",
+        "Submit task to worker: 192.168.1.10:1234, taskInstanceId: 10001, processInstanceId: 1001, retry times: 0",
+        "sql task: select * from t_ds_user where user_name = 'admin' and password is not null",
+        "{\\\"address\\\":\\\"jdbc:mysql://192.168.xx.xx:3306\\\",\\\"database\\\":\\\"ods\\\","
+            + "\\\"user\\\":\\\"view\\\",\\\"password\\\":\\\"view1\\\"}",
+        "process instance: 1001 state change from RUNNING_EXECUTION to SUCCESS, cost 35 seconds",
+        "create user test identified by password='abc123'",
+        "master server heartbeat, cpu usage: 0.35, memory usage: 0.62, load average: 1.2",
+    };
+
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(Constants.DATASOURCE_PASSWORD_REGEX);
+
+    @Param({"regex", "converter"})
+    private String mode;
+
+    private final SensitiveDataConverter converter = new SensitiveDataConverter();
+
+    private final LoggingEvent[] events = new LoggingEvent[LOG_LINES.length];
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < LOG_LINES.length; i++) {
+            LoggingEvent event = new LoggingEvent();
+            event.setLevel(Level.INFO);
+            event.setMessage(LOG_LINES[i]);
+            events[i] = event;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void convert(Blackhole blackhole) {
+        for (LoggingEvent event : events) {
+            if ("converter".equals(mode)) {
+                blackhole.consume(converter.convert(event));
+            } else {
+                blackhole.consume(regexConvert(event.getFormattedMessage()));
+            }
+        }
+    }
+
+    /**
+     * the way before: run the regex on every line and replace in a StringBuffer
+     */
+    private String regexConvert(String logMsg) {
+        Matcher matcher = PASSWORD_PATTERN.matcher(logMsg);
+        StringBuffer sb = new StringBuffer(logMsg.length());
+        while (matcher.find()) {
+            String password = matcher.group();
+            matcher.appendReplacement(sb, StringUtils.repeat(Constants.STAR, StringUtils.length(password)));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+}
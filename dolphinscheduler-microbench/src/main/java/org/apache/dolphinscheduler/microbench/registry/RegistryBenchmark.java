@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.registry;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.registry.jdbc.JdbcRegistry;
+import org.apache.dolphinscheduler.plugin.registry.zookeeper.ZookeeperRegistry;
+import org.apache.dolphinscheduler.registry.api.Registry;
+import org.apache.dolphinscheduler.registry.api.RegistryProperties;
+
+import org.apache.curator.test.TestingServer;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the zookeeper registry with the jdbc registry (on an embedded h2):
+ * the lock throughput, and the latency between a client changing a node and another client being notified.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 4, time = 5)
+@State(Scope.Benchmark)
+public class RegistryBenchmark extends AbstractBaseBenchmark {
+
+    private static final String LOCK_KEY = "/benchmark/lock";
+    private static final String SUBSCRIBE_PATH = "/benchmark/sub";
+    private static final String SUBSCRIBE_KEY = SUBSCRIBE_PATH + "/node";
+
+    @Param({"zookeeper", "jdbc"})
+    private String registryType;
+
+    private TestingServer zookeeperServer;
+
+    private Registry subscriber;
+
+    private Registry writer;
+
+    private final AtomicLong notifiedVersion = new AtomicLong();
+
+    private long version;
+
+    @Setup
+    public void setup() throws Exception {
+        RegistryProperties properties = new RegistryProperties();
+        if ("zookeeper".equals(registryType)) {
+            zookeeperServer = new TestingServer(true);
+            properties.getZookeeper().setConnectString(zookeeperServer.getConnectString());
+            ZookeeperRegistry zookeeperSubscriber = new ZookeeperRegistry(properties);
+            zookeeperSubscriber.start();
+            ZookeeperRegistry zookeeperWriter = new ZookeeperRegistry(properties);
+            zookeeperWriter.start();
+            subscriber = zookeeperSubscriber;
+            writer = zookeeperWriter;
+        } else {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=true");
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM 'classpath:sql/jdbc_registry_h2.sql'");
+            }
+            JdbcRegistry jdbcSubscriber = new JdbcRegistry(properties, dataSource);
+            jdbcSubscriber.start();
+            JdbcRegistry jdbcWriter = new JdbcRegistry(properties, dataSource);
+            jdbcWriter.start();
+            subscriber = jdbcSubscriber;
+            writer = jdbcWriter;
+        }
+        writer.put(SUBSCRIBE_KEY, "0", false);
+        subscriber.subscribe(SUBSCRIBE_PATH, event -> {
+            if (SUBSCRIBE_KEY.equals(event.path()) && event.data() != null && !event.data().isEmpty()) {
+                notifiedVersion.set(Long.parseLong(event.data()));
+            }
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void lockThroughput() {
+        subscriber.acquireLock(LOCK_KEY);
+        subscriber.releaseLock(LOCK_KEY);
+    }
+
+    /**
+     * The change is made by another registry client, so the time includes the change detection of the subscriber.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void subscribeNotifyLatency() throws InterruptedException {
+        long expected = ++version;
+        writer.put(SUBSCRIBE_KEY, String.valueOf(expected), false);
+        while (notifiedVersion.get() < expected) {
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        writer.close();
+        subscriber.close();
+        if (zookeeperServer != null) {
+            zookeeperServer.close();
+        }
+    }
+}
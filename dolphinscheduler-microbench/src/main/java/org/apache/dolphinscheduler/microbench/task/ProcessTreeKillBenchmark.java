@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.task;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.ProcessUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Kill N process trees of three levels, like stopping a big workflow on a worker,
+ * by forking pstree and kill for each task, or by reading /proc once and killing all the processes in a single command.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 4, time = 5)
+@State(Scope.Benchmark)
+public class ProcessTreeKillBenchmark extends AbstractBaseBenchmark {
+
+    private static final Pattern PID_PATTERN = Pattern.compile("\\w+\\((\\d+)\\)");
+
+    @Param({"10", "100"})
+    private int treeNum;
+
+    @Param({"pstree", "proc"})
+    private String killMode;
+
+    private final List<Process> processes = new ArrayList<>();
+
+    private final List<TaskExecutionContext> requests = new ArrayList<>();
+
+    @Setup(Level.Invocation)
+    public void startProcessTrees() throws Exception {
+        for (int i = 0; i < treeNum; i++) {
+            // sh -> (sleep, sh -> (sleep, sh -> sleep))
+            Process process = new ProcessBuilder("sh", "-c",
+                "sleep 600 & sh -c 'sleep 600 & sh -c \"sleep 600; echo\"; echo' & wait").start();
+            processes.add(process);
+            TaskExecutionContext request = new TaskExecutionContext();
+            request.setProcessId(getProcessId(process));
+            requests.add(request);
+        }
+        // wait until all the processes of the trees are started
+        for (TaskExecutionContext request : requests) {
+            while (ProcessUtils.getProcessTree(request.getProcessId()).size() < 6) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopProcessTrees() throws InterruptedException {
+        for (Process process : processes) {
+            process.destroyForcibly().waitFor();
+        }
+        processes.clear();
+        requests.clear();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int killProcessTrees() throws IOException {
+        if ("proc".equals(killMode)) {
+            return ProcessUtils.kill(requests);
+        }
+        // the way before: fork pstree to find the tree and fork kill for each task
+        int killNumber = 0;
+        for (TaskExecutionContext request : requests) {
+            Matcher matcher = PID_PATTERN.matcher(OSUtils.exeCmd(String.format("%s -p %d", TaskConstants.PSTREE, request.getProcessId())));
+            StringBuilder pids = new StringBuilder();
+            while (matcher.find()) {
+                pids.append(matcher.group(1)).append(' ');
+            }
+            OSUtils.exeCmd("kill -9 " + pids.toString().trim());
+            killNumber++;
+        }
+        return killNumber;
+    }
+
+    private int getProcessId(Process process) throws ReflectiveOperationException {
+        Field field = process.getClass().getDeclaredField(TaskConstants.PID);
+        field.setAccessible(true);
+        return field.getInt(process);
+    }
+}
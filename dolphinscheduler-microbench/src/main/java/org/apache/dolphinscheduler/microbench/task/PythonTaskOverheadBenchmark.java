@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.task;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.python.PythonInterpreter;
+import org.apache.dolphinscheduler.plugin.task.python.PythonInterpreterPool;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The overhead of a small python task, which imports a few standard modules and prints a line,
+ * on a new python process started by the shell as before, or on a warm interpreter of the pool.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 4, time = 5)
+@State(Scope.Benchmark)
+public class PythonTaskOverheadBenchmark extends AbstractBaseBenchmark {
+
+    private static final String ENVIRONMENT = "PYTHON_HOME=$(command -v python3 || command -v python)";
+
+    private static final String SCRIPT = "import json, decimal, datetime\nprint(json.dumps({'now': str(datetime.date.today())}))\n";
+
+    @Param({"process", "interpreter"})
+    private String runMode;
+
+    private Path workDir;
+
+    private Path scriptFile;
+
+    private PythonInterpreterPool pool;
+
+    @Setup
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("python-task-benchmark");
+        scriptFile = workDir.resolve("task.py");
+        Files.write(scriptFile, SCRIPT.getBytes(StandardCharsets.UTF_8));
+        pool = new PythonInterpreterPool(2, Integer.MAX_VALUE, 0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.close();
+        Files.deleteIfExists(scriptFile);
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int runPythonTask() throws Exception {
+        if ("interpreter".equals(runMode)) {
+            PythonInterpreter interpreter = pool.borrow(null, ENVIRONMENT);
+            try {
+                return interpreter.execute(scriptFile.toString(), workDir.toString(), line -> { });
+            } finally {
+                pool.giveBack(interpreter, true);
+            }
+        }
+        // the way of the shell command executor: a shell sets up the environment and starts a new python process
+        Process process = new ProcessBuilder("sh", "-c", ENVIRONMENT + "\n${PYTHON_HOME} " + scriptFile)
+            .directory(workDir.toFile())
+            .redirectErrorStream(true)
+            .start();
+        try (InputStream inputStream = process.getInputStream()) {
+            IOUtils.toByteArray(inputStream);
+        }
+        return process.waitFor();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.master;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.server.master.service.WorkerFailoverService;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.registry.RegistryClient;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContext;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Failover a dead worker which runs 1000 task instances of 50 workflow instances with yarn jobs.
+ * <p>
+ * The yarn job kill of each task queries the status of its application from a fake resource manager,
+ * which answers after a fixed latency. It's a test class since it mocks the other collaborators of the failover.
+ */
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 4, time = 5)
+@State(Scope.Benchmark)
+public class WorkerFailoverBenchmark extends AbstractBaseBenchmark {
+
+    private static final String WORKER_HOST = "127.0.0.1:1234";
+
+    private static final int WORKFLOW_INSTANCE_NUM = 50;
+
+    private static final int TASK_INSTANCE_NUM_PER_WORKFLOW = 20;
+
+    @Param({"1", "16"})
+    private int failoverThreads;
+
+    @Param({"0", "5"})
+    private long resourceManagerLatencyMillis;
+
+    private WorkerFailoverService workerFailoverService;
+
+    private final List<TaskInstance> taskInstances = new ArrayList<>();
+
+    private HttpServer resourceManager;
+
+    private ExecutorService resourceManagerExecutor;
+
+    private Path workDir;
+
+    @Setup
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("worker-failover-benchmark");
+        startResourceManager();
+
+        // the task processors are loaded from the spring context
+        new SpringApplicationContext().setApplicationContext(Mockito.mock(ApplicationContext.class));
+
+        MasterConfig masterConfig = new MasterConfig();
+        masterConfig.setFailoverThreads(failoverThreads);
+        masterConfig.setKillYarnJobWhenTaskFailover(true);
+        String masterHost = NetUtils.getAddr(masterConfig.getListenPort());
+
+        List<WorkflowExecuteRunnable> workflowExecuteRunnables = new ArrayList<>();
+        for (int i = 1; i <= WORKFLOW_INSTANCE_NUM; i++) {
+            ProcessInstance processInstance = new ProcessInstance();
+            processInstance.setId(i);
+            processInstance.setHost(masterHost);
+            processInstance.setCommandType(CommandType.START_PROCESS);
+            processInstance.setProcessDefinition(new ProcessDefinition());
+            List<TaskInstance> workflowTaskInstances = new ArrayList<>();
+            for (int j = 0; j < TASK_INSTANCE_NUM_PER_WORKFLOW; j++) {
+                TaskInstance taskInstance = new TaskInstance();
+                taskInstance.setId(i * TASK_INSTANCE_NUM_PER_WORKFLOW + j);
+                taskInstance.setProcessInstanceId(i);
+                taskInstance.setHost(WORKER_HOST);
+                taskInstance.setTaskType("SHELL");
+                taskInstance.setSubmitTime(new Date(0));
+                taskInstance.setAppLink("application_1_" + taskInstance.getId());
+                taskInstance.setExecutePath(workDir.toString());
+                workflowTaskInstances.add(taskInstance);
+            }
+            taskInstances.addAll(workflowTaskInstances);
+            WorkflowExecuteRunnable workflowExecuteRunnable = Mockito.mock(WorkflowExecuteRunnable.class);
+            Mockito.when(workflowExecuteRunnable.getProcessInstance()).thenReturn(processInstance);
+            Mockito.when(workflowExecuteRunnable.getAllTaskInstances()).thenReturn(workflowTaskInstances);
+            workflowExecuteRunnables.add(workflowExecuteRunnable);
+        }
+        ProcessInstanceExecCacheManager cacheManager = Mockito.mock(ProcessInstanceExecCacheManager.class);
+        Mockito.when(cacheManager.getAll()).thenReturn(workflowExecuteRunnables);
+        RegistryClient registryClient = Mockito.mock(RegistryClient.class);
+        Mockito.when(registryClient.getServerList(Mockito.any())).thenReturn(Collections.emptyList());
+
+        workerFailoverService = new WorkerFailoverService(registryClient,
+            masterConfig,
+            Mockito.mock(ProcessService.class),
+            Mockito.mock(WorkflowExecuteThreadPool.class),
+            cacheManager);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        resourceManager.stop(0);
+        resourceManagerExecutor.shutdownNow();
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    /**
+     * The yarn applications are all finished, so the failover only queries their status and kills nothing.
+     */
+    private void startResourceManager() throws IOException {
+        resourceManager = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        resourceManager.createContext("/ws/v1/cluster/apps/", exchange -> {
+            if (resourceManagerLatencyMillis > 0) {
+                try {
+                    Thread.sleep(resourceManagerLatencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] response = "{\"app\":{\"finalStatus\":\"SUCCEEDED\"}}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        resourceManagerExecutor = Executors.newCachedThreadPool();
+        resourceManager.setExecutor(resourceManagerExecutor);
+        resourceManager.start();
+
+        // the yarn and storage properties are read once the hadoop utils are loaded
+        PropertyUtils.setValue(Constants.YARN_APPLICATION_STATUS_ADDRESS, "http://127.0.0.1:%s/ws/v1/cluster/apps/%s");
+        PropertyUtils.setValue(Constants.HADOOP_RESOURCE_MANAGER_HTTPADDRESS_PORT,
+            String.valueOf(resourceManager.getAddress().getPort()));
+        PropertyUtils.setValue(Constants.YARN_RESOURCEMANAGER_HA_RM_IDS, "");
+        PropertyUtils.setValue(Constants.FS_DEFAULT_FS, "file:///");
+        PropertyUtils.setValue(Constants.RESOURCE_UPLOAD_PATH, workDir.resolve("resources").toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTaskInstances() {
+        for (TaskInstance taskInstance : taskInstances) {
+            taskInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
+            taskInstance.setFlag(Flag.YES);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void failoverWorker() {
+        workerFailoverService.failoverWorker(WORKER_HOST);
+    }
+}
@@ -30,6 +30,7 @@ import org.springframework.context.annotation.Configuration;
 public class RegistryProperties {
     private Type type;
     private ZookeeperProperties zookeeper = new ZookeeperProperties();
+    private JdbcProperties jdbc = new JdbcProperties();
 
     public Type getType() {
         return type;
@@ -47,8 +48,17 @@ public class RegistryProperties {
         this.zookeeper = zookeeper;
     }
 
+    public JdbcProperties getJdbc() {
+        return jdbc;
+    }
+
+    public void setJdbc(JdbcProperties jdbc) {
+        this.jdbc = jdbc;
+    }
+
     public enum Type {
-        ZOOKEEPER
+        ZOOKEEPER,
+        JDBC
     }
 
     public static final class ZookeeperProperties {
@@ -147,4 +157,51 @@ public class RegistryProperties {
         }
     }
 
+    public static final class JdbcProperties {
+        /**
+         * The lease of a registry client, ephemeral nodes and locks of a client are removed once it has not
+         * refreshed its heartbeat for this long.
+         */
+        private Duration sessionTimeout = Duration.ofSeconds(30);
+        private Duration heartbeatRefreshInterval = Duration.ofSeconds(3);
+        /**
+         * The max time a subscription waits before it re-scans the registry table for remote changes,
+         * local changes wake up the subscription immediately.
+         */
+        private Duration subscribePollInterval = Duration.ofSeconds(1);
+        private Duration lockRetryInterval = Duration.ofMillis(100);
+
+        public Duration getSessionTimeout() {
+            return sessionTimeout;
+        }
+
+        public void setSessionTimeout(Duration sessionTimeout) {
+            this.sessionTimeout = sessionTimeout;
+        }
+
+        public Duration getHeartbeatRefreshInterval() {
+            return heartbeatRefreshInterval;
+        }
+
+        public void setHeartbeatRefreshInterval(Duration heartbeatRefreshInterval) {
+            this.heartbeatRefreshInterval = heartbeatRefreshInterval;
+        }
+
+        public Duration getSubscribePollInterval() {
+            return subscribePollInterval;
+        }
+
+        public void setSubscribePollInterval(Duration subscribePollInterval) {
+            this.subscribePollInterval = subscribePollInterval;
+        }
+
+        public Duration getLockRetryInterval() {
+            return lockRetryInterval;
+        }
+
+        public void setLockRetryInterval(Duration lockRetryInterval) {
+            this.lockRetryInterval = lockRetryInterval;
+        }
+    }
+
 }
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * All the sql of the jdbc registry, the registry keeps its data in three tables of the metadata database:
+ * <ul>
+ *     <li>t_ds_jdbc_registry_data: the registry nodes, ephemeral nodes are bound to the client which created them</li>
+ *     <li>t_ds_jdbc_registry_lock: one row per held lock, the unique key on lock_key is the lock itself</li>
+ *     <li>t_ds_jdbc_registry_client_heartbeat: the lease of each registry client</li>
+ * </ul>
+ * Time columns hold epoch millis of the database clock, so the leases of the clients on different hosts are
+ * compared on the same clock, whatever the clock skew between the hosts is.
+ */
+final class JdbcOperator {
+
+    static final int PERSISTENT = 0;
+    static final int EPHEMERAL = 1;
+
+    private static final String LIKE_ESCAPE = "!";
+
+    private final DataSource dataSource;
+
+    JdbcOperator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    void putData(String key, String value, int dataType, String clientId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long now = currentTimeMillis(connection);
+            if (updateData(connection, key, value, dataType, clientId, now) > 0) {
+                return;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                "insert into t_ds_jdbc_registry_data (data_key, data_value, data_type, client_id, create_time, last_update_time) "
+                    + "values (?, ?, ?, ?, ?, ?)")) {
+                ps.setString(1, key);
+                ps.setString(2, value);
+                ps.setInt(3, dataType);
+                ps.setString(4, clientId);
+                ps.setLong(5, now);
+                ps.setLong(6, now);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                // another client inserted the same key concurrently
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                updateData(connection, key, value, dataType, clientId, now);
+            }
+        }
+    }
+
+    private int updateData(Connection connection, String key, String value, int dataType, String clientId, long now) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+            "update t_ds_jdbc_registry_data set data_value = ?, data_type = ?, client_id = ?, last_update_time = ? where data_key = ?")) {
+            ps.setString(1, value);
+            ps.setInt(2, dataType);
+            ps.setString(3, clientId);
+            ps.setLong(4, now);
+            ps.setString(5, key);
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * @return the value of the key, null if the key doesn't exist
+     */
+    String getData(String key) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("select data_value from t_ds_jdbc_registry_data where data_key = ?")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return the key itself (if exists) and all its descendants, mapped to their value
+     */
+    Map<String, String> getDataWithDescendants(String key) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                 "select data_key, data_value from t_ds_jdbc_registry_data where data_key = ? or data_key like ? escape '" + LIKE_ESCAPE + "'")) {
+            ps.setString(1, key);
+            ps.setString(2, descendantPattern(key));
+            Map<String, String> result = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.put(rs.getString(1), rs.getString(2));
+                }
+            }
+            return result;
+        }
+    }
+
+    List<String> getDescendantKeys(String key) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                 "select data_key from t_ds_jdbc_registry_data where data_key like ? escape '" + LIKE_ESCAPE + "'")) {
+            ps.setString(1, descendantPattern(key));
+            List<String> result = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.add(rs.getString(1));
+                }
+            }
+            return result;
+        }
+    }
+
+    boolean existKeyOrDescendant(String key) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                 "select 1 from t_ds_jdbc_registry_data where data_key = ? or data_key like ? escape '" + LIKE_ESCAPE + "'")) {
+            ps.setMaxRows(1);
+            ps.setString(1, key);
+            ps.setString(2, descendantPattern(key));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    void deleteDataWithDescendants(String key) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                 "delete from t_ds_jdbc_registry_data where data_key = ? or data_key like ? escape '" + LIKE_ESCAPE + "'")) {
+            ps.setString(1, key);
+            ps.setString(2, descendantPattern(key));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Try to hold the lock by inserting its row, the unique key of lock_key makes sure only one owner can succeed.
+     *
+     * @return true if the lock is held by the given owner now
+     */
+    boolean tryInsertLock(String key, String lockOwner, String clientId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long now = currentTimeMillis(connection);
+            try (PreparedStatement ps = connection.prepareStatement(
+                "insert into t_ds_jdbc_registry_lock (lock_key, lock_owner, client_id, create_time) values (?, ?, ?, ?)")) {
+                ps.setString(1, key);
+                ps.setString(2, lockOwner);
+                ps.setString(3, clientId);
+                ps.setLong(4, now);
+                ps.executeUpdate();
+                return true;
+            }
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    boolean deleteLock(String key, String lockOwner) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(
+                 "delete from t_ds_jdbc_registry_lock where lock_key = ? and lock_owner = ?")) {
+            ps.setString(1, key);
+            ps.setString(2, lockOwner);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    void insertClientHeartbeat(String clientId, String clientName) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long now = currentTimeMillis(connection);
+            try (PreparedStatement ps = connection.prepareStatement(
+                "insert into t_ds_jdbc_registry_client_heartbeat (client_id, client_name, last_heartbeat_time, create_time) values (?, ?, ?, ?)")) {
+                ps.setString(1, clientId);
+                ps.setString(2, clientName);
+                ps.setLong(3, now);
+                ps.setLong(4, now);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * @return false if the lease of the client doesn't exist anymore, which means it has been expired and cleaned
+     */
+    boolean refreshClientHeartbeat(String clientId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long now = currentTimeMillis(connection);
+            try (PreparedStatement ps = connection.prepareStatement(
+                "update t_ds_jdbc_registry_client_heartbeat set last_heartbeat_time = ? where client_id = ?")) {
+                ps.setLong(1, now);
+                ps.setString(2, clientId);
+                return ps.executeUpdate() > 0;
+            }
+        }
+    }
+
+    /**
+     * @return the clients whose last heartbeat is older than the session timeout on the database clock
+     */
+    List<String> getExpiredClients(long sessionTimeoutMillis) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            long expireBefore = currentTimeMillis(connection) - sessionTimeoutMillis;
+            try (PreparedStatement ps = connection.prepareStatement(
+                "select client_id from t_ds_jdbc_registry_client_heartbeat where last_heartbeat_time < ?")) {
+                ps.setLong(1, expireBefore);
+                List<String> result = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(rs.getString(1));
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Remove the lease of the client together with its ephemeral nodes and held locks.
+     */
+    void clearClient(String clientId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                "delete from t_ds_jdbc_registry_data where client_id = ? and data_type = ?")) {
+                ps.setString(1, clientId);
+                ps.setInt(2, EPHEMERAL);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = connection.prepareStatement("delete from t_ds_jdbc_registry_lock where client_id = ?")) {
+                ps.setString(1, clientId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = connection.prepareStatement("delete from t_ds_jdbc_registry_client_heartbeat where client_id = ?")) {
+                ps.setString(1, clientId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * @return the current time of the database in epoch millis
+     */
+    private static long currentTimeMillis(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select CURRENT_TIMESTAMP(3)");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Query the current time of the database returns no result");
+            }
+            return rs.getTimestamp(1).getTime();
+        }
+    }
+
+    private static String descendantPattern(String key) {
+        String escaped = key.replace(LIKE_ESCAPE, LIKE_ESCAPE + LIKE_ESCAPE)
+                            .replace("%", LIKE_ESCAPE + "%")
+                            .replace("_", LIKE_ESCAPE + "_");
+        return (escaped.endsWith("/") ? escaped : escaped + "/") + "%";
+    }
+
+    /**
+     * Integrity constraint violations use the SQLState class 23 in mysql, postgresql and h2.
+     */
+    private static boolean isDuplicateKey(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.jdbc;
+
+import org.apache.dolphinscheduler.registry.api.ConnectionListener;
+import org.apache.dolphinscheduler.registry.api.ConnectionState;
+import org.apache.dolphinscheduler.registry.api.Registry;
+import org.apache.dolphinscheduler.registry.api.RegistryException;
+import org.apache.dolphinscheduler.registry.api.RegistryProperties;
+import org.apache.dolphinscheduler.registry.api.RegistryProperties.JdbcProperties;
+import org.apache.dolphinscheduler.registry.api.SubscribeListener;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry on the metadata database, for the clusters which don't want to maintain a zookeeper.
+ * <p>
+ * Each registry client holds a lease in t_ds_jdbc_registry_client_heartbeat which is refreshed periodically,
+ * the ephemeral nodes and the locks of a client are removed by the other clients once its lease expired.
+ * The leases are compared on the database clock, see {@link JdbcOperator}.
+ * <p>
+ * Once the lease is lost the client goes DISCONNECTED, and it keeps trying: when the database is back, the lease
+ * and the ephemeral nodes put by this client are created again and the client goes RECONNECTED. The locks held
+ * before are not restored, they may be held by the others in the meantime.
+ */
+@Component
+@ConditionalOnProperty(prefix = "registry", name = "type", havingValue = "jdbc")
+public final class JdbcRegistry implements Registry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRegistry.class);
+
+    private final JdbcProperties properties;
+    private final JdbcOperator jdbcOperator;
+    private final JdbcSubscribeDataManager subscribeDataManager;
+    private final String clientId;
+
+    private final List<ConnectionListener> connectionListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * the ephemeral nodes put by this client, to create them again once the lease is lost
+     */
+    private final Map<String, String> ephemeralNodes = new ConcurrentHashMap<>();
+
+    private volatile ConnectionState connectionState;
+    private volatile long lastHeartbeatNanos;
+
+    private static final ThreadLocal<Map<String, Integer>> threadLocalLockMap = new ThreadLocal<>();
+
+    public JdbcRegistry(RegistryProperties registryProperties, DataSource dataSource) {
+        this.properties = registryProperties.getJdbc();
+        this.jdbcOperator = new JdbcOperator(dataSource);
+        this.subscribeDataManager = new JdbcSubscribeDataManager(jdbcOperator, properties.getSubscribePollInterval());
+        this.clientId = UUID.randomUUID().toString();
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "JdbcRegistryHeartbeatThread");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            jdbcOperator.insertClientHeartbeat(clientId, ManagementFactory.getRuntimeMXBean().getName());
+        } catch (SQLException e) {
+            throw new RegistryException("Failed to register jdbc registry client: " + clientId, e);
+        }
+        lastHeartbeatNanos = System.nanoTime();
+        connectionState = ConnectionState.CONNECTED;
+        long interval = properties.getHeartbeatRefreshInterval().toMillis();
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        subscribeDataManager.start();
+    }
+
+    private void heartbeat() {
+        try {
+            if (!jdbcOperator.refreshClientHeartbeat(clientId)) {
+                logger.warn("The lease of jdbc registry client {} has expired", clientId);
+                changeConnectionState(ConnectionState.DISCONNECTED);
+                jdbcOperator.insertClientHeartbeat(clientId, ManagementFactory.getRuntimeMXBean().getName());
+            }
+            lastHeartbeatNanos = System.nanoTime();
+            if (connectionState == ConnectionState.DISCONNECTED) {
+                restoreEphemeralNodes();
+                logger.info("Jdbc registry client {} is registered again", clientId);
+            }
+            if (connectionState != ConnectionState.CONNECTED) {
+                changeConnectionState(ConnectionState.RECONNECTED);
+            }
+            clearExpiredClients();
+        } catch (Exception e) {
+            logger.error("Jdbc registry refresh heartbeat error, client: {}", clientId, e);
+            if (System.nanoTime() - lastHeartbeatNanos > properties.getSessionTimeout().toNanos()) {
+                changeConnectionState(ConnectionState.DISCONNECTED);
+            } else if (connectionState != ConnectionState.DISCONNECTED) {
+                changeConnectionState(ConnectionState.SUSPENDED);
+            }
+        }
+    }
+
+    /**
+     * Put the ephemeral nodes of this client again, they may have been removed by the others after the lease expired.
+     */
+    private void restoreEphemeralNodes() throws SQLException {
+        for (Map.Entry<String, String> node : ephemeralNodes.entrySet()) {
+            jdbcOperator.putData(node.getKey(), node.getValue(), JdbcOperator.EPHEMERAL, clientId);
+        }
+        subscribeDataManager.notifyChanged();
+    }
+
+    private void clearExpiredClients() throws SQLException {
+        List<String> expiredClients = jdbcOperator.getExpiredClients(properties.getSessionTimeout().toMillis());
+        for (String expiredClient : expiredClients) {
+            logger.info("Clear the expired jdbc registry client: {}", expiredClient);
+            jdbcOperator.clearClient(expiredClient);
+        }
+        if (!expiredClients.isEmpty()) {
+            subscribeDataManager.notifyChanged();
+        }
+    }
+
+    private void changeConnectionState(ConnectionState newState) {
+        if (connectionState == newState) {
+            return;
+        }
+        connectionState = newState;
+        for (ConnectionListener listener : connectionListeners) {
+            try {
+                listener.onUpdate(newState);
+            } catch (Exception e) {
+                logger.error("Jdbc registry notify connection state {} error", newState, e);
+            }
+        }
+    }
+
+    @Override
+    public void addConnectionStateListener(ConnectionListener listener) {
+        connectionListeners.add(listener);
+    }
+
+    @Override
+    public boolean subscribe(String path, SubscribeListener listener) {
+        subscribeDataManager.addListener(path, listener);
+        return true;
+    }
+
+    @Override
+    public void unsubscribe(String path) {
+        subscribeDataManager.removeListener(path);
+    }
+
+    @Override
+    public String get(String key) {
+        try {
+            String value = jdbcOperator.getData(key);
+            if (value != null) {
+                return value;
+            }
+            // the parent nodes are not stored, they exist as long as they have descendants
+            if (jdbcOperator.existKeyOrDescendant(key)) {
+                return "";
+            }
+        } catch (SQLException e) {
+            throw new RegistryException("jdbc registry get data error", e);
+        }
+        throw new RegistryException("jdbc registry key doesn't exist: " + key);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            return jdbcOperator.existKeyOrDescendant(key);
+        } catch (SQLException e) {
+            throw new RegistryException("jdbc registry check key is existed error", e);
+        }
+    }
+
+    @Override
+    public void put(String key, String value, boolean deleteOnDisconnect) {
+        try {
+            jdbcOperator.putData(key, value, deleteOnDisconnect ? JdbcOperator.EPHEMERAL : JdbcOperator.PERSISTENT, clientId);
+            if (deleteOnDisconnect) {
+                ephemeralNodes.put(key, value);
+            } else {
+                ephemeralNodes.remove(key);
+            }
+        } catch (SQLException e) {
+            throw new RegistryException("Failed to put registry key: " + key, e);
+        }
+        subscribeDataManager.notifyChanged();
+    }
+
+    @Override
+    public List<String> children(String key) {
+        try {
+            String prefix = key.endsWith("/") ? key : key + "/";
+            Set<String> children = new LinkedHashSet<>();
+            for (String descendant : jdbcOperator.getDescendantKeys(key)) {
+                if (!descendant.startsWith(prefix)) {
+                    continue;
+                }
+                String relativePath = descendant.substring(prefix.length());
+                int index = relativePath.indexOf('/');
+                children.add(index < 0 ? relativePath : relativePath.substring(0, index));
+            }
+            List<String> result = new ArrayList<>(children);
+            result.sort(Comparator.reverseOrder());
+            return result;
+        } catch (SQLException e) {
+            throw new RegistryException("jdbc registry get children error", e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            jdbcOperator.deleteDataWithDescendants(key);
+            String prefix = key.endsWith("/") ? key : key + "/";
+            ephemeralNodes.keySet().removeIf(node -> node.equals(key) || node.startsWith(prefix));
+        } catch (SQLException e) {
+            throw new RegistryException("Failed to delete registry key: " + key, e);
+        }
+        subscribeDataManager.notifyChanged();
+    }
+
+    /**
+     * Block until the lock is held, the lock is reentrant in the same thread.
+     */
+    @Override
+    public boolean acquireLock(String key) {
+        Map<String, Integer> lockMap = threadLocalLockMap.get();
+        if (lockMap != null && lockMap.containsKey(key)) {
+            lockMap.put(key, lockMap.get(key) + 1);
+            return true;
+        }
+        try {
+            while (!jdbcOperator.tryInsertLock(key, lockOwner(), clientId)) {
+                Thread.sleep(properties.getLockRetryInterval().toMillis());
+            }
+        } catch (SQLException e) {
+            throw new RegistryException("jdbc registry get lock error", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistryException("jdbc registry get lock interrupted", e);
+        }
+        if (lockMap == null) {
+            lockMap = new HashMap<>(3);
+            threadLocalLockMap.set(lockMap);
+        }
+        lockMap.put(key, 1);
+        return true;
+    }
+
+    @Override
+    public boolean releaseLock(String key) {
+        Map<String, Integer> lockMap = threadLocalLockMap.get();
+        if (lockMap == null || !lockMap.containsKey(key)) {
+            return false;
+        }
+        int holdCount = lockMap.get(key);
+        if (holdCount > 1) {
+            lockMap.put(key, holdCount - 1);
+            return true;
+        }
+        try {
+            jdbcOperator.deleteLock(key, lockOwner());
+        } catch (SQLException e) {
+            throw new RegistryException("jdbc registry release lock error", e);
+        } finally {
+            lockMap.remove(key);
+            if (lockMap.isEmpty()) {
+                threadLocalLockMap.remove();
+            }
+        }
+        return true;
+    }
+
+    private String lockOwner() {
+        return clientId + "_" + Thread.currentThread().getId();
+    }
+
+    @Override
+    public Duration getSessionTimeout() {
+        return properties.getSessionTimeout();
+    }
+
+    @Override
+    public void close() {
+        subscribeDataManager.close();
+        heartbeatExecutor.shutdownNow();
+        try {
+            jdbcOperator.clearClient(clientId);
+        } catch (SQLException e) {
+            logger.error("Jdbc registry clear client {} error", clientId, e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.jdbc;
+
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.SubscribeListener;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detect the changes of the subscribed paths and notify the listeners.
+ * <p>
+ * The poller waits for a change signal up to the poll interval (a long poll): changes made by this client
+ * wake it up at once, changes made by other clients are found when the wait times out. Each round costs
+ * one indexed query per subscribed path, whose result is diffed with the last snapshot to produce the events.
+ */
+final class JdbcSubscribeDataManager implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSubscribeDataManager.class);
+
+    private final JdbcOperator jdbcOperator;
+    private final long pollIntervalMillis;
+
+    private final Map<String, List<SubscribeListener>> listenerMap = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> snapshotMap = new ConcurrentHashMap<>();
+
+    private final Object changeSignal = new Object();
+    private boolean changed;
+
+    private final Thread pollThread;
+    private volatile boolean running = true;
+
+    JdbcSubscribeDataManager(JdbcOperator jdbcOperator, Duration pollInterval) {
+        this.jdbcOperator = jdbcOperator;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.pollThread = new Thread(this::pollLoop, "JdbcRegistrySubscribeThread");
+        this.pollThread.setDaemon(true);
+    }
+
+    void start() {
+        pollThread.start();
+    }
+
+    void addListener(String path, SubscribeListener listener) {
+        listenerMap.computeIfAbsent(path, k -> new CopyOnWriteArrayList<>()).add(listener);
+        notifyChanged();
+    }
+
+    void removeListener(String path) {
+        listenerMap.remove(path);
+        snapshotMap.remove(path);
+    }
+
+    /**
+     * Wake up the poller immediately, called after this client changed the registry data.
+     */
+    void notifyChanged() {
+        synchronized (changeSignal) {
+            changed = true;
+            changeSignal.notifyAll();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                awaitChange();
+                for (Map.Entry<String, List<SubscribeListener>> entry : listenerMap.entrySet()) {
+                    detectChanges(entry.getKey(), entry.getValue());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Jdbc registry detect subscribe data changes error", e);
+            }
+        }
+    }
+
+    private void awaitChange() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + pollIntervalMillis;
+        synchronized (changeSignal) {
+            long waitMillis = pollIntervalMillis;
+            while (!changed && running && waitMillis > 0) {
+                changeSignal.wait(waitMillis);
+                waitMillis = deadline - System.currentTimeMillis();
+            }
+            changed = false;
+        }
+    }
+
+    private void detectChanges(String path, List<SubscribeListener> listeners) throws Exception {
+        Map<String, String> current = jdbcOperator.getDataWithDescendants(path);
+        Map<String, String> previous = snapshotMap.getOrDefault(path, new HashMap<>());
+
+        List<Event> events = new ArrayList<>();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!previous.containsKey(entry.getKey())) {
+                events.add(new Event(path, entry.getKey(), entry.getValue(), Event.Type.ADD));
+            } else if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                events.add(new Event(path, entry.getKey(), entry.getValue(), Event.Type.UPDATE));
+            }
+        }
+        for (Map.Entry<String, String> entry : previous.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                events.add(new Event(path, entry.getKey(), entry.getValue(), Event.Type.REMOVE));
+            }
+        }
+        // the listener may be removed while querying
+        if (!listenerMap.containsKey(path)) {
+            return;
+        }
+        snapshotMap.put(path, current);
+
+        for (Event event : events) {
+            for (SubscribeListener listener : listeners) {
+                try {
+                    listener.notify(event);
+                } catch (Exception e) {
+                    logger.error("Jdbc registry notify listener error, event: {}", event, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        notifyChanged();
+        try {
+            pollThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        listenerMap.clear();
+        snapshotMap.clear();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_data
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_data CASCADE;
+CREATE TABLE t_ds_jdbc_registry_data
+(
+    id               bigint(20) NOT NULL AUTO_INCREMENT,
+    data_key         varchar(255) NOT NULL,
+    data_value       text,
+    data_type        tinyint(4) NOT NULL,
+    client_id        varchar(64) NOT NULL,
+    create_time      bigint(20) NOT NULL,
+    last_update_time bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uniq_jdbc_registry_data_key (data_key)
+);
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_lock
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_lock CASCADE;
+CREATE TABLE t_ds_jdbc_registry_lock
+(
+    id          bigint(20) NOT NULL AUTO_INCREMENT,
+    lock_key    varchar(255) NOT NULL,
+    lock_owner  varchar(255) NOT NULL,
+    client_id   varchar(64) NOT NULL,
+    create_time bigint(20) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uniq_jdbc_registry_lock_key (lock_key)
+);
+
+-- ----------------------------
+-- Table structure for t_ds_jdbc_registry_client_heartbeat
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_jdbc_registry_client_heartbeat CASCADE;
+CREATE TABLE t_ds_jdbc_registry_client_heartbeat
+(
+    client_id           varchar(64) NOT NULL,
+    client_name         varchar(255) DEFAULT NULL,
+    last_heartbeat_time bigint(20) NOT NULL,
+    create_time         bigint(20) NOT NULL,
+    PRIMARY KEY (client_id)
+);
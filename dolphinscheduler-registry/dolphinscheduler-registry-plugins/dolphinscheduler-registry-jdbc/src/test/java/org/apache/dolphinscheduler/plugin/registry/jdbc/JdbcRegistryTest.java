@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.jdbc;
+
+import org.apache.dolphinscheduler.registry.api.ConnectionState;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.RegistryProperties;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdbcRegistryTest {
+
+    JdbcDataSource dataSource;
+
+    RegistryProperties properties;
+
+    JdbcRegistry registry;
+
+    @Before
+    public void before() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=true");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:sql/jdbc_registry_h2.sql'");
+        }
+
+        properties = new RegistryProperties();
+        properties.getJdbc().setSessionTimeout(Duration.ofSeconds(2));
+        properties.getJdbc().setHeartbeatRefreshInterval(Duration.ofMillis(200));
+        properties.getJdbc().setSubscribePollInterval(Duration.ofMillis(200));
+        properties.getJdbc().setLockRetryInterval(Duration.ofMillis(10));
+        registry = new JdbcRegistry(properties, dataSource);
+        registry.start();
+    }
+
+    @Test
+    public void persistTest() {
+        registry.put("/nodes/m1", "v1", false);
+        registry.put("/nodes/m2", "", false);
+        registry.put("/nodes/m1", "v2", false);
+        Assert.assertEquals(Arrays.asList("m2", "m1"), registry.children("/nodes"));
+        Assert.assertEquals("v2", registry.get("/nodes/m1"));
+        Assert.assertTrue(registry.exists("/nodes/m1"));
+        registry.delete("/nodes/m2");
+        Assert.assertFalse(registry.exists("/nodes/m2"));
+    }
+
+    @Test
+    public void parentNodeTest() {
+        registry.put("/nodes/worker/default/127.0.0.1:1234", "", true);
+        registry.put("/nodes/worker/default/127.0.0.1:1235", "", true);
+        registry.put("/nodes/worker/default_group/127.0.0.1:1236", "", true);
+        Assert.assertTrue(registry.exists("/nodes/worker"));
+        Assert.assertFalse(registry.exists("/nodes/work"));
+        Assert.assertEquals("", registry.get("/nodes/worker"));
+        Assert.assertEquals(Arrays.asList("default_group", "default"), registry.children("/nodes/worker"));
+
+        registry.delete("/nodes/worker/default");
+        Assert.assertEquals(Collections.singletonList("default_group"), registry.children("/nodes/worker"));
+    }
+
+    @Test
+    public void ephemeralTest() throws Exception {
+        JdbcRegistry another = new JdbcRegistry(properties, dataSource);
+        another.start();
+        another.put("/nodes/master/127.0.0.1:5678", "", true);
+        another.put("/dead-servers/master_127.0.0.1:5678", "", false);
+        Assert.assertTrue(registry.exists("/nodes/master/127.0.0.1:5678"));
+
+        another.close();
+        Assert.assertFalse(registry.exists("/nodes/master/127.0.0.1:5678"));
+        Assert.assertTrue(registry.exists("/dead-servers/master_127.0.0.1:5678"));
+    }
+
+    @Test
+    public void expiredClientTest() throws Exception {
+        // a client whose heartbeat is stuck
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("insert into t_ds_jdbc_registry_client_heartbeat values ('expired', 'expired', 0, 0)");
+            statement.executeUpdate("insert into t_ds_jdbc_registry_data (data_key, data_value, data_type, client_id, create_time, last_update_time) "
+                + "values ('/nodes/master/127.0.0.1:5678', '', 1, 'expired', 0, 0)");
+            statement.executeUpdate("insert into t_ds_jdbc_registry_lock (lock_key, lock_owner, client_id, create_time) "
+                + "values ('/lock', 'expired_1', 'expired', 0)");
+        }
+        Assert.assertTrue(registry.exists("/nodes/master/127.0.0.1:5678"));
+        Thread.sleep(1000);
+        Assert.assertFalse(registry.exists("/nodes/master/127.0.0.1:5678"));
+        Assert.assertTrue(registry.acquireLock("/lock"));
+        Assert.assertTrue(registry.releaseLock("/lock"));
+    }
+
+    @Test
+    public void leaseLostTest() throws Exception {
+        JdbcRegistry another = new JdbcRegistry(properties, dataSource);
+        CountDownLatch disconnected = new CountDownLatch(1);
+        CountDownLatch reconnected = new CountDownLatch(1);
+        another.addConnectionStateListener(state -> {
+            if (state == ConnectionState.DISCONNECTED) {
+                disconnected.countDown();
+            } else if (state == ConnectionState.RECONNECTED && disconnected.getCount() == 0) {
+                reconnected.countDown();
+            }
+        });
+        another.start();
+        another.put("/nodes/worker/default/127.0.0.1:1234", "", true);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // the lease and the ephemeral nodes are cleared by the others
+            statement.executeUpdate("delete from t_ds_jdbc_registry_data");
+            statement.executeUpdate("delete from t_ds_jdbc_registry_client_heartbeat");
+        }
+        Assert.assertTrue(disconnected.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(registry.exists("/nodes/worker/default/127.0.0.1:1234"));
+
+        another.close();
+        Assert.assertFalse(registry.exists("/nodes/worker/default/127.0.0.1:1234"));
+    }
+
+    @Test
+    public void lockTest() throws InterruptedException {
+        CountDownLatch preCountDownLatch = new CountDownLatch(1);
+        CountDownLatch allCountDownLatch = new CountDownLatch(2);
+        List<String> testData = Collections.synchronizedList(new ArrayList<>());
+        new Thread(() -> {
+            registry.acquireLock("/lock");
+            preCountDownLatch.countDown();
+            try {
+                Thread.sleep(500);
+                testData.add("thread1");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                registry.releaseLock("/lock");
+                allCountDownLatch.countDown();
+            }
+        }).start();
+        preCountDownLatch.await();
+        new Thread(() -> {
+            try {
+                registry.acquireLock("/lock");
+                testData.add("thread2");
+            } finally {
+                registry.releaseLock("/lock");
+                allCountDownLatch.countDown();
+            }
+        }).start();
+        allCountDownLatch.await();
+        Assert.assertEquals(Arrays.asList("thread1", "thread2"), testData);
+    }
+
+    @Test
+    public void reentrantLockTest() {
+        Assert.assertTrue(registry.acquireLock("/lock"));
+        Assert.assertTrue(registry.acquireLock("/lock"));
+        Assert.assertTrue(registry.releaseLock("/lock"));
+        Assert.assertTrue(registry.releaseLock("/lock"));
+        Assert.assertFalse(registry.releaseLock("/lock"));
+    }
+
+    @Test
+    public void subscribeTest() throws InterruptedException {
+        List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(3);
+        Assert.assertTrue(registry.subscribe("/sub", event -> {
+            events.add(event);
+            latch.countDown();
+        }));
+        // wait for the first snapshot
+        Thread.sleep(500);
+        registry.put("/sub/n1", "1", false);
+        Thread.sleep(300);
+        registry.put("/sub/n1", "2", false);
+        Thread.sleep(300);
+        registry.delete("/sub/n1");
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Event.Type.ADD, events.get(0).type());
+        Assert.assertEquals("/sub/n1", events.get(0).path());
+        Assert.assertEquals("/sub", events.get(0).key());
+        Assert.assertEquals(Event.Type.UPDATE, events.get(1).type());
+        Assert.assertEquals("2", events.get(1).data());
+        Assert.assertEquals(Event.Type.REMOVE, events.get(2).type());
+    }
+
+    @After
+    public void after() {
+        registry.close();
+    }
+}
@@ -28,6 +28,8 @@ import org.apache.dolphinscheduler.remote.exceptions.RemotingTooMuchRequestExcep
 import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.future.ReleaseSemaphore;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseStream;
+import org.apache.dolphinscheduler.remote.future.ResponseSubscription;
 import org.apache.dolphinscheduler.remote.handler.NettyClientHandler;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.CallerThreadExecutePolicy;
@@ -283,6 +285,53 @@ public class NettyRemotingClient {
         return result;
     }
 
+    /**
+     * stream send, the response commands are read from the returned stream.
+     * <p>
+     * The stream is sent on a channel of its own, which is not shared with the other requests
+     * and is closed with the stream, so a slow reader never holds back the other requests to the host.
+     *
+     * @param host host
+     * @param command command
+     * @param timeoutMillis the max time to wait for a response command
+     * @return response stream, it should be closed once it's not read any more
+     */
+    public ResponseStream sendStream(final Host host, final Command command, final long timeoutMillis) throws RemotingException {
+        final Channel channel = connect(host);
+        final ResponseStream responseStream = new ResponseStream(command.getOpaque(), timeoutMillis, channel);
+        channel.writeAndFlush(command).addListener(future -> {
+            if (!future.isSuccess()) {
+                logger.error("send command {} to host {} failed", command, host);
+                responseStream.fail(future.cause());
+            }
+        });
+        return responseStream;
+    }
+
+    /**
+     * subscribe send, the response commands are pushed to the listener until the subscription is closed
+     *
+     * @param host host
+     * @param command command
+     * @param listener the listener of the response commands, it's called on the io thread
+     * @return response subscription, it should be closed once the responses are not needed any more
+     */
+    public ResponseSubscription subscribe(final Host host, final Command command,
+                                          final ResponseSubscription.Listener listener) throws RemotingException {
+        final Channel channel = getChannel(host);
+        if (channel == null) {
+            throw new RemotingException(String.format("connect to : %s fail", host));
+        }
+        final ResponseSubscription subscription = new ResponseSubscription(command.getOpaque(), channel, listener);
+        channel.writeAndFlush(command).addListener(future -> {
+            if (!future.isSuccess()) {
+                logger.error("send command {} to host {} failed", command, host);
+                subscription.fail(future.cause());
+            }
+        });
+        return subscription;
+    }
+
     /**
      * send task
      *
@@ -370,6 +419,29 @@ public class NettyRemotingClient {
         return null;
     }
 
+    /**
+     * connect a channel which is not cached, the caller closes it once it's not used any more
+     *
+     * @param host host
+     * @return channel
+     */
+    private Channel connect(Host host) throws RemotingException {
+        ChannelFuture future;
+        synchronized (bootstrap) {
+            future = bootstrap.connect(new InetSocketAddress(host.getIp(), host.getPort()));
+        }
+        try {
+            future.sync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.channel().close();
+            throw new RemotingException(String.format("connect to : %s interrupted", host), e);
+        } catch (Exception e) {
+            throw new RemotingException(String.format("connect to : %s fail", host), e);
+        }
+        return future.channel();
+    }
+
     /**
      * close
      */
@@ -414,4 +486,15 @@ public class NettyRemotingClient {
             channel.close();
         }
     }
+
+    /**
+     * close the channel, the cached channel of the host is removed only if it's the channel
+     *
+     * @param host host
+     * @param channel channel
+     */
+    public void closeChannel(Host host, Channel channel) {
+        this.channels.remove(host, channel);
+        channel.close();
+    }
 }
@@ -43,16 +43,27 @@ public class NettyEncoder extends MessageToByteEncoder<Command> {
         if (msg == null) {
             throw new RemotingException("encode msg is null");
         }
+        writeHeader(msg, msg.getBody().length, out);
+        out.writeBytes(msg.getBody());
+    }
+
+    /**
+     * write the header of the command, the body is written after it separately
+     *
+     * @param msg command
+     * @param bodyLength body length
+     * @param out byte buffer
+     */
+    public static void writeHeader(Command msg, int bodyLength, ByteBuf out) {
         out.writeByte(Command.MAGIC);
         out.writeByte(Command.VERSION);
         out.writeByte(msg.getType().ordinal());
         out.writeLong(msg.getOpaque());
         writeContext(msg, out);
-        out.writeInt(msg.getBody().length);
-        out.writeBytes(msg.getBody());
+        out.writeInt(bodyLength);
     }
 
-    private void writeContext(Command msg, ByteBuf out) {
+    private static void writeContext(Command msg, ByteBuf out) {
         byte[] headerBytes = msg.getContext().toBytes();
         out.writeInt(headerBytes.length);
         out.writeBytes(headerBytes);
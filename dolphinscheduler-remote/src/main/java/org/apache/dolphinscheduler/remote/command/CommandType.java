@@ -140,5 +140,50 @@ public enum CommandType {
     /**
      * workflow executing data response, from master to api
      */
-    WORKFLOW_EXECUTING_DATA_RESPONSE;
+    WORKFLOW_EXECUTING_DATA_RESPONSE,
+
+    /**
+     * get log stream request
+     */
+    GET_LOG_STREAM_REQUEST,
+
+    /**
+     * get log stream response, a chunk of the log in the body, an empty body ends the stream
+     */
+    GET_LOG_STREAM_RESPONSE,
+
+    /**
+     * search log request
+     */
+    SEARCH_LOG_REQUEST,
+
+    /**
+     * search log response, a chunk of the matched lines in the body, an empty body ends the search
+     */
+    SEARCH_LOG_RESPONSE,
+
+    /**
+     * cancel a running search of log
+     */
+    SEARCH_LOG_CANCEL_REQUEST,
+
+    /**
+     * tail log request, the log server pushes the bytes appended to the log until the tail is cancelled
+     */
+    TAIL_LOG_REQUEST,
+
+    /**
+     * tail log response, the bytes appended to the log from an offset
+     */
+    TAIL_LOG_RESPONSE,
+
+    /**
+     * cancel a running tail of log
+     */
+    TAIL_LOG_CANCEL_REQUEST,
+
+    /**
+     * the request is rejected as the server is busy, it should be retried later
+     */
+    SERVER_BUSY_RESPONSE;
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command.log;
+
+import java.io.Serializable;
+
+/**
+ *  a line of the search log response, a matched line or a context line around it,
+ *  the lines are sent one json per line
+ */
+public class SearchLogLine implements Serializable {
+
+    /**
+     *  line number, from 1
+     */
+    private long lineNumber;
+
+    /**
+     *  the byte offset of the line in the log
+     */
+    private long offset;
+
+    /**
+     *  whether the line matches, or it's a context line
+     */
+    private boolean match;
+
+    /**
+     *  the content of the line
+     */
+    private String content;
+
+    public SearchLogLine() {
+    }
+
+    public SearchLogLine(long lineNumber, long offset, boolean match, String content) {
+        this.lineNumber = lineNumber;
+        this.offset = offset;
+        this.match = match;
+        this.content = content;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public boolean isMatch() {
+        return match;
+    }
+
+    public void setMatch(boolean match) {
+        this.match = match;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
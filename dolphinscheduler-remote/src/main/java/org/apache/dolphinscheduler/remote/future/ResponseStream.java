@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.future;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTooMuchRequestException;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+
+/**
+ * response stream, the body of the response commands of a request are read in order, until an empty body.
+ * <p>
+ * The chunks are buffered until they are read, once a few chunks are buffered the channel stops reading,
+ * so a slow reader holds back the sender instead of the chunks piling up in the memory.
+ * The channel is owned by the stream and closed with it.
+ */
+public class ResponseStream extends InputStream {
+
+    private static final ConcurrentHashMap<Long, ResponseStream> STREAM_TABLE = new ConcurrentHashMap<>(256);
+
+    /**
+     * the channel stops reading once the buffered chunks reach it
+     */
+    private static final int MAX_BUFFERED_CHUNKS = 4;
+
+    private static final byte[] END = new byte[0];
+
+    /**
+     * request unique identification
+     */
+    private final long opaque;
+
+    /**
+     * the max time to wait for a chunk
+     */
+    private final long timeoutMillis;
+
+    private final Channel channel;
+
+    /**
+     * the chunks, or the cause of a failure
+     */
+    private final BlockingQueue<Object> chunks = new LinkedBlockingQueue<>();
+
+    private byte[] chunk = END;
+
+    private int position;
+
+    private boolean finished;
+
+    public ResponseStream(long opaque, long timeoutMillis, Channel channel) {
+        this.opaque = opaque;
+        this.timeoutMillis = timeoutMillis;
+        this.channel = channel;
+        STREAM_TABLE.put(opaque, this);
+    }
+
+    public static ResponseStream getStream(long opaque) {
+        return STREAM_TABLE.get(opaque);
+    }
+
+    /**
+     * fail the streams of the channel, once it's closed
+     */
+    public static void failStreams(Channel channel) {
+        for (ResponseStream stream : STREAM_TABLE.values()) {
+            if (stream.channel == channel) {
+                stream.fail(new RemotingException(String.format("channel %s is closed", ChannelUtils.getRemoteAddress(channel))));
+            }
+        }
+    }
+
+    /**
+     * put a response command, it's called on the io thread of the channel, a busy response of the server fails the stream
+     *
+     * @param command response command
+     */
+    public void putChunk(Command command) {
+        if (command.getType() == CommandType.SERVER_BUSY_RESPONSE) {
+            fail(new RemotingTooMuchRequestException(
+                String.format("server %s is busy", ChannelUtils.getRemoteAddress(channel))));
+            return;
+        }
+        byte[] body = command.getBody();
+        if (body == null || body.length == 0) {
+            chunks.add(END);
+            STREAM_TABLE.remove(opaque);
+            return;
+        }
+        chunks.add(body);
+        if (chunks.size() >= MAX_BUFFERED_CHUNKS) {
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    public void fail(Throwable cause) {
+        chunks.add(cause);
+        STREAM_TABLE.remove(opaque);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        int length = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    /**
+     * make sure there are bytes left in the current chunk
+     *
+     * @return false if the stream is finished
+     */
+    private boolean nextChunk() throws IOException {
+        while (position == chunk.length) {
+            if (finished) {
+                return false;
+            }
+            Object next;
+            try {
+                next = chunks.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for the response", e);
+            }
+            if (chunks.size() < MAX_BUFFERED_CHUNKS && !channel.config().isAutoRead()) {
+                channel.config().setAutoRead(true);
+            }
+            if (next == null) {
+                close();
+                throw new IOException(new RemotingTimeoutException(ChannelUtils.getRemoteAddress(channel), timeoutMillis));
+            }
+            if (next instanceof Throwable) {
+                finished = true;
+                throw new IOException("read the response error", (Throwable) next);
+            }
+            chunk = (byte[]) next;
+            position = 0;
+            finished = chunk.length == 0;
+        }
+        return true;
+    }
+
+    /**
+     * stop waiting for the chunks and close the channel of the stream, the sender stops once the channel is closed
+     */
+    @Override
+    public void close() {
+        STREAM_TABLE.remove(opaque);
+        finished = true;
+        chunk = END;
+        position = 0;
+        chunks.clear();
+        channel.close();
+    }
+
+    public long getOpaque() {
+        return opaque;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.future;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.netty.channel.Channel;
+
+/**
+ * response subscription, the response commands of a request are pushed to the listener as they arrive,
+ * until the subscription is closed, for the requests answered by the responses for a long time.
+ * <p>
+ * The listener is called on the io thread of the channel, so it should hand the responses off without blocking.
+ */
+public class ResponseSubscription {
+
+    private static final ConcurrentHashMap<Long, ResponseSubscription> SUBSCRIPTION_TABLE = new ConcurrentHashMap<>(256);
+
+    /**
+     * request unique identification
+     */
+    private final long opaque;
+
+    private final Channel channel;
+
+    private final Listener listener;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public ResponseSubscription(long opaque, Channel channel, Listener listener) {
+        this.opaque = opaque;
+        this.channel = channel;
+        this.listener = listener;
+        SUBSCRIPTION_TABLE.put(opaque, this);
+    }
+
+    public static ResponseSubscription getSubscription(long opaque) {
+        return SUBSCRIPTION_TABLE.get(opaque);
+    }
+
+    /**
+     * fail the subscriptions of the channel, once it's closed
+     */
+    public static void failSubscriptions(Channel channel) {
+        for (ResponseSubscription subscription : SUBSCRIPTION_TABLE.values()) {
+            if (subscription.channel == channel) {
+                subscription.fail(new RemotingException(String.format("channel %s is closed", ChannelUtils.getRemoteAddress(channel))));
+            }
+        }
+    }
+
+    /**
+     * put a response command, it's called on the io thread of the channel
+     *
+     * @param command response command
+     */
+    public void putResponse(Command command) {
+        if (!closed.get()) {
+            listener.onResponse(command);
+        }
+    }
+
+    public void fail(Throwable cause) {
+        if (closed.compareAndSet(false, true)) {
+            SUBSCRIPTION_TABLE.remove(opaque);
+            listener.onFailure(cause);
+        }
+    }
+
+    /**
+     * stop receiving the responses, the responses arriving later are dropped
+     */
+    public void close() {
+        closed.set(true);
+        SUBSCRIPTION_TABLE.remove(opaque);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public long getOpaque() {
+        return opaque;
+    }
+
+    /**
+     * the listener of the responses, the callbacks are called on the io thread of the channel
+     */
+    public interface Listener {
+
+        /**
+         * a response command of the request
+         */
+        void onResponse(Command command);
+
+        /**
+         * the request failed to send, or the channel is closed, it's called once and no response follows
+         */
+        void onFailure(Throwable cause);
+    }
+}
@@ -21,6 +21,8 @@ import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseStream;
+import org.apache.dolphinscheduler.remote.future.ResponseSubscription;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.remote.utils.Constants;
@@ -85,8 +87,9 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
      */
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
-        nettyRemotingClient.closeChannel(ChannelUtils.toAddress(ctx.channel()));
-        ctx.channel().close();
+        ResponseStream.failStreams(ctx.channel());
+        ResponseSubscription.failSubscriptions(ctx.channel());
+        nettyRemotingClient.closeChannel(ChannelUtils.toAddress(ctx.channel()), ctx.channel());
     }
 
     /**
@@ -131,6 +134,16 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
      * @param command command
      */
     private void processReceived(final Channel channel, final Command command) {
+        ResponseStream stream = ResponseStream.getStream(command.getOpaque());
+        if (stream != null) {
+            stream.putChunk(command);
+            return;
+        }
+        ResponseSubscription subscription = ResponseSubscription.getSubscription(command.getOpaque());
+        if (subscription != null) {
+            subscription.putResponse(command);
+            return;
+        }
         ResponseFuture future = ResponseFuture.getFuture(command.getOpaque());
         if (future != null) {
             future.setResponseCommand(command);
@@ -175,8 +188,7 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         logger.error("exceptionCaught : {}", cause.getMessage(), cause);
-        nettyRemotingClient.closeChannel(ChannelUtils.toAddress(ctx.channel()));
-        ctx.channel().close();
+        nettyRemotingClient.closeChannel(ChannelUtils.toAddress(ctx.channel()), ctx.channel());
     }
 
     @Override
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.utils;
+
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.io.File;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultFileRegion;
+
+/**
+ * Send a file as the response commands of a request, the body of a command is a chunk of the file,
+ * and a command with an empty body ends it.
+ * <p>
+ * The chunks are written as file regions, so the file is transferred to the socket without being copied
+ * into the memory of the process, with sendfile where the transport supports it.
+ */
+public class FileChunkWriter {
+
+    /**
+     * the default size of a chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 512 * 1024;
+
+    private FileChunkWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * write the file to the channel, the bytes of the file at the time of the call are written
+     *
+     * @param channel channel
+     * @param type response command type
+     * @param opaque request unique identification
+     * @param file file, an empty stream is written if it doesn't exist
+     * @param chunkSize chunk size
+     * @return the future of the end command
+     */
+    public static ChannelFuture write(Channel channel, CommandType type, long opaque, File file, int chunkSize) {
+        long length = file.isFile() ? file.length() : 0;
+        for (long position = 0; position < length; position += chunkSize) {
+            int count = (int) Math.min(chunkSize, length - position);
+            channel.write(header(channel, type, opaque, count));
+            channel.write(new DefaultFileRegion(file, position, count));
+        }
+        return channel.writeAndFlush(header(channel, type, opaque, 0));
+    }
+
+    private static ByteBuf header(Channel channel, CommandType type, long opaque, int bodyLength) {
+        Command command = new Command(opaque);
+        command.setType(type);
+        ByteBuf header = channel.alloc().buffer(64);
+        NettyEncoder.writeHeader(command, bodyLength, header);
+        return header;
+    }
+}
@@ -17,17 +17,33 @@
 
 package org.apache.dolphinscheduler.remote;
 
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
 import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseStream;
+import org.apache.dolphinscheduler.remote.future.ResponseSubscription;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.FileChunkWriter;
 import org.apache.dolphinscheduler.remote.utils.Host;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
@@ -111,6 +127,101 @@ public class NettyRemotingClientTest {
         client.close();
     }
 
+    /**
+     *  test send stream
+     */
+    @Test
+    public void testSendStream() throws Exception {
+        File file = File.createTempFile("stream", ".log");
+        file.deleteOnExit();
+        byte[] content = new byte[100 * 1024 + 7];
+        new Random().nextBytes(content);
+        Files.write(file.toPath(), content);
+
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        server.registerProcessor(CommandType.GET_LOG_STREAM_REQUEST, (channel, command) -> {
+            GetLogStreamRequestCommand request = JSONUtils.parseObject(command.getBody(), GetLogStreamRequestCommand.class);
+            FileChunkWriter.write(channel, CommandType.GET_LOG_STREAM_RESPONSE, command.getOpaque(), new File(request.getPath()), 1000);
+        });
+        server.start();
+        NettyRemotingClient client = new NettyRemotingClient(new NettyClientConfig());
+        try {
+            Host host = new Host("127.0.0.1", serverConfig.getListenPort());
+            try (ResponseStream stream = client.sendStream(host, new GetLogStreamRequestCommand(file.getPath()).convert2Command(), 2000)) {
+                Assert.assertArrayEquals(content, readFully(stream));
+            }
+            try (ResponseStream stream = client.sendStream(host, new GetLogStreamRequestCommand("none").convert2Command(), 2000)) {
+                Assert.assertEquals(-1, stream.read());
+            }
+
+            // each stream has a channel of its own, closing a stream never closes the channels of the others
+            Channel channel = client.getChannel(host);
+            ResponseStream first = client.sendStream(host, new GetLogStreamRequestCommand(file.getPath()).convert2Command(), 2000);
+            try (ResponseStream second = client.sendStream(host, new GetLogStreamRequestCommand(file.getPath()).convert2Command(), 2000)) {
+                first.close();
+                Assert.assertArrayEquals(content, readFully(second));
+                Assert.assertTrue(channel.isActive());
+                Assert.assertSame(channel, client.getChannel(host));
+            }
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
+
+    private byte[] readFully(ResponseStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[333];
+        int length;
+        while ((length = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     *  test subscribe
+     */
+    @Test
+    public void testSubscribe() throws Exception {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        server.registerProcessor(CommandType.TAIL_LOG_REQUEST, (channel, command) -> {
+            for (int i = 0; i < 3; i++) {
+                channel.writeAndFlush(new TailLogResponseCommand(i, String.valueOf(i), i + 1, i == 2).convert2Command(command.getOpaque()));
+            }
+            channel.close();
+        });
+        server.start();
+        NettyRemotingClient client = new NettyRemotingClient(new NettyClientConfig());
+        try {
+            Host host = new Host("127.0.0.1", serverConfig.getListenPort());
+            List<String> contents = new CopyOnWriteArrayList<>();
+            CountDownLatch failed = new CountDownLatch(1);
+            ResponseSubscription subscription = client.subscribe(host, new TailLogRequestCommand("a.log", 0).convert2Command(),
+                new ResponseSubscription.Listener() {
+                    @Override
+                    public void onResponse(Command command) {
+                        contents.add(JSONUtils.parseObject(command.getBody(), TailLogResponseCommand.class).getContent());
+                    }
+
+                    @Override
+                    public void onFailure(Throwable cause) {
+                        failed.countDown();
+                    }
+                });
+            // the subscription fails once the channel is closed
+            Assert.assertTrue(failed.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(Arrays.asList("0", "1", "2"), contents);
+            Assert.assertTrue(subscription.isClosed());
+            Assert.assertNull(ResponseSubscription.getSubscription(subscription.getOpaque()));
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
+
     private static class Ping implements Serializable {
 
         /**
@@ -32,6 +32,13 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
  */
 public class SensitiveDataConverter extends MessageConverter {
 
+    private static final String PASSWORD_KEYWORD = "password";
+
+    /**
+     * the delimiters after the password keyword in the password regex
+     */
+    private static final String[] PASSWORD_DELIMITERS = {"\\\":\\\"", "='"};
+
     /**
      * password pattern
      */
@@ -70,22 +77,50 @@ public class SensitiveDataConverter extends MessageConverter {
      */
     static String passwordHandler(Pattern pwdPattern, String logMsg) {
 
-        Matcher matcher = pwdPattern.matcher(logMsg);
-
-        StringBuffer sb = new StringBuffer(logMsg.length());
-
-        while (matcher.find()) {
-
-            String password = matcher.group();
-
-            String maskPassword = StringUtils.repeat(Constants.STAR, StringUtils.length(password));
+        // most of the logs have no password, skip the regex for them
+        if (!mayContainPassword(logMsg)) {
+            return logMsg;
+        }
 
-            matcher.appendReplacement(sb, maskPassword);
+        Matcher matcher = pwdPattern.matcher(logMsg);
+        if (!matcher.find()) {
+            return logMsg;
         }
-        matcher.appendTail(sb);
+
+        StringBuilder sb = new StringBuilder(logMsg.length());
+        int last = 0;
+        do {
+            sb.append(logMsg, last, matcher.start());
+            for (int i = matcher.start(); i < matcher.end(); i++) {
+                sb.append(Constants.STAR);
+            }
+            last = matcher.end();
+        } while (matcher.find());
+        sb.append(logMsg, last, logMsg.length());
 
         return sb.toString();
     }
 
+    /**
+     * whether the log may match {@link Constants#DATASOURCE_PASSWORD_REGEX},
+     * that is a "password" in any case followed by one of its delimiters
+     *
+     * @param logMsg original log
+     */
+    static boolean mayContainPassword(String logMsg) {
+        int length = logMsg.length();
+        for (int i = 0; i + PASSWORD_KEYWORD.length() <= length; i++) {
+            char c = logMsg.charAt(i);
+            if ((c == 'p' || c == 'P') && logMsg.regionMatches(true, i, PASSWORD_KEYWORD, 0, PASSWORD_KEYWORD.length())) {
+                int end = i + PASSWORD_KEYWORD.length();
+                for (String delimiter : PASSWORD_DELIMITERS) {
+                    if (logMsg.startsWith(delimiter, end)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
 
 }
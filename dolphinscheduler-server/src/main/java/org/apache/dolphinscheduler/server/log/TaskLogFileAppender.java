@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.server.metrics.TaskLogMetrics;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.joran.spi.DefaultClass;
+
+/**
+ * Task log appender, the events are put into a bounded buffer of the task, and written to the file in batches
+ * on a writer thread shared by all the tasks, so the task threads neither contend on a lock nor wait for the disk.
+ * <p>
+ * The file is never rolled over, as the log server views, downloads, searches and archives a task log as one file.
+ */
+public class TaskLogFileAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    static final int DEFAULT_MAX_FLUSH_TIME = 1000;
+
+    private static final int WRITE_BUFFER_SIZE = 8192;
+
+    private Encoder<ILoggingEvent> encoder;
+
+    private String file;
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    /**
+     * drop the events instead of blocking the task once the buffer is full
+     */
+    private boolean neverBlock;
+
+    private boolean includeCallerData = true;
+
+    /**
+     * the max time to wait for the buffered events to be written when the appender is stopped
+     */
+    private int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
+
+    private BlockingQueue<ILoggingEvent> queue;
+
+    /**
+     * the states below are only accessed on the writer thread, after the appender is started
+     */
+    private OutputStream outputStream;
+
+    private long fileSize;
+
+    private volatile boolean closing;
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        if (file == null) {
+            addError("No file set for the appender named [" + name + "].");
+            return;
+        }
+        if (queueSize <= 0) {
+            addError("Invalid queue size [" + queueSize + "].");
+            return;
+        }
+        try {
+            openFile();
+        } catch (IOException e) {
+            addError("Failed to open the file [" + file + "].", e);
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        Writer.INSTANCE.add(this);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        closing = true;
+        Writer.INSTANCE.wakeUp();
+        try {
+            if (!closed.await(maxFlushTime, TimeUnit.MILLISECONDS)) {
+                addWarn("Max flush time [" + maxFlushTime + "ms] exceeded, " + queue.size()
+                        + " events are written to [" + file + "] in the background.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (queue.offer(event)) {
+            if (queue.remainingCapacity() < queueSize / 2) {
+                Writer.INSTANCE.wakeUp();
+            }
+            return;
+        }
+        if (neverBlock) {
+            TaskLogMetrics.incTaskLogDroppedCount();
+            return;
+        }
+        TaskLogMetrics.incTaskLogBlockedCount();
+        Writer.INSTANCE.wakeUp();
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            TaskLogMetrics.incTaskLogDroppedCount();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void openFile() throws IOException {
+        File logFile = new File(file);
+        File parent = logFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create the parent directories of " + file);
+        }
+        fileSize = logFile.length();
+        outputStream = new BufferedOutputStream(new FileOutputStream(logFile, true), WRITE_BUFFER_SIZE);
+        byte[] header = encoder.headerBytes();
+        if (header != null && fileSize == 0) {
+            write(header);
+        }
+    }
+
+    /**
+     * write the buffered events, called on the writer thread
+     *
+     * @return the events written
+     */
+    private int drain(List<ILoggingEvent> batch, int maxBatchSize) {
+        queue.drainTo(batch, maxBatchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            for (ILoggingEvent event : batch) {
+                write(encoder.encode(event));
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            addError("Failed to write the events to [" + file + "].", e);
+        }
+        return batch.size();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        outputStream.write(bytes);
+        fileSize += bytes.length;
+    }
+
+    private void close() {
+        try {
+            byte[] footer = encoder.footerBytes();
+            if (footer != null) {
+                write(footer);
+            }
+            outputStream.close();
+        } catch (IOException e) {
+            addError("Failed to close [" + file + "].", e);
+        } finally {
+            closed.countDown();
+        }
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    @DefaultClass(PatternLayoutEncoder.class)
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file == null ? null : file.trim();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public boolean isNeverBlock() {
+        return neverBlock;
+    }
+
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    /**
+     * The writer thread of all the task log appenders, it writes the buffered events of the appenders in turn,
+     * and flushes each file once per round.
+     */
+    private static final class Writer implements Runnable {
+
+        private static final Writer INSTANCE = new Writer();
+
+        /**
+         * the writer waits for this interval once there are no events, so the events are written in batches
+         */
+        private static final long POLL_INTERVAL_MILLIS = 10;
+
+        /**
+         * the max events written for an appender in a round, so a chatty task doesn't starve the others
+         */
+        private static final int MAX_BATCH_SIZE = 1024;
+
+        private final Queue<TaskLogFileAppender> newAppenders = new ConcurrentLinkedQueue<>();
+
+        private final List<TaskLogFileAppender> appenders = new ArrayList<>();
+
+        private final Thread thread;
+
+        private Writer() {
+            thread = new Thread(this, "TaskLogWriter");
+            thread.setDaemon(true);
+            thread.start();
+            TaskLogMetrics.registerTaskLogBufferedGauge(this::bufferedEvents);
+        }
+
+        void add(TaskLogFileAppender appender) {
+            newAppenders.add(appender);
+        }
+
+        void wakeUp() {
+            LockSupport.unpark(thread);
+        }
+
+        private int bufferedEvents() {
+            int buffered = 0;
+            for (TaskLogFileAppender appender : newAppenders) {
+                buffered += appender.queue.size();
+            }
+            synchronized (appenders) {
+                for (TaskLogFileAppender appender : appenders) {
+                    buffered += appender.queue.size();
+                }
+            }
+            return buffered;
+        }
+
+        @Override
+        public void run() {
+            List<ILoggingEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (true) {
+                boolean active = false;
+                synchronized (appenders) {
+                    TaskLogFileAppender newAppender;
+                    while ((newAppender = newAppenders.poll()) != null) {
+                        appenders.add(newAppender);
+                    }
+                }
+                for (int i = appenders.size() - 1; i >= 0; i--) {
+                    TaskLogFileAppender appender = appenders.get(i);
+                    // read the flag before draining, so no event appended before the appender is stopped is lost
+                    boolean closing = appender.closing;
+                    try {
+                        active |= appender.drain(batch, MAX_BATCH_SIZE) > 0;
+                    } catch (Throwable e) {
+                        appender.addError("Failed to write the task log events.", e);
+                    } finally {
+                        batch.clear();
+                    }
+                    if (closing && appender.queue.isEmpty()) {
+                        appender.close();
+                        synchronized (appenders) {
+                            appenders.remove(i);
+                        }
+                    }
+                }
+                if (!active) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.metrics;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class LogServerMetrics {
+
+    public static final String REJECT_REASON_QUEUE_FULL = "queue_full";
+    public static final String REJECT_REASON_CLIENT_LIMIT = "client_limit";
+    public static final String REJECT_REASON_TAIL_LIMIT = "tail_limit";
+
+    public static void incRequestRejectedCount(String reason) {
+        Counter.builder("ds.log.server.request.rejected.count")
+            .description("log requests rejected as the log server is busy")
+            .tag("reason", reason)
+            .register(Metrics.globalRegistry)
+            .increment();
+    }
+
+    public static void registerRequestQueuedGauge(Supplier<Number> supplier) {
+        Gauge.builder("ds.log.server.request.queued", supplier)
+            .description("log requests waiting in the queue of the log server")
+            .register(Metrics.globalRegistry);
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.metrics;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class TaskLogMetrics {
+
+    private static final Counter TASK_LOG_DROPPED_COUNTER =
+        Counter.builder("ds.worker.task.log.dropped.count")
+            .description("task log events dropped as the task log buffer is full")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter TASK_LOG_BLOCKED_COUNTER =
+        Counter.builder("ds.worker.task.log.blocked.count")
+            .description("task log events blocked until the task log buffer has room")
+            .register(Metrics.globalRegistry);
+
+    public static void incTaskLogDroppedCount() {
+        TASK_LOG_DROPPED_COUNTER.increment();
+    }
+
+    public static void incTaskLogBlockedCount() {
+        TASK_LOG_BLOCKED_COUNTER.increment();
+    }
+
+    public static void registerTaskLogBufferedGauge(Supplier<Number> supplier) {
+        Gauge.builder("ds.worker.task.log.buffered", supplier)
+            .description("task log events waiting in the buffers to be written")
+            .register(Metrics.globalRegistry);
+    }
+
+}
@@ -36,6 +36,7 @@ import org.apache.commons.lang.SystemUtils;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -58,11 +59,6 @@ public class ProcessUtils {
      */
     private static final Pattern MACPATTERN = Pattern.compile("-[+|-]-\\s(\\d+)");
 
-    /**
-     * Expression of PID recognition in Windows scene
-     */
-    private static final Pattern WINDOWSATTERN = Pattern.compile("\\w+\\((\\d+)\\)");
-
     /**
      * kill yarn application.
      *
@@ -162,8 +158,9 @@ public class ProcessUtils {
                 mat = MACPATTERN.matcher(pids);
             }
         } else {
-            String pids = OSUtils.exeCmd(String.format("%s -p %d", Constants.PSTREE, processId));
-            mat = WINDOWSATTERN.matcher(pids);
+            for (Integer pid : getProcessTree(processId)) {
+                pidList.add(String.valueOf(pid));
+            }
         }
 
         if (null != mat) {
@@ -178,6 +175,13 @@ public class ProcessUtils {
         return String.join(" ", pidList).trim();
     }
 
+    /**
+     * get the process tree by the task api, it reads /proc without forking pstree if possible
+     */
+    private static List<Integer> getProcessTree(int processId) throws Exception {
+        return org.apache.dolphinscheduler.plugin.task.api.ProcessUtils.getProcessTree(processId);
+    }
+
     /**
      * find logs and kill yarn tasks.
      *
@@ -185,17 +189,15 @@ public class ProcessUtils {
      * @return yarn application ids
      */
     public static List<String> killYarnJob(@NonNull TaskExecutionContext taskExecutionContext) {
-        if (taskExecutionContext.getLogPath() == null) {
-            return Collections.emptyList();
-        }
         try {
-            Thread.sleep(Constants.SLEEP_TIME_MILLIS);
-            String log;
-            try (LogClientService logClient = new LogClientService()) {
-                Host host = Host.of(taskExecutionContext.getHost());
-                log = logClient.viewLog(host.getIp(), host.getPort(), taskExecutionContext.getLogPath());
+            List<String> appIds;
+            if (StringUtils.isNotEmpty(taskExecutionContext.getAppIds())) {
+                // the app ids are reported by the worker once they are found, there is no need to fetch the log
+                appIds = Arrays.asList(taskExecutionContext.getAppIds().split(Constants.COMMA));
+            } else {
+                appIds = getAppIdsFromLog(taskExecutionContext);
             }
-            if (!StringUtils.isEmpty(log)) {
+            if (CollectionUtils.isNotEmpty(appIds)) {
                 if (StringUtils.isEmpty(taskExecutionContext.getExecutePath())) {
                     taskExecutionContext.setExecutePath(FileUtils.getProcessExecDir(taskExecutionContext.getProjectCode(),
                             taskExecutionContext.getProcessDefineCode(),
@@ -204,16 +206,28 @@ public class ProcessUtils {
                             taskExecutionContext.getTaskInstanceId()));
                 }
                 FileUtils.createWorkDirIfAbsent(taskExecutionContext.getExecutePath());
-                List<String> appIds = LoggerUtils.getAppIds(log, logger);
-                if (CollectionUtils.isNotEmpty(appIds)) {
-                    cancelApplication(appIds, logger, taskExecutionContext.getTenantCode(), taskExecutionContext.getExecutePath());
-                    return appIds;
-                }
+                cancelApplication(appIds, logger, taskExecutionContext.getTenantCode(), taskExecutionContext.getExecutePath());
+                return appIds;
             }
-
         } catch (Exception e) {
             logger.error("kill yarn job failure", e);
         }
         return Collections.emptyList();
     }
+
+    private static List<String> getAppIdsFromLog(TaskExecutionContext taskExecutionContext) throws InterruptedException {
+        if (taskExecutionContext.getLogPath() == null) {
+            return Collections.emptyList();
+        }
+        Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+        String log;
+        try (LogClientService logClient = new LogClientService()) {
+            Host host = Host.of(taskExecutionContext.getHost());
+            log = logClient.viewLog(host.getIp(), host.getPort(), taskExecutionContext.getLogPath());
+        }
+        if (StringUtils.isEmpty(log)) {
+            return Collections.emptyList();
+        }
+        return LoggerUtils.getAppIds(log, logger);
+    }
 }
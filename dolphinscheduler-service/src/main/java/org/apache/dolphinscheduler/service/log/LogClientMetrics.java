@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The metrics of the requests to the log servers, tagged by the log server, so a slow worker stands out.
+ */
+public final class LogClientMetrics {
+
+    private LogClientMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static final String REQUEST_TYPE_ROLL_VIEW = "roll_view";
+    public static final String REQUEST_TYPE_STREAM = "stream";
+    public static final String REQUEST_TYPE_SEARCH = "search";
+    public static final String REQUEST_TYPE_REMOVE = "remove";
+
+    /**
+     * @param host the log server
+     * @param requestType the type of the request
+     * @param milliseconds the time from sending the request to receiving the response, or the whole stream
+     * @param success whether the response is received
+     */
+    public static void recordRequestTime(String host, String requestType, long milliseconds, boolean success) {
+        Timer.builder("ds.log.client.request.time")
+            .description("Time of the requests to the log servers")
+            .tag("host", host)
+            .tag("type", requestType)
+            .tag("status", success ? "success" : "fail")
+            .register(Metrics.globalRegistry)
+            .record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * a request is coalesced into the same request in flight, it doesn't send anything to the log server
+     */
+    public static void incRequestCoalescedCount(String host, String requestType) {
+        Counter.builder("ds.log.client.request.coalesced.count")
+            .description("Requests to the log servers served by the same request in flight")
+            .tag("host", host)
+            .tag("type", requestType)
+            .register(Metrics.globalRegistry)
+            .increment();
+    }
+}
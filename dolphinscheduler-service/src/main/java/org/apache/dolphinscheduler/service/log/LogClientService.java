@@ -22,22 +22,49 @@ import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
-import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
-import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
-import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
-import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogLine;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogRequestCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTooMuchRequestException;
+import org.apache.dolphinscheduler.remote.future.ResponseStream;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.exceptions.LogServerBusyException;
+import org.apache.dolphinscheduler.service.exceptions.ServiceException;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * log client
+ * <p>
+ * The requests with a single response are sent asynchronously on the channels kept open to the log servers,
+ * one channel per log server, and the same roll view requests in flight at the same time are coalesced into one.
+ * The streamed responses are read on their own channels, which are closed once the streams are closed, so a slow
+ * reader of a stream never holds back the other requests to the same log server.
  */
 public class LogClientService implements AutoCloseable {
 
@@ -47,6 +74,16 @@ public class LogClientService implements AutoCloseable {
 
     private final NettyRemotingClient client;
 
+    /**
+     * the client of the streamed responses, it's created on the first stream
+     */
+    private volatile NettyRemotingClient streamClient;
+
+    /**
+     * the roll view requests in flight, keyed by the log server and the request
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<String>> rollViewRequests = new ConcurrentHashMap<>();
+
     private volatile boolean isRunning;
 
     /**
@@ -70,6 +107,11 @@ public class LogClientService implements AutoCloseable {
     @Override
     public void close() {
         this.client.close();
+        synchronized (this) {
+            if (this.streamClient != null) {
+                this.streamClient.close();
+            }
+        }
         this.isRunning = false;
         logger.info("logger client closed");
     }
@@ -83,26 +125,104 @@ public class LogClientService implements AutoCloseable {
      * @param skipLineNum skip line number
      * @param limit limit
      * @return log content
+     * @throws LogServerBusyException if the log server is busy
      */
     public String rollViewLog(String host, int port, String path, int skipLineNum, int limit) {
+        try {
+            return rollViewLogAsync(host, port, path, skipLineNum, limit).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("roll view log interrupted", e);
+        } catch (ExecutionException e) {
+            throwIfBusy(e.getCause());
+            logger.error("roll view log error", e.getCause());
+        }
+        return "";
+    }
+
+    /**
+     * roll view log asynchronously, the same request in flight is shared
+     *
+     * @param host host
+     * @param port port
+     * @param path path
+     * @param skipLineNum skip line number
+     * @param limit limit
+     * @return log content, completed exceptionally if the log server doesn't respond in time
+     */
+    public CompletableFuture<String> rollViewLogAsync(String host, int port, String path, int skipLineNum, int limit) {
+        final Host address = new Host(host, port);
+        String key = address.getAddress() + "|" + path + "|" + skipLineNum + "|" + limit;
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = rollViewRequests.putIfAbsent(key, future);
+        if (inFlight != null) {
+            LogClientMetrics.incRequestCoalescedCount(address.getAddress(), LogClientMetrics.REQUEST_TYPE_ROLL_VIEW);
+            return inFlight;
+        }
+        future.whenComplete((result, e) -> rollViewRequests.remove(key, future));
         logger.info("roll view log, host : {}, port : {}, path {}, skipLineNum {} ,limit {}", host, port, path, skipLineNum, limit);
         RollViewLogRequestCommand request = new RollViewLogRequestCommand(path, skipLineNum, limit);
-        String result = "";
-        final Host address = new Host(host, port);
+        sendAsync(address, LogClientMetrics.REQUEST_TYPE_ROLL_VIEW, request.convert2Command(), future,
+            response -> JSONUtils.parseObject(response.getBody(), RollViewLogResponseCommand.class).getMsg());
+        return future;
+    }
+
+    /**
+     * send the request on the channel kept open to the log server, the future is completed on the callback thread
+     */
+    private <T> void sendAsync(Host address, String requestType, Command command, CompletableFuture<T> future,
+                               Function<Command, T> responseParser) {
+        long startTime = System.currentTimeMillis();
         try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
-                RollViewLogResponseCommand rollReviewLog = JSONUtils.parseObject(
-                        response.getBody(), RollViewLogResponseCommand.class);
-                return rollReviewLog.getMsg();
-            }
+            this.client.sendAsync(address, command, LOG_REQUEST_TIMEOUT, responseFuture -> {
+                Command response = responseFuture.getResponseCommand();
+                if (response == null) {
+                    Throwable cause = responseFuture.getCause();
+                    fail(address, requestType, startTime, future, cause != null ? cause
+                        : new RemotingTimeoutException(address.getAddress(), LOG_REQUEST_TIMEOUT));
+                    return;
+                }
+                if (response.getType() == CommandType.SERVER_BUSY_RESPONSE) {
+                    fail(address, requestType, startTime, future, new RemotingTooMuchRequestException(
+                        String.format("log server %s is busy", address.getAddress())));
+                    return;
+                }
+                try {
+                    T result = responseParser.apply(response);
+                    if (future.complete(result)) {
+                        LogClientMetrics.recordRequestTime(address.getAddress(), requestType,
+                            System.currentTimeMillis() - startTime, true);
+                    }
+                } catch (Exception e) {
+                    fail(address, requestType, startTime, future, e);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(address, requestType, startTime, future, e);
         } catch (Exception e) {
-            logger.error("roll view log error", e);
-        } finally {
-            this.client.closeChannel(address);
+            fail(address, requestType, startTime, future, e);
+        }
+    }
+
+    private <T> void fail(Host address, String requestType, long startTime, CompletableFuture<T> future, Throwable cause) {
+        // the callback of a request failed to send may be called again once it times out
+        if (future.completeExceptionally(cause)) {
+            LogClientMetrics.recordRequestTime(address.getAddress(), requestType, System.currentTimeMillis() - startTime, false);
         }
-        return result;
+    }
+
+    private NettyRemotingClient getStreamClient() {
+        if (streamClient == null) {
+            synchronized (this) {
+                if (streamClient == null) {
+                    NettyClientConfig streamClientConfig = new NettyClientConfig();
+                    streamClientConfig.setWorkerThreads(2);
+                    streamClient = new NettyRemotingClient(streamClientConfig);
+                }
+            }
+        }
+        return streamClient;
     }
 
     /**
@@ -112,28 +232,27 @@ public class LogClientService implements AutoCloseable {
      * @param port port
      * @param path path
      * @return log content
+     * @throws LogServerBusyException if the log server is busy
      */
     public String viewLog(String host, int port, String path) {
         logger.info("view log path {}", path);
-        ViewLogRequestCommand request = new ViewLogRequestCommand(path);
         String result = "";
-        final Host address = new Host(host, port);
         try {
             if (NetUtils.getHost().equals(host)) {
-                result = LoggerUtils.readWholeFileContent(request.getPath());
+                result = LoggerUtils.readWholeFileContent(path);
             } else {
-                Command command = request.convert2Command();
-                Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-                if (response != null) {
-                    ViewLogResponseCommand viewLog = JSONUtils.parseObject(
-                            response.getBody(), ViewLogResponseCommand.class);
-                    result = viewLog.getMsg();
+                StringBuilder builder = new StringBuilder();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(getLogStream(host, port, path), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        builder.append(line).append("\r\n");
+                    }
                 }
+                result = builder.toString();
             }
         } catch (Exception e) {
+            throwIfBusy(e);
             logger.error("view log error", e);
-        } finally {
-            this.client.closeChannel(address);
         }
         return result;
     }
@@ -145,25 +264,162 @@ public class LogClientService implements AutoCloseable {
      * @param port port
      * @param path log path
      * @return log content bytes
+     * @throws LogServerBusyException if the log server is busy
      */
     public byte[] getLogBytes(String host, int port, String path) {
         logger.info("log path {}", path);
-        GetLogBytesRequestCommand request = new GetLogBytesRequestCommand(path);
+        try (InputStream logStream = getLogStream(host, port, path)) {
+            return IOUtils.toByteArray(logStream);
+        } catch (Exception e) {
+            throwIfBusy(e);
+            logger.error("get log size error", e);
+        }
+        return new byte[0];
+    }
+
+    /**
+     * the busy log server is reported to the caller instead of an empty log, so the caller can retry later
+     */
+    private static void throwIfBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RemotingTooMuchRequestException) {
+                throw new LogServerBusyException(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    /**
+     * get log stream, the log is sent in chunks and read as the stream is read
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @return log content stream, empty if the log server is not connected
+     */
+    public InputStream getLogStream(String host, int port, String path) {
+        logger.info("get log stream, host : {}, port : {}, path : {}", host, port, path);
+        GetLogStreamRequestCommand request = new GetLogStreamRequestCommand(path);
         final Host address = new Host(host, port);
+        final NettyRemotingClient remotingClient = getStreamClient();
+        long startTime = System.currentTimeMillis();
         try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
-                GetLogBytesResponseCommand getLog = JSONUtils.parseObject(
-                        response.getBody(), GetLogBytesResponseCommand.class);
-                return getLog.getData() == null ? new byte[0] : getLog.getData();
+            ResponseStream responseStream = remotingClient.sendStream(address, request.convert2Command(), LOG_REQUEST_TIMEOUT);
+            return new FilterInputStream(responseStream) {
+
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    finished |= b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int length = super.read(b, off, len);
+                    finished |= length < 0;
+                    return length;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    LogClientMetrics.recordRequestTime(address.getAddress(), LogClientMetrics.REQUEST_TYPE_STREAM,
+                        System.currentTimeMillis() - startTime, finished);
+                }
+            };
+        } catch (Exception e) {
+            logger.error("get log stream error", e);
+            LogClientMetrics.recordRequestTime(address.getAddress(), LogClientMetrics.REQUEST_TYPE_STREAM,
+                System.currentTimeMillis() - startTime, false);
+        }
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    /**
+     * search log on the log server, the log is not sent back, only the matched lines and their context lines
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param pattern the substring or the regular expression to search
+     * @param regex whether the pattern is a regular expression
+     * @param contextLines the lines before and after a matched line
+     * @param limit the max matched lines
+     * @return the matched lines and their context lines in order
+     * @throws LogServerBusyException if the log server is busy
+     * @throws ServiceException if the search fails, the lines received are not returned as a partial result
+     */
+    public List<SearchLogLine> searchLog(String host, int port, String path, String pattern, boolean regex,
+                                         int contextLines, int limit) {
+        logger.info("search log, host : {}, port : {}, path : {}, pattern : {}, regex : {}", host, port, path, pattern, regex);
+        SearchLogRequestCommand request = new SearchLogRequestCommand(path, pattern, regex, contextLines, limit);
+        List<SearchLogLine> result = new ArrayList<>();
+        final Host address = new Host(host, port);
+        final NettyRemotingClient remotingClient = getStreamClient();
+        Command command = request.convert2Command();
+        boolean finished = false;
+        long startTime = System.currentTimeMillis();
+        // the search is stopped on the log server once the stream and its channel are closed
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                remotingClient.sendStream(address, command, LOG_REQUEST_TIMEOUT), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    result.add(JSONUtils.parseObject(line, SearchLogLine.class));
+                }
             }
+            finished = true;
         } catch (Exception e) {
-            logger.error("get log size error", e);
+            throwIfBusy(e);
+            throw new ServiceException(String.format("search log %s on %s error", path, address.getAddress()), e);
         } finally {
-            this.client.closeChannel(address);
+            LogClientMetrics.recordRequestTime(address.getAddress(), LogClientMetrics.REQUEST_TYPE_SEARCH,
+                System.currentTimeMillis() - startTime, finished);
         }
-        return new byte[0];
+        return result;
+    }
+
+    /**
+     * tail log, the log server pushes the content appended to the log from the offset, until the tail is cancelled
+     * or the log is idle for a while, the log is not read again from the start as it grows
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param offset the byte offset to tail from
+     * @param listener the listener of the content, it's called on the io thread
+     * @return the running tail, it should be cancelled once the log is not needed any more
+     */
+    public LogTail tailLog(String host, int port, String path, long offset, LogTail.Listener listener) {
+        return tailLog(host, port, path, offset, false, listener);
+    }
+
+    /**
+     * tail log, the log server pushes the content appended to the log from the offset, until the tail is cancelled
+     * or the log is idle for a while, the log is not read again from the start as it grows
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param offset the byte offset to tail from
+     * @param stopAtEnd whether the tail is ended once it reaches the end of the log, for a log which doesn't grow
+     * @param listener the listener of the content, it's called on the io thread
+     * @return the running tail, it should be cancelled once the log is not needed any more
+     */
+    public LogTail tailLog(String host, int port, String path, long offset, boolean stopAtEnd, LogTail.Listener listener) {
+        logger.info("tail log, host : {}, port : {}, path : {}, offset : {}, stopAtEnd : {}", host, port, path, offset, stopAtEnd);
+        final Host address = new Host(host, port);
+        LogTail tail = new LogTail(this.client, address, listener);
+        try {
+            tail.setSubscription(this.client.subscribe(address,
+                new TailLogRequestCommand(path, offset, stopAtEnd).convert2Command(), tail));
+        } catch (Exception e) {
+            logger.error("tail log error", e);
+            tail.onFailure(e);
+        }
+        return tail;
     }
 
     /**
@@ -175,24 +431,32 @@ public class LogClientService implements AutoCloseable {
      * @return remove task status
      */
     public Boolean removeTaskLog(String host, int port, String path) {
-        logger.info("log path {}", path);
-        RemoveTaskLogRequestCommand request = new RemoveTaskLogRequestCommand(path);
-        Boolean result = false;
-        final Host address = new Host(host, port);
         try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
-                RemoveTaskLogResponseCommand taskLogResponse = JSONUtils.parseObject(
-                        response.getBody(), RemoveTaskLogResponseCommand.class);
-                return taskLogResponse.getStatus();
-            }
-        } catch (Exception e) {
-            logger.error("remove task log error", e);
-        } finally {
-            this.client.closeChannel(address);
+            return removeTaskLogAsync(host, port, path).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("remove task log interrupted", e);
+        } catch (ExecutionException e) {
+            logger.error("remove task log error", e.getCause());
         }
-        return result;
+        return false;
+    }
+
+    /**
+     * remove task log asynchronously
+     *
+     * @param host host
+     * @param port port
+     * @param path path
+     * @return remove task status, completed exceptionally if the log server doesn't respond in time
+     */
+    public CompletableFuture<Boolean> removeTaskLogAsync(String host, int port, String path) {
+        logger.info("log path {}", path);
+        RemoveTaskLogRequestCommand request = new RemoveTaskLogRequestCommand(path);
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        sendAsync(new Host(host, port), LogClientMetrics.REQUEST_TYPE_REMOVE, request.convert2Command(), future,
+            response -> JSONUtils.parseObject(response.getBody(), RemoveTaskLogResponseCommand.class).getStatus());
+        return future;
     }
 
     public boolean isRunning() {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.NettyRemotingClient;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.log.TailLogCancelCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogResponseCommand;
+import org.apache.dolphinscheduler.remote.future.ResponseSubscription;
+import org.apache.dolphinscheduler.remote.utils.Host;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * a running tail of a log on the log server, see {@link LogClientService#tailLog}
+ */
+public class LogTail implements ResponseSubscription.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTail.class);
+
+    private final NettyRemotingClient client;
+
+    private final Host address;
+
+    private final Listener listener;
+
+    private volatile ResponseSubscription subscription;
+
+    LogTail(NettyRemotingClient client, Host address, Listener listener) {
+        this.client = client;
+        this.address = address;
+        this.listener = listener;
+    }
+
+    void setSubscription(ResponseSubscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onResponse(Command command) {
+        TailLogResponseCommand response = JSONUtils.parseObject(command.getBody(), TailLogResponseCommand.class);
+        if (response == null) {
+            return;
+        }
+        if (response.isEnd()) {
+            ResponseSubscription ended = ResponseSubscription.getSubscription(command.getOpaque());
+            if (ended != null) {
+                ended.close();
+            }
+            listener.onEnd(response.getNextOffset(), null);
+        } else {
+            listener.onLog(response.getOffset(), response.getContent(), response.getNextOffset());
+        }
+    }
+
+    @Override
+    public void onFailure(Throwable cause) {
+        listener.onEnd(-1, cause);
+    }
+
+    /**
+     * cancel the tail, no more content is pushed to the listener
+     */
+    public void cancel() {
+        ResponseSubscription current = subscription;
+        if (current == null || current.isClosed()) {
+            return;
+        }
+        current.close();
+        try {
+            client.send(address, new TailLogCancelCommand(current.getOpaque()).convert2Command());
+        } catch (Exception e) {
+            logger.warn("cancel tail log error", e);
+        }
+    }
+
+    /**
+     * the listener of a tail, it's called on the io thread of the channel, so it should not block
+     */
+    public interface Listener {
+
+        /**
+         * the content appended to the log
+         *
+         * @param offset the byte offset of the content in the log
+         * @param content the content, cut on a character boundary
+         * @param nextOffset the byte offset to tail from next time
+         */
+        void onLog(long offset, String content, long nextOffset);
+
+        /**
+         * the tail is ended, it's called once and no content follows
+         *
+         * @param nextOffset the byte offset to tail from next time, -1 if it's unknown
+         * @param cause the cause of the failure, null if the log server ends the tail as the log is idle or gone
+         */
+        void onEnd(long nextOffset, Throwable cause);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The archive of a task log in the storage, so the log can still be read once the worker is gone.
+ * <p>
+ * The log is compressed in blocks of about the block size, and each block is a gzip member, so the archive is
+ * still a gzip file, and the index of the blocks lets a page of the lines be read by a range read of a few blocks,
+ * without downloading and decompressing the whole log. The archive is at
+ * {@code {log dir}/{the dir of the log}/{the name of the log}.gz}, and the index is next to it with the suffix
+ * {@code .idx}. The index is uploaded after the archive, so an archive is complete once its index exists.
+ * <p>
+ * The archives are not under any tenant dir, the tenant code passed to the storage is null.
+ */
+public class TaskLogArchive {
+
+    public static final String ARCHIVE_SUFFIX = ".gz";
+
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * a block is cut at the next line terminator once it reaches the block size,
+     * or anywhere once it reaches this multiple of the block size
+     */
+    private static final int MAX_BLOCK_SIZE_MULTIPLE = 4;
+
+    private TaskLogArchive() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * get the archive path of the log
+     *
+     * @param storageOperate storage
+     * @param logPath the local path of the log on the worker
+     * @return archive path
+     */
+    public static String getArchivePath(StorageOperate storageOperate, String logPath) {
+        Path path = Paths.get(logPath);
+        Path parent = path.getParent();
+        String dir = parent == null || parent.getFileName() == null ? "" : parent.getFileName() + "/";
+        return storageOperate.getLogDir() + "/" + dir + path.getFileName() + ARCHIVE_SUFFIX;
+    }
+
+    /**
+     * compress the log and upload it to the storage
+     *
+     * @param storageOperate storage
+     * @param logPath the local path of the log
+     * @param blockSize the bytes of the log in a block
+     */
+    public static void archive(StorageOperate storageOperate, String logPath, int blockSize) throws IOException {
+        File logFile = new File(logPath);
+        File archiveFile = new File(logPath + ARCHIVE_SUFFIX);
+        File indexFile = new File(logPath + ARCHIVE_SUFFIX + INDEX_SUFFIX);
+        try {
+            TaskLogArchiveIndex index;
+            try (InputStream in = new FileInputStream(logFile);
+                 OutputStream out = new FileOutputStream(archiveFile)) {
+                index = compress(in, out, blockSize);
+            }
+            Files.write(indexFile.toPath(), JSONUtils.toJsonByteArray(index));
+
+            String archivePath = getArchivePath(storageOperate, logPath);
+            String archiveDir = archivePath.substring(0, archivePath.lastIndexOf('/'));
+            storageOperate.mkdir(null, archiveDir);
+            if (!storageOperate.upload(null, archiveFile.getPath(), archivePath, false, true)
+                    || !storageOperate.upload(null, indexFile.getPath(), archivePath + INDEX_SUFFIX, false, true)) {
+                throw new IOException("upload the archive of " + logPath + " failed");
+            }
+        } finally {
+            Files.deleteIfExists(archiveFile.toPath());
+            Files.deleteIfExists(indexFile.toPath());
+        }
+    }
+
+    /**
+     * compress the log in blocks
+     *
+     * @param in log
+     * @param out archive
+     * @param blockSize the bytes of the log in a block
+     * @return index of the archive
+     */
+    static TaskLogArchiveIndex compress(InputStream in, OutputStream out, int blockSize) throws IOException {
+        TaskLogArchiveIndex index = new TaskLogArchiveIndex();
+        InputStream input = new BufferedInputStream(in);
+        ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(blockSize / 4);
+        long offset = 0;
+        long lines = 0;
+        long blockFirstLine = 0;
+        boolean blockLineStart = true;
+        int previous = -1;
+        long rawSize = 0;
+        int b;
+        while ((b = input.read()) != -1) {
+            block.write(b);
+            rawSize++;
+            // the same line terminators as BufferedReader.readLine
+            if (b == '\r' || (b == '\n' && previous != '\r')) {
+                lines++;
+            }
+            previous = b;
+            boolean full = block.size() >= blockSize && b == '\n'
+                    || block.size() >= blockSize * MAX_BLOCK_SIZE_MULTIPLE && b != '\r';
+            if (full) {
+                offset += writeBlock(block, compressed, out);
+                index.getBlocks().add(new TaskLogArchiveIndex.Block(offset - compressed.size(), compressed.size(),
+                        blockFirstLine, blockLineStart));
+                blockFirstLine = lines;
+                blockLineStart = b == '\n';
+            }
+        }
+        if (block.size() > 0) {
+            offset += writeBlock(block, compressed, out);
+            index.getBlocks().add(new TaskLogArchiveIndex.Block(offset - compressed.size(), compressed.size(),
+                    blockFirstLine, blockLineStart));
+        }
+        index.setRawSize(rawSize);
+        return index;
+    }
+
+    private static int writeBlock(ByteArrayOutputStream block, ByteArrayOutputStream compressed, OutputStream out) throws IOException {
+        compressed.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            block.writeTo(gzip);
+        }
+        compressed.writeTo(out);
+        block.reset();
+        return compressed.size();
+    }
+
+    /**
+     * read the index of the archive
+     *
+     * @param storageOperate storage
+     * @param logPath the local path of the log on the worker
+     * @return index, null if the log is not archived
+     */
+    public static TaskLogArchiveIndex readIndex(StorageOperate storageOperate, String logPath) throws IOException {
+        String indexPath = getArchivePath(storageOperate, logPath) + INDEX_SUFFIX;
+        if (!storageOperate.exists(null, indexPath)) {
+            return null;
+        }
+        try (InputStream in = storageOperate.read(null, indexPath, 0, -1)) {
+            return JSONUtils.parseObject(IOUtils.toByteArray(in), TaskLogArchiveIndex.class);
+        }
+    }
+
+    /**
+     * read the lines of the archived log, only the blocks of the lines are read
+     *
+     * @param storageOperate storage
+     * @param logPath the local path of the log on the worker
+     * @param skipLineNum skip line number
+     * @param limit limit
+     * @return the lines, empty if the log is not archived
+     */
+    public static List<String> readLines(StorageOperate storageOperate, String logPath, int skipLineNum, int limit) throws IOException {
+        TaskLogArchiveIndex index = readIndex(storageOperate, logPath);
+        if (index == null || index.getBlocks().isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<TaskLogArchiveIndex.Block> blocks = index.getBlocks();
+        int first = 0;
+        while (first + 1 < blocks.size() && blocks.get(first + 1).getFirstLine() <= skipLineNum) {
+            first++;
+        }
+        while (first > 0 && !blocks.get(first).isLineStart()) {
+            first--;
+        }
+        // the line after the last one to read is in the block before the first block starting after it
+        long end = (long) skipLineNum + limit;
+        int last = first;
+        while (last + 1 < blocks.size() && blocks.get(last + 1).getFirstLine() <= end) {
+            last++;
+        }
+        TaskLogArchiveIndex.Block firstBlock = blocks.get(first);
+        TaskLogArchiveIndex.Block lastBlock = blocks.get(last);
+        long length = lastBlock.getOffset() + lastBlock.getLength() - firstBlock.getOffset();
+        List<String> lines = new ArrayList<>(limit);
+        try (InputStream in = storageOperate.read(null, getArchivePath(storageOperate, logPath), firstBlock.getOffset(), length);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     decompress(in, blocks.subList(first, last + 1)), StandardCharsets.UTF_8))) {
+            long skip = skipLineNum - firstBlock.getFirstLine();
+            String line;
+            while ((line = reader.readLine()) != null && lines.size() < limit) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * open the archived log
+     *
+     * @param storageOperate storage
+     * @param logPath the local path of the log on the worker
+     * @return the log stream, null if the log is not archived
+     */
+    public static InputStream open(StorageOperate storageOperate, String logPath) throws IOException {
+        TaskLogArchiveIndex index = readIndex(storageOperate, logPath);
+        if (index == null) {
+            return null;
+        }
+        return decompress(storageOperate.read(null, getArchivePath(storageOperate, logPath), 0, -1), index.getBlocks());
+    }
+
+    /**
+     * decompress the blocks one by one, each block is a gzip member,
+     * GZIPInputStream doesn't read the members after the first one reliably over a network stream
+     */
+    private static InputStream decompress(InputStream in, List<TaskLogArchiveIndex.Block> blocks) {
+        Iterator<TaskLogArchiveIndex.Block> iterator = blocks.iterator();
+        Enumeration<InputStream> members = new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                BoundedInputStream member = new BoundedInputStream(in, iterator.next().getLength());
+                member.setPropagateClose(false);
+                try {
+                    return new GZIPInputStream(member);
+                } catch (IOException e) {
+                    throw new IllegalStateException("read the archived log error", e);
+                }
+            }
+        };
+        return new SequenceInputStream(members) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    in.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the index of an archived task log, the log is compressed in blocks, each block is a gzip member
+ * which can be read and decompressed alone
+ */
+public class TaskLogArchiveIndex {
+
+    /**
+     * the blocks in order
+     */
+    private List<Block> blocks = new ArrayList<>();
+
+    /**
+     * the bytes of the log
+     */
+    private long rawSize;
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(List<Block> blocks) {
+        this.blocks = blocks;
+    }
+
+    public long getRawSize() {
+        return rawSize;
+    }
+
+    public void setRawSize(long rawSize) {
+        this.rawSize = rawSize;
+    }
+
+    public static class Block {
+
+        /**
+         * the offset of the block in the archive
+         */
+        private long offset;
+
+        /**
+         * the compressed bytes of the block
+         */
+        private int length;
+
+        /**
+         * the line number of the first line in the block, from 0
+         */
+        private long firstLine;
+
+        /**
+         * whether the block starts at the start of a line, a very long line is split into a few blocks
+         */
+        private boolean lineStart = true;
+
+        public Block() {
+        }
+
+        public Block(long offset, int length, long firstLine, boolean lineStart) {
+            this.offset = offset;
+            this.length = length;
+            this.firstLine = firstLine;
+            this.lineStart = lineStart;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void setOffset(long offset) {
+            this.offset = offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public void setLength(int length) {
+            this.length = length;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public void setFirstLine(long firstLine) {
+            this.firstLine = firstLine;
+        }
+
+        public boolean isLineStart() {
+            return lineStart;
+        }
+
+        public void setLineStart(boolean lineStart) {
+            this.lineStart = lineStart;
+        }
+    }
+}
@@ -54,6 +54,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -70,7 +71,7 @@ public interface ProcessService {
 
     List<Command> findCommandPage(int pageSize, int pageNumber);
 
-    List<Command> findCommandPageBySlot(int pageSize, int pageNumber, int masterCount, int thisMasterSlot);
+    List<Command> findCommandPageBySlots(int pageSize, int pageNumber, int slotCount, Collection<Integer> slots);
 
     boolean verifyIsNeedCreateCommand(Command command);
 
@@ -86,6 +87,8 @@ public interface ProcessService {
 
     ProcessDefinition findProcessDefinitionByCode(Long processDefinitionCode);
 
+    List<ProcessDefinition> findProcessDefinitions(Collection<ProcessInstance> processInstances);
+
     int deleteWorkProcessInstanceById(int processInstanceId);
 
     int deleteAllSubWorkProcessByParentId(int processInstanceId);
@@ -144,6 +147,8 @@ public interface ProcessService {
 
     List<TaskInstance> findValidTaskListByProcessId(Integer processInstanceId);
 
+    List<TaskInstance> findValidTaskListByProcessIds(Collection<Integer> processInstanceIds);
+
     List<TaskInstance> findPreviousTaskListByWorkProcessId(Integer processInstanceId);
 
     int updateWorkProcessInstanceMap(ProcessInstanceMap processInstanceMap);
@@ -177,8 +182,13 @@ public interface ProcessService {
     @Transactional
     void processNeedFailoverProcessInstances(ProcessInstance processInstance);
 
+    @Transactional
+    void processNeedFailoverProcessInstances(List<ProcessInstance> processInstances, List<TaskInstance> needFailoverTaskInstances);
+
     List<TaskInstance> queryNeedFailoverTaskInstances(String host);
 
+    void processNeedFailoverTaskInstances(List<TaskInstance> taskInstances);
+
     DataSource findDataSourceById(int id);
 
     int updateProcessInstanceState(Integer processInstanceId, ExecutionStatus executionStatus);
@@ -139,6 +139,7 @@ import org.apache.commons.lang.math.NumberUtils;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -413,14 +414,14 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * get command page
+     * get command page of the given slots
      */
     @Override
-    public List<Command> findCommandPageBySlot(int pageSize, int pageNumber, int masterCount, int thisMasterSlot) {
-        if (masterCount <= 0) {
+    public List<Command> findCommandPageBySlots(int pageSize, int pageNumber, int slotCount, Collection<Integer> slots) {
+        if (slotCount <= 0 || CollectionUtils.isEmpty(slots)) {
             return Lists.newArrayList();
         }
-        return commandMapper.queryCommandPageBySlot(pageSize, pageNumber * pageSize, masterCount, thisMasterSlot);
+        return commandMapper.queryCommandPageBySlots(pageSize, pageNumber * pageSize, slotCount, slots);
     }
 
     /**
@@ -543,6 +544,46 @@ public class ProcessServiceImpl implements ProcessService {
         return processDefineMapper.queryByCode(processDefinitionCode);
     }
 
+    /**
+     * find the process definitions of the version used by the given process instances,
+     * the latest versions are queried in batch and only the older versions are queried from the log one by one.
+     *
+     * @param processInstances processInstances
+     * @return process definition list, without duplicate code and version
+     */
+    @Override
+    public List<ProcessDefinition> findProcessDefinitions(Collection<ProcessInstance> processInstances) {
+        if (CollectionUtils.isEmpty(processInstances)) {
+            return new ArrayList<>();
+        }
+        Set<Long> processDefinitionCodes = processInstances.stream()
+            .map(ProcessInstance::getProcessDefinitionCode)
+            .collect(toSet());
+        Map<Long, ProcessDefinition> latestProcessDefinitions = processDefineMapper.queryByCodes(processDefinitionCodes)
+            .stream()
+            .collect(Collectors.toMap(ProcessDefinition::getCode, processDefinition -> processDefinition));
+        Map<String, ProcessDefinition> processDefinitions = new HashMap<>();
+        for (ProcessInstance processInstance : processInstances) {
+            long code = processInstance.getProcessDefinitionCode();
+            int version = processInstance.getProcessDefinitionVersion();
+            String key = code + "-" + version;
+            if (processDefinitions.containsKey(key)) {
+                continue;
+            }
+            ProcessDefinition processDefinition = latestProcessDefinitions.get(code);
+            if (processDefinition == null || processDefinition.getVersion() != version) {
+                processDefinition = processDefineLogMapper.queryByDefinitionCodeAndVersion(code, version);
+                if (processDefinition != null) {
+                    processDefinition.setId(0);
+                }
+            }
+            if (processDefinition != null) {
+                processDefinitions.put(key, processDefinition);
+            }
+        }
+        return new ArrayList<>(processDefinitions.values());
+    }
+
     /**
      * delete work process instance by id
      *
@@ -1817,6 +1858,20 @@ public class ProcessServiceImpl implements ProcessService {
         return taskInstanceMapper.findValidTaskListByProcessId(processInstanceId, Flag.YES);
     }
 
+    /**
+     * find valid task list by process instance ids
+     *
+     * @param processInstanceIds processInstanceIds
+     * @return task instance list
+     */
+    @Override
+    public List<TaskInstance> findValidTaskListByProcessIds(Collection<Integer> processInstanceIds) {
+        if (CollectionUtils.isEmpty(processInstanceIds)) {
+            return new ArrayList<>();
+        }
+        return taskInstanceMapper.findValidTaskListByProcessIds(processInstanceIds, Flag.YES);
+    }
+
     /**
      * find previous task list by work process id
      *
@@ -2064,6 +2119,60 @@ public class ProcessServiceImpl implements ProcessService {
         createCommand(cmd);
     }
 
+    /**
+     * process need failover process instances in batch, mark the task instances need fault tolerance,
+     * then update the host of the process instances to null and insert the recover commands.
+     *
+     * @param processInstances processInstances
+     * @param needFailoverTaskInstances needFailoverTaskInstances
+     */
+    @Override
+    @Transactional
+    public void processNeedFailoverProcessInstances(List<ProcessInstance> processInstances,
+                                                    List<TaskInstance> needFailoverTaskInstances) {
+        processNeedFailoverTaskInstances(needFailoverTaskInstances);
+        if (CollectionUtils.isEmpty(processInstances)) {
+            return;
+        }
+        List<Integer> processInstanceIds = processInstances.stream()
+            .map(ProcessInstance::getId)
+            .collect(Collectors.toList());
+        processInstanceMapper.updateHostByIds(processInstanceIds, Constants.NULL);
+
+        List<Long> processDefinitionCodes = processInstances.stream()
+            .map(ProcessInstance::getProcessDefinitionCode)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Long, String> timezones = new HashMap<>();
+        for (Schedule schedule : scheduleMapper.querySchedulesByProcessDefinitionCodes(processDefinitionCodes)) {
+            timezones.put(schedule.getProcessDefinitionCode(), schedule.getTimezoneId());
+        }
+        List<Command> commands = new ArrayList<>(processInstances.size());
+        for (ProcessInstance processInstance : processInstances) {
+            processInstance.setHost(Constants.NULL);
+            String commandParam = String.format("{\"%s\":%d}", Constants.CMD_PARAM_RECOVER_PROCESS_ID_STRING, processInstance.getId());
+            // add command timezone, the same as createCommand
+            String timezone = timezones.get(processInstance.getProcessDefinitionCode());
+            if (timezone != null) {
+                Map<String, String> commandParams = JSONUtils.toMap(commandParam);
+                commandParams.put(Constants.SCHEDULE_TIMEZONE, timezone);
+                commandParam = JSONUtils.toJsonString(commandParams);
+            }
+            Command cmd = new Command();
+            cmd.setProcessDefinitionCode(processInstance.getProcessDefinitionCode());
+            cmd.setProcessDefinitionVersion(processInstance.getProcessDefinitionVersion());
+            cmd.setProcessInstanceId(processInstance.getId());
+            cmd.setCommandParam(commandParam);
+            cmd.setExecutorId(processInstance.getExecutorId());
+            cmd.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
+            // the batch insert doesn't skip the null fields, keep the same values as the column defaults
+            cmd.setWarningType(WarningType.NONE);
+            cmd.setEnvironmentCode(-1L);
+            commands.add(cmd);
+        }
+        commandMapper.batchInsert(commands);
+    }
+
     /**
      * query all need failover task instances by host
      *
@@ -2076,6 +2185,22 @@ public class ProcessServiceImpl implements ProcessService {
             ExecutionStatus.getNeedFailoverWorkflowInstanceState());
     }
 
+    /**
+     * mark the task instances need fault tolerance in batch
+     *
+     * @param taskInstances taskInstances
+     */
+    @Override
+    public void processNeedFailoverTaskInstances(List<TaskInstance> taskInstances) {
+        if (CollectionUtils.isEmpty(taskInstances)) {
+            return;
+        }
+        List<Integer> taskInstanceIds = taskInstances.stream()
+            .map(TaskInstance::getId)
+            .collect(Collectors.toList());
+        taskInstanceMapper.updateStateAndFlagByIds(taskInstanceIds, ExecutionStatus.NEED_FAULT_TOLERANCE, Flag.NO);
+    }
+
     /**
      * find data source by id
      *
@@ -22,13 +22,22 @@ import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
-import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
-import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogLine;
+import org.apache.dolphinscheduler.remote.future.InvokeCallback;
+import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseStream;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.exceptions.LogServerBusyException;
+import org.apache.dolphinscheduler.service.exceptions.ServiceException;
 
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,6 +48,8 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import io.netty.channel.Channel;
+
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({LogClientService.class, NetUtils.class, LoggerUtils.class, NettyRemotingClient.class})
 public class LogClientServiceTest {
@@ -71,13 +82,12 @@ public class LogClientServiceTest {
         NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
         PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
 
-        Command command = new Command();
-        command.setBody(JSONUtils.toJsonString(new ViewLogResponseCommand("")).getBytes(StandardCharsets.UTF_8));
-        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
-                .thenReturn(command);
+        ResponseStream responseStream = responseStream("line1\nline2");
+        PowerMockito.when(remotingClient.sendStream(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(responseStream);
         LogClientService logClientService = new LogClientService();
         String log = logClientService.viewLog(localMachine, port, path);
-        Assert.assertNotNull(log);
+        Assert.assertEquals("line1\r\nline2\r\n", log);
     }
 
     @Test(expected = None.class)
@@ -97,27 +107,126 @@ public class LogClientServiceTest {
 
         Command command = new Command();
         command.setBody(JSONUtils.toJsonByteArray(new RollViewLogResponseCommand("success")));
-        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
-                .thenReturn(command);
+        respondAsync(remotingClient, command);
 
         LogClientService logClientService = new LogClientService();
         String msg = logClientService.rollViewLog("localhost", 1234, "/tmp/log", 0, 10);
-        Assert.assertNotNull(msg);
+        Assert.assertEquals("success", msg);
     }
 
     @Test
-    public void testGetLogBytes() throws Exception {
+    public void testRollViewLogCoalesced() throws Exception {
         NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
         PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+        List<InvokeCallback> callbacks = new ArrayList<>();
+        PowerMockito.doAnswer(invocation -> callbacks.add(invocation.getArgument(3)))
+                .when(remotingClient).sendAsync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong(),
+                        Mockito.any(InvokeCallback.class));
+
+        LogClientService logClientService = new LogClientService();
+        CompletableFuture<String> first = logClientService.rollViewLogAsync("localhost", 1234, "/tmp/log", 0, 10);
+        CompletableFuture<String> second = logClientService.rollViewLogAsync("localhost", 1234, "/tmp/log", 0, 10);
+        CompletableFuture<String> other = logClientService.rollViewLogAsync("localhost", 1234, "/tmp/log", 10, 10);
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(2, callbacks.size());
 
         Command command = new Command();
-        command.setBody(JSONUtils.toJsonByteArray(new GetLogBytesResponseCommand("log".getBytes(StandardCharsets.UTF_8))));
-        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
-                .thenReturn(command);
+        command.setBody(JSONUtils.toJsonByteArray(new RollViewLogResponseCommand("success")));
+        callbacks.get(0).operationComplete(responseFuture(command));
+        Assert.assertEquals("success", second.get());
+        Assert.assertFalse(other.isDone());
+
+        // the request is sent again once the one in flight is done
+        logClientService.rollViewLogAsync("localhost", 1234, "/tmp/log", 0, 10);
+        Assert.assertEquals(3, callbacks.size());
+        callbacks.get(1).operationComplete(responseFuture(null));
+        Assert.assertTrue(other.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testGetLogBytes() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
 
+        ResponseStream responseStream = responseStream("log");
+        PowerMockito.when(remotingClient.sendStream(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(responseStream);
         LogClientService logClientService = new LogClientService();
         byte[] logBytes = logClientService.getLogBytes("localhost", 1234, "/tmp/log");
-        Assert.assertNotNull(logBytes);
+        Assert.assertEquals("log", new String(logBytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLogServerBusy() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+        PowerMockito.mockStatic(NetUtils.class);
+        PowerMockito.when(NetUtils.getHost()).thenReturn("127.0.0.2");
+
+        Command busy = new Command();
+        busy.setType(CommandType.SERVER_BUSY_RESPONSE);
+        respondAsync(remotingClient, busy);
+        PowerMockito.when(remotingClient.sendStream(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenAnswer(invocation -> {
+                    Channel channel = Mockito.mock(Channel.class, Mockito.RETURNS_DEEP_STUBS);
+                    Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 1234));
+                    ResponseStream stream = new ResponseStream(new Command().getOpaque(), 1000, channel);
+                    stream.putChunk(busy);
+                    return stream;
+                });
+        LogClientService logClientService = new LogClientService();
+        try {
+            logClientService.rollViewLog("localhost", 1234, "/tmp/log", 0, 10);
+            Assert.fail("the busy log server should be reported");
+        } catch (LogServerBusyException e) {
+            Assert.assertTrue(e.getMessage().contains("busy"));
+        }
+        try {
+            logClientService.getLogBytes("localhost", 1234, "/tmp/log");
+            Assert.fail("the busy log server should be reported");
+        } catch (LogServerBusyException e) {
+            Assert.assertTrue(e.getMessage().contains("busy"));
+        }
+        try {
+            logClientService.viewLog("localhost", 1234, "/tmp/log");
+            Assert.fail("the busy log server should be reported");
+        } catch (LogServerBusyException e) {
+            Assert.assertTrue(e.getMessage().contains("busy"));
+        }
+    }
+
+    @Test
+    public void testSearchLog() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+
+        // the empty line is the keepalive of the log server
+        String matched = JSONUtils.toJsonString(new SearchLogLine(1, 0, true, "error"));
+        ResponseStream responseStream = responseStream("\n" + matched + "\n");
+        PowerMockito.when(remotingClient.sendStream(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(responseStream);
+        LogClientService logClientService = new LogClientService();
+        List<SearchLogLine> lines = logClientService.searchLog("localhost", 1234, "/tmp/log", "error", false, 0, 10);
+        Assert.assertEquals(1, lines.size());
+        Assert.assertEquals("error", lines.get(0).getContent());
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testSearchLogFailed() throws Exception {
+        NettyRemotingClient remotingClient = PowerMockito.mock(NettyRemotingClient.class);
+        PowerMockito.whenNew(NettyRemotingClient.class).withAnyArguments().thenReturn(remotingClient);
+
+        Channel channel = Mockito.mock(Channel.class, Mockito.RETURNS_DEEP_STUBS);
+        ResponseStream responseStream = new ResponseStream(new Command().getOpaque(), 1000, channel);
+        Command chunk = new Command();
+        chunk.setBody((JSONUtils.toJsonString(new SearchLogLine(1, 0, true, "error")) + "\n").getBytes(StandardCharsets.UTF_8));
+        responseStream.putChunk(chunk);
+        responseStream.fail(new IllegalStateException("channel is closed"));
+        PowerMockito.when(remotingClient.sendStream(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(responseStream);
+        // the lines received are not returned as the result of a failed search
+        new LogClientService().searchLog("localhost", 1234, "/tmp/log", "error", false, 0, 10);
     }
 
     @Test
@@ -127,8 +236,7 @@ public class LogClientServiceTest {
 
         Command command = new Command();
         command.setBody(JSONUtils.toJsonByteArray(new RemoveTaskLogResponseCommand(true)));
-        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
-                .thenReturn(command);
+        respondAsync(remotingClient, command);
 
         LogClientService logClientService = new LogClientService();
         Boolean status = logClientService.removeTaskLog("localhost", 1234, "/log/path");
@@ -140,4 +248,33 @@ public class LogClientServiceTest {
         LogClientService logClientService = new LogClientService();
         Assert.assertTrue(logClientService.isRunning());
     }
+
+    private void respondAsync(NettyRemotingClient remotingClient, Command response) throws Exception {
+        PowerMockito.doAnswer(invocation -> {
+            ((InvokeCallback) invocation.getArgument(3)).operationComplete(responseFuture(response));
+            return null;
+        }).when(remotingClient).sendAsync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong(),
+                Mockito.any(InvokeCallback.class));
+    }
+
+    private ResponseFuture responseFuture(Command response) {
+        ResponseFuture responseFuture = new ResponseFuture(new Command().getOpaque(), 1000, null, null);
+        responseFuture.removeFuture();
+        responseFuture.setSendOk(true);
+        responseFuture.setResponseCommand(response);
+        return responseFuture;
+    }
+
+    private ResponseStream responseStream(String content) {
+        Channel channel = Mockito.mock(Channel.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(channel.config().isAutoRead()).thenReturn(true);
+        ResponseStream stream = new ResponseStream(new Command().getOpaque(), 1000, channel);
+        Command chunk = new Command();
+        chunk.setBody(content.getBytes(StandardCharsets.UTF_8));
+        stream.putChunk(chunk);
+        Command end = new Command();
+        end.setBody(new byte[0]);
+        stream.putChunk(end);
+        return stream;
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+public class TaskLogArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, byte[]> files = new HashMap<>();
+
+    private final List<long[]> reads = new ArrayList<>();
+
+    private StorageOperate storageOperate;
+
+    private String logPath;
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Before
+    public void before() throws IOException {
+        storageOperate = Mockito.mock(StorageOperate.class);
+        Mockito.when(storageOperate.getLogDir()).thenReturn("logs");
+        Mockito.when(storageOperate.mkdir(ArgumentMatchers.isNull(), ArgumentMatchers.anyString())).thenReturn(true);
+        Mockito.when(storageOperate.upload(ArgumentMatchers.isNull(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyBoolean(), ArgumentMatchers.anyBoolean())).thenAnswer(invocation -> {
+                    files.put(invocation.getArgument(2), Files.readAllBytes(new File((String) invocation.getArgument(1)).toPath()));
+                    return true;
+                });
+        Mockito.when(storageOperate.exists(ArgumentMatchers.isNull(), ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> files.containsKey(invocation.getArgument(1)));
+        Mockito.when(storageOperate.read(ArgumentMatchers.isNull(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong())).thenAnswer(invocation -> {
+                    byte[] file = files.get(invocation.getArgument(1));
+                    int offset = (int) (long) invocation.getArgument(2);
+                    long length = invocation.getArgument(3);
+                    int end = length < 0 ? file.length : (int) Math.min(file.length, offset + length);
+                    reads.add(new long[] {offset, end});
+                    return new ByteArrayInputStream(Arrays.copyOfRange(file, offset, end));
+                });
+
+        File dir = folder.newFolder("20221019");
+        File logFile = new File(dir, "1_1-1-1.log");
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "line " + i + " of the task log";
+            lines.add(line);
+            log.append(line).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        Files.write(logFile.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        logPath = logFile.getPath();
+    }
+
+    @Test
+    public void testArchive() throws IOException {
+        TaskLogArchive.archive(storageOperate, logPath, 1024);
+
+        String archivePath = TaskLogArchive.getArchivePath(storageOperate, logPath);
+        Assert.assertEquals("logs/20221019/1_1-1-1.log.gz", archivePath);
+        Assert.assertFalse(new File(logPath + TaskLogArchive.ARCHIVE_SUFFIX).exists());
+
+        TaskLogArchiveIndex index = TaskLogArchive.readIndex(storageOperate, logPath);
+        Assert.assertNotNull(index);
+        Assert.assertTrue(index.getBlocks().size() > 10);
+        Assert.assertEquals(new File(logPath).length(), index.getRawSize());
+        // the archive is still a valid gzip file
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(files.get(archivePath)))) {
+            Assert.assertArrayEquals(Files.readAllBytes(new File(logPath).toPath()), IOUtils.toByteArray(in));
+        }
+        try (InputStream in = TaskLogArchive.open(storageOperate, logPath)) {
+            Assert.assertArrayEquals(Files.readAllBytes(new File(logPath).toPath()), IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testReadLines() throws IOException {
+        Assert.assertTrue(TaskLogArchive.readLines(storageOperate, logPath, 0, 10).isEmpty());
+        Assert.assertNull(TaskLogArchive.open(storageOperate, logPath));
+
+        TaskLogArchive.archive(storageOperate, logPath, 1024);
+        reads.clear();
+        Assert.assertEquals(lines.subList(0, 10), TaskLogArchive.readLines(storageOperate, logPath, 0, 10));
+        Assert.assertEquals(lines.subList(495, 605), TaskLogArchive.readLines(storageOperate, logPath, 495, 110));
+        Assert.assertEquals(lines.subList(990, 1000), TaskLogArchive.readLines(storageOperate, logPath, 990, 100));
+        Assert.assertTrue(TaskLogArchive.readLines(storageOperate, logPath, 1000, 100).isEmpty());
+
+        // only the blocks of the lines are read
+        long archiveSize = files.get(TaskLogArchive.getArchivePath(storageOperate, logPath)).length;
+        for (long[] read : reads) {
+            Assert.assertTrue(read[1] - read[0] < archiveSize / 2);
+        }
+    }
+
+    @Test
+    public void testSplitLongLine() throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            log.append('a');
+        }
+        log.append("\nlast\n");
+        Files.write(new File(logPath).toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+
+        TaskLogArchive.archive(storageOperate, logPath, 1024);
+
+        TaskLogArchiveIndex index = TaskLogArchive.readIndex(storageOperate, logPath);
+        Assert.assertEquals(4, index.getBlocks().size());
+        Assert.assertFalse(index.getBlocks().get(1).isLineStart());
+        Assert.assertEquals(0, index.getBlocks().get(1).getFirstLine());
+        Assert.assertEquals(Arrays.asList("last"), TaskLogArchive.readLines(storageOperate, logPath, 1, 10));
+        Assert.assertEquals(10000, TaskLogArchive.readLines(storageOperate, logPath, 0, 1).get(0).length());
+    }
+}
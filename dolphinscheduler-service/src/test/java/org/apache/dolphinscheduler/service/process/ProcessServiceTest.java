@@ -70,6 +70,7 @@ import org.apache.dolphinscheduler.dao.mapper.TaskGroupMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskGroupQueueMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.enums.dp.DqTaskState;
 import org.apache.dolphinscheduler.plugin.task.api.enums.dp.ExecuteSqlType;
 import org.apache.dolphinscheduler.plugin.task.api.enums.dp.InputType;
@@ -92,6 +93,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -499,6 +501,33 @@ public class ProcessServiceTest {
         processService.handleCommand(host, command1);
     }
 
+    @Test
+    public void testProcessNeedFailoverProcessInstances() {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(1);
+        processInstance.setHost("127.0.0.1:5678");
+        processInstance.setProcessDefinitionCode(11L);
+        processInstance.setProcessDefinitionVersion(2);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(3);
+        Mockito.when(scheduleMapper.querySchedulesByProcessDefinitionCodes(Mockito.anyList())).thenReturn(Collections.emptyList());
+
+        processService.processNeedFailoverProcessInstances(Collections.singletonList(processInstance),
+            Collections.singletonList(taskInstance));
+
+        Assert.assertEquals(Constants.NULL, processInstance.getHost());
+        Mockito.verify(taskInstanceMapper).updateStateAndFlagByIds(Collections.singletonList(3),
+            ExecutionStatus.NEED_FAULT_TOLERANCE, Flag.NO);
+        Mockito.verify(processInstanceMapper).updateHostByIds(Collections.singletonList(1), Constants.NULL);
+        ArgumentCaptor<List<Command>> commandCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(commandMapper).batchInsert(commandCaptor.capture());
+        Command command = commandCaptor.getValue().get(0);
+        Assert.assertEquals(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS, command.getCommandType());
+        Assert.assertEquals(11L, command.getProcessDefinitionCode());
+        Assert.assertEquals(2, command.getProcessDefinitionVersion());
+        Assert.assertEquals(1, JSONUtils.parseObject(command.getCommandParam()).path(CMD_PARAM_RECOVER_PROCESS_ID_STRING).asInt());
+    }
+
     @Test
     public void testGetUserById() {
         User user = new User();
@@ -856,16 +885,6 @@ public class ProcessServiceTest {
         Assert.assertEquals(instance.getId(), taskInstanceByIdList.get(0).getId());
     }
 
-    @Test
-    public void testFindCommandPageBySlot() {
-        int pageSize = 1;
-        int pageNumber = 0;
-        int masterCount = 0;
-        int thisMasterSlot = 2;
-        List<Command> commandList = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
-        Assert.assertEquals(0, commandList.size());
-    }
-
     private TaskGroupQueue getTaskGroupQueue() {
         TaskGroupQueue taskGroupQueue = new TaskGroupQueue();
         taskGroupQueue.setTaskName("task name");
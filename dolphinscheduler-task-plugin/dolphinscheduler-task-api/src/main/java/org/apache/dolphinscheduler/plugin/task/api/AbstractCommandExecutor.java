@@ -21,24 +21,20 @@ import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_COD
 import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_CODE_KILL;
 
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskResponse;
+import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -46,8 +42,6 @@ import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 /**
  * abstract command executor
  */
@@ -56,18 +50,21 @@ public abstract class AbstractCommandExecutor {
      * rules for extracting application ID
      */
     protected static final Pattern APPLICATION_REGEX = Pattern.compile(TaskConstants.APPLICATION_REGEX);
-    
-    /**
-     * rules for extracting Var Pool
-     */
-    protected static final Pattern SETVALUE_REGEX = Pattern.compile(TaskConstants.SETVALUE_REGEX);
 
-    protected StringBuilder varPool = new StringBuilder();
+    private static final String APPLICATION_PREFIX = "application_";
+
+    private static final long OUTPUT_CLOSE_TIMEOUT_SECONDS = 10;
+
     /**
      * process
      */
     private Process process;
 
+    /**
+     * whether the process is started as the tenant by sudo, the worker can't signal it directly then
+     */
+    private boolean startedBySudo;
+
     /**
      * log handler
      */
@@ -83,7 +80,22 @@ public abstract class AbstractCommandExecutor {
      */
     protected LinkedBlockingQueue<String> logBuffer;
 
-    protected boolean logOutputIsSuccess = false;
+    /**
+     * picks out the var pool and flushes the log buffer to the log handler
+     */
+    private final TaskOutputBuffer outputBuffer;
+
+    protected volatile boolean logOutputIsSuccess = false;
+
+    /**
+     * counted down once the output of the process is closed
+     */
+    private final CountDownLatch logOutputClosed = new CountDownLatch(1);
+
+    /**
+     * the yarn application ids found in the output of the process, in the order they are found
+     */
+    private final Set<String> appIds = new LinkedHashSet<>();
 
     /*
      * SHELL result string
@@ -102,10 +114,12 @@ public abstract class AbstractCommandExecutor {
         this.taskRequest = taskRequest;
         this.logger = logger;
         this.logBuffer = new LinkedBlockingQueue<>();
+        this.outputBuffer = new TaskOutputBuffer(this::handleLog, logBuffer);
     }
 
     public AbstractCommandExecutor(LinkedBlockingQueue<String> logBuffer) {
         this.logBuffer = logBuffer;
+        this.outputBuffer = new TaskOutputBuffer(this::handleLog, logBuffer);
     }
 
     /**
@@ -126,7 +140,8 @@ public abstract class AbstractCommandExecutor {
         processBuilder.redirectErrorStream(true);
 
         // if sudo.enable=true,setting up user to run commands
-        if (OSUtils.isSudoEnable()) {
+        startedBySudo = OSUtils.isSudoEnable();
+        if (startedBySudo) {
             command.add("sudo");
             command.add("-u");
             command.add(taskRequest.getTenantCode());
@@ -188,9 +203,14 @@ public abstract class AbstractCommandExecutor {
 
         // if SHELL task exit
         if (status) {
-            // set appIds
-            List<String> appIds = getAppIds(taskRequest.getLogPath());
-            result.setAppIds(String.join(TaskConstants.COMMA, appIds));
+            // the rest of the output is read shortly after the process exits
+            if (!logOutputClosed.await(OUTPUT_CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("The output of the process {} isn't closed in {}s after the process exits",
+                        processId, OUTPUT_CLOSE_TIMEOUT_SECONDS);
+            }
+
+            // set appIds, they are found while reading the output
+            result.setAppIds(getAppIds());
 
             // SHELL task state
             result.setExitStatusCode(process.exitValue());
@@ -209,7 +229,7 @@ public abstract class AbstractCommandExecutor {
     }
 
     public String getVarPool() {
-        return varPool.toString();
+        return outputBuffer.getVarPool();
     }
 
     /**
@@ -252,6 +272,12 @@ public abstract class AbstractCommandExecutor {
     private boolean softKill(int processId) {
 
         if (processId != 0 && process.isAlive()) {
+            if (!startedBySudo) {
+                // the process is a child of the worker, signal it without forking a kill command
+                logger.info("soft kill task:{}, process id:{}", taskRequest.getTaskAppId(), processId);
+                process.destroy();
+                return process.isAlive();
+            }
             try {
                 // sudo -u user command to run command
                 String cmd = String.format("kill %d", processId);
@@ -274,6 +300,11 @@ public abstract class AbstractCommandExecutor {
      */
     private void hardKill(int processId) {
         if (processId != 0 && process.isAlive()) {
+            if (!startedBySudo) {
+                logger.info("hard kill task:{}, process id:{}", taskRequest.getTaskAppId(), processId);
+                process.destroyForcibly();
+                return;
+            }
             try {
                 String cmd = String.format("kill -9 %d", processId);
                 cmd = OSUtils.getSudoCmd(taskRequest.getTenantCode(), cmd);
@@ -294,128 +325,101 @@ public abstract class AbstractCommandExecutor {
      * clear
      */
     private void clear() {
+        outputBuffer.close();
+    }
 
-        LinkedBlockingQueue<String> markerLog = new LinkedBlockingQueue<>(1);
-        markerLog.add(ch.qos.logback.classic.ClassicConstants.FINALIZE_SESSION_MARKER.toString());
+    /**
+     * the output is handled on the shared threads, the task log is routed by the thread name
+     */
+    private void handleLog(LinkedBlockingQueue<String> logs) {
+        runWithTaskLogName(() -> logHandler.accept(logs));
+    }
 
-        if (!logBuffer.isEmpty()) {
-            // log handle
-            logHandler.accept(logBuffer);
-            logBuffer.clear();
-        }
-        logHandler.accept(markerLog);
+    private void runWithTaskLogName(Runnable runnable) {
+        LogUtils.runWithTaskLogName(taskRequest == null ? null : taskRequest.getTaskLogName(), runnable);
     }
 
     /**
-     * get the standard output of the process
+     * get the standard output of the process, it's read on the shared threads of {@link ProcessOutputReactor}
      *
      * @param process process
      */
     private void parseProcessOutput(Process process) {
-        String threadLoggerInfoName = taskRequest.getTaskLogName();
-        ExecutorService getOutputLogService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        getOutputLogService.submit(() -> {
-            try (BufferedReader inReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = inReader.readLine()) != null) {
-                    if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
-                        varPool.append(findVarPool(line));
-                        varPool.append("$VarPool$");
-                    } else {
-                        logBuffer.add(line);
-                        taskResultString = line;
-                    }
+        ProcessOutputReactor.getInstance().register(process, new ProcessOutputHandler());
+    }
+
+    /**
+     * Handle the output of the process in a single pass: pick out the var pool and the app ids, and flush the other lines
+     * to the task log by the {@link TaskOutputBuffer}.
+     */
+    private class ProcessOutputHandler implements ProcessOutputReactor.OutputHandler {
+
+        @Override
+        public void onLine(String line) {
+            if (outputBuffer.addLine(line)) {
+                taskResultString = line;
+                // most lines have no app id, skip the regex for them
+                if (line.contains(APPLICATION_PREFIX)) {
+                    runWithTaskLogName(() -> collectAppId(line));
                 }
-                logOutputIsSuccess = true;
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                logOutputIsSuccess = true;
             }
-        });
+        }
 
-        getOutputLogService.shutdown();
+        @Override
+        public void onPoll(long now) {
+            outputBuffer.flushIfExpired(now);
+        }
 
-        ExecutorService parseProcessOutputExecutorService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        parseProcessOutputExecutorService.submit(() -> {
+        @Override
+        public void onClose() {
+            logOutputIsSuccess = true;
             try {
-                long lastFlushTime = System.currentTimeMillis();
-                while (logBuffer.size() > 0 || !logOutputIsSuccess) {
-                    if (logBuffer.size() > 0) {
-                        lastFlushTime = flush(lastFlushTime);
-                    } else {
-                        Thread.sleep(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
-                    }
-                }
-            } catch (Exception e) {
-                Thread.currentThread().interrupt();
-                logger.error(e.getMessage(), e);
-            } finally {
                 clear();
+            } finally {
+                logOutputClosed.countDown();
             }
-        });
-        parseProcessOutputExecutorService.shutdown();
+        }
     }
 
     /**
      * get app links
      *
-     * @param logPath log path
-     * @return app id list
+     * @return the app ids found in the output, split by comma
      */
-    private List<String> getAppIds(String logPath) {
-        List<String> logs = convertFile2List(logPath);
-
-        List<String> appIds = new ArrayList<>();
-        /*
-         * analysis log?get submited yarn application id
-         */
-        for (String log : logs) {
-            String appId = findAppId(log);
-            if (StringUtils.isNotEmpty(appId) && !appIds.contains(appId)) {
-                logger.info("find app id: {}", appId);
-                appIds.add(appId);
-            }
+    private String getAppIds() {
+        synchronized (appIds) {
+            return String.join(TaskConstants.COMMA, appIds);
         }
-        return appIds;
     }
 
     /**
-     * convert file to list
+     * pick out the app id of the line, and update it to the task execution context once it's a new one,
+     * so the yarn application can be killed while the task is still running
      *
-     * @param filename file name
-     * @return line list
+     * @param line line
      */
-    private List<String> convertFile2List(String filename) {
-        List<String> lineList = new ArrayList<>(100);
-        File file = new File(filename);
-
-        if (!file.exists()) {
-            return lineList;
+    private void collectAppId(String line) {
+        String appId = findAppId(line);
+        if (StringUtils.isEmpty(appId)) {
+            return;
         }
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lineList.add(line);
+        String allAppIds;
+        synchronized (appIds) {
+            if (!appIds.add(appId)) {
+                return;
             }
-        } catch (Exception e) {
-            logger.error(String.format("read file: %s failed : ", filename), e);
+            allAppIds = String.join(TaskConstants.COMMA, appIds);
         }
-
-        return lineList;
-    }
-    
-    /**
-     * find var pool
-     * @param line
-     * @return
-     */
-    private String findVarPool(String line) {
-        Matcher matcher = SETVALUE_REGEX.matcher(line);
-        if (matcher.find()) {
-            return matcher.group(1);
+        logger.info("find app id: {}", appId);
+        taskRequest.setAppIds(allAppIds);
+        TaskCallBack taskCallBack = taskRequest.getTaskCallBack();
+        if (taskCallBack != null) {
+            try {
+                taskCallBack.updateAppIds(allAppIds);
+            } catch (Exception e) {
+                logger.error("update app ids error, app ids: {}", allAppIds, e);
+            }
         }
-        return null;
     }
 
     /**
@@ -469,38 +473,9 @@ public abstract class AbstractCommandExecutor {
         return processId;
     }
 
-    /**
-     * when log buffer siz or flush time reach condition , then flush
-     *
-     * @param lastFlushTime last flush time
-     * @return last flush time
-     */
-    private long flush(long lastFlushTime) {
-        long now = System.currentTimeMillis();
-
-        /*
-         * when log buffer siz or flush time reach condition , then flush
-         */
-        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM || now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
-            lastFlushTime = now;
-            logHandler.accept(logBuffer);
-
-            logBuffer.clear();
-        }
-        return lastFlushTime;
-    }
-
     protected abstract String buildCommandFilePath();
 
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
 
-    ExecutorService newDaemonSingleThreadExecutor(String threadName) {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                .setDaemon(true)
-                .setNameFormat(threadName)
-                .build();
-        return Executors.newSingleThreadExecutor(threadFactory);
-    }
-
     protected abstract String commandInterpreter();
 }
@@ -21,6 +21,9 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskAlertInfo;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.AbstractParameters;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * executive task
  */
@@ -57,6 +60,11 @@ public abstract class AbstractTask {
      */
     protected volatile boolean cancel = false;
 
+    /**
+     * the executor to run the callback of the async task on, it's run on the calling thread by default
+     */
+    protected Executor callbackExecutor = Runnable::run;
+
     /**
      * exit code
      */
@@ -92,6 +100,29 @@ public abstract class AbstractTask {
      */
     public abstract void handle() throws Exception;
 
+    /**
+     * Handle the task without blocking the calling thread while it waits on the network, the returned future is
+     * completed once the task is finished, then the worker reports the result of the task.
+     * The task is handled synchronously by default. The callback of the request, which reads the response and writes
+     * the task log, should be handed off to the {@link #callbackExecutor} instead of run on the network io thread.
+     *
+     * @return the future completed once the task is finished
+     */
+    public CompletableFuture<Void> handleAsync() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            handle();
+            future.complete(null);
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
     /**
      * cancel application
      *
@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read the output of all the task processes on a few shared threads, instead of the threads per task.
+ * <p>
+ * The output of a process is read only when it's available, so a pump thread never blocks on a process and
+ * serves many processes in turn. The lines are handed to the {@link OutputHandler} of the process on a handler
+ * thread, so a slow handler only holds back its own process: once too many lines of a process are pending,
+ * the pump stops reading it and the process blocks on writing to the full pipe, so the output never piles up
+ * in the memory of the worker.
+ * <p>
+ * Once the process exits, the rest of its output is read to the end on the handler thread.
+ */
+public final class ProcessOutputReactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessOutputReactor.class);
+
+    private static final int PUMP_THREAD_NUM = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    /**
+     * the pump waits for this interval once there is no output of all its processes
+     */
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    /**
+     * the handler of a process without new output is polled in this interval, to flush its buffered lines
+     */
+    private static final long HANDLER_POLL_INTERVAL_MILLIS = 200;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * the max bytes read from a process in a round, so a chatty process doesn't starve the others
+     */
+    private static final int MAX_READ_BYTES_PER_ROUND = 64 * 1024;
+
+    /**
+     * the pump stops reading a process once the lines of it not handled yet exceed this size
+     */
+    static final int MAX_PENDING_BYTES = 1024 * 1024;
+
+    /**
+     * a longer line is split, to bound the memory of a process without new lines in its output
+     */
+    static final int MAX_LINE_BYTES = 1024 * 1024;
+
+    private static final ProcessOutputReactor INSTANCE = new ProcessOutputReactor(PUMP_THREAD_NUM);
+
+    private final Pump[] pumps;
+
+    /**
+     * runs the handlers, a process is handled by at most one thread at a time
+     */
+    private final ExecutorService handlerExecutor;
+
+    ProcessOutputReactor(int pumpThreadNum) {
+        AtomicInteger handlerThreadIndex = new AtomicInteger();
+        handlerExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ProcessOutputHandler-" + handlerThreadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pumps = new Pump[pumpThreadNum];
+        for (int i = 0; i < pumpThreadNum; i++) {
+            pumps[i] = new Pump();
+            Thread thread = new Thread(pumps[i], "ProcessOutputReactor-" + i);
+            thread.setDaemon(true);
+            pumps[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    public static ProcessOutputReactor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Read the output of the process until it exits, on the pump serving the least processes.
+     */
+    public void register(Process process, OutputHandler handler) {
+        Pump pump = Arrays.stream(pumps)
+            .min((p1, p2) -> Integer.compare(p1.channelCount.get(), p2.channelCount.get()))
+            .orElseThrow(IllegalStateException::new);
+        pump.add(new Channel(process, handler, handlerExecutor));
+    }
+
+    /**
+     * The callbacks of a process are called one at a time, but not always on the same thread.
+     */
+    public interface OutputHandler {
+
+        /**
+         * a line of the output, without the line terminator
+         */
+        void onLine(String line);
+
+        /**
+         * called after the new lines are handled, and periodically without new lines, to flush the buffered lines
+         */
+        void onPoll(long now);
+
+        /**
+         * the output is closed, it's called once
+         */
+        void onClose();
+    }
+
+    private static final class Pump implements Runnable {
+
+        private final Queue<Channel> newChannels = new ConcurrentLinkedQueue<>();
+
+        private final List<Channel> channels = new ArrayList<>();
+
+        private final AtomicInteger channelCount = new AtomicInteger();
+
+        private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+
+        private Thread thread;
+
+        void add(Channel channel) {
+            channelCount.incrementAndGet();
+            newChannels.add(channel);
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Channel newChannel;
+                while ((newChannel = newChannels.poll()) != null) {
+                    channels.add(newChannel);
+                }
+                boolean active = false;
+                long now = System.currentTimeMillis();
+                Iterator<Channel> iterator = channels.iterator();
+                while (iterator.hasNext()) {
+                    Channel channel = iterator.next();
+                    try {
+                        active |= channel.pump(readBuffer, now) > 0;
+                    } catch (Throwable e) {
+                        logger.error("Read the output of the process error", e);
+                        channel.end();
+                    }
+                    if (channel.ended) {
+                        iterator.remove();
+                        channelCount.decrementAndGet();
+                    }
+                }
+                if (!active) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS));
+                }
+            }
+        }
+    }
+
+    private static final class Channel {
+
+        private final Process process;
+
+        private final InputStream inputStream;
+
+        private final OutputHandler handler;
+
+        private final ExecutorService handlerExecutor;
+
+        private final Queue<String> pendingLines = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong pendingBytes = new AtomicLong();
+
+        private final AtomicBoolean handling = new AtomicBoolean();
+
+        private byte[] lineBuffer = new byte[256];
+
+        private int lineLength;
+
+        private boolean lastIsCarriageReturn;
+
+        private long lastDispatchTime;
+
+        /**
+         * the pump doesn't read the process any more, the rest of the output is read on the handler thread
+         */
+        private volatile boolean ended;
+
+        Channel(Process process, OutputHandler handler, ExecutorService handlerExecutor) {
+            this.process = process;
+            this.inputStream = process.getInputStream();
+            this.handler = handler;
+            this.handlerExecutor = handlerExecutor;
+        }
+
+        /**
+         * Read the available output without blocking, on the pump thread.
+         *
+         * @return the bytes read
+         */
+        int pump(byte[] readBuffer, long now) throws IOException {
+            if (pendingBytes.get() >= MAX_PENDING_BYTES) {
+                // wait for the handler to catch up
+                return 0;
+            }
+            int total = 0;
+            while (total < MAX_READ_BYTES_PER_ROUND) {
+                int available = inputStream.available();
+                if (available <= 0) {
+                    break;
+                }
+                int length = inputStream.read(readBuffer, 0, Math.min(available, readBuffer.length));
+                if (length < 0) {
+                    break;
+                }
+                for (int i = 0; i < length; i++) {
+                    append(readBuffer[i]);
+                }
+                total += length;
+            }
+            if (total == 0 && !process.isAlive()) {
+                end();
+            } else if (total > 0 || now - lastDispatchTime >= HANDLER_POLL_INTERVAL_MILLIS) {
+                lastDispatchTime = now;
+                dispatch();
+            }
+            return total;
+        }
+
+        /**
+         * Hand the channel over to the handler thread to read the rest of the output.
+         */
+        void end() {
+            ended = true;
+            dispatch();
+        }
+
+        private void dispatch() {
+            if (handling.compareAndSet(false, true)) {
+                handlerExecutor.execute(this::handle);
+            }
+        }
+
+        private void handle() {
+            while (true) {
+                handlePendingLines();
+                if (ended) {
+                    finish();
+                    return;
+                }
+                handling.set(false);
+                // the pump may add lines or end the channel after the last check
+                if ((pendingLines.isEmpty() && !ended) || !handling.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void handlePendingLines() {
+            String line;
+            while ((line = pendingLines.poll()) != null) {
+                pendingBytes.addAndGet(-line.length());
+                try {
+                    handler.onLine(line);
+                } catch (Throwable e) {
+                    logger.error("Handle the output of the process error", e);
+                }
+            }
+            try {
+                handler.onPoll(System.currentTimeMillis());
+            } catch (Throwable e) {
+                logger.error("Handle the output of the process error", e);
+            }
+        }
+
+        /**
+         * Read the output to the end and close it. The process has exited, the JDK keeps the rest of its pipe
+         * in memory by then, so the reads don't wait for the children of the process still holding the pipe.
+         */
+        private void finish() {
+            byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+            try {
+                int length;
+                while ((length = inputStream.read(readBuffer)) != -1) {
+                    for (int i = 0; i < length; i++) {
+                        append(readBuffer[i]);
+                    }
+                    handlePendingLines();
+                }
+            } catch (IOException e) {
+                logger.warn("Read the rest of the output of the process error", e);
+            }
+            try {
+                if (lineLength > 0) {
+                    emitLine();
+                }
+                handlePendingLines();
+                handler.onClose();
+            } catch (Throwable e) {
+                logger.error("Close the output of the process error", e);
+            } finally {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    logger.warn("Close the input stream of the process error", e);
+                }
+            }
+        }
+
+        private void append(byte b) {
+            // the same line terminators as BufferedReader.readLine
+            if (b == '\n' || b == '\r') {
+                if (!(b == '\n' && lastIsCarriageReturn)) {
+                    emitLine();
+                }
+                lastIsCarriageReturn = b == '\r';
+                return;
+            }
+            lastIsCarriageReturn = false;
+            if (lineLength == lineBuffer.length) {
+                if (lineLength >= MAX_LINE_BYTES) {
+                    emitLine();
+                } else {
+                    lineBuffer = Arrays.copyOf(lineBuffer, Math.min(lineBuffer.length * 2, MAX_LINE_BYTES));
+                }
+            }
+            lineBuffer[lineLength++] = b;
+        }
+
+        private void emitLine() {
+            String line = new String(lineBuffer, 0, lineLength, Charset.defaultCharset());
+            lineLength = 0;
+            pendingBytes.addAndGet(line.length());
+            pendingLines.add(line);
+        }
+    }
+}
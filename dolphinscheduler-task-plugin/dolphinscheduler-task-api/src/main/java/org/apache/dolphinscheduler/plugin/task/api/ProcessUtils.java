@@ -19,8 +19,25 @@ package org.apache.dolphinscheduler.plugin.task.api;
 
 import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +62,13 @@ public final class ProcessUtils {
      */
     private static final Pattern WINDOWSATTERN = Pattern.compile("(\\d+)");
 
+    private static final Path PROC_PATH = Paths.get("/proc");
+
+    /**
+     * whether the process tree can be found by reading /proc, instead of forking pstree
+     */
+    private static final boolean PROC_AVAILABLE = Files.isReadable(PROC_PATH.resolve("self").resolve("stat"));
+
     /**
      * kill tasks according to different task types.
      */
@@ -70,6 +94,68 @@ public final class ProcessUtils {
         }
     }
 
+    /**
+     * Kill the tasks in a batch, the process trees of all the tasks are found by a single scan of /proc,
+     * and the processes of a tenant are killed by a single command.
+     *
+     * @return the number of the killed tasks
+     */
+    public static int kill(@NonNull Collection<TaskExecutionContext> requests) {
+        return kill(requests, (request, killed) -> {
+        });
+    }
+
+    /**
+     * Kill the tasks in a batch, and tell the listener whether each task is killed, e.g. to log it for the task.
+     *
+     * @return the number of the killed tasks
+     */
+    public static int kill(@NonNull Collection<TaskExecutionContext> requests,
+                           @NonNull BiConsumer<TaskExecutionContext, Boolean> listener) {
+        requests.stream()
+            .filter(request -> request.getProcessId() == 0)
+            .forEach(request -> listener.accept(request, false));
+        Map<String, List<TaskExecutionContext>> tenantRequests = requests.stream()
+            .filter(request -> request.getProcessId() != 0)
+            .collect(Collectors.groupingBy(request -> request.getTenantCode() == null ? "" : request.getTenantCode(),
+                LinkedHashMap::new, Collectors.toList()));
+        if (tenantRequests.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<Integer>> childrenMap = null;
+        if (PROC_AVAILABLE) {
+            try {
+                childrenMap = readChildrenMap();
+            } catch (IOException e) {
+                logger.warn("Read the process tree from /proc error, fall back to pstree", e);
+            }
+        }
+        int killNumber = 0;
+        for (Map.Entry<String, List<TaskExecutionContext>> entry : tenantRequests.entrySet()) {
+            try {
+                List<Integer> pids = new ArrayList<>();
+                for (TaskExecutionContext request : entry.getValue()) {
+                    pids.addAll(childrenMap != null
+                        ? getProcessTree(request.getProcessId(), childrenMap)
+                        : getProcessTreeByPstree(request.getProcessId()));
+                }
+                // nothing to kill if all the processes have exited
+                if (!pids.isEmpty()) {
+                    String cmd = String.format("kill -9 %s", joinPids(pids));
+                    cmd = OSUtils.getSudoCmd(entry.getKey(), cmd);
+                    logger.info("Kill {} task instances, cmd:{}", entry.getValue().size(), cmd);
+                    OSUtils.exeCmd(cmd);
+                }
+                killNumber += entry.getValue().size();
+                entry.getValue().forEach(request -> listener.accept(request, true));
+            } catch (Exception e) {
+                logger.error("Kill task instances of tenant {} error", entry.getKey(), e);
+                entry.getValue().forEach(request -> listener.accept(request, false));
+            }
+        }
+        return killNumber;
+    }
+
     /**
      * get pids str.
      *
@@ -78,26 +164,109 @@ public final class ProcessUtils {
      * @throws Exception exception
      */
     public static String getPidsStr(int processId) throws Exception {
-        StringBuilder sb = new StringBuilder();
+        return joinPids(getProcessTree(processId));
+    }
+
+    /**
+     * Get the process and all its descendants, the parents are before the children.
+     * It reads /proc on linux, and falls back to pstree on the other systems.
+     *
+     * @param processId process id
+     * @return the pids of the process tree
+     */
+    public static List<Integer> getProcessTree(int processId) throws Exception {
+        if (PROC_AVAILABLE) {
+            try {
+                return getProcessTree(processId, readChildrenMap());
+            } catch (IOException e) {
+                logger.warn("Read the process tree from /proc error, fall back to pstree", e);
+            }
+        }
+        return getProcessTreeByPstree(processId);
+    }
+
+    private static List<Integer> getProcessTree(int processId, Map<Integer, List<Integer>> childrenMap) {
+        if (!Files.exists(PROC_PATH.resolve(String.valueOf(processId)))) {
+            return Collections.emptyList();
+        }
+        List<Integer> pids = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(processId);
+        while (!queue.isEmpty()) {
+            int pid = queue.poll();
+            pids.add(pid);
+            queue.addAll(childrenMap.getOrDefault(pid, Collections.emptyList()));
+        }
+        return pids;
+    }
+
+    /**
+     * Read the parent of all the processes from /proc/[pid]/stat.
+     *
+     * @return the children of each process
+     */
+    private static Map<Integer, List<Integer>> readChildrenMap() throws IOException {
+        Map<Integer, List<Integer>> childrenMap = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(PROC_PATH, path -> isPid(path.getFileName().toString()))) {
+            for (Path path : stream) {
+                int parentPid = readParentPid(path);
+                if (parentPid > 0) {
+                    childrenMap.computeIfAbsent(parentPid, k -> new ArrayList<>())
+                        .add(Integer.parseInt(path.getFileName().toString()));
+                }
+            }
+        }
+        return childrenMap;
+    }
+
+    private static int readParentPid(Path processPath) {
+        try {
+            String stat = new String(Files.readAllBytes(processPath.resolve("stat")), StandardCharsets.UTF_8);
+            // pid (comm) state ppid ..., the comm may contain spaces and parentheses
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ", 3);
+            return Integer.parseInt(fields[1]);
+        } catch (IOException | RuntimeException e) {
+            // the process exits during the scan
+            return -1;
+        }
+    }
+
+    private static boolean isPid(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> getProcessTreeByPstree(int processId) throws Exception {
+        List<Integer> pids = new ArrayList<>();
         Matcher mat = null;
         // pstree pid get sub pids
         if (OSUtils.isMacOS()) {
-            String pids = OSUtils.exeCmd(String.format("%s -sp %d", TaskConstants.PSTREE, processId));
-            if (null != pids) {
-                mat = MACPATTERN.matcher(pids);
+            String pidsStr = OSUtils.exeCmd(String.format("%s -sp %d", TaskConstants.PSTREE, processId));
+            if (null != pidsStr) {
+                mat = MACPATTERN.matcher(pidsStr);
             }
         } else {
-            String pids = OSUtils.exeCmd(String.format("%s -p %d", TaskConstants.PSTREE, processId));
-            mat = WINDOWSATTERN.matcher(pids);
+            String pidsStr = OSUtils.exeCmd(String.format("%s -p %d", TaskConstants.PSTREE, processId));
+            mat = WINDOWSATTERN.matcher(pidsStr);
         }
 
         if (null != mat) {
             while (mat.find()) {
-                sb.append(mat.group(1)).append(" ");
+                pids.add(Integer.parseInt(mat.group(1)));
             }
         }
+        return pids;
+    }
 
-        return sb.toString().trim();
+    private static String joinPids(List<Integer> pids) {
+        return pids.stream().map(String::valueOf).collect(Collectors.joining(" "));
     }
 
 }
@@ -31,4 +31,16 @@ public interface TaskChannel {
 
     ResourceParametersHelper getResources(String parameters);
 
+    /**
+     * Whether the task only runs in the worker JVM without forking any process, and waits on nothing but a few
+     * network calls, such a task is executed by the lightweight execute threads of the worker,
+     * so it doesn't take the execute threads of the heavy tasks. It's asked once when the worker receives the task,
+     * and only if the lightweight execute threads are enabled.
+     *
+     * @param taskRequest the task before it's initialized
+     */
+    default boolean isLightweight(TaskExecutionContext taskRequest) {
+        return false;
+    }
+
 }
@@ -26,6 +26,8 @@ import java.io.Serializable;
 import java.util.Date;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -207,6 +209,17 @@ public class TaskExecutionContext implements Serializable {
      */
     private int delayTime;
 
+    /**
+     * task instance priority, the code of the Priority, the smaller the code the higher the priority.
+     */
+    private Integer taskInstancePriority;
+
+    /**
+     * callback to the worker, it's only available on the worker
+     */
+    @JsonIgnore
+    private transient TaskCallBack taskCallBack;
+
     /**
      * current execution status
      */
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Split the output of a task into the var pool and the log lines. The log lines are buffered and flushed to the
+ * log handler once the buffer is full or the flush interval is up, so the buffer never exceeds DEFAULT_LOG_ROWS_NUM.
+ */
+public class TaskOutputBuffer {
+
+    /**
+     * rules for extracting Var Pool
+     */
+    private static final Pattern SETVALUE_REGEX = Pattern.compile(TaskConstants.SETVALUE_REGEX);
+
+    private final Consumer<LinkedBlockingQueue<String>> logHandler;
+
+    private final LinkedBlockingQueue<String> logBuffer;
+
+    private final StringBuffer varPool = new StringBuffer();
+
+    private volatile long lastFlushTime = System.currentTimeMillis();
+
+    public TaskOutputBuffer(Consumer<LinkedBlockingQueue<String>> logHandler) {
+        this(logHandler, new LinkedBlockingQueue<>());
+    }
+
+    public TaskOutputBuffer(Consumer<LinkedBlockingQueue<String>> logHandler, LinkedBlockingQueue<String> logBuffer) {
+        this.logHandler = logHandler;
+        this.logBuffer = logBuffer;
+    }
+
+    /**
+     * Add a line of the output, the var pool is picked out and the other lines go to the log.
+     *
+     * @param line line
+     * @return true if the line goes to the log
+     */
+    public boolean addLine(String line) {
+        if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
+            Matcher matcher = SETVALUE_REGEX.matcher(line);
+            varPool.append(matcher.find() ? matcher.group(1) : null);
+            varPool.append("$VarPool$");
+            return false;
+        }
+        logBuffer.add(line);
+        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Flush the log lines if they are buffered longer than the flush interval.
+     */
+    public void flushIfExpired(long now) {
+        if (!logBuffer.isEmpty() && now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        lastFlushTime = System.currentTimeMillis();
+        if (!logBuffer.isEmpty()) {
+            logHandler.accept(logBuffer);
+            logBuffer.clear();
+        }
+    }
+
+    /**
+     * Flush the log lines and finalize the task log.
+     */
+    public synchronized void close() {
+        flush();
+        LinkedBlockingQueue<String> markerLog = new LinkedBlockingQueue<>(1);
+        markerLog.add(AbstractTaskExecutor.FINALIZE_SESSION_MARKER.toString());
+        logHandler.accept(markerLog);
+    }
+
+    public String getVarPool() {
+        return varPool.toString();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.utils;
+
+public class LogUtils {
+
+    private LogUtils() {
+        throw new UnsupportedOperationException("Construct LogUtils");
+    }
+
+    /**
+     * The task log is routed by the thread name, run the runnable with the log name of the task on a shared thread
+     * and restore the name of the thread after that.
+     *
+     * @param taskLogName the log name of the task, the runnable is run as it is if it's null
+     * @param runnable runnable
+     */
+    public static void runWithTaskLogName(String taskLogName, Runnable runnable) {
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        if (taskLogName == null || taskLogName.equals(threadName)) {
+            runnable.run();
+            return;
+        }
+        thread.setName(taskLogName);
+        try {
+            runnable.run();
+        } finally {
+            thread.setName(threadName);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessOutputReactorTest {
+
+    private final ProcessOutputReactor reactor = new ProcessOutputReactor(1);
+
+    @Before
+    public void before() {
+        Assume.assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("win"));
+    }
+
+    @Test(timeout = 20000)
+    public void testReadLines() throws Exception {
+        CollectHandler handler = new CollectHandler();
+        reactor.register(start("printf 'line1\\nline2\\r\\nline3\\rline4'"), handler);
+
+        Assert.assertTrue(handler.closed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("line1", "line2", "line3", "line4"), handler.lines);
+    }
+
+    @Test(timeout = 20000)
+    public void testManyProcessesOnOneThread() throws Exception {
+        List<CollectHandler> handlers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CollectHandler handler = new CollectHandler();
+            handlers.add(handler);
+            reactor.register(start("for i in $(seq 1 1000); do echo " + i + "-$i; done"), handler);
+        }
+        for (int i = 0; i < handlers.size(); i++) {
+            CollectHandler handler = handlers.get(i);
+            Assert.assertTrue(handler.closed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1000, handler.lines.size());
+            Assert.assertEquals(i + "-1000", handler.lines.get(999));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testSplitLongLine() throws Exception {
+        CollectHandler handler = new CollectHandler();
+        int length = ProcessOutputReactor.MAX_LINE_BYTES + 10;
+        reactor.register(start("head -c " + length + " /dev/zero | tr '\\0' 'a'"), handler);
+
+        Assert.assertTrue(handler.closed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, handler.lines.size());
+        Assert.assertEquals(ProcessOutputReactor.MAX_LINE_BYTES, handler.lines.get(0).length());
+        Assert.assertEquals(10, handler.lines.get(1).length());
+    }
+
+    @Test(timeout = 20000)
+    public void testSlowHandlerDoesNotStallOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CollectHandler slowHandler = new CollectHandler() {
+
+            @Override
+            public void onLine(String line) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onLine(line);
+            }
+        };
+        reactor.register(start("for i in $(seq 1 100000); do echo slow-$i; done"), slowHandler);
+        CollectHandler handler = new CollectHandler();
+        reactor.register(start("for i in $(seq 1 1000); do echo $i; done"), handler);
+
+        Assert.assertTrue(handler.closed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1000, handler.lines.size());
+        Assert.assertTrue(slowHandler.lines.isEmpty());
+
+        release.countDown();
+        Assert.assertTrue(slowHandler.closed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(100000, slowHandler.lines.size());
+        Assert.assertEquals("slow-100000", slowHandler.lines.get(99999));
+    }
+
+    @Test(timeout = 20000)
+    public void testReadToTheEndAfterExit() throws Exception {
+        // the output isn't available without blocking, it's only read once the process exits
+        InputStream output = new ByteArrayInputStream("line1\nline2".getBytes(StandardCharsets.UTF_8)) {
+
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+        CollectHandler handler = new CollectHandler();
+        reactor.register(new ExitedProcess(output), handler);
+
+        Assert.assertTrue(handler.closed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("line1", "line2"), handler.lines);
+    }
+
+    private Process start(String command) throws IOException {
+        return new ProcessBuilder("sh", "-c", command).redirectErrorStream(true).start();
+    }
+
+    private static class ExitedProcess extends Process {
+
+        private final InputStream inputStream;
+
+        ExitedProcess(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return null;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return null;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    private static class CollectHandler implements ProcessOutputReactor.OutputHandler {
+
+        private final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void onLine(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void onPoll(long now) {
+        }
+
+        @Override
+        public void onClose() {
+            closed.countDown();
+        }
+    }
+}
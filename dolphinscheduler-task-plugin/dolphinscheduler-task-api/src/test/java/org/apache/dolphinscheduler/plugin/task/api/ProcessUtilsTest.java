@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessUtilsTest {
+
+    private final List<Process> processes = new ArrayList<>();
+
+    @Before
+    public void before() {
+        Assume.assumeTrue(Files.isReadable(Paths.get("/proc/self/stat")));
+    }
+
+    @After
+    public void after() {
+        processes.forEach(Process::destroyForcibly);
+    }
+
+    @Test(timeout = 20000)
+    public void testGetProcessTree() throws Exception {
+        int processId = startProcessTree();
+        List<Integer> pids = waitProcessTree(processId, 4);
+        Assert.assertEquals(processId, (int) pids.get(0));
+        Assert.assertEquals(pids.size(), pids.stream().distinct().count());
+        Assert.assertEquals(Collections.emptyList(), ProcessUtils.getProcessTree(Integer.MAX_VALUE));
+    }
+
+    @Test(timeout = 20000)
+    public void testKillInBatch() throws Exception {
+        List<TaskExecutionContext> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TaskExecutionContext request = new TaskExecutionContext();
+            request.setProcessId(startProcessTree());
+            waitProcessTree(request.getProcessId(), 4);
+            requests.add(request);
+        }
+        // the task which is not started yet is skipped
+        requests.add(new TaskExecutionContext());
+
+        List<TaskExecutionContext> killedRequests = new ArrayList<>();
+        Assert.assertEquals(3, ProcessUtils.kill(requests, (request, killed) -> {
+            if (killed) {
+                killedRequests.add(request);
+            }
+        }));
+        Assert.assertEquals(requests.subList(0, 3), killedRequests);
+        for (Process process : processes) {
+            Assert.assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * sh -> (sleep, sh -> sleep)
+     */
+    private int startProcessTree() throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", "sleep 60 & sh -c 'sleep 60; echo' & wait").start();
+        processes.add(process);
+        Field field = process.getClass().getDeclaredField(TaskConstants.PID);
+        field.setAccessible(true);
+        return field.getInt(process);
+    }
+
+    private List<Integer> waitProcessTree(int processId, int size) throws Exception {
+        while (true) {
+            List<Integer> pids = ProcessUtils.getProcessTree(processId);
+            if (pids.size() >= size) {
+                return pids;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskOutputBufferTest {
+
+    private final List<List<String>> flushed = new ArrayList<>();
+
+    private final TaskOutputBuffer outputBuffer = new TaskOutputBuffer(logs -> flushed.add(new ArrayList<>(logs)));
+
+    @Test
+    public void testVarPool() {
+        Assert.assertFalse(outputBuffer.addLine("${setValue(a=1)}"));
+        Assert.assertFalse(outputBuffer.addLine("#{setValue(b=2)}"));
+        Assert.assertTrue(outputBuffer.addLine("setValue(c=3)"));
+
+        Assert.assertEquals("a=1$VarPool$b=2$VarPool$", outputBuffer.getVarPool());
+    }
+
+    @Test
+    public void testFlush() {
+        for (int i = 0; i < TaskConstants.DEFAULT_LOG_ROWS_NUM; i++) {
+            outputBuffer.addLine("line-" + i);
+        }
+        Assert.assertEquals(1, flushed.size());
+        Assert.assertEquals(TaskConstants.DEFAULT_LOG_ROWS_NUM, flushed.get(0).size());
+
+        outputBuffer.addLine("line");
+        outputBuffer.flushIfExpired(System.currentTimeMillis());
+        Assert.assertEquals(1, flushed.size());
+        outputBuffer.flushIfExpired(System.currentTimeMillis() + TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL + 1);
+        Assert.assertEquals(Arrays.asList("line"), flushed.get(1));
+    }
+
+    @Test
+    public void testClose() {
+        outputBuffer.addLine("line");
+        outputBuffer.close();
+
+        Assert.assertEquals(Arrays.asList(Arrays.asList("line"),
+            Arrays.asList(AbstractTaskExecutor.FINALIZE_SESSION_MARKER.toString())), flushed);
+    }
+}
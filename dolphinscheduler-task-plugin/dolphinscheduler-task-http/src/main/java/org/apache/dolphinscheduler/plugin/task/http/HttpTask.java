@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.AbstractParameters;
 import org.apache.dolphinscheduler.plugin.task.api.parser.ParamUtils;
 import org.apache.dolphinscheduler.plugin.task.api.parser.ParameterUtils;
+import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.plugin.task.api.utils.MapUtils;
 import org.apache.dolphinscheduler.spi.utils.DateUtils;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
@@ -33,11 +34,13 @@ import org.apache.dolphinscheduler.spi.utils.StringUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.Charsets;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.ParseException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
@@ -50,6 +53,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -67,6 +74,10 @@ public class HttpTask extends AbstractTaskExecutor {
      * taskExecutionContext
      */
     private TaskExecutionContext taskExecutionContext;
+    /**
+     * the request sent by the async client, it's used to cancel the request
+     */
+    private volatile Future<HttpResponse> requestFuture;
 
     /**
      * constructor
@@ -91,28 +102,114 @@ public class HttpTask extends AbstractTaskExecutor {
     @Override
     public void handle() throws Exception {
         long startTime = System.currentTimeMillis();
-        String formatTimeStamp = DateUtils.formatTimeStamp(startTime);
-        String statusCode = null;
-        String body = null;
-
         try (CloseableHttpClient client = createHttpClient();
              CloseableHttpResponse response = sendRequest(client)) {
-            statusCode = String.valueOf(getStatusCode(response));
-            body = getResponseBody(response);
-            exitStatusCode = validResponse(body, statusCode);
-            long costTime = System.currentTimeMillis() - startTime;
-            logger.info("startTime: {}, httpUrl: {}, httpMethod: {}, costTime : {} milliseconds, statusCode : {}, body : {}, log : {}",
-                    formatTimeStamp, httpParameters.getUrl(),
-                    httpParameters.getHttpMethod(), costTime, statusCode, body, output);
+            handleResponse(response, startTime);
         } catch (Exception e) {
-            appendMessage(e.toString());
-            exitStatusCode = -1;
-            logger.error("httpUrl[" + httpParameters.getUrl() + "] connection failed：" + output, e);
+            handleFailure(e);
             throw e;
         }
 
     }
 
+    /**
+     * Send the request on the shared async client if it's enabled, so it doesn't hold a worker thread while it waits.
+     * The response is handed off to the callback executor once it's received, the body is read and logged there
+     * rather than on the io thread of the client.
+     */
+    @Override
+    public CompletableFuture<Void> handleAsync() {
+        if (!HttpTaskAsyncClient.isEnabled()) {
+            return super.handleAsync();
+        }
+        long startTime = System.currentTimeMillis();
+        String taskLogName = taskExecutionContext.getTaskLogName();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            requestFuture = HttpTaskAsyncClient.getInstance().execute(buildRequest(), new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    onCallbackExecutor(future, taskLogName, () -> {
+                        try {
+                            handleResponse(response, startTime);
+                            future.complete(null);
+                        } catch (Exception e) {
+                            handleFailure(e);
+                            future.completeExceptionally(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    onCallbackExecutor(future, taskLogName, () -> {
+                        handleFailure(ex);
+                        future.completeExceptionally(ex);
+                    });
+                }
+
+                @Override
+                public void cancelled() {
+                    CancellationException ex = new CancellationException("the http request is cancelled");
+                    onCallbackExecutor(future, taskLogName, () -> {
+                        handleFailure(ex);
+                        future.completeExceptionally(ex);
+                    });
+                }
+            });
+            logger.info("the http request is sent asynchronously, httpUrl: {}", httpParameters.getUrl());
+            if (cancel) {
+                requestFuture.cancel(true);
+            }
+        } catch (Exception e) {
+            handleFailure(e);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void cancelApplication(boolean status) throws Exception {
+        super.cancelApplication(status);
+        Future<HttpResponse> future = requestFuture;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * check the response and log it
+     *
+     * @param response response
+     * @param startTime the time the request is started
+     */
+    private void handleResponse(HttpResponse response, long startTime) throws IOException {
+        String statusCode = String.valueOf(getStatusCode(response));
+        String body = getResponseBody(response);
+        exitStatusCode = validResponse(body, statusCode);
+        long costTime = System.currentTimeMillis() - startTime;
+        logger.info("startTime: {}, httpUrl: {}, httpMethod: {}, costTime : {} milliseconds, statusCode : {}, body : {}, log : {}",
+                DateUtils.formatTimeStamp(startTime), httpParameters.getUrl(),
+                httpParameters.getHttpMethod(), costTime, statusCode, body, output);
+    }
+
+    private void handleFailure(Exception e) {
+        appendMessage(e.toString());
+        exitStatusCode = -1;
+        logger.error("httpUrl[" + httpParameters.getUrl() + "] connection failed：" + output, e);
+    }
+
+    /**
+     * run the callback on the callback executor with the log name of the task, the task fails if it's rejected
+     */
+    private void onCallbackExecutor(CompletableFuture<Void> future, String taskLogName, Runnable runnable) {
+        try {
+            callbackExecutor.execute(() -> LogUtils.runWithTaskLogName(taskLogName, runnable));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
     /**
      * send request
      *
@@ -121,6 +218,15 @@ public class HttpTask extends AbstractTaskExecutor {
      * @throws IOException io exception
      */
     protected CloseableHttpResponse sendRequest(CloseableHttpClient client) throws IOException {
+        return client.execute(buildRequest());
+    }
+
+    /**
+     * build request
+     *
+     * @return the request with the placeholders replaced
+     */
+    protected HttpUriRequest buildRequest() {
         RequestBuilder builder = createRequestBuilder();
 
         // replace placeholder,and combine local and global parameters
@@ -143,9 +249,9 @@ public class HttpTask extends AbstractTaskExecutor {
         }
         addRequestParams(builder, httpPropertyList);
         String requestUrl = ParameterUtils.convertParameterPlaceholders(httpParameters.getUrl(), ParamUtils.convert(paramsMap));
-        HttpUriRequest request = builder.setUri(requestUrl).build();
+        HttpUriRequest request = builder.setUri(requestUrl).setConfig(requestConfig()).build();
         setHeaders(request, httpPropertyList);
-        return client.execute(request);
+        return request;
     }
 
     /**
@@ -156,7 +262,7 @@ public class HttpTask extends AbstractTaskExecutor {
      * @throws ParseException parse exception
      * @throws IOException io exception
      */
-    protected String getResponseBody(CloseableHttpResponse httpResponse) throws ParseException, IOException {
+    protected String getResponseBody(HttpResponse httpResponse) throws ParseException, IOException {
         if (httpResponse == null) {
             return null;
         }
@@ -173,7 +279,7 @@ public class HttpTask extends AbstractTaskExecutor {
      * @param httpResponse http response
      * @return status code
      */
-    protected int getStatusCode(CloseableHttpResponse httpResponse) {
+    protected int getStatusCode(HttpResponse httpResponse) {
         return httpResponse.getStatusLine().getStatusCode();
     }
 
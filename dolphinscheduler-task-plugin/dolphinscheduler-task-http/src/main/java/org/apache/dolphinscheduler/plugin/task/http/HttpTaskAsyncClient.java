@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.http;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskException;
+import org.apache.dolphinscheduler.spi.utils.PropertyUtils;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The shared async http client of the http tasks in the worker.
+ * <p>
+ * The requests are sent and the responses are received on a few io threads, so a task doesn't hold a thread
+ * while it waits for the response. The connections are pooled and reused by the tasks, and the connections to
+ * a host are limited, the requests wait in the pool once the limit is reached.
+ * The time to get a connection and the time to get the response are recorded as the metrics of the http tasks.
+ */
+public final class HttpTaskAsyncClient {
+
+    private static final Timer CONNECT_TIMER = Timer.builder("ds.task.http.connect.time")
+        .description("time to get a connection of the http task, including the time waiting for the pooled connection")
+        .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(Metrics.globalRegistry);
+
+    private static final Timer RESPONSE_TIMER = Timer.builder("ds.task.http.response.time")
+        .description("time from the request of the http task being sent to the response being received")
+        .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(Metrics.globalRegistry);
+
+    private final CloseableHttpAsyncClient client;
+
+    HttpTaskAsyncClient(int maxConnections, int maxConnectionsPerHost, int ioThreads) {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+            .setIoThreadCount(ioThreads)
+            .setSoKeepAlive(true)
+            .build();
+        PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOReactorException e) {
+            throw new TaskException("Create the io reactor of the http task client error", e);
+        }
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+        client = HttpAsyncClients.custom()
+            .setConnectionManager(connectionManager)
+            .build();
+        client.start();
+    }
+
+    public static boolean isEnabled() {
+        return PropertyUtils.getBoolean(HttpTaskConstants.HTTP_TASK_ASYNC_ENABLE, false);
+    }
+
+    public static HttpTaskAsyncClient getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Send the request, the callback is called on the io thread once the whole response is received.
+     *
+     * @param request request, its request config is used for the timeouts
+     * @param callback callback
+     * @return the future to cancel the request
+     */
+    public Future<HttpResponse> execute(HttpUriRequest request, FutureCallback<HttpResponse> callback) {
+        TimedRequestProducer requestProducer = new TimedRequestProducer(HttpAsyncMethods.create(request));
+        return client.execute(requestProducer, HttpAsyncMethods.createConsumer(), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                requestProducer.recordResponseTime();
+                callback.completed(response);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                callback.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                callback.cancelled();
+            }
+        });
+    }
+
+    void close() throws IOException {
+        client.close();
+    }
+
+    /**
+     * Record the time the connection is got, when the request is generated,
+     * and the time the request is sent, to measure the response time.
+     */
+    private static final class TimedRequestProducer implements HttpAsyncRequestProducer {
+
+        private final HttpAsyncRequestProducer delegate;
+
+        private final long startTime = System.nanoTime();
+
+        private volatile long requestSentTime;
+
+        private boolean connected;
+
+        TimedRequestProducer(HttpAsyncRequestProducer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHost getTarget() {
+            return delegate.getTarget();
+        }
+
+        @Override
+        public HttpRequest generateRequest() throws IOException, HttpException {
+            if (!connected) {
+                connected = true;
+                CONNECT_TIMER.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+            return delegate.generateRequest();
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            delegate.produceContent(encoder, ioctrl);
+        }
+
+        @Override
+        public void requestCompleted(HttpContext context) {
+            requestSentTime = System.nanoTime();
+            delegate.requestCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public void resetRequest() throws IOException {
+            delegate.resetRequest();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        void recordResponseTime() {
+            if (requestSentTime > 0) {
+                RESPONSE_TIMER.record(System.nanoTime() - requestSentTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class Holder {
+
+        private static final HttpTaskAsyncClient INSTANCE = new HttpTaskAsyncClient(
+            PropertyUtils.getInt(HttpTaskConstants.HTTP_TASK_ASYNC_MAX_CONNECTIONS, 500),
+            PropertyUtils.getInt(HttpTaskConstants.HTTP_TASK_ASYNC_MAX_CONNECTIONS_PER_HOST, 20),
+            PropertyUtils.getInt(HttpTaskConstants.HTTP_TASK_ASYNC_IO_THREADS, 2));
+    }
+}
@@ -46,4 +46,12 @@ public class HttpTaskChannel implements TaskChannel {
     public ResourceParametersHelper getResources(String parameters) {
         return null;
     }
+
+    /**
+     * The http call is made in the worker JVM.
+     */
+    @Override
+    public boolean isLightweight(TaskExecutionContext taskRequest) {
+        return true;
+    }
 }
@@ -20,4 +20,24 @@ package org.apache.dolphinscheduler.plugin.task.http;
 public class HttpTaskConstants {
 
     public static final String APPLICATION_JSON = "application/json";
+
+    /**
+     * whether to send the requests of the http tasks on the shared async client of the worker
+     */
+    public static final String HTTP_TASK_ASYNC_ENABLE = "http.task.async.enable";
+
+    /**
+     * the max connections of the shared async client
+     */
+    public static final String HTTP_TASK_ASYNC_MAX_CONNECTIONS = "http.task.async.max.connections";
+
+    /**
+     * the max connections of the shared async client to a host
+     */
+    public static final String HTTP_TASK_ASYNC_MAX_CONNECTIONS_PER_HOST = "http.task.async.max.connections.per.host";
+
+    /**
+     * the io threads of the shared async client
+     */
+    public static final String HTTP_TASK_ASYNC_IO_THREADS = "http.task.async.io.threads";
 }
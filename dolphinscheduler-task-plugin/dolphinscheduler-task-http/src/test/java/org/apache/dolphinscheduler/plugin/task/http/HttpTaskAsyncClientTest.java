@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.http;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpTaskAsyncClientTest {
+
+    private HttpServer server;
+
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+    private volatile long responseDelayMillis = 100;
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            int concurrent = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(responseDelayMillis);
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentRequests.decrementAndGet();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void after() {
+        server.stop(0);
+    }
+
+    @Test(timeout = 20000)
+    public void testLimitConnectionsPerHost() throws Exception {
+        HttpTaskAsyncClient client = new HttpTaskAsyncClient(100, 4, 1);
+        try {
+            int requestNum = 20;
+            CountDownLatch completed = new CountDownLatch(requestNum);
+            AtomicInteger succeeded = new AtomicInteger();
+            for (int i = 0; i < requestNum; i++) {
+                client.execute(new HttpGet(getUrl()), new FutureCallback<HttpResponse>() {
+                    @Override
+                    public void completed(HttpResponse response) {
+                        if (response.getStatusLine().getStatusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        }
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        completed.countDown();
+                    }
+                });
+            }
+            Assert.assertTrue(completed.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(requestNum, succeeded.get());
+            Assert.assertEquals(4, maxConcurrentRequests.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testHandleAsync() throws Exception {
+        HttpTask httpTask = newHttpTask();
+        CompletableFuture<Void> future = httpTask.handleAsync();
+        future.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(0, httpTask.getExitStatusCode());
+    }
+
+    @Test(timeout = 20000)
+    public void testHandleAsyncOnCallbackExecutor() throws Exception {
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "callback-thread"));
+        try {
+            HttpTask httpTask = newHttpTask();
+            httpTask.setCallbackExecutor(callbackExecutor);
+            AtomicReference<String> completedThreadName = new AtomicReference<>();
+            httpTask.handleAsync()
+                .whenComplete((result, e) -> completedThreadName.set(Thread.currentThread().getName()))
+                .get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(0, httpTask.getExitStatusCode());
+            Assert.assertEquals("callback-thread", completedThreadName.get());
+        } finally {
+            callbackExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testCancelAsync() throws Exception {
+        responseDelayMillis = 10000;
+        HttpTask httpTask = newHttpTask();
+        CompletableFuture<Void> future = httpTask.handleAsync();
+        Thread.sleep(200);
+        Assert.assertFalse(future.isDone());
+        httpTask.cancelApplication(true);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("the task should be cancelled");
+        } catch (CancellationException e) {
+            Assert.assertEquals("the http request is cancelled", e.getMessage());
+        }
+        Assert.assertEquals(-1, httpTask.getExitStatusCode());
+    }
+
+    private HttpTask newHttpTask() {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(1);
+        taskExecutionContext.setDefinedParams(Collections.emptyMap());
+        taskExecutionContext.setTaskParams("{\"localParams\":[],\"httpParams\":[],\"url\":\"" + getUrl() + "\","
+            + "\"httpMethod\":\"GET\",\"httpCheckCondition\":\"STATUS_CODE_DEFAULT\",\"condition\":\"\","
+            + "\"connectTimeout\":\"10000\",\"socketTimeout\":\"20000\"}");
+        HttpTask httpTask = new HttpTask(taskExecutionContext);
+        httpTask.init();
+        return httpTask;
+    }
+
+    private String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+}
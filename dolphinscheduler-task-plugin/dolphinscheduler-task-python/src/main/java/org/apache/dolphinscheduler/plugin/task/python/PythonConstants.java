@@ -32,4 +32,24 @@ public class PythonConstants {
      * EQUAL SIGN
      */
     public static final String EQUAL_SIGN = "=";
+
+    /**
+     * whether to run the python tasks on the warm interpreters of the worker
+     */
+    public static final String PYTHON_INTERPRETER_POOL_ENABLE = "python.interpreter.pool.enable";
+
+    /**
+     * the max idle interpreters of a tenant and environment
+     */
+    public static final String PYTHON_INTERPRETER_POOL_SIZE = "python.interpreter.pool.size";
+
+    /**
+     * an interpreter is recycled after running this number of tasks
+     */
+    public static final String PYTHON_INTERPRETER_POOL_MAX_RUNS = "python.interpreter.pool.max.runs";
+
+    /**
+     * an interpreter is recycled once its resident memory exceeds this size in MB
+     */
+    public static final String PYTHON_INTERPRETER_POOL_MAX_MEMORY_MB = "python.interpreter.pool.max.memory.mb";
 }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.python;
+
+import org.apache.dolphinscheduler.plugin.task.api.ProcessUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A warm python interpreter process, which runs the python scripts one by one, see python_interpreter.py.
+ */
+public class PythonInterpreter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonInterpreter.class);
+
+    private static final String READY = " READY";
+
+    private static final String EXIT = " EXIT ";
+
+    private final String key;
+
+    private final String tenantCode;
+
+    private final Process process;
+
+    private final int processId;
+
+    private final String token;
+
+    private final BufferedReader reader;
+
+    private final Writer writer;
+
+    private int runs;
+
+    private volatile long lastUsedTime = System.currentTimeMillis();
+
+    private PythonInterpreter(String key, String tenantCode, Process process, String token) {
+        this.key = key;
+        this.tenantCode = tenantCode;
+        this.process = process;
+        this.processId = getProcessId(process);
+        this.token = token;
+        this.reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Start an interpreter and wait until it's ready.
+     *
+     * @param key the key of the interpreter in the pool
+     * @param command the command to start the interpreter, the last argument is the token of the protocol
+     * @param tenantCode the tenant the interpreter runs as, empty if it's not started by sudo
+     */
+    static PythonInterpreter start(String key, List<String> command, String tenantCode) throws IOException {
+        String token = command.get(command.size() - 1);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        PythonInterpreter interpreter = new PythonInterpreter(key, tenantCode, process, token);
+        StringBuilder output = new StringBuilder();
+        String line;
+        while ((line = interpreter.reader.readLine()) != null) {
+            if (line.equals(token + READY)) {
+                return interpreter;
+            }
+            output.append(line).append('\n');
+        }
+        interpreter.destroy();
+        throw new IOException("Start python interpreter error: " + output);
+    }
+
+    static String newToken() {
+        return "DS_PYTHON_INTERPRETER_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    /**
+     * Run the python script and wait until it's finished.
+     *
+     * @param scriptFile the python script file
+     * @param workDir the working directory of the script
+     * @param outputHandler handle the output lines of the script
+     * @return the exit code of the script
+     * @throws IOException if the interpreter exits, e.g. it's killed
+     */
+    public int execute(String scriptFile, String workDir, Consumer<String> outputHandler) throws IOException {
+        runs++;
+        Map<String, String> request = new HashMap<>();
+        request.put("script", scriptFile);
+        request.put("cwd", workDir);
+        writer.write(JSONUtils.toJsonString(request));
+        writer.write('\n');
+        writer.flush();
+
+        String exitPrefix = token + EXIT;
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(exitPrefix)) {
+                    return Integer.parseInt(line.substring(exitPrefix.length()).trim());
+                }
+                outputHandler.accept(line);
+            }
+        } finally {
+            lastUsedTime = System.currentTimeMillis();
+        }
+        throw new IOException("The python interpreter exited, exit code: " + waitExitCode());
+    }
+
+    private int waitExitCode() {
+        try {
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TaskConstants.EXIT_CODE_FAILURE;
+        }
+    }
+
+    /**
+     * the resident memory of the interpreter, or -1 if it's unknown
+     */
+    public long getResidentMemoryBytes() {
+        Path status = Paths.get("/proc", String.valueOf(processId), "status");
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    // VmRSS:     12345 kB
+                    String[] fields = line.trim().split("\\s+");
+                    return Long.parseLong(fields[1]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Read the memory of the python interpreter {} error", processId, e);
+        }
+        return -1;
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * kill the interpreter and the processes started by it
+     */
+    public void destroy() {
+        if (process.isAlive() && processId != 0) {
+            TaskExecutionContext context = new TaskExecutionContext();
+            context.setProcessId(processId);
+            context.setTenantCode(tenantCode);
+            ProcessUtils.kill(context);
+        }
+        process.destroyForcibly();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+    private static int getProcessId(Process process) {
+        try {
+            Field field = process.getClass().getDeclaredField(TaskConstants.PID);
+            field.setAccessible(true);
+            return field.getInt(process);
+        } catch (Throwable e) {
+            logger.warn("Get the process id of the python interpreter error", e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.python;
+
+import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
+import org.apache.dolphinscheduler.spi.utils.PropertyUtils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A pool of warm python interpreters of the worker, the interpreters are kept per tenant and environment.
+ * <p>
+ * Once an interpreter is borrowed, the pool starts the interpreters in the background until there are
+ * {@code size} idle ones of the tenant and environment, so the following tasks needn't wait for the startup.
+ * An interpreter is recycled after {@code maxRuns} tasks, once its memory exceeds {@code maxMemoryBytes},
+ * or after it's idle for a while.
+ * <p>
+ * The shared pool is closed by a shutdown hook of the worker, so its interpreters don't outlive the worker.
+ */
+public class PythonInterpreterPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonInterpreterPool.class);
+
+    private static final String INTERPRETER_SCRIPT = "org/apache/dolphinscheduler/plugin/task/python/python_interpreter.py";
+
+    private static final String INTERPRETER_DIRECTORY_PREFIX = "dolphinscheduler_python_interpreter_";
+
+    private static final String INTERPRETER_SCRIPT_NAME = "python_interpreter.py";
+
+    private static final String RWX_X_X = "rwx--x--x";
+
+    private static final String R_R_R = "r--r--r--";
+
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int size;
+
+    private final int maxRuns;
+
+    private final long maxMemoryBytes;
+
+    /**
+     * the idle interpreters of each key, the recently used ones are in the head, guarded by this
+     */
+    private final Map<String, Deque<PythonInterpreter>> idleInterpreters = new HashMap<>();
+
+    /**
+     * the number of the interpreters being started in the background of each key, guarded by this
+     */
+    private final Map<String, Integer> startingInterpreters = new HashMap<>();
+
+    /**
+     * kill the timeout interpreters and evict the idle ones
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * start the interpreters in the background
+     */
+    private final ExecutorService starter;
+
+    private volatile Path interpreterScript;
+
+    /**
+     * guarded by this
+     */
+    private boolean closed;
+
+    public PythonInterpreterPool(int size, int maxRuns, long maxMemoryBytes) {
+        this.size = size;
+        this.maxRuns = maxRuns;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("PythonInterpreterPool-Scheduler").build());
+        this.starter = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("PythonInterpreterPool-Starter").build());
+        this.scheduler.scheduleWithFixedDelay(this::evictIdleInterpreters, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public static boolean isEnabled() {
+        return PropertyUtils.getBoolean(PythonConstants.PYTHON_INTERPRETER_POOL_ENABLE, false);
+    }
+
+    public static PythonInterpreterPool getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Borrow an interpreter, it's started if there is no idle one.
+     *
+     * @param tenantCode the tenant to run the interpreter as, if sudo is enabled
+     * @param environment the shell script to set up the environment, e.g. the PYTHON_HOME
+     * @return the interpreter, it should be given back after the task
+     */
+    public PythonInterpreter borrow(String tenantCode, String environment) throws IOException {
+        String tenant = OSUtils.isSudoEnable() && StringUtils.isNotEmpty(tenantCode) ? tenantCode : "";
+        String key = tenant + "\n" + StringUtils.defaultString(environment);
+        PythonInterpreter interpreter = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The python interpreter pool is closed");
+            }
+            Deque<PythonInterpreter> interpreters = idleInterpreters.get(key);
+            while (interpreter == null && interpreters != null && !interpreters.isEmpty()) {
+                interpreter = interpreters.pollFirst();
+                if (!interpreter.isAlive()) {
+                    interpreter.destroy();
+                    interpreter = null;
+                }
+            }
+            int idle = interpreters == null ? 0 : interpreters.size();
+            int starting = startingInterpreters.getOrDefault(key, 0);
+            for (int i = idle + starting; i < size; i++) {
+                startingInterpreters.merge(key, 1, Integer::sum);
+                starter.execute(() -> startInBackground(key, tenant, environment));
+            }
+        }
+        return interpreter != null ? interpreter : start(key, tenant, environment);
+    }
+
+    /**
+     * Give back the interpreter after the task, it's recycled if it isn't reusable.
+     */
+    public void giveBack(PythonInterpreter interpreter, boolean reusable) {
+        if (!reusable || !interpreter.isAlive()) {
+            interpreter.destroy();
+            return;
+        }
+        if (interpreter.getRuns() >= maxRuns) {
+            logger.info("Recycle the python interpreter {} after {} runs", interpreter.getProcessId(), interpreter.getRuns());
+            interpreter.destroy();
+            return;
+        }
+        long memory = interpreter.getResidentMemoryBytes();
+        if (maxMemoryBytes > 0 && memory > maxMemoryBytes) {
+            logger.info("Recycle the python interpreter {}, its memory {} bytes exceeds {} bytes",
+                interpreter.getProcessId(), memory, maxMemoryBytes);
+            interpreter.destroy();
+            return;
+        }
+        if (!offerIdle(interpreter)) {
+            interpreter.destroy();
+        }
+    }
+
+    /**
+     * Kill the interpreter once the task times out.
+     */
+    public ScheduledFuture<?> scheduleTimeout(PythonInterpreter interpreter, long timeoutSeconds) {
+        return scheduler.schedule(() -> {
+            logger.warn("The task on the python interpreter {} times out, kill it", interpreter.getProcessId());
+            interpreter.destroy();
+        }, timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background threads, destroy the idle interpreters and delete the interpreter script,
+     * the borrowed ones are destroyed once they are given back.
+     */
+    @Override
+    public void close() {
+        List<PythonInterpreter> interpreters = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            idleInterpreters.values().forEach(interpreters::addAll);
+            idleInterpreters.clear();
+        }
+        scheduler.shutdownNow();
+        starter.shutdownNow();
+        interpreters.forEach(PythonInterpreter::destroy);
+        deleteInterpreterScript();
+        logger.info("Close the python interpreter pool, destroy {} idle interpreters", interpreters.size());
+    }
+
+    private synchronized boolean offerIdle(PythonInterpreter interpreter) {
+        if (closed) {
+            return false;
+        }
+        Deque<PythonInterpreter> interpreters = idleInterpreters.computeIfAbsent(interpreter.getKey(), k -> new ArrayDeque<>());
+        if (interpreters.size() >= size) {
+            return false;
+        }
+        interpreters.offerFirst(interpreter);
+        return true;
+    }
+
+    private void startInBackground(String key, String tenant, String environment) {
+        try {
+            PythonInterpreter interpreter = start(key, tenant, environment);
+            if (!offerIdle(interpreter)) {
+                interpreter.destroy();
+            }
+        } catch (Exception e) {
+            logger.warn("Start python interpreter in the background error", e);
+        } finally {
+            synchronized (this) {
+                startingInterpreters.computeIfPresent(key, (k, v) -> v > 1 ? v - 1 : null);
+            }
+        }
+    }
+
+    private PythonInterpreter start(String key, String tenant, String environment) throws IOException {
+        String token = PythonInterpreter.newToken();
+        List<String> command = new ArrayList<>();
+        if (!tenant.isEmpty()) {
+            command.add("sudo");
+            command.add("-u");
+            command.add(tenant);
+        }
+        command.add("sh");
+        command.add("-c");
+        command.add(StringUtils.defaultString(environment) + "\nexec ${" + PythonConstants.PYTHON_HOME + "} -u \"$0\" \"$1\"");
+        command.add(getInterpreterScript().toString());
+        command.add(token);
+        PythonInterpreter interpreter = PythonInterpreter.start(key, command, tenant);
+        logger.info("Start python interpreter {}, tenant: {}", interpreter.getProcessId(), tenant);
+        return interpreter;
+    }
+
+    private synchronized void evictIdleInterpreters() {
+        long now = System.currentTimeMillis();
+        for (Deque<PythonInterpreter> interpreters : idleInterpreters.values()) {
+            Iterator<PythonInterpreter> iterator = interpreters.iterator();
+            while (iterator.hasNext()) {
+                PythonInterpreter interpreter = iterator.next();
+                if (!interpreter.isAlive() || now - interpreter.getLastUsedTime() > IDLE_TIMEOUT_MILLIS) {
+                    iterator.remove();
+                    interpreter.destroy();
+                }
+            }
+        }
+        idleInterpreters.values().removeIf(Deque::isEmpty);
+    }
+
+    /**
+     * Write the interpreter script to a new directory of the worker in the temp directory.
+     * <p>
+     * Only the worker can write the directory and the script, the other users including the tenants can only
+     * read the script by its path, so the script can't be replaced before an interpreter of a tenant runs it.
+     */
+    synchronized Path getInterpreterScript() throws IOException {
+        Path script = interpreterScript;
+        if (script != null && Files.exists(script)) {
+            return script;
+        }
+        byte[] content;
+        try (InputStream inputStream = PythonInterpreterPool.class.getClassLoader().getResourceAsStream(INTERPRETER_SCRIPT)) {
+            if (inputStream == null) {
+                throw new IOException("Python interpreter script not found: " + INTERPRETER_SCRIPT);
+            }
+            content = IOUtils.toByteArray(inputStream);
+        }
+        if (OSUtils.isWindows()) {
+            Path directory = Files.createTempDirectory(INTERPRETER_DIRECTORY_PREFIX);
+            script = Files.write(directory.resolve(INTERPRETER_SCRIPT_NAME), content, StandardOpenOption.CREATE_NEW);
+        } else {
+            Path directory = Files.createTempDirectory(INTERPRETER_DIRECTORY_PREFIX,
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(RWX_X_X)));
+            // the permissions of a new file are masked by the umask, so set them again
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString(RWX_X_X));
+            script = Files.write(directory.resolve(INTERPRETER_SCRIPT_NAME), content, StandardOpenOption.CREATE_NEW);
+            Files.setPosixFilePermissions(script, PosixFilePermissions.fromString(R_R_R));
+        }
+        interpreterScript = script;
+        return script;
+    }
+
+    private void deleteInterpreterScript() {
+        Path script = interpreterScript;
+        if (script == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(script);
+            Files.deleteIfExists(script.getParent());
+        } catch (IOException e) {
+            logger.warn("Delete the python interpreter script {} error", script, e);
+        }
+    }
+
+    private static final class Holder {
+
+        private static final PythonInterpreterPool INSTANCE = new PythonInterpreterPool(
+            PropertyUtils.getInt(PythonConstants.PYTHON_INTERPRETER_POOL_SIZE, 2),
+            PropertyUtils.getInt(PythonConstants.PYTHON_INTERPRETER_POOL_MAX_RUNS, 100),
+            PropertyUtils.getLong(PythonConstants.PYTHON_INTERPRETER_POOL_MAX_MEMORY_MB, 512) * 1024 * 1024);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "PythonInterpreterPool-Shutdown"));
+        }
+    }
+}
@@ -22,6 +22,8 @@ import org.apache.dolphinscheduler.plugin.task.api.ShellCommandExecutor;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
+import org.apache.dolphinscheduler.plugin.task.api.TaskOutputBuffer;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskResponse;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.AbstractParameters;
@@ -40,6 +42,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
 import com.google.common.base.Preconditions;
 
@@ -60,6 +63,11 @@ public class PythonTask extends AbstractTaskExecutor {
 
     private TaskExecutionContext taskRequest;
 
+    /**
+     * the interpreter running the task, if the interpreter pool is enabled
+     */
+    private volatile PythonInterpreter interpreter;
+
     private static final String PYTHON_HOME = "PYTHON_HOME";
 
     private static final String DEFAULT_PYTHON_VERSION = "python";
@@ -110,6 +118,10 @@ public class PythonTask extends AbstractTaskExecutor {
 
             // create this file
             createPythonCommandFileIfNotExists(pythonScriptContent,pythonScriptFile);
+            if (PythonInterpreterPool.isEnabled()) {
+                runOnInterpreter(pythonScriptFile);
+                return;
+            }
             String command = buildPythonExecuteCommand(pythonScriptFile);
 
             TaskResponse taskResponse = shellCommandExecutor.run(command);
@@ -126,10 +138,80 @@ public class PythonTask extends AbstractTaskExecutor {
 
     @Override
     public void cancelApplication(boolean cancelApplication) throws Exception {
+        PythonInterpreter runningInterpreter = interpreter;
+        if (runningInterpreter != null) {
+            runningInterpreter.destroy();
+            return;
+        }
         // cancel process
         shellCommandExecutor.cancelApplication();
     }
 
+    /**
+     * Run the python script on a warm interpreter of the pool instead of starting a new one.
+     *
+     * @param pythonScriptFile python script file
+     */
+    private void runOnInterpreter(String pythonScriptFile) throws Exception {
+        PythonInterpreterPool pool = PythonInterpreterPool.getInstance();
+        PythonInterpreter borrowedInterpreter = pool.borrow(taskRequest.getTenantCode(), buildEnvironment());
+        // it runs on the task thread, so the log is routed to the task log
+        TaskOutputBuffer outputBuffer = new TaskOutputBuffer(this::logHandle);
+        ScheduledFuture<?> timeout = null;
+        boolean reusable = false;
+        try {
+            interpreter = borrowedInterpreter;
+            // the task can be killed by the process id while it's running
+            taskRequest.setProcessId(borrowedInterpreter.getProcessId());
+            if (!TaskExecutionContextCacheManager.updateTaskExecutionContext(taskRequest)) {
+                setExitStatusCode(TaskConstants.EXIT_CODE_KILL);
+                reusable = true;
+                return;
+            }
+            timeout = pool.scheduleTimeout(borrowedInterpreter, getRemainTime());
+            logger.info("run python script on interpreter, process id: {}", borrowedInterpreter.getProcessId());
+            int exitCode = borrowedInterpreter.execute(pythonScriptFile, taskRequest.getExecutePath(), line -> {
+                outputBuffer.addLine(line);
+                outputBuffer.flushIfExpired(System.currentTimeMillis());
+            });
+            // the interpreter is killed if the timeout task has run
+            reusable = timeout.cancel(false);
+            setExitStatusCode(reusable ? exitCode : TaskConstants.EXIT_CODE_FAILURE);
+            setVarPool(outputBuffer.getVarPool());
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            outputBuffer.close();
+            // the interpreter is shared by the tasks, it mustn't be killed by this task after it's given back
+            taskRequest.setProcessId(0);
+            interpreter = null;
+            pool.giveBack(borrowedInterpreter, reusable);
+        }
+    }
+
+    /**
+     * the shell script to set up the environment of the interpreter, the same as the shell command executor
+     */
+    private String buildEnvironment() {
+        if (StringUtils.isNotBlank(taskRequest.getEnvironmentConfig())) {
+            return taskRequest.getEnvironmentConfig();
+        }
+        if (taskRequest.getEnvFile() != null) {
+            return ". " + taskRequest.getEnvFile();
+        }
+        return "";
+    }
+
+    private long getRemainTime() {
+        long usedTime = (System.currentTimeMillis() - taskRequest.getStartTime().getTime()) / 1000;
+        long remainTime = taskRequest.getTaskTimeout() - usedTime;
+        if (remainTime < 0) {
+            throw new TaskException("task execution time out");
+        }
+        return remainTime;
+    }
+
     @Override
     public AbstractParameters getParameters() {
         return pythonParameters;
@@ -0,0 +1,127 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+"""A warm python interpreter of the worker, which runs the python task scripts one by one.
+
+The worker writes a request of a json line to stdin for each task, the output of the
+task is written to stdout, followed by a line of ``<token> EXIT <exit code>``.
+Each script runs in a fresh namespace, the working directory, environment, sys.path
+and the modules imported from the task directory are restored after it.
+"""
+
+from __future__ import print_function
+
+import json
+import os
+import runpy
+import sys
+import traceback
+
+
+class _Output(object):
+    """Remember whether the output ends with a new line."""
+
+    def __init__(self, stream):
+        self._stream = stream
+        self.at_line_start = True
+
+    def write(self, text):
+        if text:
+            self._stream.write(text)
+            self.at_line_start = text.endswith("\n")
+
+    def flush(self):
+        self._stream.flush()
+
+    def __getattr__(self, name):
+        return getattr(self._stream, name)
+
+
+def _exit_code(code):
+    if code is None:
+        return 0
+    if isinstance(code, int):
+        return code
+    print(code, file=sys.stderr)
+    return 1
+
+
+def _unload_task_modules(loaded_modules, task_dir):
+    for name, module in list(sys.modules.items()):
+        if name in loaded_modules:
+            continue
+        module_file = getattr(module, "__file__", None) or ""
+        if os.path.abspath(module_file).startswith(task_dir + os.sep):
+            del sys.modules[name]
+
+
+def _run(request):
+    script = request["script"]
+    task_dir = os.path.abspath(request["cwd"])
+    saved_cwd = os.getcwd()
+    saved_environ = dict(os.environ)
+    saved_path = list(sys.path)
+    saved_argv = list(sys.argv)
+    loaded_modules = set(sys.modules)
+    code = 0
+    try:
+        os.chdir(task_dir)
+        sys.argv = [script]
+        sys.path.insert(0, os.path.dirname(os.path.abspath(script)))
+        runpy.run_path(script, run_name="__main__")
+    except SystemExit as e:
+        code = _exit_code(e.code)
+    except BaseException:
+        traceback.print_exc()
+        code = 1
+    finally:
+        sys.stdout.flush()
+        os.chdir(saved_cwd)
+        os.environ.clear()
+        os.environ.update(saved_environ)
+        sys.path[:] = saved_path
+        sys.argv = saved_argv
+        _unload_task_modules(loaded_modules, task_dir)
+    return code
+
+
+def main():
+    token = sys.argv[1]
+    # the requests are read from a duplicate of stdin, the scripts and their sub processes read nothing
+    requests = os.fdopen(os.dup(0), "r")
+    devnull = os.open(os.devnull, os.O_RDONLY)
+    os.dup2(devnull, 0)
+    os.close(devnull)
+    sys.stdin = open(os.devnull, "r")
+    # merge the error output of the scripts and their sub processes into the output
+    os.dup2(1, 2)
+    output = _Output(sys.stdout)
+    sys.stdout = output
+    sys.stderr = output
+
+    print("%s READY" % token)
+    output.flush()
+    for line in iter(requests.readline, ""):
+        code = _run(json.loads(line))
+        if not output.at_line_start:
+            output.write("\n")
+        output.write("%s EXIT %d\n" % (token, code))
+        output.flush()
+
+
+if __name__ == "__main__":
+    main()
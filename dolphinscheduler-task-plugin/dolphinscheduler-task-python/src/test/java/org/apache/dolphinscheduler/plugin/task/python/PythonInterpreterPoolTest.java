@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.python;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PythonInterpreterPoolTest {
+
+    private static final String ENVIRONMENT = "PYTHON_HOME=$(command -v python3 || command -v python)";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PythonInterpreterPool pool;
+
+    @Before
+    public void before() {
+        pool = new PythonInterpreterPool(1, 2, 0);
+        try {
+            pool.giveBack(pool.borrow(null, ENVIRONMENT), true);
+        } catch (IOException e) {
+            Assume.assumeNoException("python is not available", e);
+        }
+    }
+
+    @After
+    public void after() {
+        pool.close();
+    }
+
+    @Test(timeout = 20000)
+    public void testExecute() throws IOException {
+        PythonInterpreter interpreter = pool.borrow(null, ENVIRONMENT);
+        try {
+            List<String> output = new ArrayList<>();
+            Assert.assertEquals(0, interpreter.execute(script("print('line1')\nprint('line2')"), workDir(), output::add));
+            Assert.assertEquals(Arrays.asList("line1", "line2"), output);
+
+            output.clear();
+            Assert.assertEquals(0, interpreter.execute(script("import sys\nsys.stdout.write('no new line')"), workDir(), output::add));
+            Assert.assertEquals(Arrays.asList("no new line"), output);
+        } finally {
+            pool.giveBack(interpreter, true);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testExitCode() throws IOException {
+        PythonInterpreter interpreter = pool.borrow(null, ENVIRONMENT);
+        try {
+            Assert.assertEquals(3, interpreter.execute(script("import sys\nsys.exit(3)"), workDir(), line -> { }));
+            List<String> output = new ArrayList<>();
+            Assert.assertEquals(1, interpreter.execute(script("raise ValueError('error')"), workDir(), output::add));
+            Assert.assertTrue(output.contains("ValueError: error"));
+        } finally {
+            pool.giveBack(interpreter, true);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testReuseInFreshNamespace() throws IOException {
+        PythonInterpreter interpreter = pool.borrow(null, ENVIRONMENT);
+        int processId = interpreter.getProcessId();
+        interpreter.execute(script("import os\nvalue = 1\nos.environ['DS_TEST'] = '1'"), workDir(), line -> { });
+        pool.giveBack(interpreter, true);
+
+        interpreter = pool.borrow(null, ENVIRONMENT);
+        try {
+            Assert.assertEquals(processId, interpreter.getProcessId());
+            List<String> output = new ArrayList<>();
+            interpreter.execute(script("import os\nprint('value' in globals(), os.environ.get('DS_TEST'))"), workDir(), output::add);
+            Assert.assertEquals(Arrays.asList("False None"), output);
+        } finally {
+            pool.giveBack(interpreter, true);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testRecycleAfterMaxRuns() throws IOException {
+        PythonInterpreter interpreter = pool.borrow(null, ENVIRONMENT);
+        interpreter.execute(script("pass"), workDir(), line -> { });
+        interpreter.execute(script("pass"), workDir(), line -> { });
+        pool.giveBack(interpreter, true);
+        Assert.assertFalse(interpreter.isAlive());
+    }
+
+    @Test(timeout = 20000)
+    public void testClose() throws IOException {
+        PythonInterpreter idle = pool.borrow(null, ENVIRONMENT);
+        PythonInterpreter borrowed = pool.borrow(null, ENVIRONMENT);
+        pool.giveBack(idle, true);
+
+        pool.close();
+        Assert.assertFalse(idle.isAlive());
+        Assert.assertTrue(borrowed.isAlive());
+        pool.giveBack(borrowed, true);
+        Assert.assertFalse(borrowed.isAlive());
+        try {
+            pool.borrow(null, ENVIRONMENT);
+            Assert.fail("borrow from a closed pool");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testInterpreterScriptIsPrivate() throws IOException {
+        Path script = pool.getInterpreterScript();
+        Assert.assertEquals(script, pool.getInterpreterScript());
+        try (PythonInterpreterPool other = new PythonInterpreterPool(1, 1, 0)) {
+            Assert.assertNotEquals(other.getInterpreterScript(), script);
+        }
+        Assert.assertEquals(System.getProperty("user.name"), Files.getOwner(script.getParent()).getName());
+        Assert.assertEquals("rwx--x--x", PosixFilePermissions.toString(Files.getPosixFilePermissions(script.getParent())));
+        Assert.assertEquals("r--r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(script)));
+
+        pool.close();
+        Assert.assertFalse(Files.exists(script.getParent()));
+    }
+
+    private String script(String content) throws IOException {
+        Path script = temporaryFolder.newFile().toPath();
+        Files.write(script, content.getBytes(StandardCharsets.UTF_8));
+        return script.toString();
+    }
+
+    private String workDir() {
+        return temporaryFolder.getRoot().getAbsolutePath();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Write the rows of a query result to a json array one by one, while reading them from the result set.
+ * <p>
+ * A row is serialized as soon as it's read and no tree of the whole result is built, so the memory of a result
+ * is only its json bytes, which are bounded by the row limit and the byte limit.
+ */
+public class SqlResultWriter {
+
+    private final int rowLimit;
+
+    private final long byteLimit;
+
+    private final int displayRows;
+
+    private final Logger logger;
+
+    public SqlResultWriter(int rowLimit, long byteLimit, int displayRows, Logger logger) {
+        this.rowLimit = rowLimit;
+        this.byteLimit = byteLimit;
+        this.displayRows = displayRows;
+        this.logger = logger;
+    }
+
+    /**
+     * Read the rows until the end of the result set or a limit is reached, the first rows are printed to the log.
+     *
+     * @param resultSet result set, nullable
+     * @return the json array of the rows
+     */
+    public String write(ResultSet resultSet) throws SQLException, IOException {
+        ResultBuffer buffer = new ResultBuffer();
+        try (JsonGenerator generator = JSONUtils.createJsonGenerator(buffer)) {
+            generator.writeStartArray();
+            if (resultSet != null) {
+                writeRows(resultSet, generator, buffer);
+            }
+            generator.writeEndArray();
+        }
+        return buffer.toJson(0);
+    }
+
+    private void writeRows(ResultSet resultSet, JsonGenerator generator, ResultBuffer buffer) throws SQLException, IOException {
+        ResultSetMetaData md = resultSet.getMetaData();
+        String[] columnLabels = new String[md.getColumnCount()];
+        for (int i = 0; i < columnLabels.length; i++) {
+            columnLabels[i] = md.getColumnLabel(i + 1);
+        }
+        logger.info("display sql result at most {} rows as follows:", displayRows);
+
+        int rowCount = 0;
+        while (resultSet.next()) {
+            if (rowCount == rowLimit) {
+                logger.info("sql result limit : {} exceeding results are filtered", rowLimit);
+                break;
+            }
+            int rowStart = buffer.size();
+            generator.writeStartObject();
+            for (int i = 0; i < columnLabels.length; i++) {
+                generator.writeFieldName(columnLabels[i]);
+                generator.writeObject(resultSet.getObject(i + 1));
+            }
+            generator.writeEndObject();
+            generator.flush();
+            if (buffer.size() > byteLimit) {
+                // drop the row, the generator only needs to close the array after it
+                buffer.truncate(rowStart);
+                logger.info("sql result size limit : {} bytes exceeding results are filtered", byteLimit);
+                break;
+            }
+            rowCount++;
+            if (rowCount <= displayRows) {
+                logger.info("row {} : {}", rowCount, buffer.toJson(rowStart));
+            }
+        }
+        logger.info("sql result rows : {}, bytes : {}", rowCount, buffer.size());
+    }
+
+    private static final class ResultBuffer extends ByteArrayOutputStream {
+
+        ResultBuffer() {
+            super(1024);
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+
+        /**
+         * the json from the offset, without the separator before a row
+         */
+        String toJson(int offset) {
+            if (offset < count && buf[offset] == ',') {
+                offset++;
+            }
+            return new String(buf, offset, count - offset, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskException;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.plugin.task.api.parser.ParameterUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+/**
+ * Execute the statements of a sql task on its connection.
+ * <p>
+ * The prepared statements of the updates are cached by their sql, so a template repeated in the pre, main and post
+ * statements is prepared only once. In the batch mode, the consecutive statements of the same template, or without
+ * parameters, are sent to the database in one batch, if the driver supports batch updates.
+ */
+public class SqlStatementExecutor implements AutoCloseable {
+
+    private final Connection connection;
+
+    /**
+     * the query timeout in seconds, 0 means no timeout
+     */
+    private final int queryTimeout;
+
+    private final boolean batchEnabled;
+
+    private final Logger logger;
+
+    private final Map<String, PreparedStatement> preparedStatements = new HashMap<>();
+
+    public SqlStatementExecutor(Connection connection, int queryTimeout, boolean batchEnabled, Logger logger) throws SQLException {
+        this.connection = connection;
+        this.queryTimeout = queryTimeout;
+        this.batchEnabled = batchEnabled && connection.getMetaData().supportsBatchUpdates();
+        this.logger = logger;
+        if (batchEnabled && !this.batchEnabled) {
+            logger.info("the jdbc driver doesn't support batch updates, execute the statements one by one");
+        }
+    }
+
+    /**
+     * Execute the update statements in order.
+     *
+     * @return the update count of the last statement, 0 if the driver doesn't report the count of a batched statement
+     */
+    public int executeUpdate(List<SqlBinds> statementsBinds, String handlerType) throws Exception {
+        int result = 0;
+        int start = 0;
+        while (start < statementsBinds.size()) {
+            int end = batchEnabled ? batchEnd(statementsBinds, start) : start + 1;
+            if (end - start == 1) {
+                result = executeOne(statementsBinds.get(start), handlerType);
+            } else {
+                result = executeBatch(statementsBinds.subList(start, end), handlerType);
+            }
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * Prepare a statement out of the cache, it's closed by the caller.
+     */
+    public PreparedStatement prepareStatement(SqlBinds sqlBinds) {
+        try {
+            PreparedStatement stmt = connection.prepareStatement(sqlBinds.getSql());
+            if (queryTimeout > 0) {
+                stmt.setQueryTimeout(queryTimeout);
+            }
+            bind(stmt, sqlBinds);
+            return stmt;
+        } catch (Exception exception) {
+            throw new TaskException("SQL task prepareStatementAndBind error", exception);
+        }
+    }
+
+    private int executeOne(SqlBinds sqlBinds, String handlerType) throws SQLException {
+        PreparedStatement statement = cachedStatementAndBind(sqlBinds);
+        long startTime = System.currentTimeMillis();
+        int result = statement.executeUpdate();
+        logger.info("{} statement execute update result: {}, cost: {} ms, for sql: {}",
+                handlerType, result, System.currentTimeMillis() - startTime, sqlBinds.getSql());
+        return result;
+    }
+
+    private int executeBatch(List<SqlBinds> batchBinds, String handlerType) throws SQLException {
+        int[] results;
+        long startTime = System.currentTimeMillis();
+        if (isStatic(batchBinds.get(0))) {
+            try (Statement statement = connection.createStatement()) {
+                if (queryTimeout > 0) {
+                    statement.setQueryTimeout(queryTimeout);
+                }
+                for (SqlBinds sqlBinds : batchBinds) {
+                    statement.addBatch(sqlBinds.getSql());
+                }
+                results = statement.executeBatch();
+            }
+        } else {
+            PreparedStatement statement = null;
+            for (SqlBinds sqlBinds : batchBinds) {
+                statement = cachedStatementAndBind(sqlBinds);
+                statement.addBatch();
+            }
+            results = statement.executeBatch();
+        }
+        long cost = System.currentTimeMillis() - startTime;
+        logger.info("{} statement execute batch of {} statements, cost: {} ms", handlerType, batchBinds.size(), cost);
+        for (int i = 0; i < results.length; i++) {
+            logger.info("{} statement execute update result: {}, for sql: {}", handlerType, results[i], batchBinds.get(i).getSql());
+        }
+        int result = results[results.length - 1];
+        if (result == Statement.SUCCESS_NO_INFO) {
+            logger.info("{} statement execute batch succeeded without the update count, take it as 0", handlerType);
+            return 0;
+        }
+        return result;
+    }
+
+    /**
+     * the end of the batch from the start, the statements in a batch are all of the same template, or all without parameters
+     */
+    private int batchEnd(List<SqlBinds> statementsBinds, int start) {
+        SqlBinds first = statementsBinds.get(start);
+        int end = start + 1;
+        if (isStatic(first)) {
+            while (end < statementsBinds.size() && isStatic(statementsBinds.get(end))) {
+                end++;
+            }
+        } else {
+            while (end < statementsBinds.size() && first.getSql().equals(statementsBinds.get(end).getSql())) {
+                end++;
+            }
+        }
+        return end;
+    }
+
+    private boolean isStatic(SqlBinds sqlBinds) {
+        return sqlBinds.getParamsMap() == null || sqlBinds.getParamsMap().isEmpty();
+    }
+
+    private PreparedStatement cachedStatementAndBind(SqlBinds sqlBinds) throws SQLException {
+        PreparedStatement stmt = preparedStatements.get(sqlBinds.getSql());
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sqlBinds.getSql());
+            if (queryTimeout > 0) {
+                stmt.setQueryTimeout(queryTimeout);
+            }
+            preparedStatements.put(sqlBinds.getSql(), stmt);
+        } else {
+            stmt.clearParameters();
+        }
+        try {
+            bind(stmt, sqlBinds);
+        } catch (Exception exception) {
+            throw new TaskException("SQL task prepareStatementAndBind error", exception);
+        }
+        return stmt;
+    }
+
+    private void bind(PreparedStatement stmt, SqlBinds sqlBinds) throws Exception {
+        Map<Integer, Property> params = sqlBinds.getParamsMap();
+        if (params != null) {
+            for (Map.Entry<Integer, Property> entry : params.entrySet()) {
+                Property prop = entry.getValue();
+                ParameterUtils.setInParameter(entry.getKey(), stmt, prop.getType(), prop.getValue());
+            }
+        }
+        logger.info("prepare statement replace sql : {} ", stmt);
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement stmt : preparedStatements.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.error("close statement error : {}", e.getMessage(), e);
+            }
+        }
+        preparedStatements.clear();
+    }
+}
@@ -23,7 +23,6 @@ import org.apache.dolphinscheduler.plugin.datasource.api.utils.DataSourceUtils;
 import org.apache.dolphinscheduler.plugin.task.api.AbstractTaskExecutor;
 import org.apache.dolphinscheduler.plugin.task.api.SQLTaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
-import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
 import org.apache.dolphinscheduler.plugin.task.api.enums.QueryResultSendType;
@@ -39,6 +38,7 @@ import org.apache.dolphinscheduler.plugin.task.api.parser.ParameterUtils;
 import org.apache.dolphinscheduler.spi.datasource.BaseConnectionParam;
 import org.apache.dolphinscheduler.spi.enums.DbType;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+import org.apache.dolphinscheduler.spi.utils.PropertyUtils;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -46,7 +46,6 @@ import org.apache.commons.collections.CollectionUtils;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
@@ -61,9 +60,6 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
 public class SqlTask extends AbstractTaskExecutor {
 
     /**
@@ -91,6 +87,16 @@ public class SqlTask extends AbstractTaskExecutor {
      */
     private static final int QUERY_LIMIT = 10000;
 
+    /**
+     * default rows fetched in a round trip of the query
+     */
+    private static final int QUERY_FETCH_SIZE = 1000;
+
+    /**
+     * default max bytes of the query result
+     */
+    private static final long QUERY_RESULT_MAX_BYTES = 10L * 1024 * 1024;
+
     private SQLTaskExecutionContext sqlTaskExecutionContext;
 
     /**
@@ -180,6 +186,7 @@ public class SqlTask extends AbstractTaskExecutor {
                                   List<SqlBinds> postStatementsBinds,
                                   List<String> createFuncs) throws Exception {
         Connection connection = null;
+        SqlStatementExecutor statementExecutor = null;
         try {
 
             // create connection
@@ -188,30 +195,35 @@ public class SqlTask extends AbstractTaskExecutor {
             if (CollectionUtils.isNotEmpty(createFuncs)) {
                 createTempFunction(connection, createFuncs);
             }
+            statementExecutor = new SqlStatementExecutor(connection, getQueryTimeout(),
+                    PropertyUtils.getBoolean(SqlTaskConstants.SQL_TASK_BATCH_ENABLE, false), logger);
 
             // pre execute
-            executeUpdate(connection, preStatementsBinds, "pre");
+            statementExecutor.executeUpdate(preStatementsBinds, "pre");
 
             // main execute
             String result = null;
             // decide whether to executeQuery or executeUpdate based on sqlType
             if (sqlParameters.getSqlType() == SqlType.QUERY.ordinal()) {
                 // query statements need to be convert to JsonArray and inserted into Alert to send
-                result = executeQuery(connection, mainStatementsBinds.get(0), "main");
+                result = executeQuery(statementExecutor, mainStatementsBinds.get(0), "main");
             } else if (sqlParameters.getSqlType() == SqlType.NON_QUERY.ordinal()) {
                 // non query statement
-                String updateResult = executeUpdate(connection, mainStatementsBinds, "main");
+                String updateResult = String.valueOf(statementExecutor.executeUpdate(mainStatementsBinds, "main"));
                 result = setNonQuerySqlReturn(updateResult, sqlParameters.getLocalParams());
             }
             //deal out params
             sqlParameters.dealOutParam(result);
 
             // post execute
-            executeUpdate(connection, postStatementsBinds, "post");
+            statementExecutor.executeUpdate(postStatementsBinds, "post");
         } catch (Exception e) {
             logger.error("execute sql error: {}", e.getMessage());
             throw e;
         } finally {
+            if (statementExecutor != null) {
+                statementExecutor.close();
+            }
             close(connection);
         }
     }
@@ -238,35 +250,10 @@ public class SqlTask extends AbstractTaskExecutor {
      * @throws Exception Exception
      */
     private String resultProcess(ResultSet resultSet) throws Exception {
-        ArrayNode resultJSONArray = JSONUtils.createArrayNode();
-        if (resultSet != null) {
-            ResultSetMetaData md = resultSet.getMetaData();
-            int num = md.getColumnCount();
-
-            int rowCount = 0;
-            int limit = sqlParameters.getLimit() == 0 ? QUERY_LIMIT : sqlParameters.getLimit();
-
-            while (resultSet.next()) {
-                if (rowCount == limit) {
-                    logger.info("sql result limit : {} exceeding results are filtered", limit);
-                    break;
-                }
-                ObjectNode mapOfColValues = JSONUtils.createObjectNode();
-                for (int i = 1; i <= num; i++) {
-                    mapOfColValues.set(md.getColumnLabel(i), JSONUtils.toJsonNode(resultSet.getObject(i)));
-                }
-                resultJSONArray.add(mapOfColValues);
-                rowCount++;
-            }
-            int displayRows = sqlParameters.getDisplayRows() > 0 ? sqlParameters.getDisplayRows() : TaskConstants.DEFAULT_DISPLAY_ROWS;
-            displayRows = Math.min(displayRows, rowCount);
-            logger.info("display sql result {} rows as follows:", displayRows);
-            for (int i = 0; i < displayRows; i++) {
-                String row = JSONUtils.toJsonString(resultJSONArray.get(i));
-                logger.info("row {} : {}", i + 1, row);
-            }
-        }
-        String result = JSONUtils.toJsonString(resultJSONArray);
+        int limit = getQueryLimit();
+        int displayRows = sqlParameters.getDisplayRows() > 0 ? sqlParameters.getDisplayRows() : TaskConstants.DEFAULT_DISPLAY_ROWS;
+        long maxBytes = PropertyUtils.getLong(SqlTaskConstants.SQL_TASK_QUERY_RESULT_MAX_BYTES, QUERY_RESULT_MAX_BYTES);
+        String result = new SqlResultWriter(limit, maxBytes, displayRows, logger).write(resultSet);
         if (sqlParameters.getQueryResultSendType() == QueryResultSendType.EMAIL.ordinal()) {
             sendAttachment(sqlParameters.getGroupId(), StringUtils.isNotEmpty(sqlParameters.getTitle())
                     ? sqlParameters.getTitle()
@@ -279,6 +266,10 @@ public class SqlTask extends AbstractTaskExecutor {
         return result;
     }
 
+    private int getQueryLimit() {
+        return sqlParameters.getLimit() <= 0 ? QUERY_LIMIT : sqlParameters.getLimit();
+    }
+
     /**
      * send alert as an attachment
      *
@@ -294,25 +285,22 @@ public class SqlTask extends AbstractTaskExecutor {
         setTaskAlertInfo(taskAlertInfo);
     }
 
-    private String executeQuery(Connection connection, SqlBinds sqlBinds, String handlerType) throws Exception {
-        try (PreparedStatement statement = prepareStatementAndBind(connection, sqlBinds)) {
+    private String executeQuery(SqlStatementExecutor statementExecutor, SqlBinds sqlBinds, String handlerType) throws Exception {
+        try (PreparedStatement statement = statementExecutor.prepareStatement(sqlBinds)) {
+            // read the result in batches, and no more rows than the limit from the database
+            int fetchSize = PropertyUtils.getInt(SqlTaskConstants.SQL_TASK_QUERY_FETCH_SIZE, QUERY_FETCH_SIZE);
+            if (fetchSize > 0) {
+                statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+                statement.setFetchSize(fetchSize);
+            }
+            // one more row to know whether the result exceeds the limit
+            statement.setMaxRows(getQueryLimit() + 1);
             logger.info("{} statement execute query, for sql: {}", handlerType, sqlBinds.getSql());
             ResultSet resultSet = statement.executeQuery();
             return resultProcess(resultSet);
         }
     }
 
-    private String executeUpdate(Connection connection, List<SqlBinds> statementsBinds, String handlerType) throws Exception {
-        int result = 0;
-        for (SqlBinds sqlBind : statementsBinds) {
-            try (PreparedStatement statement = prepareStatementAndBind(connection, sqlBind)) {
-                result = statement.executeUpdate();
-                logger.info("{} statement execute update result: {}, for sql: {}", handlerType, result, sqlBind.getSql());
-            }
-        }
-        return String.valueOf(result);
-    }
-
     /**
      * create temp function
      *
@@ -345,35 +333,14 @@ public class SqlTask extends AbstractTaskExecutor {
     }
 
     /**
-     * preparedStatement bind
+     * the query timeout of the statements, 0 if the task fails without timeout
      *
-     * @param connection connection
-     * @param sqlBinds sqlBinds
-     * @return PreparedStatement
-     * @throws Exception Exception
+     * @return timeout in seconds
      */
-    private PreparedStatement prepareStatementAndBind(Connection connection, SqlBinds sqlBinds) {
-        // is the timeout set
+    private int getQueryTimeout() {
         boolean timeoutFlag = taskExecutionContext.getTaskTimeoutStrategy() == TaskTimeoutStrategy.FAILED
                 || taskExecutionContext.getTaskTimeoutStrategy() == TaskTimeoutStrategy.WARNFAILED;
-        try {
-            PreparedStatement stmt = connection.prepareStatement(sqlBinds.getSql());
-            if (timeoutFlag) {
-                stmt.setQueryTimeout(taskExecutionContext.getTaskTimeout());
-            }
-            Map<Integer, Property> params = sqlBinds.getParamsMap();
-            if (params != null) {
-                for (Map.Entry<Integer, Property> entry : params.entrySet()) {
-                    Property prop = entry.getValue();
-                    ParameterUtils.setInParameter(entry.getKey(), stmt, prop.getType(), prop.getValue());
-                }
-            }
-            logger.info("prepare statement replace sql : {} ", stmt);
-            return stmt;
-        } catch (Exception exception) {
-            throw new TaskException("SQL task prepareStatementAndBind error", exception);
-        }
-
+        return timeoutFlag ? taskExecutionContext.getTaskTimeout() : 0;
     }
 
     /**
@@ -25,6 +25,9 @@ import org.apache.dolphinscheduler.plugin.task.api.parameters.ParametersNode;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.SqlParameters;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.resource.ResourceParametersHelper;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+import org.apache.dolphinscheduler.spi.utils.StringUtils;
+
+import org.apache.commons.collections.CollectionUtils;
 
 public class SqlTaskChannel implements TaskChannel {
     @Override
@@ -47,4 +50,19 @@ public class SqlTaskChannel implements TaskChannel {
         return JSONUtils.parseObject(parameters, SqlParameters.class).getResources();
     }
 
+    /**
+     * A single statement without the pre and post statements and the udfs, like a ping of the database,
+     * runs over jdbc in the worker JVM.
+     */
+    @Override
+    public boolean isLightweight(TaskExecutionContext taskRequest) {
+        SqlParameters sqlParameters = JSONUtils.parseObject(taskRequest.getTaskParams(), SqlParameters.class);
+        return sqlParameters != null
+            && StringUtils.isNotEmpty(sqlParameters.getSql())
+            && CollectionUtils.isEmpty(sqlParameters.getPreStatements())
+            && CollectionUtils.isEmpty(sqlParameters.getPostStatements())
+            && StringUtils.isEmpty(sqlParameters.getUdfs())
+            && SqlSplitter.split(sqlParameters.getSql(), sqlParameters.getSegmentSeparator()).size() == 1;
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+public class SqlTaskConstants {
+
+    private SqlTaskConstants() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * the rows fetched from the database in a round trip when reading the query result
+     */
+    public static final String SQL_TASK_QUERY_FETCH_SIZE = "sql.task.query.fetch.size";
+
+    /**
+     * the max bytes of the query result kept by the task
+     */
+    public static final String SQL_TASK_QUERY_RESULT_MAX_BYTES = "sql.task.query.result.max.bytes";
+
+    /**
+     * whether to send the consecutive update statements of the same template, or without parameters, in a batch
+     */
+    public static final String SQL_TASK_BATCH_ENABLE = "sql.task.batch.enable";
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SqlResultWriterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlResultWriterTest.class);
+
+    @Test
+    public void testWrite() throws Exception {
+        String result = new SqlResultWriter(100, Long.MAX_VALUE, 1, logger).write(mockResultSet(3));
+
+        List<Map> rows = JSONUtils.toList(result, Map.class);
+        Assert.assertEquals(3, rows.size());
+        Assert.assertEquals(2, rows.get(1).get("id"));
+        Assert.assertEquals("name-2", rows.get(1).get("name"));
+        Assert.assertNull(rows.get(2).get("remark"));
+    }
+
+    @Test
+    public void testWriteNull() throws Exception {
+        Assert.assertEquals("[]", new SqlResultWriter(100, Long.MAX_VALUE, 1, logger).write(null));
+    }
+
+    @Test
+    public void testRowLimit() throws Exception {
+        String result = new SqlResultWriter(2, Long.MAX_VALUE, 10, logger).write(mockResultSet(5));
+
+        Assert.assertEquals(2, JSONUtils.toList(result, Map.class).size());
+    }
+
+    @Test
+    public void testByteLimit() throws Exception {
+        String oneRow = new SqlResultWriter(1, Long.MAX_VALUE, 0, logger).write(mockResultSet(1));
+
+        // the bytes of two rows with the separator, and less than three rows
+        String result = new SqlResultWriter(100, oneRow.length() * 2L, 0, logger).write(mockResultSet(5));
+
+        Assert.assertEquals(2, JSONUtils.toList(result, Map.class).size());
+        Assert.assertTrue(result.startsWith("[{") && result.endsWith("}]"));
+    }
+
+    private ResultSet mockResultSet(int rows) throws Exception {
+        ResultSetMetaData md = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(md.getColumnCount()).thenReturn(3);
+        Mockito.when(md.getColumnLabel(1)).thenReturn("id");
+        Mockito.when(md.getColumnLabel(2)).thenReturn("name");
+        Mockito.when(md.getColumnLabel(3)).thenReturn("remark");
+
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(md);
+        int[] row = {0};
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> ++row[0] <= rows);
+        Mockito.when(resultSet.getObject(1)).thenAnswer(invocation -> row[0]);
+        Mockito.when(resultSet.getObject(2)).thenAnswer(invocation -> "name-" + row[0]);
+        Mockito.when(resultSet.getObject(3)).thenReturn(null);
+        return resultSet;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SqlStatementExecutorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementExecutorTest.class);
+
+    private static final String INSERT_SQL = "insert into t_ds_test(id, name) values(?, ?)";
+
+    private Connection connection;
+
+    @Before
+    public void before() throws Exception {
+        connection = Mockito.spy(DriverManager.getConnection("jdbc:h2:mem:sql_statement_executor;DB_CLOSE_DELAY=-1"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_ds_test(id int primary key, name varchar(64))");
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table t_ds_test");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testCacheStatements() throws Exception {
+        try (SqlStatementExecutor executor = new SqlStatementExecutor(connection, 0, false, logger)) {
+            executor.executeUpdate(Arrays.asList(insert(1), insert(2)), "pre");
+            executor.executeUpdate(Collections.singletonList(insert(3)), "post");
+        }
+
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(INSERT_SQL);
+        Assert.assertEquals(Arrays.asList("name-1", "name-2", "name-3"), names());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        List<SqlBinds> statements = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            statements.add(insert(i));
+        }
+        statements.add(new SqlBinds("update t_ds_test set name = 'a' where id = 1", new HashMap<>()));
+        statements.add(new SqlBinds("update t_ds_test set name = 'b' where id = 2", new HashMap<>()));
+        statements.add(new SqlBinds("delete from t_ds_test where id > 3", new HashMap<>()));
+
+        int result;
+        try (SqlStatementExecutor executor = new SqlStatementExecutor(connection, 0, true, logger)) {
+            result = executor.executeUpdate(statements, "main");
+        }
+
+        Assert.assertEquals(2, result);
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(INSERT_SQL);
+        Assert.assertEquals(Arrays.asList("a", "b", "name-3"), names());
+    }
+
+    @Test
+    public void testBatchWithoutUpdateCount() throws Exception {
+        Connection mockConnection = Mockito.mock(Connection.class);
+        DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(metaData.supportsBatchUpdates()).thenReturn(true);
+        Mockito.when(mockConnection.getMetaData()).thenReturn(metaData);
+        Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(statement.executeBatch()).thenReturn(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        Mockito.when(mockConnection.createStatement()).thenReturn(statement);
+
+        List<SqlBinds> statements = Arrays.asList(
+            new SqlBinds("update t_ds_test set name = 'a' where id = 1", new HashMap<>()),
+            new SqlBinds("update t_ds_test set name = 'b' where id = 2", new HashMap<>()));
+        try (SqlStatementExecutor executor = new SqlStatementExecutor(mockConnection, 0, true, logger)) {
+            Assert.assertEquals(0, executor.executeUpdate(statements, "main"));
+        }
+    }
+
+    private SqlBinds insert(int id) {
+        Map<Integer, Property> params = new HashMap<>();
+        params.put(1, new Property("id", Direct.IN, DataType.INTEGER, String.valueOf(id)));
+        params.put(2, new Property("name", Direct.IN, DataType.VARCHAR, "name-" + id));
+        return new SqlBinds(INSERT_SQL, params);
+    }
+
+    private List<String> names() throws Exception {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from t_ds_test order by id")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+}
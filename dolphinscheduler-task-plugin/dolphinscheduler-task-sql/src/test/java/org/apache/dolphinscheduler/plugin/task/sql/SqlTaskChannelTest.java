@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.SqlParameters;
+import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlTaskChannelTest {
+
+    private final SqlTaskChannel sqlTaskChannel = new SqlTaskChannel();
+
+    @Test
+    public void testIsLightweight() {
+        SqlParameters sqlParameters = new SqlParameters();
+        sqlParameters.setSql("select 1");
+        Assert.assertTrue(sqlTaskChannel.isLightweight(taskRequest(sqlParameters)));
+
+        sqlParameters.setSegmentSeparator(";");
+        Assert.assertTrue(sqlTaskChannel.isLightweight(taskRequest(sqlParameters)));
+        sqlParameters.setSql("select 1;\nselect 2;");
+        Assert.assertFalse(sqlTaskChannel.isLightweight(taskRequest(sqlParameters)));
+
+        sqlParameters.setSql("select 1");
+        sqlParameters.setPreStatements(Collections.singletonList("set a = 1"));
+        Assert.assertFalse(sqlTaskChannel.isLightweight(taskRequest(sqlParameters)));
+
+        sqlParameters.setPreStatements(null);
+        sqlParameters.setUdfs("1");
+        Assert.assertFalse(sqlTaskChannel.isLightweight(taskRequest(sqlParameters)));
+    }
+
+    private TaskExecutionContext taskRequest(SqlParameters sqlParameters) {
+        TaskExecutionContext taskRequest = new TaskExecutionContext();
+        taskRequest.setTaskParams(JSONUtils.toJsonString(sqlParameters));
+        return taskRequest;
+    }
+}
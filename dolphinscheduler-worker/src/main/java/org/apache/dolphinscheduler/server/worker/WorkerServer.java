@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.plugin.task.api.ProcessUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
+import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.server.worker.message.MessageRetryRunner;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerRpcServer;
 import org.apache.dolphinscheduler.server.worker.registry.WorkerRegistryClient;
@@ -161,18 +162,22 @@ public class WorkerServer implements IStoppable {
             return;
         }
         logger.info("Worker begin to kill all cache task, task size: {}", taskRequests.size());
-        int killNumber = 0;
-        for (TaskExecutionContext taskRequest : taskRequests) {
-            // kill task when it's not finished yet
+        // kill the tasks which are not finished yet in a batch, the result is logged with the MDC of each task
+        int killNumber = ProcessUtils.kill(taskRequests, (taskRequest, killed) -> {
             try {
-                LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskRequest.getProcessInstanceId(), taskRequest.getTaskInstanceId());
-                if (ProcessUtils.kill(taskRequest)) {
-                    killNumber++;
-                }
+                LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskRequest.getProcessInstanceId(),
+                        taskRequest.getTaskInstanceId());
+                LogUtils.runWithTaskLogName(taskRequest.getTaskLogName(), () -> {
+                    if (killed) {
+                        logger.info("Success kill task instance, processId: {}", taskRequest.getProcessId());
+                    } else {
+                        logger.error("Task instance kill failed, processId: {}", taskRequest.getProcessId());
+                    }
+                });
             } finally {
                 LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
             }
-        }
+        });
         logger.info("Worker after kill all cache task, task size: {}, killed number: {}", taskRequests.size(), killNumber);
     }
 }
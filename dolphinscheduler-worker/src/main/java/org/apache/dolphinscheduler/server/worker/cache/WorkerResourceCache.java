@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.utils.FileUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * The worker-wide cache of the resources downloaded from the storage, it's disabled by default.
+ * <p>
+ * A cached file is named by the hash of the tenant, the resource path and the version of the resource in the storage,
+ * so a changed resource gets a new name and the stale one is evicted as the least recently used.
+ * The concurrent fetches of the same resource share one download, and the cached file is copied into
+ * the execute path of the task, so a task never shares the file with the cache or with the other tasks.
+ * <p>
+ * The version of the resource is queried from the storage on each fetch, it's one more round trip to the storage
+ * per resource, which is much cheaper than downloading the resource again.
+ */
+@Component
+public class WorkerResourceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerResourceCache.class);
+
+    private static final String TMP_FILE_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+
+    private final Path cacheDir;
+
+    private final long maxSize;
+
+    /**
+     * the cached files and their size, in the access order
+     */
+    private final LinkedHashMap<String, Long> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    private final Map<String, CompletableFuture<Path>> loadingFiles = new ConcurrentHashMap<>();
+
+    public WorkerResourceCache(WorkerConfig workerConfig) {
+        this.enabled = workerConfig.isResourceCacheEnabled();
+        this.cacheDir = Paths.get(StringUtils.isEmpty(workerConfig.getResourceCachePath())
+            ? FileUtils.DATA_BASEDIR + File.separator + "resource-cache"
+            : workerConfig.getResourceCachePath());
+        this.maxSize = workerConfig.getResourceCacheMaxSize().toBytes();
+        if (enabled) {
+            loadCachedFiles();
+            WorkerServerMetrics.registerWorkerResourceCacheSizeGauge(this::getTotalSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Put the resource in the storage to the target path, it's loaded only when it's not cached.
+     *
+     * @param tenantCode tenant code
+     * @param resPath the full path of the resource in the storage
+     * @param version the version of the resource in the storage
+     * @param target the local path to put the resource
+     * @param loader download the resource to the given file
+     */
+    public void fetch(String tenantCode, String resPath, String version, Path target, ResourceLoader loader) throws IOException {
+        String key = Hashing.sha256()
+            .hashString(tenantCode + "\n" + resPath + "\n" + version, StandardCharsets.UTF_8)
+            .toString();
+        try {
+            copy(getOrLoad(key, loader), target);
+        } catch (NoSuchFileException e) {
+            // the cached file is evicted or removed just now
+            logger.warn("The cached resource file {} of {} doesn't exist, load it again", e.getFile(), resPath);
+            invalidate(key);
+            copy(getOrLoad(key, loader), target);
+        }
+    }
+
+    Path getOrLoad(String key, ResourceLoader loader) throws IOException {
+        Path cachedFile = getCachedFile(key);
+        if (cachedFile != null) {
+            WorkerServerMetrics.incWorkerResourceCacheHitCount();
+            return cachedFile;
+        }
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> loadingFuture = loadingFiles.putIfAbsent(key, future);
+        if (loadingFuture != null) {
+            WorkerServerMetrics.incWorkerResourceCacheHitCount();
+            return waitLoading(loadingFuture);
+        }
+        try {
+            // it may be loaded by another thread before we put the future
+            cachedFile = getCachedFile(key);
+            if (cachedFile != null) {
+                WorkerServerMetrics.incWorkerResourceCacheHitCount();
+            } else {
+                WorkerServerMetrics.incWorkerResourceCacheMissCount();
+                cachedFile = load(key, loader);
+            }
+            future.complete(cachedFile);
+            return cachedFile;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingFiles.remove(key, future);
+        }
+    }
+
+    long getTotalSize() {
+        synchronized (cachedFiles) {
+            return totalSize;
+        }
+    }
+
+    private Path getCachedFile(String key) {
+        synchronized (cachedFiles) {
+            // get rather than containsKey, to move it to the most recently used
+            return cachedFiles.get(key) != null ? cacheDir.resolve(key) : null;
+        }
+    }
+
+    private void invalidate(String key) {
+        synchronized (cachedFiles) {
+            Long size = cachedFiles.remove(key);
+            if (size != null) {
+                totalSize -= size;
+            }
+        }
+    }
+
+    private Path load(String key, ResourceLoader loader) throws IOException {
+        Files.createDirectories(cacheDir);
+        Path tmpFile = cacheDir.resolve(key + "." + UUID.randomUUID() + TMP_FILE_SUFFIX);
+        Path cachedFile = cacheDir.resolve(key);
+        try {
+            loader.load(tmpFile);
+            // the tasks only get a copy, it's read only to keep the worker itself from changing it by mistake
+            if (!tmpFile.toFile().setReadOnly()) {
+                logger.warn("Failed to set the cached resource file {} read only", tmpFile);
+            }
+            Files.move(tmpFile, cachedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+        long size = Files.size(cachedFile);
+        synchronized (cachedFiles) {
+            Long oldSize = cachedFiles.put(key, size);
+            totalSize += size - (oldSize == null ? 0 : oldSize);
+            evict(key);
+        }
+        return cachedFile;
+    }
+
+    /**
+     * Evict the least recently used files until the cache is within the max size, the file just loaded is kept.
+     */
+    private void evict(String loadedKey) {
+        Iterator<Map.Entry<String, Long>> iterator = cachedFiles.entrySet().iterator();
+        while (totalSize > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().equals(loadedKey)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(cacheDir.resolve(entry.getKey()));
+            } catch (IOException e) {
+                logger.error("Failed to delete the cached resource file {}", entry.getKey(), e);
+                continue;
+            }
+            totalSize -= entry.getValue();
+            iterator.remove();
+            logger.info("Evict the cached resource file {}, size: {}", entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * copy the cached file to the target, the copy is writable and owned by the task alone
+     */
+    private void copy(Path cachedFile, Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Files.copy(cachedFile, target, StandardCopyOption.REPLACE_EXISTING);
+        if (!target.toFile().setWritable(true, true)) {
+            logger.warn("Failed to set the resource file {} writable", target);
+        }
+    }
+
+    private Path waitLoading(CompletableFuture<Path> loadingFuture) throws IOException {
+        try {
+            return loadingFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the resource to be downloaded", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to download the resource", e.getCause());
+        }
+    }
+
+    /**
+     * Load the files cached before the worker restarts, the least recently modified ones are evicted first.
+     */
+    private void loadCachedFiles() {
+        File[] files = cacheDir.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        synchronized (cachedFiles) {
+            for (File file : files) {
+                if (file.getName().endsWith(TMP_FILE_SUFFIX)) {
+                    if (!file.delete()) {
+                        logger.warn("Failed to delete the temporary resource file {}", file);
+                    }
+                } else if (file.isFile()) {
+                    cachedFiles.put(file.getName(), file.length());
+                    totalSize += file.length();
+                }
+            }
+            evict(null);
+        }
+        logger.info("Load {} cached resource files from {}, total size: {}", cachedFiles.size(), cacheDir, totalSize);
+    }
+
+    /**
+     * Download the resource to the given file.
+     */
+    @FunctionalInterface
+    public interface ResourceLoader {
+
+        void load(Path file) throws IOException;
+    }
+}
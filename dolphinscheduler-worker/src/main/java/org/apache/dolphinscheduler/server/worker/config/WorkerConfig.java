@@ -24,6 +24,7 @@ import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 import org.springframework.validation.annotation.Validated;
@@ -52,6 +53,47 @@ public class WorkerConfig implements Validator {
     private Set<String> groups = Sets.newHashSet("default");
     private String alertListenHost = "localhost";
     private int alertListenPort = 50052;
+    /**
+     * Cache the downloaded resources on the worker, keyed by the resource path and its version in the storage.
+     * The version is queried from the storage for each resource of each task. Disabled by default.
+     */
+    private boolean resourceCacheEnabled = false;
+    /**
+     * The directory of the resource cache, the cached resources are copied into the execute path.
+     * Default is ${data.basedir.path}/resource-cache.
+     */
+    private String resourceCachePath;
+    /**
+     * The least recently used resources are evicted once the cache is larger than this size.
+     */
+    private DataSize resourceCacheMaxSize = DataSize.ofGigabytes(10);
+    /**
+     * The thread number to download the resources of all the tasks in parallel.
+     */
+    private int resourceDownloadThreads = 10;
+    /**
+     * The total bandwidth per second to download the resources, 0 means unlimited.
+     */
+    private DataSize resourceDownloadBandwidth = DataSize.ofBytes(0);
+    /**
+     * The thread number to execute the lightweight tasks, which run in the worker JVM without forking any process,
+     * like the http tasks and the single sql statements, they don't take the execute threads. 0 means they're executed
+     * by the execute threads as the other tasks.
+     */
+    private int lightweightExecThreads = 0;
+    /**
+     * Archive the logs of the finished tasks to the storage in compressed blocks, so they can still be viewed
+     * once the worker or its disk is gone. It requires the resource storage.
+     */
+    private boolean logArchiveEnabled = false;
+    /**
+     * The log of a task is archived after this delay once the task finishes, for the last lines to be flushed.
+     */
+    private Duration logArchiveDelay = Duration.ofSeconds(30);
+    /**
+     * The log is compressed in blocks of about this size, a page of the log is read from the storage by its blocks.
+     */
+    private DataSize logArchiveBlockSize = DataSize.ofMegabytes(1);
     /**
      * This field doesn't need to set at config file, it will be calculated by workerIp:listenPort
      */
@@ -77,6 +119,22 @@ public class WorkerConfig implements Validator {
         if (workerConfig.getHeartbeatErrorThreshold() <= 0) {
             errors.rejectValue("heartbeat-error-threshold", null, "should be a positive value");
         }
+        if (workerConfig.getResourceCacheMaxSize().toBytes() <= 0) {
+            errors.rejectValue("resource-cache-max-size", null, "should be a positive value");
+        }
+        if (workerConfig.getResourceDownloadThreads() <= 0) {
+            errors.rejectValue("resource-download-threads", null, "should be a positive value");
+        }
+        if (workerConfig.getResourceDownloadBandwidth().toBytes() < 0) {
+            errors.rejectValue("resource-download-bandwidth", null, "should not be negative");
+        }
+        if (workerConfig.getLightweightExecThreads() < 0) {
+            errors.rejectValue("lightweight-exec-threads", null, "should not be negative");
+        }
+        if (workerConfig.getLogArchiveBlockSize().toBytes() <= 0
+                || workerConfig.getLogArchiveBlockSize().toBytes() > Integer.MAX_VALUE / 4) {
+            errors.rejectValue("log-archive-block-size", null, "should be a positive value less than 512MB");
+        }
         workerConfig.setWorkerAddress(NetUtils.getAddr(workerConfig.getListenPort()));
     }
 }
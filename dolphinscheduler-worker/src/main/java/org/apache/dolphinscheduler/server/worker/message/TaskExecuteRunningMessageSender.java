@@ -57,6 +57,8 @@ public class TaskExecuteRunningMessageSender implements MessageSender<TaskExecut
         taskExecuteRunningMessage.setHost(taskExecutionContext.getHost());
         taskExecuteRunningMessage.setStartTime(taskExecutionContext.getStartTime());
         taskExecuteRunningMessage.setExecutePath(taskExecutionContext.getExecutePath());
+        taskExecuteRunningMessage.setProcessId(taskExecutionContext.getProcessId());
+        taskExecuteRunningMessage.setAppIds(taskExecutionContext.getAppIds());
         return taskExecuteRunningMessage;
     }
 
@@ -22,9 +22,11 @@ import org.apache.dolphinscheduler.plugin.task.api.TaskChannelFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public final class TaskMetrics {
 
@@ -55,4 +57,18 @@ public final class TaskMetrics {
         TASK_TYPE_EXECUTE_COUNTER.getOrDefault(taskType, UNKNOWN_TASK_EXECUTE_COUNTER).increment();
     }
 
+    /**
+     * Record the time from the task being dispatched to the worker to the task being started,
+     * including the time waiting in the worker queue and downloading the resources.
+     */
+    public static void recordTaskStartupTime(String taskType, long milliseconds) {
+        Timer.builder("ds.task.startup.time")
+                .tag("task_type", TASK_TYPE_EXECUTE_COUNTER.containsKey(taskType) ? taskType : "unknown")
+                .description("time from the task being dispatched to the task being started")
+                .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
 }
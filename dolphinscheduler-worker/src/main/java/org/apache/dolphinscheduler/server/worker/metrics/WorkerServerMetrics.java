@@ -17,11 +17,15 @@
 
 package org.apache.dolphinscheduler.server.worker.metrics;
 
+import org.apache.dolphinscheduler.common.enums.Priority;
+
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -37,6 +41,18 @@ public class WorkerServerMetrics {
             .description("full worker submit queues count")
             .register(Metrics.globalRegistry);
 
+    private static final Counter WORKER_RESOURCE_CACHE_HIT_COUNTER =
+        Counter.builder("ds.worker.resource.cache.count")
+            .tag("result", "hit")
+            .description("resource cache hit count")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter WORKER_RESOURCE_CACHE_MISS_COUNTER =
+        Counter.builder("ds.worker.resource.cache.count")
+            .tag("result", "miss")
+            .description("resource cache miss count")
+            .register(Metrics.globalRegistry);
+
     public static void incWorkerOverloadCount() {
         WORKER_OVERLOAD_COUNTER.increment();
     }
@@ -52,4 +68,30 @@ public class WorkerServerMetrics {
 
     }
 
+    public static void incWorkerResourceCacheHitCount() {
+        WORKER_RESOURCE_CACHE_HIT_COUNTER.increment();
+    }
+
+    public static void incWorkerResourceCacheMissCount() {
+        WORKER_RESOURCE_CACHE_MISS_COUNTER.increment();
+    }
+
+    public static void registerWorkerResourceCacheSizeGauge(Supplier<Number> supplier) {
+        Gauge.builder("ds.worker.resource.cache.size", supplier)
+            .description("total bytes of the cached resources on workers")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Record the time a task waits in the queue after its delay time is up, until a worker thread takes it.
+     */
+    public static void recordTaskQueueWaitTime(Priority priority, long milliseconds) {
+        Timer.builder("ds.worker.task.queue.wait.time")
+            .tag("priority", priority.getDescp())
+            .description("time the ready tasks wait in the worker queue")
+            .register(Metrics.globalRegistry)
+            .record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
 }
@@ -38,6 +38,7 @@ import org.apache.dolphinscheduler.server.worker.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.runner.TaskExecuteThread;
 import org.apache.dolphinscheduler.server.worker.runner.WorkerManagerThread;
+import org.apache.dolphinscheduler.server.worker.runner.WorkerResourceDownloader;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
 import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 
@@ -89,6 +90,9 @@ public class TaskDispatchProcessor implements NettyRequestProcessor {
     @Autowired(required = false)
     private StorageOperate storageOperate;
 
+    @Autowired
+    private WorkerResourceDownloader workerResourceDownloader;
+
     @Counted(value = "ds.task.execution.count", description = "task execute total count")
     @Timed(value = "ds.task.execution.duration", percentiles = {0.5, 0.75, 0.95, 0.99}, histogram = true)
     @Override
@@ -178,12 +182,17 @@ public class TaskDispatchProcessor implements NettyRequestProcessor {
             }
 
             // submit task to manager
-            boolean offer = workerManager.offer(new TaskExecuteThread(taskExecutionContext,
-                                                                      masterAddress,
-                                                                      workerMessageSender,
-                                                                      alertClientService,
-                                                                      taskPluginManager,
-                                                                      storageOperate));
+            TaskExecuteThread taskExecuteThread = new TaskExecuteThread(taskExecutionContext,
+                                                                        masterAddress,
+                                                                        workerMessageSender,
+                                                                        alertClientService,
+                                                                        taskPluginManager,
+                                                                        storageOperate,
+                                                                        workerResourceDownloader);
+            if (workerConfig.getLightweightExecThreads() > 0) {
+                taskExecuteThread.decideLightweight();
+            }
+            boolean offer = workerManager.offer(taskExecuteThread);
             if (!offer) {
                 logger.warn("submit task to wait queue error, queue is full, queue size is {}, taskInstanceId: {}",
                             workerManager.getDelayQueueSize(),
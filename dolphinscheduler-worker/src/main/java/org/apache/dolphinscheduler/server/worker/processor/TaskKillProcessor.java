@@ -150,7 +150,8 @@ public class TaskKillProcessor implements NettyRequestProcessor {
         Pair<Boolean, List<String>> yarnResult = killYarnJob(Host.of(taskExecutionContext.getHost()),
                 taskExecutionContext.getLogPath(),
                 taskExecutionContext.getExecutePath(),
-                taskExecutionContext.getTenantCode());
+                taskExecutionContext.getTenantCode(),
+                taskExecutionContext.getAppIds());
         return Pair.of(processFlag && yarnResult.getLeft(), yarnResult.getRight());
     }
 
@@ -209,9 +210,26 @@ public class TaskKillProcessor implements NettyRequestProcessor {
      * @param logPath logPath
      * @param executePath executePath
      * @param tenantCode tenantCode
+     * @param reportedAppIds the app ids found in the output of the task
      * @return Pair<Boolean, List < String>> yarn kill result
      */
-    private Pair<Boolean, List<String>> killYarnJob(Host host, String logPath, String executePath, String tenantCode) {
+    private Pair<Boolean, List<String>> killYarnJob(Host host, String logPath, String executePath, String tenantCode,
+                                                    String reportedAppIds) {
+        if (!StringUtils.isEmpty(reportedAppIds)) {
+            // the app ids are already found in the output of the task, there is no need to fetch the log
+            try {
+                if (StringUtils.isEmpty(executePath)) {
+                    logger.error("task instance execute path is empty");
+                    throw new RuntimeException("task instance execute path is empty");
+                }
+                List<String> appIdList = Arrays.asList(reportedAppIds.split(TaskConstants.COMMA));
+                ProcessUtils.cancelApplication(appIdList, logger, tenantCode, executePath);
+                return Pair.of(true, appIdList);
+            } catch (Exception e) {
+                logger.error("kill yarn job error", e);
+                return Pair.of(false, Collections.emptyList());
+            }
+        }
         try (LogClientService logClient = new LogClientService();) {
             logger.info("log host : {} , logPath : {} , port : {}", host.getIp(), logPath,
                     host.getPort());
@@ -74,10 +74,15 @@ public class WorkerRpcServer implements Closeable {
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_RESULT_ACK, taskExecuteResultAckProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.PROCESS_HOST_UPDATE_REQUEST, hostUpdateProcessor);
         // logger server
-        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_BYTES_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.ROLL_VIEW_LOG_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.VIEW_WHOLE_LOG_REQUEST, loggerRequestProcessor);
-        this.nettyRemotingServer.registerProcessor(CommandType.REMOVE_TAK_LOG_REQUEST, loggerRequestProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_BYTES_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_STREAM_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.ROLL_VIEW_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.VIEW_WHOLE_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.REMOVE_TAK_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.SEARCH_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.SEARCH_LOG_CANCEL_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TAIL_LOG_CANCEL_REQUEST, loggerRequestProcessor, loggerRequestProcessor.getExecutor());
         this.nettyRemotingServer.start();
         LOGGER.info("Worker rpc server started");
     }
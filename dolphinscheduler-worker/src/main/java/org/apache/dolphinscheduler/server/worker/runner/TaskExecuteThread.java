@@ -40,6 +40,7 @@ import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskAlertInfo;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.server.utils.ProcessUtils;
+import org.apache.dolphinscheduler.server.worker.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
 import org.apache.dolphinscheduler.service.exceptions.ServiceException;
@@ -58,7 +59,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Delayed;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -71,7 +74,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 /**
  * task scheduler thread
  */
-public class TaskExecuteThread implements Runnable, Delayed {
+public class TaskExecuteThread implements Runnable {
 
     /**
      * logger
@@ -104,6 +107,31 @@ public class TaskExecuteThread implements Runnable, Delayed {
 
     private TaskPluginManager taskPluginManager;
 
+    /**
+     * worker resource downloader, the resources are downloaded one by one if it's null
+     */
+    private WorkerResourceDownloader resourceDownloader;
+
+    /**
+     * the time the task is dispatched to the worker
+     */
+    private final long dispatchTime = System.currentTimeMillis();
+
+    /**
+     * completed once the task is finished and its result is reported
+     */
+    private final CompletableFuture<Void> finishFuture = new CompletableFuture<>();
+
+    /**
+     * the executor to finish the asynchronous task
+     */
+    private Executor asyncCallbackExecutor = Runnable::run;
+
+    /**
+     * whether the task is executed by the lightweight execute threads, it's decided once the task is received
+     */
+    private boolean lightweight;
+
     @Autowired
     private AlertDao alertDao;
 
@@ -139,6 +167,17 @@ public class TaskExecuteThread implements Runnable, Delayed {
         this.storageOperate = storageOperate;
     }
 
+    public TaskExecuteThread(@NonNull TaskExecutionContext taskExecutionContext,
+                             @NonNull String masterAddress,
+                             @NonNull WorkerMessageSender workerMessageSender,
+                             @NonNull AlertClientService alertClientService,
+                             @NonNull TaskPluginManager taskPluginManager,
+                             StorageOperate storageOperate,
+                             WorkerResourceDownloader resourceDownloader) {
+        this(taskExecutionContext, masterAddress, workerMessageSender, alertClientService, taskPluginManager, storageOperate);
+        this.resourceDownloader = resourceDownloader;
+    }
+
     @Override
     public void run() {
         try {
@@ -152,12 +191,14 @@ public class TaskExecuteThread implements Runnable, Delayed {
                 workerMessageSender.sendMessageWithRetry(taskExecutionContext,
                                                          masterAddress,
                                                          CommandType.TASK_EXECUTE_RESULT);
+                finishFuture.complete(null);
                 logger.info("Task dry run success");
                 return;
             }
         } finally {
             LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
         }
+        boolean async = false;
         try {
             LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskExecutionContext.getProcessInstanceId(),
                                                         taskExecutionContext.getTaskInstanceId());
@@ -203,7 +244,13 @@ public class TaskExecuteThread implements Runnable, Delayed {
             // set the name of the current thread
             Thread.currentThread().setName(taskLogName);
 
+            // report the app ids to the master once they are found, so they can be killed while the task is running
+            taskExecutionContext.setTaskCallBack(appIds -> workerMessageSender.sendMessageWithRetry(taskExecutionContext,
+                                                                                                  masterAddress,
+                                                                                                  CommandType.TASK_EXECUTE_RUNNING));
+
             task = taskChannel.createTask(taskExecutionContext);
+            task.setCallbackExecutor(asyncCallbackExecutor);
 
             // task init
             this.task.init();
@@ -211,38 +258,114 @@ public class TaskExecuteThread implements Runnable, Delayed {
             //init varPool
             this.task.getParameters().setVarPool(taskExecutionContext.getVarPool());
 
+            TaskMetrics.recordTaskStartupTime(taskExecutionContext.getTaskType(), System.currentTimeMillis() - getStartupBeginTime());
+
             // task handle
-            this.task.handle();
+            CompletableFuture<Void> handleFuture = this.task.handleAsync();
+            if (!handleFuture.isDone()) {
+                // the task is finished by the callback, the execute thread is released while the task waits
+                async = true;
+                logger.info("the task is running asynchronously, task instance id: {}", taskExecutionContext.getTaskInstanceId());
+                handleFuture.whenCompleteAsync((result, e) -> finishAsync(taskLogName, e), asyncCallbackExecutor);
+                return;
+            }
+            handleFuture.join();
 
-            // task result process
-            if (this.task.getNeedAlert()) {
-//                sendAlert(this.task.getTaskAlertInfo(), this.task.getExitStatus().getCode());
-                sendAlert(this.task.getTaskAlertInfo(), this.task.getExitStatus().getCode());
+            processResult();
+        } catch (Throwable e) {
+            processFailure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        } finally {
+            if (!async) {
+                finish();
             }
+            LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+        }
+    }
 
-            taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.of(this.task.getExitStatus().getCode()));
-            taskExecutionContext.setEndTime(DateUtils.getCurrentDate());
-            taskExecutionContext.setProcessId(this.task.getProcessId());
-            taskExecutionContext.setAppIds(this.task.getAppIds());
-            taskExecutionContext.setVarPool(JSONUtils.toJsonString(this.task.getParameters().getVarPool()));
-            logger.info("task instance id : {},task final status : {}", taskExecutionContext.getTaskInstanceId(), this.task.getExitStatus());
+    /**
+     * Finish the task once it's handled asynchronously, on the callback thread with the log name of the task.
+     */
+    private void finishAsync(String taskLogName, Throwable handleError) {
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        thread.setName(taskLogName);
+        LoggerUtils.setWorkflowAndTaskInstanceIDMDC(taskExecutionContext.getProcessInstanceId(),
+                                                    taskExecutionContext.getTaskInstanceId());
+        try {
+            if (handleError != null) {
+                processFailure(handleError instanceof CompletionException && handleError.getCause() != null
+                                   ? handleError.getCause() : handleError);
+            } else {
+                processResult();
+            }
         } catch (Throwable e) {
-            logger.error("task scheduler failure", e);
-            kill();
-            taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.FAILURE);
-            taskExecutionContext.setEndTime(DateUtils.getCurrentDate());
-            taskExecutionContext.setProcessId(this.task.getProcessId());
-            taskExecutionContext.setAppIds(this.task.getAppIds());
+            processFailure(e);
         } finally {
+            finish();
+            LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+            thread.setName(threadName);
+        }
+    }
+
+    private void processResult() {
+        // task result process
+        if (this.task.getNeedAlert()) {
+            sendAlert(this.task.getTaskAlertInfo(), this.task.getExitStatus().getCode());
+        }
+
+        taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.of(this.task.getExitStatus().getCode()));
+        taskExecutionContext.setEndTime(DateUtils.getCurrentDate());
+        taskExecutionContext.setProcessId(this.task.getProcessId());
+        if (StringUtils.isNotEmpty(this.task.getAppIds())) {
+            taskExecutionContext.setAppIds(this.task.getAppIds());
+        }
+        taskExecutionContext.setVarPool(JSONUtils.toJsonString(this.task.getParameters().getVarPool()));
+        logger.info("task instance id : {},task final status : {}", taskExecutionContext.getTaskInstanceId(), this.task.getExitStatus());
+    }
+
+    private void processFailure(Throwable e) {
+        logger.error("task scheduler failure", e);
+        kill();
+        taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.FAILURE);
+        taskExecutionContext.setEndTime(DateUtils.getCurrentDate());
+        if (this.task != null) {
+            taskExecutionContext.setProcessId(this.task.getProcessId());
+            if (StringUtils.isNotEmpty(this.task.getAppIds())) {
+                taskExecutionContext.setAppIds(this.task.getAppIds());
+            }
+        }
+    }
+
+    /**
+     * report the result of the task to the master and clear the task
+     */
+    private void finish() {
+        try {
             TaskExecutionContextCacheManager.removeByTaskInstanceId(taskExecutionContext.getTaskInstanceId());
             workerMessageSender.sendMessageWithRetry(taskExecutionContext,
                                                      masterAddress,
                                                      CommandType.TASK_EXECUTE_RESULT);
             clearTaskExecPath();
-            LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+        } finally {
+            finishFuture.complete(null);
         }
     }
 
+    /**
+     * @return the future completed once the task is finished and its result is reported,
+     * an asynchronous task is finished after its execute thread is released
+     */
+    public CompletableFuture<Void> getFinishFuture() {
+        return finishFuture;
+    }
+
+    /**
+     * Set the executor to finish the asynchronous task, the task is finished on the thread completing it by default.
+     */
+    public void setAsyncCallbackExecutor(Executor asyncCallbackExecutor) {
+        this.asyncCallbackExecutor = asyncCallbackExecutor;
+    }
+
     private void sendAlert(TaskAlertInfo taskAlertInfo, int status) {
         int strategy = status == ExecutionStatus.SUCCESS.getCode() ? WarningType.SUCCESS.getCode() : WarningType.FAILURE.getCode();
         alertClientService.sendAlert(taskAlertInfo.getAlertGroupId(), taskAlertInfo.getTitle(), taskAlertInfo.getContent(), strategy);
@@ -320,6 +443,10 @@ public class TaskExecuteThread implements Runnable, Delayed {
      * @param logger logger
      */
     public void downloadResource(String execLocalPath, Logger logger, List<Pair<String, String>> fileDownloads) {
+        if (resourceDownloader != null) {
+            resourceDownloader.download(storageOperate, execLocalPath, fileDownloads, logger);
+            return;
+        }
         for (Pair<String, String> fileDownload : fileDownloads) {
             try {
                 // query the tenant code of the resource according to the name of the resource
@@ -335,6 +462,42 @@ public class TaskExecuteThread implements Runnable, Delayed {
         }
     }
 
+    /**
+     * Decide whether the task is executed by the lightweight execute threads, it's decided by the task plugin,
+     * and a dry run task is always lightweight. It's called once when the task is received.
+     */
+    public void decideLightweight() {
+        if (Constants.DRY_RUN_FLAG_YES == taskExecutionContext.getDryRun()) {
+            lightweight = true;
+            return;
+        }
+        if (taskPluginManager == null) {
+            return;
+        }
+        TaskChannel taskChannel = taskPluginManager.getTaskChannelMap().get(taskExecutionContext.getTaskType());
+        try {
+            lightweight = taskChannel != null && taskChannel.isLightweight(taskExecutionContext);
+        } catch (Exception e) {
+            logger.warn("Check whether the task is lightweight error, taskInstanceId: {}",
+                        taskExecutionContext.getTaskInstanceId(), e);
+        }
+    }
+
+    public boolean isLightweight() {
+        return lightweight;
+    }
+
+    /**
+     * the startup time begins when the task is dispatched, or its delay time is up if it's a delay task
+     */
+    private long getStartupBeginTime() {
+        if (taskExecutionContext.getDelayTime() <= 0 || taskExecutionContext.getFirstSubmitTime() == null) {
+            return dispatchTime;
+        }
+        return Math.max(dispatchTime, taskExecutionContext.getFirstSubmitTime().getTime()
+            + TimeUnit.MINUTES.toMillis(taskExecutionContext.getDelayTime()));
+    }
+
     /**
      * download resource check
      *
@@ -371,20 +534,6 @@ public class TaskExecuteThread implements Runnable, Delayed {
         return this.taskExecutionContext;
     }
 
-    @Override
-    public long getDelay(TimeUnit unit) {
-        return unit.convert(DateUtils.getRemainTime(taskExecutionContext.getFirstSubmitTime(),
-                taskExecutionContext.getDelayTime() * 60L), TimeUnit.SECONDS);
-    }
-
-    @Override
-    public int compareTo(Delayed o) {
-        if (o == null) {
-            return 1;
-        }
-        return Long.compare(this.getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
-    }
-
     public AbstractTask getTask() {
         return task;
     }
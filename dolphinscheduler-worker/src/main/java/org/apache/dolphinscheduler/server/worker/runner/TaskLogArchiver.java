@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.service.log.TaskLogArchive;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Archive the logs of the finished tasks to the storage, see {@link TaskLogArchive}.
+ * <p>
+ * The logs are archived one by one on a single thread, so the archiving never competes with the tasks for the
+ * bandwidth of the worker, a log is archived after a delay once its task finishes, for the last lines to be flushed.
+ */
+@Component
+public class TaskLogArchiver {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskLogArchiver.class);
+
+    private final WorkerConfig workerConfig;
+
+    @Autowired(required = false)
+    private StorageOperate storageOperate;
+
+    private volatile ScheduledExecutorService archiveExecutor;
+
+    public TaskLogArchiver(WorkerConfig workerConfig) {
+        this.workerConfig = workerConfig;
+    }
+
+    /**
+     * archive the log of the finished task later, it's ignored if the log archive is disabled
+     *
+     * @param taskExecutionContext the finished task
+     */
+    public void archive(TaskExecutionContext taskExecutionContext) {
+        String logPath = taskExecutionContext.getLogPath();
+        if (!workerConfig.isLogArchiveEnabled() || storageOperate == null || StringUtils.isEmpty(logPath)) {
+            return;
+        }
+        getArchiveExecutor().schedule(() -> archive(logPath),
+                                      workerConfig.getLogArchiveDelay().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void archive(String logPath) {
+        if (!new File(logPath).exists()) {
+            logger.warn("The task log {} doesn't exist, skip archiving it", logPath);
+            return;
+        }
+        try {
+            TaskLogArchive.archive(storageOperate, logPath, (int) workerConfig.getLogArchiveBlockSize().toBytes());
+            logger.info("Archived the task log {} to {}", logPath, TaskLogArchive.getArchivePath(storageOperate, logPath));
+        } catch (Exception e) {
+            logger.error("Archive the task log {} error", logPath, e);
+        }
+    }
+
+    private ScheduledExecutorService getArchiveExecutor() {
+        if (archiveExecutor == null) {
+            synchronized (this) {
+                if (archiveExecutor == null) {
+                    archiveExecutor = Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Worker-Log-Archive-Thread").build());
+                }
+            }
+        }
+        return archiveExecutor;
+    }
+}
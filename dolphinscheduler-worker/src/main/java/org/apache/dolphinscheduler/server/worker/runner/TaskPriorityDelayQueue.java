@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The wait queue of the worker tasks, which honors the delay time and the priority of the task together.
+ * <p>
+ * A task stays in the delayed set until its delay time is up, then it's moved to the ready set,
+ * the ready tasks are taken by the priority first and then by the time they become ready.
+ * Both sets are ordered trees indexed by the task instance id, so offer, take and remove are all O(log n).
+ */
+public class TaskPriorityDelayQueue {
+
+    private static final Comparator<Entry> DELAYED_ORDER = Comparator.comparingLong(Entry::getReadyTime)
+        .thenComparingLong(Entry::getSequence);
+
+    private static final Comparator<Entry> READY_ORDER = Comparator.comparingInt(Entry::getPriority)
+        .thenComparingLong(Entry::getReadyTime)
+        .thenComparingLong(Entry::getSequence);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    private final TreeSet<Entry> delayedEntries = new TreeSet<>(DELAYED_ORDER);
+
+    private final TreeSet<Entry> readyEntries = new TreeSet<>(READY_ORDER);
+
+    private final Map<Integer, Entry> entryMap = new HashMap<>();
+
+    private long sequence;
+
+    /**
+     * Add the task into the queue, the waiting one with the same task instance id will be replaced.
+     *
+     * @return always true, the queue is unbounded
+     */
+    public boolean offer(TaskExecuteThread taskExecuteThread) {
+        long now = System.currentTimeMillis();
+        TaskExecutionContext taskExecutionContext = taskExecuteThread.getTaskExecutionContext();
+        lock.lock();
+        try {
+            Entry entry = new Entry(taskExecuteThread, getPriority(taskExecutionContext), getReadyTime(taskExecutionContext, now), sequence++);
+            Entry oldEntry = entryMap.put(taskExecutionContext.getTaskInstanceId(), entry);
+            if (oldEntry != null) {
+                removeEntry(oldEntry);
+            }
+            if (entry.getReadyTime() > now) {
+                delayedEntries.add(entry);
+            } else {
+                readyEntries.add(entry);
+            }
+            available.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until there is a ready task, and take the one with the highest priority.
+     */
+    public TaskExecuteThread take() throws InterruptedException {
+        Entry entry;
+        long now;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                now = System.currentTimeMillis();
+                moveReadyEntries(now);
+                entry = readyEntries.pollFirst();
+                if (entry != null) {
+                    entryMap.remove(entry.getTaskInstanceId());
+                    break;
+                }
+                if (delayedEntries.isEmpty()) {
+                    available.await();
+                } else {
+                    available.await(delayedEntries.first().getReadyTime() - now, TimeUnit.MILLISECONDS);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        WorkerServerMetrics.recordTaskQueueWaitTime(toPriority(entry.getPriority()), Math.max(0, now - entry.getReadyTime()));
+        return entry.getTaskExecuteThread();
+    }
+
+    /**
+     * Remove the waiting task by the task instance id.
+     *
+     * @return the removed task, null if the task is not in the queue
+     */
+    public TaskExecuteThread remove(int taskInstanceId) {
+        lock.lock();
+        try {
+            Entry entry = entryMap.remove(taskInstanceId);
+            if (entry == null) {
+                return null;
+            }
+            removeEntry(entry);
+            return entry.getTaskExecuteThread();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entryMap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the count of the tasks whose delay time is up but not taken yet
+     */
+    public int readySize() {
+        lock.lock();
+        try {
+            moveReadyEntries(System.currentTimeMillis());
+            return readyEntries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void moveReadyEntries(long now) {
+        while (!delayedEntries.isEmpty() && delayedEntries.first().getReadyTime() <= now) {
+            readyEntries.add(delayedEntries.pollFirst());
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        if (!delayedEntries.remove(entry)) {
+            readyEntries.remove(entry);
+        }
+    }
+
+    private static int getPriority(TaskExecutionContext taskExecutionContext) {
+        Integer priority = taskExecutionContext.getTaskInstancePriority();
+        return priority == null ? Priority.MEDIUM.getCode() : priority;
+    }
+
+    private static long getReadyTime(TaskExecutionContext taskExecutionContext, long now) {
+        if (taskExecutionContext.getDelayTime() <= 0 || taskExecutionContext.getFirstSubmitTime() == null) {
+            return now;
+        }
+        return Math.max(now, taskExecutionContext.getFirstSubmitTime().getTime()
+            + TimeUnit.MINUTES.toMillis(taskExecutionContext.getDelayTime()));
+    }
+
+    private static Priority toPriority(int code) {
+        for (Priority priority : Priority.values()) {
+            if (priority.getCode() == code) {
+                return priority;
+            }
+        }
+        return Priority.MEDIUM;
+    }
+
+    private static final class Entry {
+
+        private final TaskExecuteThread taskExecuteThread;
+
+        private final int priority;
+
+        private final long readyTime;
+
+        private final long sequence;
+
+        Entry(TaskExecuteThread taskExecuteThread, int priority, long readyTime, long sequence) {
+            this.taskExecuteThread = taskExecuteThread;
+            this.priority = priority;
+            this.readyTime = readyTime;
+            this.sequence = sequence;
+        }
+
+        TaskExecuteThread getTaskExecuteThread() {
+            return taskExecuteThread;
+        }
+
+        int getTaskInstanceId() {
+            return taskExecuteThread.getTaskExecutionContext().getTaskInstanceId();
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        long getReadyTime() {
+            return readyTime;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+    }
+}
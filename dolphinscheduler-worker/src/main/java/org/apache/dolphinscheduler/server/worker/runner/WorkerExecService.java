@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -50,20 +51,39 @@ public class WorkerExecService {
      */
     private final ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap;
 
-    public WorkerExecService(ExecutorService execService, ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap) {
+    private final Executor asyncCallbackExecutor;
+
+    /**
+     * @param asyncCallbackExecutor the executor to finish the tasks handled asynchronously
+     */
+    public WorkerExecService(ExecutorService execService,
+                             ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap,
+                             Executor asyncCallbackExecutor) {
         this.execService = execService;
+        this.asyncCallbackExecutor = asyncCallbackExecutor;
         this.listeningExecutorService = MoreExecutors.listeningDecorator(this.execService);
         this.taskExecuteThreadMap = taskExecuteThreadMap;
         WorkerServerMetrics.registerWorkerRunningTaskGauge(taskExecuteThreadMap::size);
     }
 
-    public void submit(TaskExecuteThread taskExecuteThread) {
-        taskExecuteThreadMap.put(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId(), taskExecuteThread);
+    /**
+     * submit the task to the thread pool
+     *
+     * @param taskExecuteThread taskExecuteThread
+     * @param finishCallback called when the execute thread is released, whether the task succeeds or not,
+     *                       an asynchronous task releases its execute thread while it's still running
+     */
+    public void submit(TaskExecuteThread taskExecuteThread, Runnable finishCallback) {
+        int taskInstanceId = taskExecuteThread.getTaskExecutionContext().getTaskInstanceId();
+        taskExecuteThreadMap.put(taskInstanceId, taskExecuteThread);
+        taskExecuteThread.setAsyncCallbackExecutor(asyncCallbackExecutor);
+        // the running task is kept until it's finished, so it can still be killed while it runs asynchronously
+        taskExecuteThread.getFinishFuture().whenComplete((result, e) -> taskExecuteThreadMap.remove(taskInstanceId, taskExecuteThread));
         ListenableFuture future = this.listeningExecutorService.submit(taskExecuteThread);
         FutureCallback futureCallback = new FutureCallback() {
             @Override
             public void onSuccess(Object o) {
-                taskExecuteThreadMap.remove(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId());
+                finishCallback.run();
             }
 
             @Override
@@ -73,6 +93,7 @@ public class WorkerExecService {
                              taskExecuteThread.getTaskExecutionContext().getTaskInstanceId(),
                              throwable);
                 taskExecuteThreadMap.remove(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId());
+                finishCallback.run();
             }
         };
         Futures.addCallback(future, futureCallback, this.listeningExecutorService);
@@ -24,7 +24,8 @@ import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,10 +40,18 @@ public class WorkerManagerThread implements Runnable {
 
     private final Logger logger = LoggerFactory.getLogger(WorkerManagerThread.class);
 
+    private static final int ASYNC_CALLBACK_THREADS = 4;
+
     /**
      * task queue
      */
-    private final DelayQueue<TaskExecuteThread> waitSubmitQueue = new DelayQueue<>();
+    private final TaskPriorityDelayQueue waitSubmitQueue = new TaskPriorityDelayQueue();
+
+    /**
+     * idle execute threads, a task is taken from the queue only when there is an idle thread,
+     * so the tasks wait in the priority queue rather than the FIFO queue of the thread pool
+     */
+    private final Semaphore idleExecThreads;
 
     @Autowired(required = false)
     private StorageOperate storageOperate;
@@ -58,15 +67,43 @@ public class WorkerManagerThread implements Runnable {
     @Autowired
     private WorkerMessageSender workerMessageSender;
 
+    @Autowired
+    private TaskLogArchiver taskLogArchiver;
+
+    /**
+     * the wait queue of the lightweight tasks, they're taken once there is an idle lightweight execute thread,
+     * so they never wait behind the heavy tasks
+     */
+    private final TaskPriorityDelayQueue lightweightWaitSubmitQueue = new TaskPriorityDelayQueue();
+
+    private final Semaphore idleLightweightExecThreads;
+
+    /**
+     * lightweight thread executor service, it's null if the lightweight tasks are executed by the execute threads
+     */
+    private final WorkerExecService lightweightExecService;
+
     /**
      * running task
      */
     private final ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap = new ConcurrentHashMap<>();
 
     public WorkerManagerThread(WorkerConfig workerConfig) {
+        // the asynchronous tasks are finished on these threads, they only report the results and clear the tasks
+        ExecutorService asyncCallbackExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Async-Callback-Thread",
+                                                                                         ASYNC_CALLBACK_THREADS);
+        idleExecThreads = new Semaphore(workerConfig.getExecThreads());
         workerExecService = new WorkerExecService(
             ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", workerConfig.getExecThreads()),
-            taskExecuteThreadMap
+            taskExecuteThreadMap,
+            asyncCallbackExecutor
+        );
+        int lightweightExecThreads = workerConfig.getLightweightExecThreads();
+        idleLightweightExecThreads = new Semaphore(lightweightExecThreads);
+        lightweightExecService = lightweightExecThreads <= 0 ? null : new WorkerExecService(
+            ThreadUtils.newDaemonFixedThreadExecutor("Worker-Lightweight-Execute-Thread", lightweightExecThreads),
+            taskExecuteThreadMap,
+            asyncCallbackExecutor
         );
     }
 
@@ -80,7 +117,7 @@ public class WorkerManagerThread implements Runnable {
      * @return queue size
      */
     public int getDelayQueueSize() {
-        return waitSubmitQueue.size();
+        return waitSubmitQueue.size() + lightweightWaitSubmitQueue.size();
     }
 
     /**
@@ -89,7 +126,7 @@ public class WorkerManagerThread implements Runnable {
      * @return queue size
      */
     public int getThreadPoolQueueSize() {
-        return this.workerExecService.getThreadPoolQueueSize();
+        return this.workerExecService.getThreadPoolQueueSize() + waitSubmitQueue.readySize();
     }
 
     /**
@@ -97,10 +134,8 @@ public class WorkerManagerThread implements Runnable {
      * then send Response to Master, update the execution status of task instance
      */
     public void killTaskBeforeExecuteByInstanceId(Integer taskInstanceId) {
-        waitSubmitQueue.stream()
-            .filter(taskExecuteThread -> taskExecuteThread.getTaskExecutionContext().getTaskInstanceId()
-                == taskInstanceId)
-                          .forEach(waitSubmitQueue::remove);
+        waitSubmitQueue.remove(taskInstanceId);
+        lightweightWaitSubmitQueue.remove(taskInstanceId);
     }
 
 
@@ -111,6 +146,9 @@ public class WorkerManagerThread implements Runnable {
      * @return submit result
      */
     public boolean offer(TaskExecuteThread taskExecuteThread) {
+        if (lightweightExecService != null && taskExecuteThread.isLightweight()) {
+            return lightweightWaitSubmitQueue.offer(taskExecuteThread);
+        }
         return waitSubmitQueue.offer(taskExecuteThread);
     }
 
@@ -119,17 +157,44 @@ public class WorkerManagerThread implements Runnable {
         Thread thread = new Thread(this, this.getClass().getName());
         thread.setDaemon(true);
         thread.start();
+        if (lightweightExecService != null) {
+            Thread lightweightThread = new Thread(() -> submitLoop(lightweightWaitSubmitQueue,
+                                                                   idleLightweightExecThreads,
+                                                                   lightweightExecService),
+                                                  "Worker-Lightweight-Execute-Manager-Thread");
+            lightweightThread.setDaemon(true);
+            lightweightThread.start();
+        }
         logger.info("Worker manager thread started");
     }
 
     @Override
     public void run() {
         Thread.currentThread().setName("Worker-Execute-Manager-Thread");
+        submitLoop(waitSubmitQueue, idleExecThreads, workerExecService);
+    }
+
+    /**
+     * Take the task from the wait queue once there is an idle execute thread, and submit it to the executor service.
+     */
+    private void submitLoop(TaskPriorityDelayQueue queue, Semaphore idleThreads, WorkerExecService execService) {
         TaskExecuteThread taskExecuteThread;
         while (Stopper.isRunning()) {
             try {
-                taskExecuteThread = waitSubmitQueue.take();
-                workerExecService.submit(taskExecuteThread);
+                idleThreads.acquire();
+                boolean submitted = false;
+                try {
+                    taskExecuteThread = queue.take();
+                    execService.submit(taskExecuteThread, idleThreads::release);
+                    submitted = true;
+                    TaskExecuteThread finishedTask = taskExecuteThread;
+                    taskExecuteThread.getFinishFuture()
+                        .thenRun(() -> taskLogArchiver.archive(finishedTask.getTaskExecutionContext()));
+                } finally {
+                    if (!submitted) {
+                        idleThreads.release();
+                    }
+                }
             } catch (Exception e) {
                 logger.error("An unexpected interrupt is happened, "
                     + "the exception will be ignored and this thread will continue to run", e);
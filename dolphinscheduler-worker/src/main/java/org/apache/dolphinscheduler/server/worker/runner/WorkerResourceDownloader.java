@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.service.exceptions.ServiceException;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Download the resources of the tasks in parallel on a worker-wide bounded thread pool.
+ * <p>
+ * The total download bandwidth of the worker is limited by a rate limiter on the bytes downloaded,
+ * the resources are copied from the storage chunk by chunk and each chunk waits for its permits.
+ */
+@Component
+public class WorkerResourceDownloader {
+
+    private static final int DOWNLOAD_CHUNK_SIZE = 64 * 1024;
+
+    private final ExecutorService downloadExecutor;
+
+    private final RateLimiter bandwidthLimiter;
+
+    private final WorkerResourceCache resourceCache;
+
+    public WorkerResourceDownloader(WorkerConfig workerConfig, WorkerResourceCache resourceCache) {
+        this.downloadExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Resource-Download-Thread",
+                                                                         workerConfig.getResourceDownloadThreads());
+        long bandwidth = workerConfig.getResourceDownloadBandwidth().toBytes();
+        this.bandwidthLimiter = bandwidth > 0 ? RateLimiter.create(bandwidth) : null;
+        this.resourceCache = resourceCache;
+    }
+
+    /**
+     * Download the resources to the execute path and wait until all of them are downloaded.
+     *
+     * @param storageOperate storage operate
+     * @param execLocalPath execute path of the task
+     * @param fileDownloads the full name and the tenant code of the resources
+     * @param logger task logger
+     */
+    public void download(StorageOperate storageOperate, String execLocalPath,
+                         List<Pair<String, String>> fileDownloads, Logger logger) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<CompletableFuture<Void>> futures = fileDownloads.stream()
+            .map(fileDownload -> CompletableFuture.runAsync(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    download(storageOperate, execLocalPath, fileDownload.getLeft(), fileDownload.getRight(), logger);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    MDC.clear();
+                }
+            }, downloadExecutor))
+            .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            logger.error(cause.getMessage(), cause);
+            throw new ServiceException(cause.getMessage());
+        }
+    }
+
+    private void download(StorageOperate storageOperate, String execLocalPath, String fullName, String tenantCode,
+                          Logger logger) throws IOException {
+        // query the tenant code of the resource according to the name of the resource
+        String resPath = storageOperate.getResourceFileName(tenantCode, fullName);
+        logger.info("get resource file from path:{}", resPath);
+        Path target = Paths.get(execLocalPath, fullName);
+        WorkerResourceCache.ResourceLoader loader = file -> {
+            if (bandwidthLimiter == null) {
+                storageOperate.download(tenantCode, resPath, file.toString(), false, true);
+            } else {
+                copyWithBandwidthLimit(storageOperate, tenantCode, resPath, file);
+            }
+        };
+        if (resourceCache.isEnabled()) {
+            resourceCache.fetch(tenantCode, resPath, storageOperate.getFileVersion(tenantCode, resPath), target, loader);
+        } else {
+            Files.createDirectories(target.getParent());
+            loader.load(target);
+        }
+    }
+
+    private void copyWithBandwidthLimit(StorageOperate storageOperate, String tenantCode, String resPath,
+                                        Path file) throws IOException {
+        byte[] buffer = new byte[DOWNLOAD_CHUNK_SIZE];
+        try (InputStream in = storageOperate.read(tenantCode, resPath, 0, -1);
+             OutputStream out = Files.newOutputStream(file)) {
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                if (length > 0) {
+                    bandwidthLimiter.acquire(length);
+                    out.write(buffer, 0, length);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+
+public class WorkerResourceCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StorageOperate storageOperate;
+
+    private final AtomicInteger downloadCount = new AtomicInteger();
+
+    private Path execPath;
+
+    @Before
+    public void before() throws IOException {
+        storageOperate = Mockito.mock(StorageOperate.class);
+        Mockito.when(storageOperate.getFileVersion(Mockito.anyString(), Mockito.anyString())).thenReturn("v1");
+        Mockito.doAnswer(invocation -> {
+            downloadCount.incrementAndGet();
+            String resPath = invocation.getArgument(1);
+            Files.write(Paths.get((String) invocation.getArgument(2)), resPath.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                                         Mockito.anyBoolean(), Mockito.anyBoolean());
+        execPath = temporaryFolder.newFolder("exec").toPath();
+    }
+
+    @Test
+    public void testFetchCachedResource() throws IOException {
+        WorkerResourceCache cache = newCache(DataSize.ofMegabytes(1));
+        fetch(cache, "/res/a.jar", execPath.resolve("1/a.jar"));
+        fetch(cache, "/res/a.jar", execPath.resolve("2/a.jar"));
+
+        Assert.assertEquals(1, downloadCount.get());
+        Assert.assertEquals("/res/a.jar", read(execPath.resolve("1/a.jar")));
+        Assert.assertEquals("/res/a.jar", read(execPath.resolve("2/a.jar")));
+
+        // the resource is changed in the storage
+        Mockito.when(storageOperate.getFileVersion("tenant", "/res/a.jar")).thenReturn("v2");
+        fetch(cache, "/res/a.jar", execPath.resolve("3/a.jar"));
+        Assert.assertEquals(2, downloadCount.get());
+    }
+
+    @Test
+    public void testFetchedResourceIsCopied() throws IOException {
+        WorkerResourceCache cache = newCache(DataSize.ofMegabytes(1));
+        fetch(cache, "/res/a.jar", execPath.resolve("1/a.jar"));
+        // a task changes its own resource file
+        Files.write(execPath.resolve("1/a.jar"), "changed".getBytes(StandardCharsets.UTF_8));
+
+        fetch(cache, "/res/a.jar", execPath.resolve("2/a.jar"));
+        Assert.assertEquals(1, downloadCount.get());
+        Assert.assertEquals("/res/a.jar", read(execPath.resolve("2/a.jar")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        // each resource is 10 bytes
+        WorkerResourceCache cache = newCache(DataSize.ofBytes(25));
+        fetch(cache, "/res/1.jar", execPath.resolve("1.jar"));
+        fetch(cache, "/res/2.jar", execPath.resolve("2.jar"));
+        fetch(cache, "/res/1.jar", execPath.resolve("1.jar"));
+        fetch(cache, "/res/3.jar", execPath.resolve("3.jar"));
+        Assert.assertEquals(3, downloadCount.get());
+        Assert.assertEquals(20, cache.getTotalSize());
+        // the copied file still works after the cached one is evicted
+        Assert.assertEquals("/res/2.jar", read(execPath.resolve("2.jar")));
+
+        fetch(cache, "/res/1.jar", execPath.resolve("1.jar"));
+        Assert.assertEquals(3, downloadCount.get());
+        fetch(cache, "/res/2.jar", execPath.resolve("2.jar"));
+        Assert.assertEquals(4, downloadCount.get());
+    }
+
+    @Test
+    public void testLoadOnceConcurrently() throws Exception {
+        WorkerResourceCache cache = newCache(DataSize.ofMegabytes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        AtomicInteger loadCount = new AtomicInteger();
+        WorkerResourceCache.ResourceLoader loader = file -> {
+            loadCount.incrementAndGet();
+            try {
+                loading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Files.write(file, "content".getBytes(StandardCharsets.UTF_8));
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(() -> cache.getOrLoad("key", loader)));
+            }
+            Thread.sleep(200);
+            loading.countDown();
+            for (Future<Path> future : futures) {
+                Assert.assertEquals("content", read(future.get()));
+            }
+            Assert.assertEquals(1, loadCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadCachedFilesAfterRestart() throws IOException {
+        fetch(newCache(DataSize.ofMegabytes(1)), "/res/a.jar", execPath.resolve("a.jar"));
+        WorkerResourceCache cache = newCache(DataSize.ofMegabytes(1));
+        Assert.assertEquals(10, cache.getTotalSize());
+        fetch(cache, "/res/a.jar", execPath.resolve("b.jar"));
+        Assert.assertEquals(1, downloadCount.get());
+    }
+
+    private void fetch(WorkerResourceCache cache, String resPath, Path target) throws IOException {
+        cache.fetch("tenant", resPath, storageOperate.getFileVersion("tenant", resPath), target,
+            file -> storageOperate.download("tenant", resPath, file.toString(), false, true));
+    }
+
+    private WorkerResourceCache newCache(DataSize maxSize) {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setResourceCacheEnabled(true);
+        workerConfig.setResourceCachePath(temporaryFolder.getRoot().toPath().resolve("cache").toString());
+        workerConfig.setResourceCacheMaxSize(maxSize);
+        return new WorkerResourceCache(workerConfig);
+    }
+
+    private String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskPriorityDelayQueueTest {
+
+    private final TaskPriorityDelayQueue queue = new TaskPriorityDelayQueue();
+
+    @Test
+    public void testTakeByPriority() throws InterruptedException {
+        queue.offer(newTask(1, Priority.LOW, 0));
+        queue.offer(newTask(2, Priority.HIGHEST, 0));
+        queue.offer(newTask(3, null, 0));
+        queue.offer(newTask(4, Priority.HIGHEST, 0));
+
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(2, queue.take().getTaskExecutionContext().getTaskInstanceId());
+        Assert.assertEquals(4, queue.take().getTaskExecutionContext().getTaskInstanceId());
+        Assert.assertEquals(3, queue.take().getTaskExecutionContext().getTaskInstanceId());
+        Assert.assertEquals(1, queue.take().getTaskExecutionContext().getTaskInstanceId());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testDelayedTaskIsNotReady() throws InterruptedException {
+        queue.offer(newTask(1, Priority.HIGHEST, 1));
+        queue.offer(newTask(2, Priority.LOWEST, 0));
+
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(1, queue.readySize());
+        Assert.assertEquals(2, queue.take().getTaskExecutionContext().getTaskInstanceId());
+    }
+
+    @Test
+    public void testRemove() throws InterruptedException {
+        queue.offer(newTask(1, Priority.HIGH, 1));
+        queue.offer(newTask(2, Priority.HIGH, 0));
+        queue.offer(newTask(3, Priority.LOW, 0));
+
+        Assert.assertNotNull(queue.remove(1));
+        Assert.assertNotNull(queue.remove(2));
+        Assert.assertNull(queue.remove(2));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(3, queue.take().getTaskExecutionContext().getTaskInstanceId());
+    }
+
+    @Test
+    public void testOfferReplaceSameTaskInstance() {
+        queue.offer(newTask(1, Priority.HIGH, 1));
+        queue.offer(newTask(1, Priority.HIGH, 0));
+
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(1, queue.readySize());
+    }
+
+    @Test(timeout = 5000)
+    public void testTakeWaitUntilOffer() throws InterruptedException {
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queue.offer(newTask(1, Priority.MEDIUM, 0));
+        });
+        producer.start();
+        Assert.assertEquals(1, queue.take().getTaskExecutionContext().getTaskInstanceId());
+        producer.join();
+    }
+
+    private TaskExecuteThread newTask(int taskInstanceId, Priority priority, int delayMinutes) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(taskInstanceId);
+        taskExecutionContext.setTaskInstancePriority(priority == null ? null : priority.getCode());
+        taskExecutionContext.setFirstSubmitTime(new Date());
+        taskExecutionContext.setDelayTime(delayMinutes);
+        return new TaskExecuteThread(taskExecutionContext, "127.0.0.1:5678", null, null, null, null);
+    }
+}
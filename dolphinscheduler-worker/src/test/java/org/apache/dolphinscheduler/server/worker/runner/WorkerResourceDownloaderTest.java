@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.storage.StorageOperate;
+import org.apache.dolphinscheduler.server.worker.cache.WorkerResourceCache;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.service.exceptions.ServiceException;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WorkerResourceDownloaderTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerResourceDownloaderTest.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StorageOperate storageOperate;
+
+    private WorkerResourceDownloader resourceDownloader;
+
+    private String execLocalPath;
+
+    @Before
+    public void before() throws IOException {
+        storageOperate = Mockito.mock(StorageOperate.class);
+        Mockito.when(storageOperate.getResourceFileName(Mockito.anyString(), Mockito.anyString()))
+            .thenAnswer(invocation -> "/storage/" + invocation.getArgument(1));
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setResourceCacheEnabled(false);
+        workerConfig.setResourceDownloadThreads(4);
+        resourceDownloader = new WorkerResourceDownloader(workerConfig, new WorkerResourceCache(workerConfig));
+        execLocalPath = temporaryFolder.newFolder("exec").getAbsolutePath();
+    }
+
+    @Test(timeout = 10000)
+    public void testDownloadInParallel() throws IOException {
+        // each download waits until all the downloads are started
+        CountDownLatch started = new CountDownLatch(4);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            if (!started.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("the resources are not downloaded in parallel");
+            }
+            Files.write(Paths.get((String) invocation.getArgument(2)),
+                        ((String) invocation.getArgument(1)).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                                         Mockito.anyBoolean(), Mockito.anyBoolean());
+
+        List<Pair<String, String>> fileDownloads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            fileDownloads.add(Pair.of("dir/" + i + ".sh", "tenant"));
+        }
+        resourceDownloader.download(storageOperate, execLocalPath, fileDownloads, logger);
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals("/storage/dir/" + i + ".sh",
+                new String(Files.readAllBytes(Paths.get(execLocalPath, "dir", i + ".sh")), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testDownloadFailed() throws IOException {
+        Mockito.doThrow(new IOException("download failed")).when(storageOperate)
+            .download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                      Mockito.anyBoolean(), Mockito.anyBoolean());
+        List<Pair<String, String>> fileDownloads = new ArrayList<>();
+        fileDownloads.add(Pair.of("a.sh", "tenant"));
+        fileDownloads.add(Pair.of("b.sh", "tenant"));
+        resourceDownloader.download(storageOperate, execLocalPath + File.separator, fileDownloads, logger);
+    }
+
+    @Test
+    public void testDownloadWithBandwidthLimit() throws IOException {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setResourceCacheEnabled(false);
+        workerConfig.setResourceDownloadThreads(2);
+        workerConfig.setResourceDownloadBandwidth(DataSize.ofMegabytes(100));
+        resourceDownloader = new WorkerResourceDownloader(workerConfig, new WorkerResourceCache(workerConfig));
+
+        // larger than a chunk, so the file is copied in several throttled chunks
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Mockito.when(storageOperate.read("tenant", "/storage/dir/a.jar", 0, -1))
+            .thenReturn(new ByteArrayInputStream(content));
+
+        List<Pair<String, String>> fileDownloads = new ArrayList<>();
+        fileDownloads.add(Pair.of("dir/a.jar", "tenant"));
+        resourceDownloader.download(storageOperate, execLocalPath, fileDownloads, logger);
+
+        Assert.assertArrayEquals(content, Files.readAllBytes(Paths.get(execLocalPath, "dir", "a.jar")));
+        Mockito.verify(storageOperate, Mockito.never()).download(Mockito.anyString(), Mockito.anyString(),
+            Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+}